@@ -25,6 +25,16 @@ import java.util.Properties;
 import org.apache.maven.archiver.MavenArchiveConfiguration;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugins.assembly.archive.AssemblyPlan;
+import org.apache.maven.plugins.assembly.archive.AssemblyReport;
+import org.apache.maven.plugins.assembly.archive.archiver.CompressedEntryCache;
+import org.apache.maven.plugins.assembly.artifact.DependencySetResolutionCache;
+import org.apache.maven.plugins.assembly.artifact.UnpackedArtifactCache;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.apache.maven.plugins.assembly.format.FilteredResourceCache;
+import org.apache.maven.plugins.assembly.utils.InterpolatorCache;
+import org.apache.maven.plugins.assembly.utils.OpenFileBudget;
+import org.apache.maven.plugins.assembly.utils.ReactorModuleIndex;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.filtering.MavenReaderFilter;
 import org.codehaus.plexus.interpolation.fixed.FixedStringSearchInterpolator;
@@ -204,6 +214,79 @@ public interface AssemblerConfigurationSource {
 
     FixedStringSearchInterpolator getMainProjectInterpolator();
 
+    /**
+     * @return The build scoped cache of file name and output directory interpolators, or <code>null</code> to not
+     *         share interpolators between evaluations.
+     * @since 3.7.0
+     */
+    InterpolatorCache getInterpolatorCache();
+
+    /**
+     * @return The build scoped index of the module tree of the reactor projects, or <code>null</code> to compute
+     *         module sets from scratch.
+     * @since 3.7.0
+     */
+    ReactorModuleIndex getReactorModuleIndex();
+
+    /**
+     * @return The build scoped cache of resolved dependency set artifacts, or <code>null</code> to resolve dependency
+     *         sets from scratch.
+     * @since 3.7.0
+     */
+    DependencySetResolutionCache getDependencySetResolutionCache();
+
+    /**
+     * @return The directory keeping the descriptors located by URL between builds, or <code>null</code> to download
+     *         them to temporary files every time.
+     * @since 3.7.0
+     */
+    File getDescriptorCacheDirectory();
+
+    /**
+     * @return The build scoped report of the archives created, or <code>null</code> to not report on archives.
+     * @since 3.7.0
+     */
+    AssemblyReport getAssemblyReport();
+
+    /**
+     * @return The build scoped events sent to the assembly listeners, or <code>null</code> if there are no listeners.
+     * @since 3.7.0
+     */
+    AssemblyEvents getAssemblyEvents();
+
+    /**
+     * @return The build scoped plan of the archives, planned instead of created, or <code>null</code> to create the
+     *         archives.
+     * @since 3.7.0
+     */
+    AssemblyPlan getAssemblyPlan();
+
+    /**
+     * @return The decompressed copies of unpacked artifacts, shared between builds, or <code>null</code> to unpack the
+     *         artifacts themselves.
+     * @since 3.7.0
+     */
+    UnpackedArtifactCache getUnpackedArtifactCache();
+
+    /**
+     * @return The deflated content of zip entries, shared between builds, or <code>null</code> to compress every entry.
+     * @since 3.7.0
+     */
+    CompressedEntryCache getCompressedEntryCache();
+
+    /**
+     * @return The output of filtered resources, shared between builds, or <code>null</code> to filter every resource.
+     * @since 3.7.0
+     */
+    FilteredResourceCache getFilteredResourceCache();
+
+    /**
+     * @return The limit of files opened by the phases at the same time, shared by all assemblies, or
+     *         <code>null</code> for no limit.
+     * @since 3.7.0
+     */
+    OpenFileBudget getOpenFileBudget();
+
     /**
      * @return Override UID.
      */
@@ -223,4 +306,37 @@ public interface AssemblerConfigurationSource {
      * @return Override group name.
      */
     String getOverrideGroupName();
+
+    /**
+     * @return Scan file-set directories in parallel yes/no.
+     */
+    boolean isParallelDirectoryScanning();
+
+    /**
+     * @return List the directories shared by overlapping file-sets of an archive only once yes/no.
+     * @since 3.7.0
+     */
+    boolean isSharedSourceScanning();
+
+    /**
+     * @return Keep the scans of file-sets out of the directories they exclude as a whole yes/no.
+     * @since 3.7.0
+     */
+    boolean isPruneExcludedDirectories();
+
+    /**
+     * @return Gather the contributions of the modules of a module-set in parallel yes/no.
+     */
+    boolean isParallelModuleProcessing();
+
+    /**
+     * @return Read the descriptors of the descriptor source directory in parallel yes/no.
+     */
+    boolean isParallelDescriptorReading();
+
+    /**
+     * @return Filter and convert the line endings of the files of a file-set in parallel yes/no.
+     * @since 3.7.0
+     */
+    boolean isParallelTransformation();
 }
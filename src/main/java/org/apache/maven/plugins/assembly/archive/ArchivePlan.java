@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.plugins.assembly.utils.JsonWriter;
+import org.codehaus.plexus.archiver.Archiver;
+
+/**
+ * The entries an archive would contain, as planned without reading their contents: where each entry comes from, its
+ * path, mode and size, and whether its content is transformed (filtered or converted to other line endings).
+ * <p>
+ * Entries added to the same path are predicted collisions; depending on the duplicate behavior of the archiver, the
+ * first one is kept (<code>skip</code>, <code>preserve</code>), all are added (<code>add</code>) or the archive fails
+ * (<code>fail</code>). The size of the archive is estimated from the sizes of the kept entries, the compression they
+ * typically achieve (by file extension) and the overhead of the format per entry; it is a rough estimate, meant to
+ * compare plans, not to predict exact sizes.
+ * </p>
+ * The plan is thread-safe.
+ *
+ * @since 3.7.0
+ */
+public final class ArchivePlan {
+    /**
+     * The type of the entries of files.
+     */
+    public static final String FILE = "file";
+
+    /**
+     * The type of the entries of directories.
+     */
+    public static final String DIRECTORY = "directory";
+
+    /**
+     * The type of the entries of symbolic links.
+     */
+    public static final String SYMLINK = "symlink";
+
+    /**
+     * The size of the end of the central directory of a zip archive.
+     */
+    private static final int ZIP_END_SIZE = 22;
+
+    /**
+     * The size of the local file header and central directory record of a zip entry, without its name (twice).
+     */
+    private static final int ZIP_ENTRY_SIZE = 76;
+
+    private static final int TAR_BLOCK_SIZE = 512;
+
+    /**
+     * A tar archive ends with two empty blocks.
+     */
+    private static final int TAR_END_SIZE = 2 * TAR_BLOCK_SIZE;
+
+    /**
+     * The headers of a tar archive are mostly empty, and compress well.
+     */
+    private static final double TAR_HEADER_RATIO = 0.1;
+
+    private static final double COMPRESSED_RATIO = 1.0;
+
+    private static final double TEXT_RATIO = 0.3;
+
+    private static final double CLASS_RATIO = 0.5;
+
+    private static final double DEFAULT_RATIO = 0.7;
+
+    private static final Set<String> COMPRESSED_TAR_FORMATS =
+            new HashSet<>(Arrays.asList("tbz2", "tgz", "txz", "tzst"));
+
+    private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "7z", "bz2", "ear", "gif", "gz", "jar", "jpeg", "jpg", "lz4", "mp3", "mp4", "png", "rar", "sar", "tgz",
+            "war", "webp", "woff", "woff2", "xz", "zip", "zst"));
+
+    private static final Set<String> TEXT_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "bat",
+            "cmd",
+            "conf",
+            "css",
+            "csv",
+            "dtd",
+            "html",
+            "java",
+            "js",
+            "json",
+            "md",
+            "mf",
+            "properties",
+            "sh",
+            "sql",
+            "txt",
+            "xml",
+            "xsd",
+            "xsl",
+            "yaml",
+            "yml"));
+
+    private final String assemblyId;
+
+    private final String format;
+
+    private final File destFile;
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    private volatile String duplicateBehavior;
+
+    ArchivePlan(final String assemblyId, final String format, final File destFile) {
+        this.assemblyId = assemblyId;
+        this.format = format;
+        this.destFile = destFile;
+    }
+
+    /**
+     * @param source The file the entry is read from; entries of archives are named
+     *               <code>&lt;archive&gt;!/&lt;entry&gt;</code>.
+     * @param target The path of the entry in the archive.
+     * @param type The type of entry: {@link #FILE}, {@link #DIRECTORY} or {@link #SYMLINK}.
+     * @param mode The mode of the entry, or <code>-1</code> for the default mode of the archiver.
+     * @param size The size of the entry, or <code>-1</code> if unknown.
+     * @param transformer The transformation of the content of the entry, or <code>null</code> if it is added as is.
+     */
+    public void addEntry(
+            final String source,
+            final String target,
+            final String type,
+            final int mode,
+            final long size,
+            final String transformer) {
+        final Entry entry = new Entry(source, target, type, mode, size, transformer);
+        synchronized (entries) {
+            entries.add(entry);
+        }
+    }
+
+    public String getAssemblyId() {
+        return assemblyId;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public File getDestFile() {
+        return destFile;
+    }
+
+    public List<Entry> getEntries() {
+        synchronized (entries) {
+            return new ArrayList<>(entries);
+        }
+    }
+
+    /**
+     * @return The duplicate behavior of the archiver, or <code>null</code> if unknown.
+     */
+    public String getDuplicateBehavior() {
+        return duplicateBehavior;
+    }
+
+    /**
+     * @param duplicateBehavior The duplicate behavior of the archiver.
+     */
+    public void setDuplicateBehavior(final String duplicateBehavior) {
+        this.duplicateBehavior = duplicateBehavior;
+    }
+
+    /**
+     * @return The entries added to the same path as an entry added before, by path.
+     */
+    public Map<String, List<Entry>> getDuplicates() {
+        final Map<String, List<Entry>> byTarget = new LinkedHashMap<>();
+        for (final Entry entry : getEntries()) {
+            if (!DIRECTORY.equals(entry.type)) {
+                byTarget.computeIfAbsent(entry.target, t -> new ArrayList<>()).add(entry);
+            }
+        }
+        byTarget.values().removeIf(sameTarget -> sameTarget.size() < 2);
+        return byTarget;
+    }
+
+    /**
+     * @return The entries the archive contains once duplicates are handled.
+     */
+    public List<Entry> getKeptEntries() {
+        if (Archiver.DUPLICATES_ADD.equals(duplicateBehavior)) {
+            return getEntries();
+        }
+
+        final Set<String> targets = new HashSet<>();
+        final List<Entry> kept = new ArrayList<>();
+        for (final Entry entry : getEntries()) {
+            if (targets.add(entry.type + ':' + entry.target)) {
+                kept.add(entry);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * @return The number of bytes of the files of the archive, uncompressed.
+     */
+    public long getTotalBytes() {
+        long total = 0;
+        for (final Entry entry : getKeptEntries()) {
+            if (entry.size > 0) {
+                total += entry.size;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return The estimated size of the archive in its format.
+     */
+    public long getEstimatedSize() {
+        final String lowerCaseFormat = format.toLowerCase(Locale.ROOT);
+        final boolean directory = lowerCaseFormat.startsWith("dir");
+        final boolean tar = lowerCaseFormat.startsWith("tar") || COMPRESSED_TAR_FORMATS.contains(lowerCaseFormat);
+        final boolean compressedTar = tar && !"tar".equals(lowerCaseFormat);
+
+        double estimate = directory ? 0 : tar ? TAR_END_SIZE : ZIP_END_SIZE;
+        for (final Entry entry : getKeptEntries()) {
+            final long size = Math.max(entry.size, 0);
+            if (directory) {
+                estimate += size;
+            } else if (compressedTar) {
+                estimate += TAR_BLOCK_SIZE * TAR_HEADER_RATIO + size * ratio(entry.target);
+            } else if (tar) {
+                // a header block, and the content padded to whole blocks
+                estimate += TAR_BLOCK_SIZE + (size + TAR_BLOCK_SIZE - 1) / TAR_BLOCK_SIZE * TAR_BLOCK_SIZE;
+            } else {
+                estimate += ZIP_ENTRY_SIZE + 2 * entry.target.length() + size * ratio(entry.target);
+            }
+        }
+        return (long) Math.ceil(estimate);
+    }
+
+    /**
+     * @return The typical ratio of compressed to uncompressed size of a file.
+     */
+    private static double ratio(final String target) {
+        final int slash = target.lastIndexOf('/');
+        final int dot = target.lastIndexOf('.');
+        final String extension = dot > slash ? target.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+        if (COMPRESSED_EXTENSIONS.contains(extension)) {
+            return COMPRESSED_RATIO;
+        } else if (TEXT_EXTENSIONS.contains(extension)) {
+            return TEXT_RATIO;
+        } else if ("class".equals(extension)) {
+            return CLASS_RATIO;
+        }
+        return DEFAULT_RATIO;
+    }
+
+    void write(final JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name("assemblyId").value(assemblyId);
+        json.name("format").value(format);
+        json.name("file").value(destFile.getPath());
+        json.name("duplicateBehavior").value(duplicateBehavior);
+
+        final List<Entry> kept = getKeptEntries();
+        long files = 0;
+        for (final Entry entry : kept) {
+            if (FILE.equals(entry.type)) {
+                files++;
+            }
+        }
+        json.name("files").value(files);
+        json.name("totalBytes").value(getTotalBytes());
+        json.name("estimatedSize").value(getEstimatedSize());
+
+        json.name("entries").beginArray();
+        for (final Entry entry : getEntries()) {
+            json.beginObject();
+            json.name("source").value(entry.source);
+            json.name("target").value(entry.target);
+            json.name("type").value(entry.type);
+            json.name("mode").value(entry.mode < 0 ? null : String.format(Locale.ROOT, "%04o", entry.mode));
+            json.name("size").value(entry.size);
+            json.name("transformer").value(entry.transformer);
+            json.endObject();
+        }
+        json.endArray();
+
+        json.name("duplicates").beginArray();
+        for (final Map.Entry<String, List<Entry>> duplicate : getDuplicates().entrySet()) {
+            json.beginObject();
+            json.name("target").value(duplicate.getKey());
+            json.name("sources").beginArray();
+            for (final Entry entry : duplicate.getValue()) {
+                json.value(entry.source);
+            }
+            json.endArray();
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    /**
+     * A planned entry of an archive.
+     */
+    public static final class Entry {
+        private final String source;
+
+        private final String target;
+
+        private final String type;
+
+        private final int mode;
+
+        private final long size;
+
+        private final String transformer;
+
+        Entry(
+                final String source,
+                final String target,
+                final String type,
+                final int mode,
+                final long size,
+                final String transformer) {
+            this.source = source;
+            this.target = target;
+            this.type = type;
+            this.mode = mode;
+            this.size = size;
+            this.transformer = transformer;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public int getMode() {
+            return mode;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public String getTransformer() {
+            return transformer;
+        }
+
+        @Override
+        public String toString() {
+            return source + " -> " + target;
+        }
+    }
+}
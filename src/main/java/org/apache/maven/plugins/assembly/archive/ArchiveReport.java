@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.maven.plugins.assembly.utils.JsonWriter;
+
+/**
+ * Timings and throughput of the creation of one archive, split into sections: the phases adding the sections of the
+ * descriptor, the container descriptor handlers and the final write.
+ * <p>
+ * The files and bytes of a phase are those of the entries it added to the archive, counted once the container
+ * descriptor handlers selected them; entries of directories and archives are counted, once each, as the archive is
+ * written. The time spent scanning those directories and reading those archives is thus part of the write, not of the
+ * phase adding them. The bytes are read from the sources, the bytes written are only known for the whole archive. The
+ * time of a handler is the time spent in its selection and finalization, which is included in the time of a phase or
+ * of the write.
+ * </p>
+ * The report is thread-safe.
+ *
+ * @since 3.7.0
+ */
+public final class ArchiveReport {
+    /**
+     * The name of the section of the final write of the archive.
+     */
+    public static final String WRITE = "write";
+
+    /**
+     * The prefix of the names of the sections of container descriptor handlers.
+     */
+    public static final String HANDLER_PREFIX = "handler:";
+
+    private final String assemblyId;
+
+    private final String format;
+
+    private final File destFile;
+
+    private final Map<String, Section> sections = new LinkedHashMap<>();
+
+    private volatile Section current;
+
+    private volatile long bytesWritten = -1;
+
+    ArchiveReport(final String assemblyId, final String format, final File destFile) {
+        this.assemblyId = assemblyId;
+        this.format = format;
+        this.destFile = destFile;
+    }
+
+    /**
+     * @param name The name of the section, e.g. the hint of a phase or handler.
+     * @return The section, created if it does not exist yet.
+     */
+    public Section section(final String name) {
+        synchronized (sections) {
+            return sections.computeIfAbsent(name, Section::new);
+        }
+    }
+
+    /**
+     * @return The section the entries added to the archive are currently counted towards, or <code>null</code>.
+     */
+    public Section getCurrent() {
+        return current;
+    }
+
+    /**
+     * @param current The section the entries added to the archive are counted towards from now on.
+     */
+    public void setCurrent(final Section current) {
+        this.current = current;
+    }
+
+    public String getAssemblyId() {
+        return assemblyId;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public File getDestFile() {
+        return destFile;
+    }
+
+    public List<Section> getSections() {
+        synchronized (sections) {
+            return new ArrayList<>(sections.values());
+        }
+    }
+
+    /**
+     * @return The number of bytes of the written archive, or <code>-1</code> if it was not written.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    void setBytesWritten(final long bytesWritten) {
+        this.bytesWritten = bytesWritten;
+    }
+
+    /**
+     * @return The number of bytes read from the sources of the entries of the archive.
+     */
+    public long getBytesRead() {
+        long bytesRead = 0;
+        for (final Section section : getSections()) {
+            if (section.isPhase()) {
+                bytesRead += section.getBytesRead();
+            }
+        }
+        return bytesRead;
+    }
+
+    /**
+     * @return The number of files in the archive.
+     */
+    public long getFiles() {
+        long files = 0;
+        for (final Section section : getSections()) {
+            if (section.isPhase()) {
+                files += section.getFiles();
+            }
+        }
+        return files;
+    }
+
+    /**
+     * @return The size of the archive relative to the size of its sources, or <code>NaN</code> if unknown.
+     */
+    public double getCompressionRatio() {
+        final long bytesRead = getBytesRead();
+        return bytesWritten < 0 || bytesRead == 0 ? Double.NaN : (double) bytesWritten / bytesRead;
+    }
+
+    /**
+     * @return A one-line summary of the report.
+     */
+    public String summary() {
+        final StringBuilder summary = new StringBuilder();
+        summary.append("Assembly ")
+                .append(assemblyId)
+                .append(" (")
+                .append(format)
+                .append("): ");
+        summary.append(getFiles()).append(" files, ").append(getBytesRead()).append(" bytes read");
+        if (bytesWritten >= 0) {
+            summary.append(", ")
+                    .append(bytesWritten)
+                    .append(" bytes written (ratio ")
+                    .append(String.format(Locale.ROOT, "%.2f", getCompressionRatio()))
+                    .append(')');
+        }
+
+        String separator = "; ";
+        for (final Section section : getSections()) {
+            summary.append(separator)
+                    .append(section.getName())
+                    .append(' ')
+                    .append(section.getMillis())
+                    .append(" ms");
+            separator = ", ";
+        }
+        return summary.toString();
+    }
+
+    void write(final JsonWriter json) throws IOException {
+        json.beginObject();
+        json.name("assemblyId").value(assemblyId);
+        json.name("format").value(format);
+        json.name("file").value(destFile.getPath());
+        json.name("files").value(getFiles());
+        json.name("bytesRead").value(getBytesRead());
+        json.name("bytesWritten").value(bytesWritten);
+        json.name("compressionRatio").value(getCompressionRatio());
+        json.name("sections").beginArray();
+        for (final Section section : getSections()) {
+            json.beginObject();
+            json.name("name").value(section.getName());
+            json.name("millis").value(section.getMillis());
+            json.name("files").value(section.getFiles());
+            json.name("bytesRead").value(section.getBytesRead());
+            json.endObject();
+        }
+        json.endArray();
+        json.endObject();
+    }
+
+    /**
+     * The timings and throughput of a section of the creation of an archive.
+     */
+    public static final class Section {
+        private final String name;
+
+        private final LongAdder nanos = new LongAdder();
+
+        private final LongAdder files = new LongAdder();
+
+        private final LongAdder bytesRead = new LongAdder();
+
+        Section(final String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @param duration The time spent in the section, in nanoseconds.
+         */
+        public void addTime(final long duration) {
+            nanos.add(duration);
+        }
+
+        /**
+         * @param size The size of a file added to the archive, or <code>-1</code> if unknown.
+         */
+        public void addFile(final long size) {
+            files.increment();
+            if (size > 0) {
+                bytesRead.add(size);
+            }
+        }
+
+        public long getMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
+        }
+
+        public long getFiles() {
+            return files.sum();
+        }
+
+        public long getBytesRead() {
+            return bytesRead.sum();
+        }
+
+        /**
+         * Handlers count the entries they select, which are already counted by the phases adding them.
+         */
+        boolean isPhase() {
+            return !name.startsWith(HANDLER_PREFIX) && !WRITE.equals(name);
+        }
+    }
+}
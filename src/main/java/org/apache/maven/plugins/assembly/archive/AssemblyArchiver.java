@@ -20,6 +20,8 @@ package org.apache.maven.plugins.assembly.archive;
 
 import java.io.File;
 import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
 import org.apache.maven.plugins.assembly.InvalidAssemblerConfigurationException;
@@ -67,4 +69,24 @@ public interface AssemblyArchiver {
             String mergeManifestMode,
             FileTime sourceDateEpoch)
             throws ArchiveCreationException, AssemblyFormattingException, InvalidAssemblerConfigurationException;
+
+    /**
+     * Checks an assembly for the misconfigurations that {@link #createArchive} would only detect while creating its
+     * archives, as far as that is possible without reading or resolving anything. All problems are reported at once,
+     * so an assembly is never written before a later one fails on its configuration.
+     *
+     * @param assembly          The {@link Assembly}
+     * @param formats           The formats of the archives of the assembly.
+     * @param configSource      The {@link org.apache.maven.plugins.assembly.AssemblerConfigurationSource}
+     * @param mergeManifestMode How to handle already existing Manifest files (skip, merge, mergewithoutmain)
+     * @return The problems found, empty if there are none.
+     * @since 3.7.0
+     */
+    default List<String> validate(
+            Assembly assembly,
+            List<String> formats,
+            AssemblerConfigurationSource configSource,
+            String mergeManifestMode) {
+        return Collections.emptyList();
+    }
 }
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugins.assembly.utils.JsonWriter;
+
+/**
+ * Collects the {@link ArchiveReport}s of the archives created by an execution of the plugin.
+ * <p>
+ * The report is written as a JSON document, to compare the cost of assemblies across builds and projects.
+ * </p>
+ * The report is thread-safe.
+ *
+ * @since 3.7.0
+ */
+public final class AssemblyReport {
+    private final List<ArchiveReport> archives = new ArrayList<>();
+
+    /**
+     * @param assemblyId The id of the assembly.
+     * @param format The format of the archive.
+     * @param destFile The archive.
+     * @return The report of the archive, to be filled while the archive is created.
+     */
+    public ArchiveReport startArchive(final String assemblyId, final String format, final File destFile) {
+        final ArchiveReport archive = new ArchiveReport(assemblyId, format, destFile);
+        synchronized (archives) {
+            archives.add(archive);
+        }
+        return archive;
+    }
+
+    public List<ArchiveReport> getArchives() {
+        synchronized (archives) {
+            return new ArrayList<>(archives);
+        }
+    }
+
+    /**
+     * @param file The file to write the report to.
+     * @throws IOException in case of an error writing the report.
+     */
+    public void write(final File file) throws IOException {
+        Files.createDirectories(file.getAbsoluteFile().getParentFile().toPath());
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            final JsonWriter json = new JsonWriter(writer);
+            json.beginObject();
+            json.name("archives").beginArray();
+            for (final ArchiveReport archive : getArchives()) {
+                archive.write(json);
+            }
+            json.endArray();
+            json.endObject();
+        }
+    }
+}
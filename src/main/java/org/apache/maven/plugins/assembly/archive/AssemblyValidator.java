@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.maven.plugins.assembly.format.AssemblyFormattingException;
+import org.apache.maven.plugins.assembly.model.Assembly;
+import org.apache.maven.plugins.assembly.model.ContainerDescriptorHandlerConfig;
+import org.apache.maven.plugins.assembly.model.DependencySet;
+import org.apache.maven.plugins.assembly.model.FileItem;
+import org.apache.maven.plugins.assembly.model.FileSet;
+import org.apache.maven.plugins.assembly.model.ModuleBinaries;
+import org.apache.maven.plugins.assembly.model.ModuleSet;
+import org.apache.maven.plugins.assembly.model.ModuleSources;
+import org.apache.maven.plugins.assembly.model.UnpackOptions;
+import org.apache.maven.plugins.assembly.utils.LineEndings;
+import org.apache.maven.plugins.assembly.utils.LineEndingsUtils;
+import org.apache.maven.plugins.assembly.utils.TypeConversionUtils;
+
+/**
+ * Checks the sections of an assembly descriptor for the misconfigurations the phases only detect while they add them
+ * to an archive: file items without a source or destination name, modes that are no octal numbers and unknown line
+ * endings. The checks read no files, and collect every problem instead of stopping at the first one.
+ */
+final class AssemblyValidator {
+    private final List<String> problems = new ArrayList<>();
+
+    private AssemblyValidator() {}
+
+    /**
+     * @param assembly The assembly.
+     * @return The problems of the assembly, empty if there are none.
+     */
+    static List<String> validate(final Assembly assembly) {
+        final AssemblyValidator validator = new AssemblyValidator();
+        validator.validateAssembly(assembly);
+        return validator.problems;
+    }
+
+    private void validateAssembly(final Assembly assembly) {
+        if (assembly.getId() == null || assembly.getId().trim().isEmpty()) {
+            problems.add("Assembly ID must be present and non-empty.");
+        }
+
+        for (final ContainerDescriptorHandlerConfig config : assembly.getContainerDescriptorHandlers()) {
+            if (config.getHandlerName() == null) {
+                problems.add("containerDescriptorHandler: handlerName must be set");
+            }
+        }
+
+        for (final FileSet fileSet : assembly.getFileSets()) {
+            validateFileSet("fileSet " + fileSet.getDirectory(), fileSet);
+        }
+
+        int index = 0;
+        for (final FileItem fileItem : assembly.getFiles()) {
+            validateFileItem("file " + (fileItem.getSource() != null ? fileItem.getSource() : "#" + index), fileItem);
+            index++;
+        }
+
+        for (final DependencySet dependencySet : assembly.getDependencySets()) {
+            validateDependencySet("dependencySet " + dependencySet.getOutputDirectory(), dependencySet);
+        }
+
+        for (final ModuleSet moduleSet : assembly.getModuleSets()) {
+            validateModuleSet("moduleSet " + moduleSet.getIncludes(), moduleSet);
+        }
+    }
+
+    private void validateFileSet(final String location, final FileSet fileSet) {
+        validateModes(location, fileSet.getFileMode(), fileSet.getDirectoryMode());
+        validateLineEnding(location, fileSet.getLineEnding());
+    }
+
+    /**
+     * Mirrors the checks of {@link org.apache.maven.plugins.assembly.archive.phase.FileItemAssemblyPhase}.
+     */
+    private void validateFileItem(final String location, final FileItem fileItem) {
+        if (fileItem.getSource() != null ^ fileItem.getSources().isEmpty()) {
+            problems.add(location + ": Misconfigured file: one of source or sources must be set");
+        } else if (fileItem.getSource() == null && fileItem.getDestName() == null) {
+            problems.add(location + ": Misconfigured file: specify destName when using sources");
+        }
+
+        validateModes(location, fileItem.getFileMode(), null);
+
+        final LineEndings lineEnding = validateLineEnding(location, fileItem.getLineEnding());
+        if (lineEnding != null && lineEnding != LineEndings.keep && fileItem.getSource() != null) {
+            final String name = fileItem.getSource().toLowerCase(Locale.ENGLISH);
+            if (name.endsWith(".zip") || name.endsWith(".jar")) {
+                problems.add(location + ": Cannot transform line endings on this kind of file");
+            }
+        }
+    }
+
+    private void validateDependencySet(final String location, final DependencySet dependencySet) {
+        validateModes(location, dependencySet.getFileMode(), dependencySet.getDirectoryMode());
+        validateUnpackOptions(location, dependencySet.getUnpackOptions());
+    }
+
+    private void validateModuleSet(final String location, final ModuleSet moduleSet) {
+        final ModuleSources sources = moduleSet.getSources();
+        if (sources != null) {
+            validateModes(location + " sources", sources.getFileMode(), sources.getDirectoryMode());
+            for (final FileSet fileSet : sources.getFileSets()) {
+                validateFileSet(location + " sources fileSet " + fileSet.getDirectory(), fileSet);
+            }
+        }
+
+        final ModuleBinaries binaries = moduleSet.getBinaries();
+        if (binaries != null) {
+            validateModes(location + " binaries", binaries.getFileMode(), binaries.getDirectoryMode());
+            validateUnpackOptions(location + " binaries", binaries.getUnpackOptions());
+            for (final DependencySet dependencySet : binaries.getDependencySets()) {
+                validateDependencySet(
+                        location + " binaries dependencySet " + dependencySet.getOutputDirectory(), dependencySet);
+            }
+        }
+    }
+
+    private void validateUnpackOptions(final String location, final UnpackOptions unpackOptions) {
+        if (unpackOptions != null) {
+            validateLineEnding(location + " unpackOptions", unpackOptions.getLineEnding());
+        }
+    }
+
+    private void validateModes(final String location, final String fileMode, final String directoryMode) {
+        try {
+            TypeConversionUtils.modeToInt(fileMode, null);
+        } catch (final AssemblyFormattingException e) {
+            problems.add(location + ": fileMode: " + e.getMessage());
+        }
+        try {
+            TypeConversionUtils.modeToInt(directoryMode, null);
+        } catch (final AssemblyFormattingException e) {
+            problems.add(location + ": directoryMode: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return The line endings, or <code>null</code> if they are invalid.
+     */
+    private LineEndings validateLineEnding(final String location, final String lineEnding) {
+        try {
+            return LineEndingsUtils.getLineEnding(lineEnding);
+        } catch (final AssemblyFormattingException e) {
+            problems.add(location + ": " + e.getMessage());
+            return null;
+        }
+    }
+}
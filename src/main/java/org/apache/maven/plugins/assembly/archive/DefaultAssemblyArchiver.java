@@ -31,22 +31,29 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
 import org.apache.maven.plugins.assembly.InvalidAssemblerConfigurationException;
 import org.apache.maven.plugins.assembly.archive.archiver.AssemblyProxyArchiver;
+import org.apache.maven.plugins.assembly.archive.archiver.CachingZipArchiver;
+import org.apache.maven.plugins.assembly.archive.archiver.PlanningArchiver;
 import org.apache.maven.plugins.assembly.archive.phase.AssemblyArchiverPhase;
 import org.apache.maven.plugins.assembly.archive.phase.AssemblyArchiverPhaseComparator;
 import org.apache.maven.plugins.assembly.artifact.DependencyResolutionException;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
 import org.apache.maven.plugins.assembly.filter.ComponentsXmlArchiverFileFilter;
 import org.apache.maven.plugins.assembly.filter.ContainerDescriptorHandler;
 import org.apache.maven.plugins.assembly.format.AssemblyFormattingException;
 import org.apache.maven.plugins.assembly.internal.DebugConfigurationListener;
+import org.apache.maven.plugins.assembly.internal.FlightRecorderEvents;
 import org.apache.maven.plugins.assembly.interpolation.AssemblyExpressionEvaluator;
 import org.apache.maven.plugins.assembly.model.Assembly;
 import org.apache.maven.plugins.assembly.model.ContainerDescriptorHandlerConfig;
 import org.apache.maven.plugins.assembly.utils.AssemblyFileUtils;
 import org.apache.maven.plugins.assembly.utils.AssemblyFormatUtils;
+import org.apache.maven.plugins.assembly.utils.InterpolatorCache;
 import org.codehaus.plexus.PlexusContainer;
 import org.codehaus.plexus.archiver.ArchiveFinalizer;
 import org.codehaus.plexus.archiver.Archiver;
@@ -143,6 +150,10 @@ public class DefaultAssemblyArchiver implements AssemblyArchiver {
 
         final File destFile = new File(outputDirectory, filename);
 
+        final AssemblyEvents events = AssemblyEvents.of(configSource);
+        events.archiveStarted(assembly.getId(), format, destFile);
+        final long started = System.nanoTime();
+        boolean successful = false;
         try {
             final String finalName = configSource.getFinalName();
             final String specifiedBasedir = assembly.getBaseDirectory();
@@ -154,12 +165,23 @@ public class DefaultAssemblyArchiver implements AssemblyArchiver {
                         specifiedBasedir,
                         finalName,
                         configSource,
-                        AssemblyFormatUtils.moduleProjectInterpolator(configSource.getProject()),
-                        AssemblyFormatUtils.artifactProjectInterpolator(null));
+                        InterpolatorCache.of(configSource).moduleProjectInterpolator(configSource.getProject()),
+                        InterpolatorCache.of(configSource).artifactProjectInterpolator(null));
             }
 
-            final List<ContainerDescriptorHandler> containerHandlers =
+            final AssemblyPlan assemblyPlan = configSource.getAssemblyPlan();
+            final ArchivePlan plan =
+                    assemblyPlan != null ? assemblyPlan.startArchive(assembly.getId(), format, destFile) : null;
+
+            final AssemblyReport assemblyReport = configSource.getAssemblyReport();
+            final ArchiveReport report =
+                    assemblyReport != null ? assemblyReport.startArchive(assembly.getId(), format, destFile) : null;
+
+            List<ContainerDescriptorHandler> containerHandlers =
                     selectContainerDescriptorHandlers(assembly.getContainerDescriptorHandlers(), configSource);
+            if (report != null || FlightRecorderEvents.isHandlerSelectionEnabled()) {
+                containerHandlers = reportingHandlers(containerHandlers, report);
+            }
 
             final Archiver archiver = createArchiver(
                     format,
@@ -169,15 +191,48 @@ public class DefaultAssemblyArchiver implements AssemblyArchiver {
                     containerHandlers,
                     recompressZippedFiles,
                     mergeManifestMode,
-                    outputTimestamp);
+                    outputTimestamp,
+                    report,
+                    plan);
 
             archiver.setDestFile(destFile);
 
             for (AssemblyArchiverPhase phase : sortedPhases()) {
-                phase.execute(assembly, archiver, configSource);
+                final String phaseName = nameOf(phase);
+                final ArchiveReport.Section section = report != null ? report.section(phaseName) : null;
+                if (report != null) {
+                    report.setCurrent(section);
+                }
+
+                final long start = System.nanoTime();
+                try (FlightRecorderEvents.Span span = FlightRecorderEvents.phase(assembly.getId(), phaseName)) {
+                    phase.execute(assembly, archiver, configSource);
+                } finally {
+                    if (section != null) {
+                        section.addTime(System.nanoTime() - start);
+                    }
+                }
             }
 
-            archiver.createArchive();
+            if (report == null) {
+                archiver.createArchive();
+            } else {
+                final long start = System.nanoTime();
+                try {
+                    archiver.createArchive();
+                } finally {
+                    report.section(ArchiveReport.WRITE).addTime(System.nanoTime() - start);
+                    report.setCurrent(null);
+                }
+
+                if (destFile.isFile()) {
+                    report.setBytesWritten(destFile.length());
+                } else if (destFile.isDirectory()) {
+                    report.setBytesWritten(FileUtils.sizeOfDirectory(destFile));
+                }
+                LOGGER.info(report.summary());
+            }
+            successful = true;
         } catch (final ArchiverException | IOException e) {
             throw new ArchiveCreationException(
                     "Error creating assembly archive " + assembly.getId() + ": " + e.getMessage(), e);
@@ -189,11 +244,118 @@ public class DefaultAssemblyArchiver implements AssemblyArchiver {
         } catch (final DependencyResolutionException e) {
             throw new ArchiveCreationException(
                     "Unable to resolve dependencies for assembly '" + assembly.getId() + "'", e);
+        } finally {
+            events.archiveFinished(
+                    assembly.getId(),
+                    format,
+                    destFile,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                    successful);
         }
 
         return destFile;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> validate(
+            final Assembly assembly,
+            final List<String> formats,
+            final AssemblerConfigurationSource configSource,
+            final String mergeManifestMode) {
+        final List<String> problems = new ArrayList<>(AssemblyValidator.validate(assembly));
+
+        for (final ContainerDescriptorHandlerConfig config : assembly.getContainerDescriptorHandlers()) {
+            final String hint = config.getHandlerName();
+            if (hint != null && !containerDescriptorHandlers.containsKey(hint)) {
+                problems.add("Cannot find ContainerDescriptorHandler with hint: " + hint);
+            }
+        }
+
+        if (formats == null || formats.isEmpty()) {
+            problems.add("No formats specified in the execution parameters or the assembly descriptor.");
+        } else {
+            for (final String format : formats) {
+                validateFormat(format, configSource, mergeManifestMode, problems);
+            }
+
+            if (configSource.getArchiverConfig() != null) {
+                try {
+                    Xpp3DomBuilder.build(new StringReader(configSource.getArchiverConfig()));
+                } catch (final XmlPullParserException | IOException e) {
+                    problems.add("Failed to parse archiver configuration: " + e.getMessage());
+                }
+            }
+        }
+
+        final List<String> result = new ArrayList<>(problems.size());
+        for (final String problem : problems) {
+            result.add("Assembly " + assembly.getId() + ": " + problem);
+        }
+        return result;
+    }
+
+    /**
+     * Checks that there is an archiver for a format, and that the settings of the plugin for it are valid.
+     */
+    private void validateFormat(
+            final String format,
+            final AssemblerConfigurationSource configSource,
+            final String mergeManifestMode,
+            final List<String> problems) {
+        final Archiver archiver;
+        try {
+            archiver = archiverManager.getArchiver("tzst".equals(format) ? "tar" : format);
+        } catch (final NoSuchArchiverException e) {
+            problems.add("Unable to obtain archiver for extension '" + format + "'");
+            return;
+        }
+
+        if (archiver instanceof TarArchiver && !isTarLongFileMode(configSource.getTarLongFileMode())) {
+            problems.add("Invalid tarLongFileMode for format '" + format + "': " + configSource.getTarLongFileMode());
+        }
+
+        if (archiver instanceof JarArchiver && mergeManifestMode != null) {
+            try {
+                JarArchiver.FilesetManifestConfig.valueOf(mergeManifestMode);
+            } catch (final IllegalArgumentException e) {
+                problems.add("Invalid mergeManifestMode for format '" + format + "': " + mergeManifestMode);
+            }
+        }
+    }
+
+    private static boolean isTarLongFileMode(final String longFileMode) {
+        for (final TarLongFileMode mode : TarLongFileMode.values()) {
+            if (mode.name().equals(longFileMode)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<ContainerDescriptorHandler> reportingHandlers(
+            final List<ContainerDescriptorHandler> handlers, final ArchiveReport report) {
+        final List<ContainerDescriptorHandler> reporting = new ArrayList<>(handlers.size());
+        for (final ContainerDescriptorHandler handler : handlers) {
+            final String name = nameOf(handler);
+            reporting.add(new ReportingContainerDescriptorHandler(
+                    handler, name, report != null ? report.section(ArchiveReport.HANDLER_PREFIX + name) : null));
+        }
+        return reporting;
+    }
+
+    /**
+     * @return The hint of a component, or the simple name of its class if it has none.
+     */
+    private static String nameOf(final Object component) {
+        final Named named = component.getClass().getAnnotation(Named.class);
+        return named != null && !named.value().isEmpty()
+                ? named.value()
+                : component.getClass().getSimpleName();
+    }
+
     private void validate(final Assembly assembly) throws InvalidAssemblerConfigurationException {
         if (assembly.getId() == null || assembly.getId().trim().length() < 1) {
             throw new InvalidAssemblerConfigurationException("Assembly ID must be present and non-empty.");
@@ -273,11 +435,38 @@ public class DefaultAssemblyArchiver implements AssemblyArchiver {
             String mergeManifestMode,
             FileTime outputTimestamp)
             throws NoSuchArchiverException {
+        return createArchiver(
+                format,
+                includeBaseDir,
+                finalName,
+                configSource,
+                containerHandlers,
+                recompressZippedFiles,
+                mergeManifestMode,
+                outputTimestamp,
+                null,
+                null);
+    }
+
+    private Archiver createArchiver(
+            final String format,
+            final boolean includeBaseDir,
+            final String finalName,
+            final AssemblerConfigurationSource configSource,
+            final List<ContainerDescriptorHandler> containerHandlers,
+            boolean recompressZippedFiles,
+            String mergeManifestMode,
+            FileTime outputTimestamp,
+            final ArchiveReport report,
+            final ArchivePlan plan)
+            throws NoSuchArchiverException {
         Archiver archiver;
 
         // one missing alias in plexus-archiver
         if ("tzst".equals(format)) {
             archiver = createTarZstArchiver();
+        } else if ("zip".equals(format) && configSource.getCompressedEntryCache() != null && plan == null) {
+            archiver = createCachingZipArchiver(configSource);
         } else {
             archiver = archiverManager.getArchiver(format);
         }
@@ -316,14 +505,26 @@ public class DefaultAssemblyArchiver implements AssemblyArchiver {
             prefix = finalName;
         }
 
-        archiver = new AssemblyProxyArchiver(
+        if (plan != null) {
+            archiver = new PlanningArchiver(archiver, archiverManager, plan, LOGGER);
+        }
+
+        final AssemblyProxyArchiver proxy = new AssemblyProxyArchiver(
                 prefix,
                 archiver,
                 containerHandlers,
                 extraSelectors,
                 extraFinalizers,
                 configSource.getWorkingDirectory());
-        if (configSource.isDryRun()) {
+        proxy.setParallelScanning(configSource.isParallelDirectoryScanning());
+        proxy.setSharedScanning(configSource.isSharedSourceScanning());
+        proxy.setPruning(configSource.isPruneExcludedDirectories());
+        proxy.setParallelTransformation(configSource.isParallelTransformation());
+        proxy.setReport(report);
+        proxy.setEvents(AssemblyEvents.of(configSource));
+
+        archiver = proxy;
+        if (configSource.isDryRun() && plan == null) {
             archiver = new DryRunArchiver(archiver, LOGGER);
         }
 
@@ -463,6 +664,18 @@ public class DefaultAssemblyArchiver implements AssemblyArchiver {
         }
     }
 
+    protected Archiver createCachingZipArchiver(final AssemblerConfigurationSource configSource)
+            throws NoSuchArchiverException {
+        final CachingZipArchiver zipArchiver;
+        try {
+            zipArchiver = (CachingZipArchiver) container.lookup(Archiver.class, CachingZipArchiver.class.getName());
+        } catch (final ComponentLookupException e) {
+            throw new NoSuchArchiverException("zip");
+        }
+        zipArchiver.setCompressedEntryCache(configSource.getCompressedEntryCache(), AssemblyEvents.of(configSource));
+        return zipArchiver;
+    }
+
     protected Archiver createTarZstArchiver() throws NoSuchArchiverException {
         final TarArchiver tarArchiver = (TarArchiver) archiverManager.getArchiver("tar");
         tarArchiver.setCompression(TarArchiver.TarCompressionMethod.zstd);
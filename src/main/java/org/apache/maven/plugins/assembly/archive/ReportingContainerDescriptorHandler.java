@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.apache.maven.plugins.assembly.filter.ContainerDescriptorHandler;
+import org.apache.maven.plugins.assembly.internal.FlightRecorderEvents;
+import org.codehaus.plexus.archiver.Archiver;
+import org.codehaus.plexus.archiver.UnArchiver;
+import org.codehaus.plexus.components.io.fileselectors.FileInfo;
+
+/**
+ * Measures the time a container descriptor handler spends selecting and finalizing, in a section of an
+ * {@link ArchiveReport}, and records its slow selections as Flight Recorder events. The files of the section are the
+ * files the handler was asked to select.
+ */
+final class ReportingContainerDescriptorHandler implements ContainerDescriptorHandler {
+    private final ContainerDescriptorHandler delegate;
+
+    private final String name;
+
+    private final ArchiveReport.Section section;
+
+    /**
+     * @param delegate The handler.
+     * @param name The hint of the handler.
+     * @param section The section of the handler in the report of the archive, or <code>null</code>.
+     */
+    ReportingContainerDescriptorHandler(
+            final ContainerDescriptorHandler delegate, final String name, final ArchiveReport.Section section) {
+        this.delegate = delegate;
+        this.name = name;
+        this.section = section;
+    }
+
+    @Override
+    public boolean isSelected(final FileInfo fileInfo) throws IOException {
+        final long start = System.nanoTime();
+        try (FlightRecorderEvents.Span span = FlightRecorderEvents.handlerSelection(name, fileInfo.getName())) {
+            return delegate.isSelected(fileInfo);
+        } finally {
+            if (section != null) {
+                section.addTime(System.nanoTime() - start);
+                if (fileInfo.isFile()) {
+                    section.addFile(-1);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void finalizeArchiveCreation(final Archiver archiver) {
+        final long start = System.nanoTime();
+        try {
+            delegate.finalizeArchiveCreation(archiver);
+        } finally {
+            if (section != null) {
+                section.addTime(System.nanoTime() - start);
+            }
+        }
+    }
+
+    @Override
+    public void finalizeArchiveExtraction(final UnArchiver unArchiver) {
+        final long start = System.nanoTime();
+        try {
+            delegate.finalizeArchiveExtraction(unArchiver);
+        } finally {
+            if (section != null) {
+                section.addTime(System.nanoTime() - start);
+            }
+        }
+    }
+
+    @Override
+    public List<String> getVirtualFiles() {
+        return delegate.getVirtualFiles();
+    }
+
+    @Override
+    public void addToArchive(final org.apache.commons.compress.archivers.examples.Archiver archiver) {
+        delegate.addToArchive(archiver);
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.archiver;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.apache.maven.plugins.assembly.archive.ArchiveCreationException;
+import org.codehaus.plexus.archiver.Archiver;
+import org.codehaus.plexus.archiver.ArchiverException;
+
+/**
+ * Records the changes made to an archiver, so these can be computed up front (and concurrently with other recordings)
+ * and applied to the archiver later on, in a well-defined order.
+ * <p>
+ * The archiver of a recording records every call to a method without return value, like the <code>add*</code> and
+ * <code>set*</code> methods. <code>getOverrideFileMode()</code> and <code>getOverrideDirectoryMode()</code> answer
+ * the modes of the recorded archiver when the recording was created, as other recordings may be applied, overriding
+ * these modes for a while, as this one is recorded; since the tasks read the modes before overriding them, and restore
+ * them afterwards, the values read are the ones these would have read from the archiver directly. Every other call is
+ * passed to the recorded archiver.
+ * </p>
+ * A recording is not thread-safe; use one recording per thread.
+ *
+ * @since 3.7.0
+ */
+public final class ArchiverRecording {
+    private final Archiver delegate;
+
+    private final Archiver archiver;
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    private final int overrideFileMode;
+
+    private final int overrideDirectoryMode;
+
+    /**
+     * Creates a recording, reading the override modes of the archiver. Create it before other recordings of the same
+     * archiver are applied.
+     *
+     * @param delegate The archiver to record the changes of.
+     */
+    public ArchiverRecording(final Archiver delegate) {
+        this(delegate, delegate.getOverrideFileMode(), delegate.getOverrideDirectoryMode());
+    }
+
+    private ArchiverRecording(final Archiver delegate, final int overrideFileMode, final int overrideDirectoryMode) {
+        this.delegate = delegate;
+        this.overrideFileMode = overrideFileMode;
+        this.overrideDirectoryMode = overrideDirectoryMode;
+        this.archiver = (Archiver) Proxy.newProxyInstance(
+                Archiver.class.getClassLoader(), new Class<?>[] {Archiver.class}, new Recorder());
+    }
+
+    /**
+     * @param archiver An archiver.
+     * @return The recording of the archiver, if it is the archiver of a recording, <code>null</code> otherwise.
+     */
+    public static ArchiverRecording of(final Archiver archiver) {
+        if (archiver != null && Proxy.isProxyClass(archiver.getClass())) {
+            final InvocationHandler handler = Proxy.getInvocationHandler(archiver);
+            if (handler instanceof Recorder) {
+                return ((Recorder) handler).recording();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The archiver which records the changes.
+     */
+    public Archiver getArchiver() {
+        return archiver;
+    }
+
+    /**
+     * Records a nested recording, which is only applied if the condition holds at the time this recording is applied.
+     *
+     * @param condition The condition, evaluated when applying.
+     * @return The nested recording.
+     */
+    public ArchiverRecording guarded(final BooleanSupplier condition) {
+        final ArchiverRecording guarded = new ArchiverRecording(delegate, overrideFileMode, overrideDirectoryMode);
+        entries.add(target -> {
+            if (condition.getAsBoolean()) {
+                guarded.replay(target);
+            }
+        });
+        return guarded;
+    }
+
+    /**
+     * Applies the recorded changes, in the order these have been recorded.
+     *
+     * @param target The archiver to apply the changes to.
+     * @throws ArchiveCreationException in case the archiver rejects a change.
+     */
+    public void replay(final Archiver target) throws ArchiveCreationException {
+        for (final Entry entry : entries) {
+            entry.replay(target);
+        }
+    }
+
+    private static void invoke(final Method method, final Object[] args, final Archiver target)
+            throws ArchiveCreationException {
+        try {
+            method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ArchiverException) {
+                throw new ArchiveCreationException("Error adding to archive: " + cause.getMessage(), cause);
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ArchiveCreationException("Error adding to archive: " + cause.getMessage(), cause);
+        } catch (final IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface Entry {
+        void replay(Archiver target) throws ArchiveCreationException;
+    }
+
+    private final class Recorder implements InvocationHandler {
+        ArchiverRecording recording() {
+            return ArchiverRecording.this;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return "Recording of " + delegate;
+                }
+            }
+
+            if (args == null && "getOverrideFileMode".equals(method.getName())) {
+                return overrideFileMode;
+            }
+            if (args == null && "getOverrideDirectoryMode".equals(method.getName())) {
+                return overrideDirectoryMode;
+            }
+
+            if (method.getReturnType() == void.class) {
+                final Object[] recordedArgs = args != null ? args.clone() : null;
+                entries.add(target -> ArchiverRecording.invoke(method, recordedArgs, target));
+                return null;
+            }
+
+            try {
+                return method.invoke(delegate, args);
+            } catch (final InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
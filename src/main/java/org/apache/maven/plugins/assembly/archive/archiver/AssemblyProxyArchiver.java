@@ -30,8 +30,14 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 
+import org.apache.maven.plugins.assembly.archive.ArchiveReport;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
 import org.apache.maven.plugins.assembly.filter.ContainerDescriptorHandler;
+import org.codehaus.plexus.archiver.AbstractArchiver;
 import org.codehaus.plexus.archiver.ArchiveEntry;
 import org.codehaus.plexus.archiver.ArchiveFinalizer;
 import org.codehaus.plexus.archiver.ArchivedFileSet;
@@ -44,6 +50,7 @@ import org.codehaus.plexus.archiver.util.DefaultArchivedFileSet;
 import org.codehaus.plexus.archiver.util.DefaultFileSet;
 import org.codehaus.plexus.components.io.fileselectors.FileInfo;
 import org.codehaus.plexus.components.io.fileselectors.FileSelector;
+import org.codehaus.plexus.components.io.functions.SizeSupplier;
 import org.codehaus.plexus.components.io.resources.PlexusIoResource;
 import org.codehaus.plexus.components.io.resources.PlexusIoResourceCollection;
 import org.slf4j.Logger;
@@ -80,6 +87,46 @@ public class AssemblyProxyArchiver implements Archiver {
      */
     private boolean useJvmChmod;
 
+    /**
+     * @since 3.7.0
+     */
+    private boolean parallelScanning;
+
+    /**
+     * @since 3.7.0
+     */
+    private boolean parallelTransformation;
+
+    /**
+     * @since 3.7.0
+     */
+    private boolean sharedScanning;
+
+    /**
+     * @since 3.7.0
+     */
+    private boolean pruning;
+
+    /**
+     * @since 3.7.0
+     */
+    private final SourceTree sourceTree = new SourceTree();
+
+    /**
+     * @since 3.7.0
+     */
+    private ArchiveReport report;
+
+    /**
+     * @since 3.7.0
+     */
+    private AssemblyEvents events = AssemblyEvents.none();
+
+    /**
+     * The paths of the entries added, to tell the listeners about skipped duplicates.
+     */
+    private final Set<String> targets = ConcurrentHashMap.newKeySet();
+
     public AssemblyProxyArchiver(
             final String rootPrefix,
             final Archiver delegate,
@@ -138,7 +185,7 @@ public class AssemblyProxyArchiver implements Archiver {
             fs.setIncludes(includes);
             fs.setExcludes(excludes);
             fs.setPrefix(rootPrefix + prefix);
-            fs.setFileSelectors(selectors);
+            fs.setFileSelectors(selectors(archiveFile, true, fs.getPrefix()));
 
             debug("Adding archived file-set in: " + archiveFile + " to archive location: " + fs.getPrefix());
 
@@ -164,7 +211,7 @@ public class AssemblyProxyArchiver implements Archiver {
             final DefaultArchivedFileSet fs = new DefaultArchivedFileSet(archiveFile);
 
             fs.setPrefix(rootPrefix + prefix);
-            fs.setFileSelectors(selectors);
+            fs.setFileSelectors(selectors(archiveFile, true, fs.getPrefix()));
 
             debug("Adding archived file-set in: " + archiveFile + " to archive location: " + fs.getPrefix());
 
@@ -186,7 +233,7 @@ public class AssemblyProxyArchiver implements Archiver {
             fs.setIncludes(includes);
             fs.setExcludes(excludes);
             fs.setPrefix(rootPrefix);
-            fs.setFileSelectors(selectors);
+            fs.setFileSelectors(selectors(archiveFile, true, fs.getPrefix()));
 
             debug("Adding archived file-set in: " + archiveFile + " to archive location: " + fs.getPrefix());
 
@@ -206,7 +253,7 @@ public class AssemblyProxyArchiver implements Archiver {
             final DefaultArchivedFileSet fs = new DefaultArchivedFileSet(archiveFile);
 
             fs.setPrefix(rootPrefix);
-            fs.setFileSelectors(selectors);
+            fs.setFileSelectors(selectors(archiveFile, true, fs.getPrefix()));
 
             debug("Adding archived file-set in: " + archiveFile + " to archive location: " + fs.getPrefix());
 
@@ -230,7 +277,7 @@ public class AssemblyProxyArchiver implements Archiver {
             fs.setIncludes(includes);
             fs.setExcludes(excludes);
             fs.setPrefix(rootPrefix + prefix);
-            fs.setFileSelectors(selectors);
+            fs.setFileSelectors(selectors(directory, false, fs.getPrefix()));
 
             debug("Adding directory file-set in: " + directory + " to archive location: " + fs.getPrefix());
 
@@ -277,7 +324,7 @@ public class AssemblyProxyArchiver implements Archiver {
 
             fs.setDirectory(directory);
             fs.setPrefix(rootPrefix + prefix);
-            fs.setFileSelectors(selectors);
+            fs.setFileSelectors(selectors(directory, false, fs.getPrefix()));
 
             debug("Adding directory file-set in: " + directory + " to archive location: " + fs.getPrefix());
 
@@ -300,7 +347,7 @@ public class AssemblyProxyArchiver implements Archiver {
             fs.setIncludes(includes);
             fs.setExcludes(excludes);
             fs.setPrefix(rootPrefix);
-            fs.setFileSelectors(selectors);
+            fs.setFileSelectors(selectors(directory, false, fs.getPrefix()));
 
             debug("Adding directory file-set in: " + directory + " to archive location: " + fs.getPrefix());
 
@@ -321,7 +368,7 @@ public class AssemblyProxyArchiver implements Archiver {
 
             fs.setDirectory(directory);
             fs.setPrefix(rootPrefix);
-            fs.setFileSelectors(selectors);
+            fs.setFileSelectors(selectors(directory, false, fs.getPrefix()));
 
             debug("Adding directory file-set in: " + directory + " to archive location: " + fs.getPrefix());
 
@@ -342,6 +389,7 @@ public class AssemblyProxyArchiver implements Archiver {
                 debug("Adding file: " + inputFile + " to archive location: " + rootPrefix + destFileName);
 
                 delegate.addFile(inputFile, rootPrefix + destFileName, permissions);
+                countFile(inputFile, rootPrefix + destFileName, inputFile.length());
             } finally {
                 inPublicApi.set(null);
             }
@@ -359,6 +407,7 @@ public class AssemblyProxyArchiver implements Archiver {
                 debug("Adding file: " + inputFile + " to archive location: " + rootPrefix + destFileName);
 
                 delegate.addFile(inputFile, rootPrefix + destFileName);
+                countFile(inputFile, rootPrefix + destFileName, inputFile.length());
             } finally {
                 inPublicApi.set(null);
             }
@@ -549,7 +598,8 @@ public class AssemblyProxyArchiver implements Archiver {
     public void addArchivedFileSet(final ArchivedFileSet fileSet) {
         inPublicApi.set(Boolean.TRUE);
         try {
-            final PrefixedArchivedFileSet fs = new PrefixedArchivedFileSet(fileSet, rootPrefix, selectors);
+            final PrefixedArchivedFileSet fs = new PrefixedArchivedFileSet(
+                    fileSet, rootPrefix, selectors(fileSet.getArchive(), true, prefixed(fileSet.getPrefix())));
 
             debug("Adding archived file-set in: " + fileSet.getArchive() + " to archive location: " + fs.getPrefix());
 
@@ -563,7 +613,10 @@ public class AssemblyProxyArchiver implements Archiver {
     public void addArchivedFileSet(ArchivedFileSet archivedFileSet, Charset charset) {
         inPublicApi.set(Boolean.TRUE);
         try {
-            final PrefixedArchivedFileSet fs = new PrefixedArchivedFileSet(archivedFileSet, rootPrefix, selectors);
+            final PrefixedArchivedFileSet fs = new PrefixedArchivedFileSet(
+                    archivedFileSet,
+                    rootPrefix,
+                    selectors(archivedFileSet.getArchive(), true, prefixed(archivedFileSet.getPrefix())));
 
             debug("Adding archived file-set in: " + archivedFileSet.getArchive() + " to archive location: "
                     + fs.getPrefix());
@@ -581,7 +634,8 @@ public class AssemblyProxyArchiver implements Archiver {
     public void addFileSet(final FileSet fileSet) {
         inPublicApi.set(Boolean.TRUE);
         try {
-            final PrefixedFileSet fs = new PrefixedFileSet(fileSet, rootPrefix, selectors);
+            final PrefixedFileSet fs = new PrefixedFileSet(
+                    fileSet, rootPrefix, selectors(fileSet.getDirectory(), false, prefixed(fileSet.getPrefix())));
 
             debug("Adding file-set in: " + fileSet.getDirectory() + " to archive location: " + fs.getPrefix());
 
@@ -608,6 +662,8 @@ public class AssemblyProxyArchiver implements Archiver {
                     + "\nFile-Set source directory: " + fsPath);
 
             newEx.add(workDirExclude);
+            // the literal exclude only drops the directory entry itself, not the files below it
+            newEx.add(workDirExclude + "/**");
 
             final List<String> newIn = new ArrayList<>();
             if (fs.getIncludes() != null) {
@@ -618,23 +674,190 @@ public class AssemblyProxyArchiver implements Archiver {
                 }
             }
 
-            final DefaultFileSet dfs = new DefaultFileSet();
+            final String[] excludes = newEx.toArray(new String[0]);
+            final String[] includes = newIn.toArray(new String[0]);
 
-            dfs.setCaseSensitive(fs.isCaseSensitive());
-            dfs.setDirectory(fs.getDirectory());
-            dfs.setExcludes(newEx.toArray(new String[0]));
-            dfs.setFileSelectors(fs.getFileSelectors());
-            dfs.setIncludes(newIn.toArray(new String[0]));
-            dfs.setIncludingEmptyDirectories(fs.isIncludingEmptyDirectories());
-            dfs.setPrefix(fs.getPrefix());
-            dfs.setStreamTransformer(fs.getStreamTransformer());
+            addToDelegate(copyFileSet(fs, includes, excludes));
+        } else {
+            addToDelegate(fs);
+        }
+    }
 
-            delegate.addFileSet(dfs);
+    private void addToDelegate(final FileSet fs) {
+        final boolean transforming = parallelTransformation && fs.getStreamTransformer() != null;
+        if ((parallelScanning || sharedScanning || pruning || transforming) && delegate instanceof AbstractArchiver) {
+            if (parallelScanning) {
+                debug("Scanning file-set in: " + fs.getDirectory() + " in parallel");
+            }
+
+            final ParallelFileResourceCollection collection = ParallelFileResourceCollection.of(
+                    fs,
+                    (AbstractArchiver) delegate,
+                    parallelScanning ? ForkJoinPool.commonPool() : null,
+                    sharedScanning ? sourceTree : null);
+            collection.setPruning(pruning);
+            if (transforming) {
+                debug("Transforming file-set in: " + fs.getDirectory() + " in parallel");
+                collection.setTransformationPool(ForkJoinPool.commonPool());
+            }
+
+            if (sharedScanning) {
+                // file-sets are scanned when the archive is created; by then, all overlapping file-sets are known.
+                sourceTree.addRoot(fs.getDirectory());
+            }
+            delegate.addResources(collection);
         } else {
             delegate.addFileSet(fs);
         }
     }
 
+    private static DefaultFileSet copyFileSet(final FileSet fs, final String[] includes, final String[] excludes) {
+        final DefaultFileSet dfs = new DefaultFileSet();
+
+        dfs.setCaseSensitive(fs.isCaseSensitive());
+        dfs.setDirectory(fs.getDirectory());
+        dfs.setExcludes(excludes);
+        dfs.setFileSelectors(fs.getFileSelectors());
+        dfs.setIncludes(includes);
+        dfs.setIncludingEmptyDirectories(fs.isIncludingEmptyDirectories());
+        dfs.setPrefix(fs.getPrefix());
+        dfs.setStreamTransformer(fs.getStreamTransformer());
+        dfs.setUsingDefaultExcludes(fs.isUsingDefaultExcludes());
+
+        return dfs;
+    }
+
+    /**
+     * Walks the directories of added file-sets in parallel instead of sequentially. Only effective when the delegate
+     * is an {@link AbstractArchiver}.
+     *
+     * @param parallelScanning <code>true</code> to scan in parallel.
+     */
+    public void setParallelScanning(final boolean parallelScanning) {
+        this.parallelScanning = parallelScanning;
+    }
+
+    /**
+     * Lists the directories walked by several added file-sets only once, keeping each listing until every file-set
+     * walking it was scanned. Only effective when the delegate is an {@link AbstractArchiver}.
+     *
+     * @param sharedScanning <code>true</code> to share the listings between overlapping file-sets.
+     */
+    public void setSharedScanning(final boolean sharedScanning) {
+        this.sharedScanning = sharedScanning;
+    }
+
+    /**
+     * Keeps the scans of added file-sets out of the directories they exclude as a whole, see {@link FileSetPruner}.
+     * Only effective when the delegate is an {@link AbstractArchiver}.
+     *
+     * @param pruning <code>true</code> to prune the excluded directories when the file-sets are scanned.
+     */
+    public void setPruning(final boolean pruning) {
+        this.pruning = pruning;
+    }
+
+    /**
+     * Transforms (filters, converts the line endings of) the files of added file-sets in parallel, when their
+     * resources are created, instead of sequentially. Only effective when the delegate is an {@link AbstractArchiver}.
+     *
+     * @param parallelTransformation <code>true</code> to transform in parallel.
+     */
+    public void setParallelTransformation(final boolean parallelTransformation) {
+        this.parallelTransformation = parallelTransformation;
+    }
+
+    /**
+     * Counts the entries added from now on towards the current section of a report.
+     *
+     * @param report The report of the archive, or <code>null</code> to not count entries.
+     */
+    public void setReport(final ArchiveReport report) {
+        this.report = report;
+    }
+
+    /**
+     * Sends the entries added from now on, and the duplicates skipped, to the listeners.
+     *
+     * @param events The events of the build.
+     */
+    public void setEvents(final AssemblyEvents events) {
+        this.events = events;
+    }
+
+    /**
+     * @param source The directory or archive of the file-set.
+     * @param archived Whether the source is an archive.
+     * @param prefix The prefix of the entries of the file-set in the archive.
+     * @return The selectors of added file-sets, which count the selected files towards the current section of the
+     *         report, if any, and send them to the listeners; file-sets are only scanned when the archive is created.
+     */
+    private FileSelector[] selectors(final File source, final boolean archived, final String prefix) {
+        final ArchiveReport.Section section = report != null ? report.getCurrent() : null;
+        final AssemblyEvents events = this.events;
+        if (section == null && !events.isEnabled()) {
+            return selectors;
+        }
+
+        // a non-forced archiver selects the resources twice, once to check if the archive is up to date; only the
+        // first selection is counted, and sent to the listeners, or all entries would look like duplicates
+        final Set<String> names = ConcurrentHashMap.newKeySet();
+        final FileSelector counter = fileInfo -> {
+            if (fileInfo.isFile() && names.add(fileInfo.getName())) {
+                final long size = fileInfo instanceof SizeSupplier ? ((SizeSupplier) fileInfo).getSize() : -1;
+                if (section != null) {
+                    section.addFile(size);
+                }
+                if (events.isEnabled()) {
+                    final String name = fileInfo.getName().replace('\\', '/');
+                    added(
+                            archived ? source.getPath() + "!/" + name : new File(source, name).getPath(),
+                            prefix + name,
+                            size);
+                }
+            }
+            return true;
+        };
+
+        if (selectors == null) {
+            return new FileSelector[] {counter};
+        }
+        final FileSelector[] counted = Arrays.copyOf(selectors, selectors.length + 1);
+        counted[selectors.length] = counter;
+        return counted;
+    }
+
+    private String prefixed(final String prefix) {
+        if (prefix == null) {
+            return rootPrefix;
+        }
+        return rootPrefix + (prefix.startsWith("/") ? prefix.substring(1) : prefix);
+    }
+
+    private void countFile(final Object source, final String target, final long size) {
+        final ArchiveReport.Section section = report != null ? report.getCurrent() : null;
+        if (section != null) {
+            section.addFile(size);
+        }
+        if (events.isEnabled()) {
+            added(String.valueOf(source), target, size);
+        }
+    }
+
+    private void added(final String source, final String target, final long size) {
+        if (!targets.add(target) && isSkippingDuplicates()) {
+            events.duplicateSkipped(source, target);
+        } else {
+            events.entryAdded(source, target, size);
+        }
+    }
+
+    private boolean isSkippingDuplicates() {
+        final String duplicateBehavior = delegate.getDuplicateBehavior();
+        return Archiver.DUPLICATES_SKIP.equals(duplicateBehavior)
+                || Archiver.DUPLICATES_PRESERVE.equals(duplicateBehavior);
+    }
+
     private boolean acceptFile(final File inputFile) {
         if (!Boolean.TRUE.equals(inPublicApi.get())) {
             if (selectors != null) {
@@ -667,6 +890,7 @@ public class AssemblyProxyArchiver implements Archiver {
             inPublicApi.set(Boolean.TRUE);
             try {
                 delegate.addResource(resource, rootPrefix + destFileName, permissions);
+                countFile(resource.getName(), rootPrefix + destFileName, resource.getSize());
             } finally {
                 inPublicApi.set(null);
             }
@@ -0,0 +1,303 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.archiver;
+
+import javax.inject.Named;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.zip.UnixStat;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.parallel.InputStreamSupplier;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.codehaus.plexus.archiver.ArchiverException;
+import org.codehaus.plexus.archiver.zip.ConcurrentJarCreator;
+import org.codehaus.plexus.archiver.zip.ZipArchiver;
+import org.codehaus.plexus.components.io.resources.PlexusIoResource;
+
+/**
+ * A zip archiver taking the deflated content of regular files from a {@link CompressedEntryCache}, and writing it to
+ * the archive as it is, instead of compressing the files again.
+ * <p>
+ * The content of a file is read once to look it up in the cache. On a miss, the file is compressed into the cache on
+ * the common pool, concurrently with the other misses, and that output is written to the archive. The directories are
+ * written first, then the files in the order they were added, as a {@link ZipArchiver} would. Symbolic links are left
+ * to the archiver, and follow the files. Without a cache, the archiver behaves as a {@link ZipArchiver}.
+ * </p>
+ * The archiver is a component, so the archived file sets added to it are unpacked by the resource collections of the
+ * container.
+ *
+ * @since 3.7.0
+ */
+@Named
+public class CachingZipArchiver extends ZipArchiver {
+    private static final int PERCENT = 100;
+
+    private CompressedEntryCache cache;
+
+    private AssemblyEvents events = AssemblyEvents.none();
+
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * The directories of the archive, written ahead of the files.
+     */
+    private DirectoryEntries directories;
+
+    /**
+     * The files of the archive, in the order they were added.
+     */
+    private final List<PendingFile> files = new ArrayList<>();
+
+    /**
+     * The misses being compressed, by checksum, so files with the same content are compressed once.
+     */
+    private final Map<String, CompletableFuture<CompressedEntryCache.Entry>> compressing = new HashMap<>();
+
+    private long hits;
+
+    private long misses;
+
+    /**
+     * @param cache The cache of deflated entries, or <code>null</code> to compress every entry.
+     * @param events The events sent on cache hits and misses.
+     */
+    public void setCompressedEntryCache(final CompressedEntryCache cache, final AssemblyEvents events) {
+        this.cache = cache;
+        this.events = events;
+    }
+
+    /**
+     * @param compressionLevel The level the files are compressed with, from 0 to 9, or
+     *            {@link Deflater#DEFAULT_COMPRESSION}. Part of the key of the cached entries.
+     */
+    public void setCompressionLevel(final int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    @Override
+    protected void zipDir(
+            final PlexusIoResource dir,
+            final ConcurrentJarCreator zOut,
+            final String vPath,
+            final int mode,
+            final String encoding)
+            throws IOException {
+        if (!isCaching()) {
+            super.zipDir(dir, zOut, vPath, mode, encoding);
+            return;
+        }
+
+        if (directories == null) {
+            directories = new DirectoryEntries();
+        }
+        super.zipDir(dir, directories, vPath, mode, encoding);
+    }
+
+    @Override
+    protected void zipFile(
+            final InputStreamSupplier in,
+            final ConcurrentJarCreator zOut,
+            final String vPath,
+            final long lastModified,
+            final File fromArchive,
+            final int mode,
+            final String symlinkDestination,
+            final boolean addInParallel)
+            throws IOException, ArchiverException {
+        if (!isCaching() || symlinkDestination != null) {
+            super.zipFile(in, zOut, vPath, lastModified, fromArchive, mode, symlinkDestination, addInParallel);
+            return;
+        }
+
+        final CompressedEntryCache.Digest digest = CompressedEntryCache.digest(in);
+
+        getLogger().debug("adding entry " + vPath);
+        entries.put(vPath, vPath);
+
+        final ZipArchiveEntry entry = new ZipArchiveEntry(vPath);
+        setZipEntryTime(entry, lastModified);
+        entry.setUnixMode(UnixStat.FILE_FLAG | mode);
+
+        if (!isRecompressAddedZips() && digest.isZip()) {
+            entry.setMethod(ZipEntry.STORED);
+            files.add(new PendingFile(entry, in, digest, null));
+            return;
+        }
+
+        entry.setMethod(ZipEntry.DEFLATED);
+        CompletableFuture<CompressedEntryCache.Entry> deflated = compressing.get(digest.getChecksum());
+        if (deflated != null) {
+            hits++;
+            events.cacheHit(AssemblyEvents.COMPRESSED_ENTRY_CACHE, CompressedEntryCache.name(digest, compressionLevel));
+        } else {
+            final CompressedEntryCache.Entry cached = cache.find(digest, compressionLevel, events);
+            if (cached != null) {
+                hits++;
+                deflated = CompletableFuture.completedFuture(cached);
+            } else {
+                misses++;
+                deflated = CompletableFuture.supplyAsync(() -> compress(in, digest, vPath), ForkJoinPool.commonPool());
+                compressing.put(digest.getChecksum(), deflated);
+            }
+        }
+        files.add(new PendingFile(entry, in, digest, deflated));
+    }
+
+    @Override
+    protected void close() throws IOException {
+        try {
+            if (zipArchiveOutputStream != null && (directories != null || !files.isEmpty())) {
+                zipArchiveOutputStream.setLevel(compressionLevel);
+                if (directories != null) {
+                    for (final PendingFile directory : directories.entries) {
+                        write(directory);
+                    }
+                }
+                for (final PendingFile file : files) {
+                    write(file);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while writing " + getDestFile(), e);
+        } catch (final ExecutionException e) {
+            throw new IOException(e.getCause());
+        } finally {
+            if (hits + misses > 0) {
+                getLogger()
+                        .info("Reused " + hits + " of " + (hits + misses) + " compressed entries ("
+                                + hits * PERCENT / (hits + misses) + "%) from " + cache.getDirectory());
+            }
+            hits = 0;
+            misses = 0;
+            directories = null;
+            files.clear();
+            compressing.clear();
+            super.close();
+        }
+    }
+
+    private boolean isCaching() {
+        return cache != null && !skipWriting && zipArchiveOutputStream != null && isCompress();
+    }
+
+    /**
+     * @return The deflated content, or <code>null</code> if it cannot be cached, to compress it while writing.
+     */
+    private CompressedEntryCache.Entry compress(
+            final InputStreamSupplier in, final CompressedEntryCache.Digest digest, final String vPath) {
+        try {
+            return cache.put(digest, in, compressionLevel);
+        } catch (final IOException e) {
+            getLogger().debug("Compressing " + vPath + " without cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(final PendingFile file) throws IOException, InterruptedException, ExecutionException {
+        final ZipArchiveEntry entry = file.entry;
+        final CompressedEntryCache.Entry cached = file.deflated != null ? file.deflated.get() : null;
+        if (cached != null) {
+            entry.setCrc(cached.getCrc());
+            entry.setSize(cached.getSize());
+            entry.setCompressedSize(cached.getCompressedSize());
+            try (InputStream raw = cached.open()) {
+                zipArchiveOutputStream.addRawArchiveEntry(entry, raw);
+            }
+            return;
+        }
+
+        if (file.digest != null && entry.getMethod() == ZipEntry.STORED) {
+            entry.setCrc(file.digest.getCrc());
+            entry.setSize(file.digest.getSize());
+            entry.setCompressedSize(file.digest.getSize());
+        }
+        zipArchiveOutputStream.putArchiveEntry(entry);
+        try (InputStream in = file.content.get()) {
+            IOUtils.copy(in, zipArchiveOutputStream);
+        }
+        zipArchiveOutputStream.closeArchiveEntry();
+    }
+
+    /**
+     * Records the directory entries the archiver creates, instead of writing them, so they can be written ahead of the
+     * files. A {@link ConcurrentJarCreator} closes the archive once it wrote its entries.
+     */
+    private static final class DirectoryEntries extends ConcurrentJarCreator {
+        private final List<PendingFile> entries = new ArrayList<>();
+
+        DirectoryEntries() throws IOException {
+            super(1);
+        }
+
+        @Override
+        public void addArchiveEntry(
+                final ZipArchiveEntry entry, final InputStreamSupplier source, final boolean addInParallel) {
+            entries.add(new PendingFile(entry, source, null, null));
+        }
+    }
+
+    /**
+     * A file of the archive, with its deflated content once known.
+     */
+    private static final class PendingFile {
+        private final ZipArchiveEntry entry;
+
+        private final InputStreamSupplier content;
+
+        /**
+         * The digest of the content, <code>null</code> for directories.
+         */
+        private final CompressedEntryCache.Digest digest;
+
+        /**
+         * The deflated content, <code>null</code> to store the file as it is.
+         */
+        private final Future<CompressedEntryCache.Entry> deflated;
+
+        PendingFile(
+                final ZipArchiveEntry entry,
+                final InputStreamSupplier content,
+                final CompressedEntryCache.Digest digest,
+                final Future<CompressedEntryCache.Entry> deflated) {
+            this.entry = entry;
+            this.content = content;
+            this.digest = digest;
+            this.deflated = deflated;
+        }
+    }
+}
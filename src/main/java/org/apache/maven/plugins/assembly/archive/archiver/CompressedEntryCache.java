@@ -0,0 +1,342 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.archiver;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.parallel.InputStreamSupplier;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.apache.maven.plugins.assembly.utils.CacheDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the deflated content of zip entries across builds, so entries with the same content are written without
+ * compressing them again.
+ * <p>
+ * An entry is keyed by the SHA-1 checksum of its content, the compression method and the compression level. Its file
+ * holds the CRC-32 and the size of the content, followed by the raw deflated data, as written to a zip.
+ * </p>
+ * <p>
+ * The entries are kept in a {@link CacheDirectory}, trimmed to a maximum size once the build is done with the cache.
+ * The cache is thread-safe.
+ * </p>
+ *
+ * @since 3.7.0
+ */
+public final class CompressedEntryCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompressedEntryCache.class);
+
+    /**
+     * The CRC-32 and the size preceding the data.
+     */
+    private static final int HEADER_SIZE = 2 * Long.BYTES;
+
+    private static final byte[] ZIP_HEADER = {'P', 'K', 3, 4};
+
+    private final CacheDirectory directory;
+
+    /**
+     * @param directory The directory holding the entries.
+     * @param maxSize The size in bytes the entries are trimmed to.
+     */
+    public CompressedEntryCache(final File directory, final long maxSize) {
+        this.directory = new CacheDirectory(directory, maxSize, "compressed entry");
+    }
+
+    /**
+     * Reads the content of an entry once, computing its checksum, CRC-32 and size.
+     *
+     * @param content The content of the entry.
+     * @return The digest of the content.
+     * @throws IOException If the content cannot be read.
+     */
+    public static Digest digest(final InputStreamSupplier content) throws IOException {
+        final MessageDigest sha1 = CacheDirectory.digest("SHA-1");
+        final CRC32 crc = new CRC32();
+        final byte[] header = new byte[ZIP_HEADER.length];
+        long size = 0;
+
+        try (InputStream in = content.get()) {
+            final byte[] buffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                sha1.update(buffer, 0, read);
+                crc.update(buffer, 0, read);
+                if (size < header.length) {
+                    System.arraycopy(buffer, 0, header, (int) size, (int) Math.min(read, header.length - size));
+                }
+                size += read;
+            }
+        }
+
+        return new Digest(
+                CacheDirectory.hex(sha1.digest()),
+                crc.getValue(),
+                size,
+                size >= header.length && Arrays.equals(header, ZIP_HEADER));
+    }
+
+    /**
+     * Gets the deflated content, compressing and adding it on a miss.
+     *
+     * @param content The content of the entry, read once to compute its checksum, and once more on a miss.
+     * @param level The compression level, from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}.
+     * @param events The events sent on cache hits and misses.
+     * @return The deflated content.
+     * @throws IOException If the content cannot be read, or the cache cannot be written.
+     */
+    public Entry get(final InputStreamSupplier content, final int level, final AssemblyEvents events)
+            throws IOException {
+        final Digest digest = digest(content);
+        final Entry entry = find(digest, level, events);
+        return entry != null ? entry : put(digest, content, level);
+    }
+
+    /**
+     * @param digest The digest of the content of the entry.
+     * @param level The compression level, from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}.
+     * @param events The events sent on cache hits and misses.
+     * @return The deflated content, or <code>null</code> on a miss.
+     */
+    public Entry find(final Digest digest, final int level, final AssemblyEvents events) {
+        final String name = name(digest, level);
+        final File file = directory.getFile(name);
+
+        if (file.isFile()) {
+            try {
+                final Entry entry = read(file);
+                events.cacheHit(AssemblyEvents.COMPRESSED_ENTRY_CACHE, name);
+                directory.markUsed(file);
+                return entry;
+            } catch (final IOException e) {
+                LOGGER.debug("Replacing unreadable compressed entry " + file + ": " + e.getMessage());
+            }
+        }
+
+        events.cacheMiss(AssemblyEvents.COMPRESSED_ENTRY_CACHE, name);
+        return null;
+    }
+
+    /**
+     * Compresses the content and adds it to the cache.
+     *
+     * @param digest The digest of the content of the entry.
+     * @param content The content of the entry, read once more.
+     * @param level The compression level, from 0 to 9, or {@link Deflater#DEFAULT_COMPRESSION}.
+     * @return The deflated content.
+     * @throws IOException If the content cannot be read, has changed since its digest was computed, or the cache
+     *             cannot be written.
+     */
+    public Entry put(final Digest digest, final InputStreamSupplier content, final int level) throws IOException {
+        final File file = directory.getFile(name(digest, level));
+        final Entry entry = compress(content, level, file);
+        if (entry.getCrc() != digest.getCrc() || entry.getSize() != digest.getSize()) {
+            throw new IOException("The content changed while being compressed into: " + file);
+        }
+        return entry;
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache fits its maximum size, sparing those used recently.
+     */
+    public void trim() {
+        directory.trim();
+    }
+
+    /**
+     * @return The directory holding the entries.
+     */
+    public File getDirectory() {
+        return directory.getDirectory();
+    }
+
+    /**
+     * @return The key of the entry with the given content and compression level.
+     */
+    static String name(final Digest digest, final int level) {
+        return digest.getChecksum() + '-' + ZipEntry.DEFLATED + '-' + level;
+    }
+
+    private Entry compress(final InputStreamSupplier content, final int level, final File file) throws IOException {
+        return directory.write(file, tempFile -> {
+            final Deflater deflater = new Deflater(level, true);
+            try {
+                final CRC32 crc = new CRC32();
+                long size = 0;
+                try (InputStream in = content.get();
+                        OutputStream out = Files.newOutputStream(tempFile)) {
+                    out.write(new byte[HEADER_SIZE]);
+                    final DeflaterOutputStream deflated =
+                            new DeflaterOutputStream(out, deflater, IOUtils.DEFAULT_BUFFER_SIZE);
+                    final byte[] buffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+                    for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                        crc.update(buffer, 0, read);
+                        deflated.write(buffer, 0, read);
+                        size += read;
+                    }
+                    deflated.finish();
+                }
+
+                try (RandomAccessFile header = new RandomAccessFile(tempFile.toFile(), "rw")) {
+                    header.writeLong(crc.getValue());
+                    header.writeLong(size);
+                }
+
+                return new Entry(file, crc.getValue(), size, Files.size(tempFile) - HEADER_SIZE, false);
+            } finally {
+                deflater.end();
+            }
+        });
+    }
+
+    private static Entry read(final File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file.toPath()))) {
+            final long crc = in.readLong();
+            final long size = in.readLong();
+            return new Entry(file, crc, size, file.length() - HEADER_SIZE, true);
+        }
+    }
+
+    /**
+     * The checksum, CRC-32 and size of the content of an entry.
+     */
+    public static final class Digest {
+        private final String checksum;
+
+        private final long crc;
+
+        private final long size;
+
+        private final boolean zip;
+
+        Digest(final String checksum, final long crc, final long size, final boolean zip) {
+            this.checksum = checksum;
+            this.crc = crc;
+            this.size = size;
+            this.zip = zip;
+        }
+
+        /**
+         * @return The SHA-1 checksum of the content.
+         */
+        public String getChecksum() {
+            return checksum;
+        }
+
+        /**
+         * @return The CRC-32 of the content.
+         */
+        public long getCrc() {
+            return crc;
+        }
+
+        /**
+         * @return The size of the content.
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return <code>true</code> if the content starts with the header of a zip.
+         */
+        public boolean isZip() {
+            return zip;
+        }
+    }
+
+    /**
+     * The deflated content of an entry.
+     */
+    public static final class Entry {
+        private final File file;
+
+        private final long crc;
+
+        private final long size;
+
+        private final long compressedSize;
+
+        private final boolean hit;
+
+        Entry(final File file, final long crc, final long size, final long compressedSize, final boolean hit) {
+            this.file = file;
+            this.crc = crc;
+            this.size = size;
+            this.compressedSize = compressedSize;
+            this.hit = hit;
+        }
+
+        /**
+         * @return <code>true</code> if the entry was found in the cache, <code>false</code> if it was just compressed.
+         */
+        public boolean isHit() {
+            return hit;
+        }
+
+        /**
+         * @return The CRC-32 of the content.
+         */
+        public long getCrc() {
+            return crc;
+        }
+
+        /**
+         * @return The size of the content.
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return The size of the deflated data.
+         */
+        public long getCompressedSize() {
+            return compressedSize;
+        }
+
+        /**
+         * @return The raw deflated data.
+         * @throws IOException If the entry cannot be read.
+         */
+        public InputStream open() throws IOException {
+            final InputStream in = Files.newInputStream(file.toPath());
+            try {
+                IOUtils.skipFully(in, HEADER_SIZE);
+                return in;
+            } catch (final IOException e) {
+                in.close();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.archiver;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringTokenizer;
+
+import org.codehaus.plexus.util.SelectorUtils;
+
+/**
+ * Rewrites the include patterns of a file-set so that the directory scanner never descends into directories that
+ * are excluded as a whole.
+ * <p>
+ * The plexus directory scanner keeps walking an excluded directory as long as one of the include patterns could
+ * still match something below it, which is always the case for the default <code>**</code> include. Excludes of
+ * the form <code>some/literal/path/**</code> (the assembly working directory among them) are compiled into a prefix
+ * trie; when the file-set is scanned, the directories on the way to those subtrees are listed once and the includes
+ * are replaced by their residuals for every sibling, so the scanner only ever enters directories that may hold
+ * included files.
+ * </p>
+ * Patterns that cannot be rewritten exactly (<code>%regex[]</code>/<code>%ant[]</code> patterns, file names
+ * containing wildcards) disable the pruning and leave the file-set untouched, as do directories of more than
+ * {@value #MAX_ENTRIES} entries on the way, since every sibling becomes an include the scanner matches each path
+ * against.
+ */
+final class FileSetPruner {
+    private static final String ANY_PATH = "**";
+
+    static final int MAX_ENTRIES = 64;
+
+    private FileSetPruner() {
+        // no op
+    }
+
+    /**
+     * @param directory The base directory of the file-set.
+     * @param includes The include patterns, <code>null</code> or empty for everything.
+     * @param excludes The exclude patterns, may be <code>null</code>.
+     * @param caseSensitive Whether the patterns are matched case sensitively.
+     * @return The rewritten include patterns, or <code>null</code> if nothing can be pruned.
+     */
+    static String[] pruneIncludes(
+            final File directory, final String[] includes, final String[] excludes, final boolean caseSensitive) {
+        final Node root = new Node();
+
+        if (excludes != null) {
+            for (final String exclude : excludes) {
+                final List<String> subtree = toExcludedSubtree(exclude);
+                if (subtree != null) {
+                    root.add(subtree, caseSensitive);
+                }
+            }
+        }
+
+        if (!root.retainExisting(directory)) {
+            return null;
+        }
+
+        final List<List<String>> residuals = new ArrayList<>();
+        if (includes == null || includes.length == 0) {
+            residuals.add(Arrays.asList(ANY_PATH));
+        } else {
+            for (final String include : includes) {
+                if (isPatternHandler(include)) {
+                    return null;
+                }
+                residuals.add(tokenize(normalize(include)));
+            }
+        }
+
+        final Set<String> pruned = new LinkedHashSet<>();
+        if (!expand(root, directory, "", residuals, caseSensitive, pruned)) {
+            return null;
+        }
+
+        return pruned.toArray(new String[0]);
+    }
+
+    private static boolean expand(
+            final Node node,
+            final File dir,
+            final String path,
+            final List<List<String>> residuals,
+            final boolean caseSensitive,
+            final Set<String> result) {
+        final String[] names = dir.list();
+        if (names == null || names.length > MAX_ENTRIES) {
+            return false;
+        }
+        Arrays.sort(names);
+
+        for (final String name : names) {
+            if (hasWildcard(name)) {
+                return false;
+            }
+
+            final Node child = node.get(name, caseSensitive);
+            if (child != null && child.excluded) {
+                continue;
+            }
+
+            final String childPath = path + name;
+            final List<List<String>> childResiduals = derive(residuals, name, caseSensitive);
+            final File file = new File(dir, name);
+
+            if (!file.isDirectory()) {
+                for (final List<String> residual : childResiduals) {
+                    if (matchesItself(residual)) {
+                        result.add(childPath);
+                        break;
+                    }
+                }
+            } else if (child == null) {
+                for (final List<String> residual : childResiduals) {
+                    result.add(residual.isEmpty() ? childPath : childPath + "/" + join(residual));
+                }
+            } else if (!childResiduals.isEmpty()) {
+                final List<List<String>> below = new ArrayList<>();
+                for (final List<String> residual : childResiduals) {
+                    if (matchesItself(residual)) {
+                        result.add(childPath);
+                    }
+                    if (!residual.isEmpty()) {
+                        below.add(residual);
+                    }
+                }
+
+                if (!below.isEmpty() && !expand(child, file, childPath + "/", below, caseSensitive, result)) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Computes the patterns that must match the remainder of a path once its leading segment <code>name</code> has
+     * been matched. A residual made only of <code>**</code> tokens (or none at all) also matches the segment itself.
+     */
+    private static List<List<String>> derive(
+            final List<List<String>> patterns, final String name, final boolean caseSensitive) {
+        final Set<List<String>> result = new LinkedHashSet<>();
+        for (final List<String> pattern : patterns) {
+            derive(pattern, name, caseSensitive, result);
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static void derive(
+            final List<String> pattern,
+            final String name,
+            final boolean caseSensitive,
+            final Set<List<String>> result) {
+        if (pattern.isEmpty()) {
+            return;
+        }
+
+        final String first = pattern.get(0);
+        if (ANY_PATH.equals(first)) {
+            result.add(pattern);
+            derive(pattern.subList(1, pattern.size()), name, caseSensitive, result);
+        } else if (SelectorUtils.match(first, name, caseSensitive)) {
+            result.add(pattern.subList(1, pattern.size()));
+        }
+    }
+
+    private static boolean matchesItself(final List<String> residual) {
+        for (final String token : residual) {
+            if (!ANY_PATH.equals(token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<String> toExcludedSubtree(final String exclude) {
+        if (exclude == null || isPatternHandler(exclude)) {
+            return null;
+        }
+
+        final List<String> tokens = tokenize(normalize(exclude));
+        if (tokens.size() < 2 || !ANY_PATH.equals(tokens.get(tokens.size() - 1))) {
+            return null;
+        }
+
+        final List<String> literal = tokens.subList(0, tokens.size() - 1);
+        return isLiteral(literal) ? literal : null;
+    }
+
+    /**
+     * Mirrors <code>DirectoryScanner.normalizePattern(String)</code>: a pattern ending with a separator matches
+     * everything below the directory.
+     */
+    private static String normalize(final String pattern) {
+        final String normalized = pattern.trim().replace('\\', '/');
+        return normalized.endsWith("/") ? normalized + ANY_PATH : normalized;
+    }
+
+    private static boolean isLiteral(final List<String> tokens) {
+        for (final String token : tokens) {
+            if (hasWildcard(token) || ".".equals(token) || "..".equals(token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasWildcard(final String value) {
+        return value.indexOf('*') > -1 || value.indexOf('?') > -1;
+    }
+
+    private static boolean isPatternHandler(final String pattern) {
+        final String trimmed = pattern.trim();
+        return trimmed.startsWith(SelectorUtils.REGEX_HANDLER_PREFIX)
+                || trimmed.startsWith(SelectorUtils.ANT_HANDLER_PREFIX);
+    }
+
+    private static List<String> tokenize(final String pattern) {
+        final List<String> tokens = new ArrayList<>();
+        final StringTokenizer tokenizer = new StringTokenizer(pattern.trim(), "/\\");
+        while (tokenizer.hasMoreTokens()) {
+            tokens.add(tokenizer.nextToken());
+        }
+        return tokens;
+    }
+
+    private static String join(final List<String> tokens) {
+        final StringBuilder sb = new StringBuilder();
+        for (final String token : tokens) {
+            if (sb.length() > 0) {
+                sb.append('/');
+            }
+            sb.append(token);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * A node of the excluded-subtree trie, keyed by path segment.
+     */
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+
+        private boolean excluded;
+
+        void add(final List<String> segments, final boolean caseSensitive) {
+            Node current = this;
+            for (final String segment : segments) {
+                if (current.excluded) {
+                    return;
+                }
+                final String key = caseSensitive ? segment : segment.toLowerCase(Locale.ENGLISH);
+                Node next = current.children.get(key);
+                if (next == null) {
+                    next = new Node();
+                    current.children.put(key, next);
+                }
+                current = next;
+            }
+            current.excluded = true;
+            current.children.clear();
+        }
+
+        Node get(final String name, final boolean caseSensitive) {
+            return children.get(caseSensitive ? name : name.toLowerCase(Locale.ENGLISH));
+        }
+
+        /**
+         * Drops the branches leading to excluded directories that do not exist, since there is nothing to prune
+         * there.
+         *
+         * @return <code>true</code> if any excluded directory remains.
+         */
+        boolean retainExisting(final File dir) {
+            if (excluded) {
+                return dir.isDirectory();
+            }
+
+            children.entrySet().removeIf(entry -> !entry.getValue().retainExisting(new File(dir, entry.getKey())));
+            return !children.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.archiver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.codehaus.plexus.util.DirectoryScanner;
+
+/**
+ * A {@link DirectoryScanner} that walks sub-directories in parallel on a fork/join pool, or sequentially if it has
+ * none. The directory entries are read from a shared {@link SourceTree}, if any.
+ * <p>
+ * Include/exclude matching is delegated to the plexus implementation, and the per-directory results are merged back
+ * in the exact depth-first order the sequential scanner produces (including the order imposed by the filename
+ * comparator), so the resulting archive is identical.
+ * </p>
+ */
+class ParallelDirectoryScanner extends DirectoryScanner {
+    private static final int FILE_INCLUDED = 0;
+
+    private static final int FILE_NOT_INCLUDED = 1;
+
+    private static final int FILE_EXCLUDED = 2;
+
+    private static final int FILE_DESELECTED = 3;
+
+    private static final int DIR_INCLUDED = 4;
+
+    private static final int DIR_NOT_INCLUDED = 5;
+
+    private static final int DIR_EXCLUDED = 6;
+
+    private static final int DIR_DESELECTED = 7;
+
+    private final ForkJoinPool pool;
+
+    private final SourceTree sourceTree;
+
+    private boolean followSymlinks = true;
+
+    ParallelDirectoryScanner(final ForkJoinPool pool) {
+        this(pool, null);
+    }
+
+    /**
+     * @param pool The pool to walk the sub-directories on, <code>null</code> to walk these sequentially.
+     * @param sourceTree The listing to read the directory entries from, <code>null</code> to list the directories.
+     */
+    ParallelDirectoryScanner(final ForkJoinPool pool, final SourceTree sourceTree) {
+        this.pool = pool;
+        this.sourceTree = sourceTree;
+    }
+
+    @Override
+    public void setFollowSymlinks(final boolean followSymlinks) {
+        super.setFollowSymlinks(followSymlinks);
+        this.followSymlinks = followSymlinks;
+    }
+
+    @Override
+    protected void scandir(final File dir, final String vpath, final boolean fast) {
+        if (!fast) {
+            // the slow scan only collects the not-included leftovers; keep the sequential implementation.
+            super.scandir(dir, vpath, false);
+            return;
+        }
+
+        final ScanTask root = new ScanTask(dir, vpath);
+        if (pool != null) {
+            pool.invoke(root);
+        } else {
+            root.compute();
+        }
+
+        final List<List<String>> targets = Arrays.<List<String>>asList(
+                filesIncluded,
+                filesNotIncluded,
+                filesExcluded,
+                filesDeselected,
+                dirsIncluded,
+                dirsNotIncluded,
+                dirsExcluded,
+                dirsDeselected);
+        root.mergeInto(targets);
+    }
+
+    /**
+     * Scans a single directory, forking one sub-task per directory to descend into. The outcome is kept as an
+     * ordered list of classified names and sub-tasks, which is flattened once the whole walk has completed.
+     */
+    private final class ScanTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final File dir;
+
+        private final String vpath;
+
+        private final List<Object> outcome = new ArrayList<>();
+
+        private boolean partial;
+
+        ScanTask(final File dir, final String vpath) {
+            this.dir = dir;
+            this.vpath = vpath;
+        }
+
+        @Override
+        protected void compute() {
+            final SourceTree.Listing listing = sourceTree != null ? sourceTree.list(dir) : null;
+
+            String[] newfiles = listing != null ? listing.getNames() : dir.list();
+            if (newfiles == null) {
+                newfiles = new String[0];
+            }
+
+            if (!followSymlinks && isParentSymbolicLinkQuietly()) {
+                for (final String newfile : newfiles) {
+                    final String name = vpath + newfile;
+                    outcome.add(new Entry(isDirectory(listing, newfile) ? DIR_EXCLUDED : FILE_EXCLUDED, name));
+                }
+                return;
+            }
+
+            if (filenameComparator != null) {
+                Arrays.sort(newfiles, filenameComparator);
+            }
+
+            final List<ScanTask> subTasks = new ArrayList<>();
+            for (final String newfile : newfiles) {
+                final String name = vpath + newfile;
+                final File file = new File(dir, newfile);
+
+                if (isDirectory(listing, newfile)) {
+                    final boolean descend;
+                    if (!isIncluded(name)) {
+                        record(DIR_NOT_INCLUDED, name);
+                        descend = couldHoldIncluded(name);
+                    } else if (isExcluded(name)) {
+                        record(DIR_EXCLUDED, name);
+                        descend = couldHoldIncluded(name);
+                    } else if (!isSelected(name, file)) {
+                        record(DIR_DESELECTED, name);
+                        descend = couldHoldIncluded(name);
+                    } else {
+                        outcome.add(new Entry(DIR_INCLUDED, name));
+                        descend = true;
+                    }
+
+                    if (descend) {
+                        final ScanTask subTask = new ScanTask(file, name + File.separator);
+                        outcome.add(subTask);
+                        subTasks.add(subTask);
+                    }
+                } else if (listing != null ? listing.isFile(newfile) : file.isFile()) {
+                    if (!isIncluded(name)) {
+                        record(FILE_NOT_INCLUDED, name);
+                    } else if (isExcluded(name)) {
+                        record(FILE_EXCLUDED, name);
+                    } else if (!isSelected(name, file)) {
+                        record(FILE_DESELECTED, name);
+                    } else {
+                        outcome.add(new Entry(FILE_INCLUDED, name));
+                    }
+                }
+            }
+
+            if (pool != null) {
+                invokeAll(subTasks);
+            } else {
+                for (final ScanTask subTask : subTasks) {
+                    subTask.compute();
+                }
+            }
+        }
+
+        private boolean isDirectory(final SourceTree.Listing listing, final String newfile) {
+            return listing != null ? listing.isDirectory(newfile) : new File(dir, newfile).isDirectory();
+        }
+
+        private boolean isParentSymbolicLinkQuietly() {
+            try {
+                return isParentSymbolicLink(dir, null);
+            } catch (final IOException e) {
+                return false;
+            }
+        }
+
+        private void record(final int kind, final String name) {
+            partial = true;
+            outcome.add(new Entry(kind, name));
+        }
+
+        void mergeInto(final List<List<String>> targets) {
+            if (partial) {
+                everythingIncluded = false;
+            }
+
+            for (final Object item : outcome) {
+                if (item instanceof Entry) {
+                    final Entry entry = (Entry) item;
+                    targets.get(entry.kind).add(entry.name);
+                } else {
+                    ((ScanTask) item).mergeInto(targets);
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final int kind;
+
+        private final String name;
+
+        Entry(final int kind, final String name) {
+            this.kind = kind;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.archiver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.codehaus.plexus.archiver.AbstractArchiver;
+import org.codehaus.plexus.archiver.ArchiverException;
+import org.codehaus.plexus.archiver.FileSet;
+import org.codehaus.plexus.components.io.attributes.FileAttributes;
+import org.codehaus.plexus.components.io.attributes.PlexusIoResourceAttributes;
+import org.codehaus.plexus.components.io.resources.PlexusIoFileResourceCollection;
+import org.codehaus.plexus.components.io.resources.PlexusIoResource;
+import org.codehaus.plexus.components.io.resources.ResourceFactory;
+import org.codehaus.plexus.components.io.resources.Stream;
+
+/**
+ * File resource collection that scans its base directory with a {@link ParallelDirectoryScanner} and reads the file
+ * attributes of the scanned entries concurrently.
+ * <p>
+ * Without a pool, the collection only differs from the plain one if its base directory overlaps the one of another
+ * file-set of the {@link SourceTree}; it is then scanned sequentially from the shared listing. The collection releases
+ * its base directory from the listing once scanned, later scans (such as the up-to-date check of a non-forced archiver)
+ * walk the file system again.
+ * </p>
+ * <p>
+ * A file resource with a stream transformer is transformed when it is created, into a buffer held in memory up to
+ * 5 MB and in a temporary file beyond. With a transformation pool, the resources of a collection with a stream
+ * transformer are created, and thus transformed, concurrently, ahead of the archiver writing them; they are still
+ * returned in scan order.
+ * </p>
+ * <p>
+ * File selectors (container descriptor handlers among them) are stateful, so they are still applied sequentially and
+ * in scan order.
+ * </p>
+ */
+class ParallelFileResourceCollection extends PlexusIoFileResourceCollection {
+    private final ForkJoinPool pool;
+
+    private final SourceTree sourceTree;
+
+    private ForkJoinPool transformationPool;
+
+    private Comparator<String> filenameComparator;
+
+    private boolean released;
+
+    private boolean pruning;
+
+    ParallelFileResourceCollection(final ForkJoinPool pool) {
+        this(pool, null);
+    }
+
+    ParallelFileResourceCollection(final ForkJoinPool pool, final SourceTree sourceTree) {
+        this.pool = pool;
+        this.sourceTree = sourceTree;
+    }
+
+    /**
+     * Mirrors <code>AbstractArchiver.addFileSet(FileSet)</code>, creating the collection the archiver would have
+     * created for the file-set.
+     */
+    static ParallelFileResourceCollection of(
+            final FileSet fileSet, final AbstractArchiver archiver, final ForkJoinPool pool) {
+        return of(fileSet, archiver, pool, null);
+    }
+
+    /**
+     * @param pool The pool to scan on, <code>null</code> to scan sequentially.
+     * @param sourceTree The listing shared with the other file-sets of the archive, may be <code>null</code>.
+     */
+    static ParallelFileResourceCollection of(
+            final FileSet fileSet,
+            final AbstractArchiver archiver,
+            final ForkJoinPool pool,
+            final SourceTree sourceTree) {
+        final File directory = fileSet.getDirectory();
+        if (directory == null) {
+            throw new ArchiverException("The file sets base directory is null.");
+        }
+        if (!directory.isDirectory()) {
+            throw new ArchiverException(directory.getAbsolutePath() + " isn't a directory.");
+        }
+
+        final ParallelFileResourceCollection collection = new ParallelFileResourceCollection(pool, sourceTree);
+        collection.setFollowingSymLinks(false);
+        collection.setIncludes(fileSet.getIncludes());
+        collection.setExcludes(fileSet.getExcludes());
+        collection.setBaseDir(directory);
+        collection.setFileSelectors(fileSet.getFileSelectors());
+        collection.setIncludingEmptyDirectories(fileSet.isIncludingEmptyDirectories());
+        collection.setPrefix(fileSet.getPrefix());
+        collection.setCaseSensitive(fileSet.isCaseSensitive());
+        collection.setUsingDefaultExcludes(fileSet.isUsingDefaultExcludes());
+        collection.setStreamTransformer(fileSet.getStreamTransformer());
+        collection.setFileMappers(fileSet.getFileMappers());
+        collection.setFilenameComparator(archiver.getFilenameComparator());
+
+        if (archiver.getOverrideDirectoryMode() > -1
+                || archiver.getOverrideFileMode() > -1
+                || archiver.getOverrideUid() > -1
+                || archiver.getOverrideGid() > -1
+                || archiver.getOverrideUserName() != null
+                || archiver.getOverrideGroupName() != null) {
+            collection.setOverrideAttributes(
+                    archiver.getOverrideUid(),
+                    archiver.getOverrideUserName(),
+                    archiver.getOverrideGid(),
+                    archiver.getOverrideGroupName(),
+                    archiver.getOverrideFileMode(),
+                    archiver.getOverrideDirectoryMode());
+        }
+
+        if (archiver.getDefaultDirectoryMode() > -1 || archiver.getDefaultFileMode() > -1) {
+            collection.setDefaultAttributes(
+                    -1, null, -1, null, archiver.getDefaultFileMode(), archiver.getDefaultDirectoryMode());
+        }
+
+        return collection;
+    }
+
+    /**
+     * @param transformationPool The pool to create, and transform, the resources on when the directory is scanned
+     *            sequentially, <code>null</code> to create them sequentially too.
+     */
+    void setTransformationPool(final ForkJoinPool transformationPool) {
+        this.transformationPool = transformationPool;
+    }
+
+    /**
+     * @param pruning <code>true</code> to rewrite the includes when the directory is scanned, so the scanner never
+     *            enters the directories excluded as a whole, see {@link FileSetPruner}.
+     */
+    void setPruning(final boolean pruning) {
+        this.pruning = pruning;
+    }
+
+    @Override
+    public void setFilenameComparator(final Comparator<String> filenameComparator) {
+        super.setFilenameComparator(filenameComparator);
+        this.filenameComparator = filenameComparator;
+    }
+
+    @Override
+    public Iterator<PlexusIoResource> getResources() throws IOException {
+        final boolean shared = isShared();
+        if (pool == null && !shared && !pruning && getResourcePool() == null) {
+            release();
+            return super.getResources();
+        }
+
+        final ParallelDirectoryScanner ds = new ParallelDirectoryScanner(pool, shared ? sourceTree : null);
+        ds.setBasedir(getBaseDir());
+
+        String[] inc = getIncludes();
+        if (pruning) {
+            final String[] pruned = FileSetPruner.pruneIncludes(getBaseDir(), inc, getExcludes(), isCaseSensitive());
+            if (pruned != null) {
+                inc = pruned;
+            }
+        }
+        if (inc != null && inc.length > 0) {
+            ds.setIncludes(inc);
+        }
+        final String[] exc = getExcludes();
+        if (exc != null && exc.length > 0) {
+            ds.setExcludes(exc);
+        }
+        if (isUsingDefaultExcludes()) {
+            ds.addDefaultExcludes();
+        }
+        ds.setCaseSensitive(isCaseSensitive());
+        ds.setFollowSymlinks(isFollowingSymLinks());
+        ds.setFilenameComparator(filenameComparator);
+        ds.scan();
+        release();
+
+        final List<PlexusIoResource> result = new ArrayList<>();
+        if (isIncludingEmptyDirectories()) {
+            addResources(result, ds.getIncludedDirectories());
+        }
+        addResources(result, ds.getIncludedFiles());
+
+        return result.iterator();
+    }
+
+    @Override
+    public Stream stream() {
+        if (pool == null && !isShared() && !pruning && getResourcePool() == null) {
+            release();
+            return super.stream();
+        }
+
+        return consumer -> {
+            final Iterator<PlexusIoResource> resources = getResources();
+            while (resources.hasNext()) {
+                consumer.accept(resources.next());
+            }
+        };
+    }
+
+    private boolean isShared() {
+        return sourceTree != null && !released && sourceTree.isShared(getBaseDir());
+    }
+
+    private void release() {
+        if (sourceTree != null && !released) {
+            released = true;
+            sourceTree.release(getBaseDir());
+        }
+    }
+
+    /**
+     * @return The pool to create the resources on, <code>null</code> to create them sequentially.
+     */
+    private ForkJoinPool getResourcePool() {
+        if (pool != null) {
+            return pool;
+        }
+        return getStreamTransformer() != null ? transformationPool : null;
+    }
+
+    private void addResources(final List<PlexusIoResource> result, final String[] resources) throws IOException {
+        final ForkJoinPool resourcePool = getResourcePool();
+        if (resourcePool == null) {
+            for (final String name : resources) {
+                final PlexusIoResource resource;
+                try {
+                    resource = createResource(name);
+                } catch (final UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                if (isSelected(resource)) {
+                    result.add(resource);
+                }
+            }
+            return;
+        }
+
+        final List<PlexusIoResource> created;
+        try {
+            created = resourcePool
+                    .submit(() -> Arrays.asList(resources).parallelStream()
+                            .map(this::createResource)
+                            .collect(Collectors.toList()))
+                    .get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while creating resources in: " + getBaseDir(), e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+
+        for (final PlexusIoResource resource : created) {
+            if (isSelected(resource)) {
+                result.add(resource);
+            }
+        }
+    }
+
+    private PlexusIoResource createResource(final String name) {
+        final String sourceDir = name.replace('\\', '/');
+        final File f = new File(getBaseDir(), sourceDir);
+
+        try {
+            final FileAttributes fattrs = new FileAttributes(f);
+            final PlexusIoResourceAttributes attrs = mergeAttributes(fattrs, fattrs.isDirectory());
+            return ResourceFactory.createResource(f, getName(name), null, getStreamTransformer(), attrs);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.archiver;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.codehaus.plexus.components.io.attributes.PlexusIoResourceAttributeUtils;
+import org.codehaus.plexus.components.io.functions.InputStreamTransformer;
+import org.codehaus.plexus.components.io.resources.PlexusIoFileResource;
+
+/**
+ * A file resource added while planning, which describes the stream transformer of its content instead of applying it.
+ * <p>
+ * A file resource created with a stream transformer reads and transforms its content right away, to know its size;
+ * this one only provides the raw content of its file, and the size of its sources, which the {@link PlanningArchiver}
+ * records with the transformer.
+ * </p>
+ *
+ * @since 3.7.0
+ */
+public class PlannedFileResource extends PlexusIoFileResource {
+    private final long size;
+
+    private final String transformation;
+
+    /**
+     * @param file The file of the resource.
+     * @param name The name of the resource.
+     * @param size The size of the untransformed content of the resource.
+     * @param transformer The stream transformer the content would go through, or <code>null</code>.
+     * @throws IOException If the attributes of the file cannot be read.
+     */
+    public PlannedFileResource(
+            final File file, final String name, final long size, final InputStreamTransformer transformer)
+            throws IOException {
+        super(file, name, PlexusIoResourceAttributeUtils.getFileAttributes(file));
+        this.size = size;
+        this.transformation = transformer != null ? transformer.toString() : null;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return The description of the stream transformer, or <code>null</code> if the content is not transformed.
+     */
+    public String getTransformation() {
+        return transformation;
+    }
+}
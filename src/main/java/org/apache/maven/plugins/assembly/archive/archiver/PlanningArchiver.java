@@ -0,0 +1,287 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.archiver;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.maven.plugins.assembly.archive.ArchivePlan;
+import org.apache.maven.plugins.assembly.filter.ContainerDescriptorHandler;
+import org.codehaus.plexus.archiver.ArchiveEntry;
+import org.codehaus.plexus.archiver.ArchivedFileSet;
+import org.codehaus.plexus.archiver.Archiver;
+import org.codehaus.plexus.archiver.ArchiverException;
+import org.codehaus.plexus.archiver.BaseFileSet;
+import org.codehaus.plexus.archiver.FileSet;
+import org.codehaus.plexus.archiver.UnixStat;
+import org.codehaus.plexus.archiver.diags.DryRunArchiver;
+import org.codehaus.plexus.archiver.manager.ArchiverManager;
+import org.codehaus.plexus.archiver.manager.NoSuchArchiverException;
+import org.codehaus.plexus.components.io.fileselectors.FileSelector;
+import org.codehaus.plexus.components.io.functions.FileSupplier;
+import org.codehaus.plexus.components.io.functions.InputStreamTransformer;
+import org.codehaus.plexus.components.io.resources.AbstractPlexusIoResourceCollection;
+import org.codehaus.plexus.components.io.resources.PlexusIoArchivedResourceCollection;
+import org.codehaus.plexus.components.io.resources.PlexusIoFileResourceCollection;
+import org.codehaus.plexus.components.io.resources.PlexusIoResource;
+import org.codehaus.plexus.components.io.resources.PlexusIoResourceCollection;
+import org.codehaus.plexus.components.io.resources.proxy.PlexusIoProxyResourceCollection;
+import org.slf4j.Logger;
+
+/**
+ * Dry run archiver recording the entries the archiver it wraps would write in an {@link ArchivePlan}, instead of
+ * writing them.
+ * <p>
+ * The directories of file-sets are scanned and the archives of archived file-sets are listed, but the contents of the
+ * entries are not read: stream transformers are recorded instead of applied (phases add a {@link PlannedFileResource}
+ * for a transformed file), and container descriptor handlers, which read the contents of the files they aggregate, are
+ * not asked to select the entries.
+ * </p>
+ *
+ * @since 3.7.0
+ */
+public class PlanningArchiver extends DryRunArchiver {
+    private final ArchiverManager archiverManager;
+
+    private final ArchivePlan plan;
+
+    /**
+     * @param delegate The archiver the entries would be added to.
+     * @param archiverManager Provides the resource collections listing archives.
+     * @param plan The plan to record the entries in.
+     * @param logger The logger of the dry run.
+     */
+    public PlanningArchiver(
+            final Archiver delegate,
+            final ArchiverManager archiverManager,
+            final ArchivePlan plan,
+            final Logger logger) {
+        super(delegate, logger);
+        this.archiverManager = archiverManager;
+        this.plan = plan;
+    }
+
+    @Override
+    public void createArchive() throws IOException {
+        plan.setDuplicateBehavior(getDuplicateBehavior());
+        super.createArchive();
+    }
+
+    @Override
+    public void addFile(final File inputFile, final String destFileName) {
+        plan.addEntry(inputFile.getPath(), destFileName, ArchivePlan.FILE, -1, inputFile.length(), null);
+        super.addFile(inputFile, destFileName);
+    }
+
+    @Override
+    public void addFile(final File inputFile, final String destFileName, final int permissions) {
+        plan.addEntry(inputFile.getPath(), destFileName, ArchivePlan.FILE, permissions, inputFile.length(), null);
+        super.addFile(inputFile, destFileName, permissions);
+    }
+
+    @Override
+    public void addSymlink(final String symlinkName, final String symlinkDestination) {
+        plan.addEntry(symlinkDestination, symlinkName, ArchivePlan.SYMLINK, -1, -1, null);
+        super.addSymlink(symlinkName, symlinkDestination);
+    }
+
+    @Override
+    public void addSymlink(final String symlinkName, final int permissions, final String symlinkDestination) {
+        plan.addEntry(symlinkDestination, symlinkName, ArchivePlan.SYMLINK, permissions, -1, null);
+        super.addSymlink(symlinkName, permissions, symlinkDestination);
+    }
+
+    @Override
+    public void addResource(final PlexusIoResource resource, final String destFileName, final int permissions) {
+        plan.addEntry(
+                source(resource, null, null),
+                destFileName,
+                resource.isDirectory() ? ArchivePlan.DIRECTORY : ArchivePlan.FILE,
+                permissions,
+                resource.getSize(),
+                resource instanceof PlannedFileResource ? ((PlannedFileResource) resource).getTransformation() : null);
+        super.addResource(resource, destFileName, permissions);
+    }
+
+    @Override
+    public void addResources(final PlexusIoResourceCollection resources) {
+        addEntries(resources, null, null, null);
+        super.addResources(resources);
+    }
+
+    @Override
+    public void addFileSet(final FileSet fileSet) {
+        final File directory = fileSet.getDirectory();
+        if (directory == null || !directory.isDirectory()) {
+            throw new ArchiverException(
+                    (directory == null ? "The file sets base directory" : directory.getAbsolutePath())
+                            + " isn't a directory.");
+        }
+
+        final PlexusIoFileResourceCollection collection = new PlexusIoFileResourceCollection();
+        collection.setBaseDir(directory);
+        collection.setFollowingSymLinks(false);
+        configure(collection, fileSet);
+        if (getOverrideDirectoryMode() > -1 || getOverrideFileMode() > -1) {
+            collection.setOverrideAttributes(-1, null, -1, null, getOverrideFileMode(), getOverrideDirectoryMode());
+        }
+        if (getDefaultDirectoryMode() > -1 || getDefaultFileMode() > -1) {
+            collection.setDefaultAttributes(-1, null, -1, null, getDefaultFileMode(), getDefaultDirectoryMode());
+        }
+
+        addEntries(collection, null, null, fileSet.getStreamTransformer());
+        super.addFileSet(fileSet);
+    }
+
+    @Override
+    public void addArchivedFileSet(final ArchivedFileSet fileSet) {
+        addArchivedEntries(fileSet, null);
+        super.addArchivedFileSet(fileSet);
+    }
+
+    @Override
+    public void addArchivedFileSet(final ArchivedFileSet fileSet, final Charset charset) {
+        addArchivedEntries(fileSet, charset);
+        super.addArchivedFileSet(fileSet, charset);
+    }
+
+    /**
+     * Mirrors <code>AbstractArchiver.addArchivedFileSet(ArchivedFileSet, Charset)</code>, without stream transformer.
+     */
+    private void addArchivedEntries(final ArchivedFileSet fileSet, final Charset charset) {
+        final File archive = fileSet.getArchive();
+
+        final PlexusIoResourceCollection resources;
+        try {
+            resources = archiverManager.getResourceCollection(archive);
+        } catch (final NoSuchArchiverException e) {
+            throw new ArchiverException("Error adding archived file-set. UnArchiver not found for: " + archive, e);
+        }
+        if (resources instanceof PlexusIoArchivedResourceCollection) {
+            ((PlexusIoArchivedResourceCollection) resources).setFile(archive);
+        } else {
+            throw new ArchiverException("Expected " + PlexusIoArchivedResourceCollection.class.getName() + ", got "
+                    + resources.getClass().getName());
+        }
+
+        final PlexusIoProxyResourceCollection collection = new PlexusIoProxyResourceCollection(resources);
+        if (charset != null) {
+            collection.setEncoding(charset);
+        }
+        configure(collection, fileSet);
+        if (getOverrideDirectoryMode() > -1 || getOverrideFileMode() > -1) {
+            collection.setOverrideAttributes(-1, null, -1, null, getOverrideFileMode(), getOverrideDirectoryMode());
+        }
+        if (getDefaultDirectoryMode() > -1 || getDefaultFileMode() > -1) {
+            collection.setDefaultAttributes(-1, null, -1, null, getDefaultFileMode(), getDefaultDirectoryMode());
+        }
+
+        addEntries(collection, archive.getPath(), fileSet.getPrefix(), fileSet.getStreamTransformer());
+    }
+
+    private static void configure(final AbstractPlexusIoResourceCollection collection, final BaseFileSet fileSet) {
+        collection.setIncludes(fileSet.getIncludes());
+        collection.setExcludes(fileSet.getExcludes());
+        collection.setFileSelectors(withoutHandlers(fileSet.getFileSelectors()));
+        collection.setIncludingEmptyDirectories(fileSet.isIncludingEmptyDirectories());
+        collection.setPrefix(fileSet.getPrefix());
+        collection.setCaseSensitive(fileSet.isCaseSensitive());
+        collection.setUsingDefaultExcludes(fileSet.isUsingDefaultExcludes());
+        collection.setFileMappers(fileSet.getFileMappers());
+    }
+
+    private static FileSelector[] withoutHandlers(final FileSelector[] selectors) {
+        if (selectors == null) {
+            return null;
+        }
+
+        final List<FileSelector> result = new ArrayList<>(selectors.length);
+        for (final FileSelector selector : selectors) {
+            if (!(selector instanceof ContainerDescriptorHandler)) {
+                result.add(selector);
+            }
+        }
+        return result.toArray(new FileSelector[0]);
+    }
+
+    private void addEntries(
+            final PlexusIoResourceCollection collection,
+            final String archivePath,
+            final String prefix,
+            final InputStreamTransformer transformer) {
+        final String transformation = transformer != null ? transformer.toString() : null;
+        try {
+            for (final Iterator<PlexusIoResource> it = collection.getResources(); it.hasNext(); ) {
+                final PlexusIoResource resource = it.next();
+                final String target = collection.getName(resource);
+                if (resource.isDirectory()) {
+                    plan.addEntry(
+                            source(resource, archivePath, prefix),
+                            target,
+                            ArchivePlan.DIRECTORY,
+                            mode(collection, resource, target),
+                            -1,
+                            null);
+                } else {
+                    plan.addEntry(
+                            source(resource, archivePath, prefix),
+                            target,
+                            resource.isSymbolicLink() ? ArchivePlan.SYMLINK : ArchivePlan.FILE,
+                            mode(collection, resource, target),
+                            resource.getSize(),
+                            transformation);
+                }
+            }
+        } catch (final IOException e) {
+            throw new ArchiverException("Error listing the entries of " + collection + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Mirrors the mode <code>AbstractArchiver</code> gives the entry of a resource: the override mode of the archiver,
+     * else the mode of the resource (which the collections of file-sets default to the default mode of the archiver),
+     * else the mode of an {@link ArchiveEntry} of its type.
+     */
+    private int mode(
+            final PlexusIoResourceCollection collection, final PlexusIoResource resource, final String target) {
+        final ArchiveEntry entry = resource.isDirectory()
+                ? ArchiveEntry.createDirectoryEntry(target, resource, getOverrideDirectoryMode(), getDirectoryMode())
+                : ArchiveEntry.createFileEntry(target, resource, getOverrideFileMode(), collection, getDirectoryMode());
+        return entry.getMode() & UnixStat.PERM_MASK;
+    }
+
+    /**
+     * @param archivePath The path of the archive the resource is in, or <code>null</code>.
+     * @param prefix The prefix of the file set, which the names of the resources of archives include.
+     */
+    private static String source(final PlexusIoResource resource, final String archivePath, final String prefix) {
+        if (archivePath != null) {
+            final String name = resource.getName();
+            return archivePath + "!/"
+                    + (prefix != null && name.startsWith(prefix) ? name.substring(prefix.length()) : name);
+        }
+        return resource instanceof FileSupplier
+                ? ((FileSupplier) resource).getFile().getPath()
+                : resource.getName();
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.archiver;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The directories walked by the file-sets of a single archive, each listed only once.
+ * <p>
+ * Module source file-sets overlap whenever modules are nested: the file-set of a parent module walks the directories
+ * of its child modules (unless these are excluded as a whole, see {@link FileSetPruner}), and the file-sets of the
+ * child modules walk them again. The file-sets whose base directory overlaps the one of another file-set read the
+ * directory entries, and whether these are files or directories, from this listing instead of from the file system.
+ * </p>
+ * <p>
+ * A listing is kept until every file-set whose base directory contains it was scanned and released, so the memory held
+ * is bounded by the overlapping file-sets still to be scanned.
+ * </p>
+ * The listing is thread-safe.
+ */
+final class SourceTree {
+    /**
+     * The base directories of the file-sets not scanned yet, with the number of such file-sets.
+     */
+    private final Map<File, Integer> pending = new HashMap<>();
+
+    private final Map<File, Listing> listings = new ConcurrentHashMap<>();
+
+    /**
+     * @param root The base directory of a file-set added to the archive.
+     */
+    synchronized void addRoot(final File root) {
+        pending.merge(root.getAbsoluteFile(), 1, Integer::sum);
+    }
+
+    /**
+     * Drops the listings no file-set still to be scanned walks.
+     *
+     * @param root The base directory of a file-set that was scanned.
+     */
+    synchronized void release(final File root) {
+        pending.computeIfPresent(root.getAbsoluteFile(), (dir, count) -> count > 1 ? count - 1 : null);
+        listings.keySet().removeIf(dir -> !isPending(dir));
+    }
+
+    /**
+     * @param root The base directory of a file-set.
+     * @return <code>true</code> if another file-set still to be scanned walks (part of) the same directories.
+     */
+    synchronized boolean isShared(final File root) {
+        final String path = root.getAbsolutePath();
+        for (final Map.Entry<File, Integer> entry : pending.entrySet()) {
+            final String otherPath = entry.getKey().getPath();
+            if (otherPath.equals(path)) {
+                if (entry.getValue() > 1) {
+                    return true;
+                }
+            } else if (isAncestor(otherPath, path) || isAncestor(path, otherPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param dir A directory.
+     * @return The entries of the directory, listed on first use.
+     */
+    Listing list(final File dir) {
+        return listings.computeIfAbsent(dir.getAbsoluteFile(), Listing::new);
+    }
+
+    /**
+     * @return The number of directories listed and not released yet.
+     */
+    int size() {
+        return listings.size();
+    }
+
+    private boolean isPending(final File dir) {
+        for (File ancestor = dir; ancestor != null; ancestor = ancestor.getParentFile()) {
+            if (pending.containsKey(ancestor)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAncestor(final String ancestor, final String path) {
+        return path.startsWith(ancestor)
+                && path.length() > ancestor.length()
+                && (ancestor.endsWith(File.separator) || path.charAt(ancestor.length()) == File.separatorChar);
+    }
+
+    /**
+     * The entries of a directory.
+     */
+    static final class Listing {
+        private final String[] names;
+
+        private final Set<String> directories = new HashSet<>();
+
+        private final Set<String> files = new HashSet<>();
+
+        Listing(final File dir) {
+            final String[] list = dir.list();
+            names = list != null ? list : new String[0];
+
+            for (final String name : names) {
+                final File file = new File(dir, name);
+                if (file.isDirectory()) {
+                    directories.add(name);
+                } else if (file.isFile()) {
+                    files.add(name);
+                }
+            }
+        }
+
+        /**
+         * @return A copy of the names of the entries, in file system order.
+         */
+        String[] getNames() {
+            return names.clone();
+        }
+
+        boolean isDirectory(final String name) {
+            return directories.contains(name);
+        }
+
+        boolean isFile(final String name) {
+            return files.contains(name);
+        }
+    }
+}
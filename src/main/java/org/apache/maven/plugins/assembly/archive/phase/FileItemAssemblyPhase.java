@@ -22,24 +22,24 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.SequenceInputStream;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
 import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
 import org.apache.maven.plugins.assembly.InvalidAssemblerConfigurationException;
 import org.apache.maven.plugins.assembly.archive.ArchiveCreationException;
+import org.apache.maven.plugins.assembly.archive.archiver.PlannedFileResource;
 import org.apache.maven.plugins.assembly.format.AssemblyFormattingException;
 import org.apache.maven.plugins.assembly.format.ReaderFormatter;
 import org.apache.maven.plugins.assembly.model.Assembly;
 import org.apache.maven.plugins.assembly.model.FileItem;
 import org.apache.maven.plugins.assembly.utils.AssemblyFileUtils;
 import org.apache.maven.plugins.assembly.utils.AssemblyFormatUtils;
+import org.apache.maven.plugins.assembly.utils.InterpolatorCache;
+import org.apache.maven.plugins.assembly.utils.OpenFileBudget;
 import org.apache.maven.plugins.assembly.utils.TypeConversionUtils;
 import org.codehaus.plexus.archiver.Archiver;
 import org.codehaus.plexus.archiver.ArchiverException;
@@ -71,6 +71,8 @@ public class FileItemAssemblyPhase implements AssemblyArchiverPhase, PhaseOrder
             throws ArchiveCreationException, AssemblyFormattingException, InvalidAssemblerConfigurationException {
         final List<FileItem> fileList = assembly.getFiles();
         final File basedir = configSource.getBasedir();
+        // the plan records the transformers, without reading the files
+        final boolean planning = configSource.getAssemblyPlan() != null;
 
         for (final FileItem fileItem : fileList) {
             if (fileItem.getSource() != null ^ fileItem.getSources().isEmpty()) {
@@ -111,8 +113,8 @@ public class FileItemAssemblyPhase implements AssemblyArchiverPhase, PhaseOrder
                     outputDirectory1,
                     configSource.getFinalName(),
                     configSource,
-                    AssemblyFormatUtils.moduleProjectInterpolator(configSource.getProject()),
-                    AssemblyFormatUtils.artifactProjectInterpolator(null));
+                    InterpolatorCache.of(configSource).moduleProjectInterpolator(configSource.getProject()),
+                    InterpolatorCache.of(configSource).artifactProjectInterpolator(null));
 
             String target;
 
@@ -131,18 +133,29 @@ public class FileItemAssemblyPhase implements AssemblyArchiverPhase, PhaseOrder
 
                 final PlexusIoResource restoUse;
                 if (!fileItem.getSources().isEmpty()) {
-                    List<InputStream> content =
-                            new ArrayList<>(fileItem.getSources().size());
+                    List<File> content = new ArrayList<>(fileItem.getSources().size());
                     for (String contentSourcePath : fileItem.getSources()) {
                         File contentSource = new File(contentSourcePath);
                         if (!AssemblyFileUtils.isAbsolutePath(contentSource)) {
                             contentSource = new File(basedir, contentSourcePath);
                         }
-                        content.add(new FileInputStream(contentSource));
+                        content.add(contentSource);
                     }
 
                     String name = PlexusIoFileResource.getName(source);
-                    restoUse = createResource(source, name, getContentSupplier(content), fileSetTransformers);
+                    if (planning) {
+                        long size = 0;
+                        for (File contentSource : content) {
+                            size += contentSource.length();
+                        }
+                        restoUse = new PlannedFileResource(source, name, size, fileSetTransformers);
+                    } else {
+                        restoUse = createResource(
+                                source, name, getContentSupplier(content, configSource), fileSetTransformers);
+                    }
+                } else if (planning) {
+                    restoUse = new PlannedFileResource(
+                            source, PlexusIoFileResource.getName(source), source.length(), fileSetTransformers);
                 } else {
                     restoUse = createResource(source, fileSetTransformers);
                 }
@@ -160,11 +173,16 @@ public class FileItemAssemblyPhase implements AssemblyArchiverPhase, PhaseOrder
         return 10;
     }
 
-    private ContentSupplier getContentSupplier(final Collection<InputStream> contentStreams) {
+    /**
+     * The sources are opened one at a time, when the content is read, so every call reads them again.
+     */
+    private ContentSupplier getContentSupplier(
+            final List<File> contentSources, final AssemblerConfigurationSource configSource) {
+        final OpenFileBudget budget = OpenFileBudget.of(configSource);
         return new ContentSupplier() {
             @Override
             public InputStream getContents() throws IOException {
-                return new SequenceInputStream(Collections.enumeration(contentStreams));
+                return budget.concatenate(contentSources);
             }
         };
     }
@@ -31,14 +31,21 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
 import org.apache.maven.plugins.assembly.InvalidAssemblerConfigurationException;
 import org.apache.maven.plugins.assembly.archive.ArchiveCreationException;
+import org.apache.maven.plugins.assembly.archive.archiver.ArchiverRecording;
 import org.apache.maven.plugins.assembly.archive.task.AddArtifactTask;
 import org.apache.maven.plugins.assembly.archive.task.AddDependencySetsTask;
 import org.apache.maven.plugins.assembly.archive.task.AddFileSetsTask;
+import org.apache.maven.plugins.assembly.archive.task.SharedDependencySets;
 import org.apache.maven.plugins.assembly.artifact.DependencyResolutionException;
 import org.apache.maven.plugins.assembly.artifact.DependencyResolver;
 import org.apache.maven.plugins.assembly.format.AssemblyFormattingException;
@@ -54,7 +61,8 @@ import org.apache.maven.plugins.assembly.model.ModuleSources;
 import org.apache.maven.plugins.assembly.utils.AssemblyFileUtils;
 import org.apache.maven.plugins.assembly.utils.AssemblyFormatUtils;
 import org.apache.maven.plugins.assembly.utils.FilterUtils;
-import org.apache.maven.plugins.assembly.utils.ProjectUtils;
+import org.apache.maven.plugins.assembly.utils.InterpolatorCache;
+import org.apache.maven.plugins.assembly.utils.ReactorModuleIndex;
 import org.apache.maven.plugins.assembly.utils.TypeConversionUtils;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
@@ -134,8 +142,8 @@ public class ModuleSetAssemblyPhase implements AssemblyArchiverPhase, PhaseOrder
 
         if (moduleProjects == null) {
             try {
-                moduleProjects = ProjectUtils.getProjectModules(
-                        project, configSource.getReactorProjects(), moduleSet.isIncludeSubModules(), logger);
+                moduleProjects = ReactorModuleIndex.of(configSource)
+                        .getModules(project, moduleSet.isIncludeSubModules(), logger);
             } catch (final IOException e) {
                 throw new ArchiveCreationException(
                         "Error retrieving module-set for project: " + project.getId() + ": " + e.getMessage(), e);
@@ -248,9 +256,15 @@ public class ModuleSetAssemblyPhase implements AssemblyArchiverPhase, PhaseOrder
             }
 
             chosenModuleArtifacts.put(project, artifact);
-            addModuleArtifact(artifact, project, archiver, configSource, binaries);
         }
 
+        forEachModule(
+                moduleProjects,
+                archiver,
+                configSource,
+                (project, moduleArchiver) -> addModuleArtifact(
+                        chosenModuleArtifacts.get(project), project, moduleArchiver, configSource, binaries));
+
         final List<DependencySet> depSets = getDependencySets(binaries);
 
         if (depSets != null) {
@@ -278,7 +292,10 @@ public class ModuleSetAssemblyPhase implements AssemblyArchiverPhase, PhaseOrder
                 LOGGER.warn(sb.toString());
             }
 
-            for (final MavenProject moduleProject : moduleProjects) {
+            // the dependency sets are resolved for all modules at once; share what does not depend on the module.
+            final SharedDependencySets sharedDependencySets = new SharedDependencySets();
+
+            forEachModule(moduleProjects, archiver, configSource, (moduleProject, moduleArchiver) -> {
                 LOGGER.debug("Processing binary dependencies for module project: " + moduleProject.getId());
 
                 for (Map.Entry<DependencySet, Set<Artifact>> dependencySetSetEntry : dependencySetSetMap.entrySet()) {
@@ -292,10 +309,11 @@ public class ModuleSetAssemblyPhase implements AssemblyArchiverPhase, PhaseOrder
                     task.setModuleArtifact(chosenModuleArtifacts.get(moduleProject));
                     task.setDefaultOutputDirectory(binaries.getOutputDirectory());
                     task.setDefaultOutputFileNameMapping(binaries.getOutputFileNameMapping());
+                    task.setSharedDependencySets(sharedDependencySets);
 
-                    task.execute(archiver, configSource);
+                    task.execute(moduleArchiver, configSource);
                 }
-            }
+            });
         }
     }
 
@@ -361,7 +379,7 @@ public class ModuleSetAssemblyPhase implements AssemblyArchiverPhase, PhaseOrder
             final Set<MavenProject> moduleProjects,
             final Archiver archiver,
             final AssemblerConfigurationSource configSource)
-            throws ArchiveCreationException, AssemblyFormattingException {
+            throws ArchiveCreationException, AssemblyFormattingException, InvalidAssemblerConfigurationException {
         if (sources == null) {
             return;
         }
@@ -389,7 +407,7 @@ public class ModuleSetAssemblyPhase implements AssemblyArchiverPhase, PhaseOrder
 
         fileSets.addAll(subFileSets);
 
-        for (final MavenProject moduleProject : moduleProjects) {
+        forEachModule(moduleProjects, archiver, configSource, (moduleProject, moduleArchiver) -> {
             LOGGER.info("Processing sources for module project: " + moduleProject.getId());
 
             final List<FileSet> moduleFileSets = new ArrayList<>();
@@ -403,7 +421,86 @@ public class ModuleSetAssemblyPhase implements AssemblyArchiverPhase, PhaseOrder
             task.setProject(moduleProject);
             task.setModuleProject(moduleProject);
 
-            task.execute(archiver, configSource);
+            task.execute(moduleArchiver, configSource);
+        });
+    }
+
+    /**
+     * Adds the contribution of every module project, in module order. In parallel mode, the contributions are recorded
+     * concurrently, and each recording is applied to the archiver as soon as those of the preceding modules are. The
+     * recordings are all created up front, so they read the modes of the archiver before any of them is applied.
+     * Only the calls are recorded concurrently: the directories of the file-sets added are scanned once the archive is
+     * created, in sequence unless the archiver scans in parallel itself.
+     */
+    private static void forEachModule(
+            final Set<MavenProject> moduleProjects,
+            final Archiver archiver,
+            final AssemblerConfigurationSource configSource,
+            final ModuleContribution contribution)
+            throws ArchiveCreationException, AssemblyFormattingException, InvalidAssemblerConfigurationException {
+        if (moduleProjects.size() < 2 || !configSource.isParallelModuleProcessing()) {
+            for (final MavenProject moduleProject : moduleProjects) {
+                contribution.addTo(moduleProject, archiver);
+            }
+            return;
+        }
+
+        final ExecutorService executor = newModuleExecutor(moduleProjects.size());
+        try {
+            final List<Future<ArchiverRecording>> recordings = new ArrayList<>();
+            for (final MavenProject moduleProject : moduleProjects) {
+                final ArchiverRecording recording = new ArchiverRecording(archiver);
+                recordings.add(executor.submit(() -> {
+                    contribution.addTo(moduleProject, recording.getArchiver());
+                    return recording;
+                }));
+            }
+
+            for (final Future<ArchiverRecording> recording : recordings) {
+                await(recording).replay(archiver);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The worker threads use the context class loader of the calling thread, like the threads of the build itself.
+     */
+    private static ExecutorService newModuleExecutor(final int moduleCount) {
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        final AtomicInteger threadCount = new AtomicInteger();
+
+        return Executors.newFixedThreadPool(
+                Math.min(moduleCount, Runtime.getRuntime().availableProcessors()), runnable -> {
+                    final Thread thread = new Thread(runnable, "assembly-module-set-" + threadCount.incrementAndGet());
+                    thread.setContextClassLoader(contextClassLoader);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private static ArchiverRecording await(final Future<ArchiverRecording> recording)
+            throws ArchiveCreationException, AssemblyFormattingException, InvalidAssemblerConfigurationException {
+        try {
+            return recording.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ArchiveCreationException("Interrupted while processing the modules of a module-set", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ArchiveCreationException) {
+                throw (ArchiveCreationException) cause;
+            } else if (cause instanceof AssemblyFormattingException) {
+                throw (AssemblyFormattingException) cause;
+            } else if (cause instanceof InvalidAssemblerConfigurationException) {
+                throw (InvalidAssemblerConfigurationException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ArchiveCreationException("Error processing the modules of a module-set", cause);
         }
     }
 
@@ -470,9 +567,9 @@ public class ModuleSetAssemblyPhase implements AssemblyArchiverPhase, PhaseOrder
         fs.setLineEnding(fileSet.getLineEnding());
 
         FixedStringSearchInterpolator moduleProjectInterpolator =
-                AssemblyFormatUtils.moduleProjectInterpolator(moduleProject);
+                InterpolatorCache.of(configSource).moduleProjectInterpolator(moduleProject);
         FixedStringSearchInterpolator artifactProjectInterpolator =
-                AssemblyFormatUtils.artifactProjectInterpolator(moduleProject);
+                InterpolatorCache.of(configSource).artifactProjectInterpolator(moduleProject);
         String destPathPrefix = "";
         if (sources.isIncludeModuleDirectory()) {
             destPathPrefix = AssemblyFormatUtils.evaluateFileNameMapping(
@@ -512,6 +609,14 @@ public class ModuleSetAssemblyPhase implements AssemblyArchiverPhase, PhaseOrder
         return fs;
     }
 
+    /**
+     * Adds what a single module project contributes to the assembly.
+     */
+    private interface ModuleContribution {
+        void addTo(MavenProject moduleProject, Archiver archiver)
+                throws ArchiveCreationException, AssemblyFormattingException, InvalidAssemblerConfigurationException;
+    }
+
     @Override
     public int order() {
         // CHECKSTYLE_OFF: MagicNumber
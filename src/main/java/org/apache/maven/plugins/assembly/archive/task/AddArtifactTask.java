@@ -26,8 +26,12 @@ import java.util.List;
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
 import org.apache.maven.plugins.assembly.archive.ArchiveCreationException;
+import org.apache.maven.plugins.assembly.artifact.UnpackedArtifactCache;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
 import org.apache.maven.plugins.assembly.format.AssemblyFormattingException;
+import org.apache.maven.plugins.assembly.internal.FlightRecorderEvents;
 import org.apache.maven.plugins.assembly.utils.AssemblyFormatUtils;
+import org.apache.maven.plugins.assembly.utils.InterpolatorCache;
 import org.apache.maven.plugins.assembly.utils.TypeConversionUtils;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.archiver.Archiver;
@@ -94,12 +98,7 @@ public class AddArtifactTask {
             artifact.setFile(moveArtifactSomewhereElse(configSource));
         }
 
-        String destDirectory = AssemblyFormatUtils.getOutputDirectory(
-                outputDirectory,
-                configSource.getFinalName(),
-                configSource,
-                AssemblyFormatUtils.moduleProjectInterpolator(moduleProject),
-                AssemblyFormatUtils.artifactProjectInterpolator(project));
+        String destDirectory = getDestDirectory(configSource);
 
         boolean fileModeSet = false;
         boolean dirModeSet = false;
@@ -116,10 +115,10 @@ public class AddArtifactTask {
             archiver.setDirectoryMode(directoryMode);
             dirModeSet = true;
         }
-        try {
+        try (FlightRecorderEvents.Span span = FlightRecorderEvents.artifact(artifact, destDirectory, unpack)) {
 
             if (unpack) {
-                unpacked(archiver, destDirectory);
+                unpacked(archiver, configSource, destDirectory);
             } else {
                 asFile(archiver, configSource, destDirectory);
             }
@@ -134,18 +133,43 @@ public class AddArtifactTask {
         }
     }
 
-    private void asFile(Archiver archiver, AssemblerConfigurationSource configSource, String destDirectory)
-            throws AssemblyFormattingException, ArchiveCreationException {
+    /**
+     * @param configSource The configuration source.
+     * @return Where the artifact is added: the directory it is unpacked into, or the path of the file.
+     * @throws AssemblyFormattingException in case of an invalid output directory or file name mapping.
+     * @since 3.7.0
+     */
+    public String getDestination(final AssemblerConfigurationSource configSource) throws AssemblyFormattingException {
+        final String destDirectory = getDestDirectory(configSource);
+        return unpack ? destDirectory : getOutputLocation(configSource, destDirectory);
+    }
+
+    private String getDestDirectory(final AssemblerConfigurationSource configSource)
+            throws AssemblyFormattingException {
+        return AssemblyFormatUtils.getOutputDirectory(
+                outputDirectory,
+                configSource.getFinalName(),
+                configSource,
+                InterpolatorCache.of(configSource).moduleProjectInterpolator(moduleProject),
+                InterpolatorCache.of(configSource).artifactProjectInterpolator(project));
+    }
+
+    private String getOutputLocation(final AssemblerConfigurationSource configSource, final String destDirectory) {
         final String tempMapping = AssemblyFormatUtils.evaluateFileNameMapping(
                 outputFileNameMapping,
                 artifact,
                 configSource.getProject(),
                 moduleArtifact,
                 configSource,
-                AssemblyFormatUtils.moduleProjectInterpolator(moduleProject),
-                AssemblyFormatUtils.artifactProjectInterpolator(project));
+                InterpolatorCache.of(configSource).moduleProjectInterpolator(moduleProject),
+                InterpolatorCache.of(configSource).artifactProjectInterpolator(project));
+
+        return destDirectory + tempMapping;
+    }
 
-        final String outputLocation = destDirectory + tempMapping;
+    private void asFile(Archiver archiver, AssemblerConfigurationSource configSource, String destDirectory)
+            throws AssemblyFormattingException, ArchiveCreationException {
+        final String outputLocation = getOutputLocation(configSource, destDirectory);
 
         try {
             final File artifactFile = artifact.getFile();
@@ -158,13 +182,16 @@ public class AddArtifactTask {
             } else {
                 archiver.addFile(artifactFile, outputLocation);
             }
+
+            AssemblyEvents.of(configSource).artifactAdded(artifact, outputLocation, false, null, null);
         } catch (final ArchiverException e) {
             throw new ArchiveCreationException(
                     "Error adding file '" + artifact.getId() + "' to archive: " + e.getMessage(), e);
         }
     }
 
-    private void unpacked(Archiver archiver, String destDirectory) throws ArchiveCreationException {
+    private void unpacked(Archiver archiver, AssemblerConfigurationSource configSource, String destDirectory)
+            throws ArchiveCreationException {
         String outputLocation = destDirectory;
 
         if ((outputLocation.length() > 0) && !outputLocation.endsWith("/")) {
@@ -194,11 +221,19 @@ public class AddArtifactTask {
                 fs.setUsingDefaultExcludes(usingDefaultExcludes);
                 archiver.addFileSet(fs);
             } else {
-                artifactLogger.getLogger().info("Unpacking artifact contents for: " + artifact + " to: " + outputLocation);
-                artifactLogger.getLogger().info("includes:\n" + StringUtils.join(includesArray, "\n") + "\n");
-                artifactLogger.getLogger().info("excludes:\n" + (excludesArray == null ? "none" : StringUtils.join(excludesArray, "\n"))
-                        + "\n");
-                DefaultArchivedFileSet afs = DefaultArchivedFileSet.archivedFileSet(artifactFile);
+                final Logger logger = artifactLogger.getLogger();
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Unpacking artifact contents for: " + artifact + " to: " + outputLocation);
+                    logger.debug("includes:\n" + StringUtils.join(includesArray, "\n") + "\n");
+                    logger.debug("excludes:\n"
+                            + (excludesArray == null ? "none" : StringUtils.join(excludesArray, "\n")) + "\n");
+                }
+                final UnpackedArtifactCache cache = configSource.getUnpackedArtifactCache();
+                final File archive = cache != null
+                        ? cache.get(artifactFile, encoding, AssemblyEvents.of(configSource))
+                        : artifactFile;
+
+                DefaultArchivedFileSet afs = DefaultArchivedFileSet.archivedFileSet(archive);
                 afs.setIncludes(includesArray);
                 afs.setExcludes(excludesArray);
                 afs.setPrefix(outputLocation);
@@ -206,6 +241,10 @@ public class AddArtifactTask {
                 afs.setUsingDefaultExcludes(usingDefaultExcludes);
                 archiver.addArchivedFileSet(afs, encoding);
             }
+
+            if (artifactFile != null) {
+                AssemblyEvents.of(configSource).artifactAdded(artifact, outputLocation, true, includes, excludes);
+            }
         } catch (final ArchiverException e) {
             throw new ArchiveCreationException(
                     "Error adding file-set for '" + artifact.getId() + "' to archive: " + e.getMessage(), e);
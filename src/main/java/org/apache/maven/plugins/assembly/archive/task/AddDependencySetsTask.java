@@ -20,7 +20,9 @@ package org.apache.maven.plugins.assembly.archive.task;
 
 import java.io.File;
 import java.nio.charset.Charset;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -34,22 +36,23 @@ import org.apache.maven.model.Model;
 import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
 import org.apache.maven.plugins.assembly.InvalidAssemblerConfigurationException;
 import org.apache.maven.plugins.assembly.archive.ArchiveCreationException;
+import org.apache.maven.plugins.assembly.artifact.IndexedArtifactSet;
 import org.apache.maven.plugins.assembly.format.AssemblyFormattingException;
 import org.apache.maven.plugins.assembly.format.ReaderFormatter;
+import org.apache.maven.plugins.assembly.internal.FlightRecorderEvents;
 import org.apache.maven.plugins.assembly.model.DependencySet;
 import org.apache.maven.plugins.assembly.model.UnpackOptions;
 import org.apache.maven.plugins.assembly.utils.FilterUtils;
 import org.apache.maven.plugins.assembly.utils.FilterUtils.ArtifactFilterConfig;
 import org.apache.maven.plugins.assembly.utils.TypeConversionUtils;
 import org.apache.maven.plugins.assembly.utils.AssemblyFormatUtils;
+import org.apache.maven.plugins.assembly.utils.InterpolatorCache;
 import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
 import org.apache.maven.project.ProjectBuildingRequest;
 import org.apache.maven.project.ProjectBuildingResult;
-import org.apache.maven.shared.artifact.filter.resolve.ScopeFilter;
-import org.apache.maven.shared.artifact.filter.resolve.transform.ArtifactIncludeFilterTransformer;
 import org.codehaus.plexus.archiver.Archiver;
 import org.codehaus.plexus.archiver.ArchiverException;
 import org.codehaus.plexus.components.io.functions.InputStreamTransformer;
@@ -87,6 +90,8 @@ public class AddDependencySetsTask {
 
     private final Set<Artifact> resolvedArtifacts;
 
+    private IndexedArtifactSet indexedArtifacts;
+
     private MavenProject moduleProject;
 
     private String defaultOutputDirectory;
@@ -95,6 +100,8 @@ public class AddDependencySetsTask {
 
     private Artifact moduleArtifact;
 
+    private SharedDependencySets sharedDependencySets;
+
     public AddDependencySetsTask(
             final List<DependencySet> dependencySets,
             final Set<Artifact> resolvedArtifacts,
@@ -133,7 +140,7 @@ public class AddDependencySetsTask {
                     + "AND useTransitiveFiltering == true. Transitive filtering flag will be ignored.");
         }
 
-        final Set<Artifact> dependencyArtifacts = resolveDependencyArtifacts(dependencySet);
+        final Set<Artifact> dependencyArtifacts = getDependencyArtifacts(dependencySet);
 
         if (!unpackTransformsContent(dependencySet) && dependencyArtifacts.size() > 1) {
             checkMultiArtifactOutputConfig(dependencySet);
@@ -151,17 +158,7 @@ public class AddDependencySetsTask {
                 : null;
 
         for (final Artifact depArtifact : dependencyArtifacts) {
-            ProjectBuildingRequest pbr = getProjectBuildingRequest(configSource);
-            MavenProject depProject;
-            try {
-                ProjectBuildingResult build = projectBuilder1.build(depArtifact, pbr);
-                depProject = build.getProject();
-            } catch (final ProjectBuildingException e) {
-                LOGGER.debug("Error retrieving POM of module-dependency: " + depArtifact.getId() + "; Reason: "
-                        + e.getMessage() + "\n\nBuilding stub project instance.");
-
-                depProject = buildProjectStub(depArtifact);
-            }
+            final MavenProject depProject = getDependencyProject(depArtifact, configSource);
 
             if (NON_ARCHIVE_DEPENDENCY_TYPES.contains(depArtifact.getType())) {
                 addNonArchiveDependency(depArtifact, depProject, dependencySet, archiver, configSource);
@@ -171,6 +168,48 @@ public class AddDependencySetsTask {
         }
     }
 
+    private Set<Artifact> getDependencyArtifacts(final DependencySet dependencySet)
+            throws InvalidAssemblerConfigurationException {
+        // without the project artifact and attachments, the artifacts do not depend on the (module) project
+        final boolean shared = sharedDependencySets != null
+                && !dependencySet.isUseProjectArtifact()
+                && !dependencySet.isUseProjectAttachments();
+
+        Set<Artifact> dependencyArtifacts = shared ? sharedDependencySets.getDependencyArtifacts(dependencySet) : null;
+        if (dependencyArtifacts == null) {
+            dependencyArtifacts = resolveDependencyArtifacts(dependencySet);
+            if (shared) {
+                sharedDependencySets.putDependencyArtifacts(dependencySet, dependencyArtifacts);
+            }
+        }
+
+        return dependencyArtifacts;
+    }
+
+    private MavenProject getDependencyProject(
+            final Artifact depArtifact, final AssemblerConfigurationSource configSource)
+            throws ArchiveCreationException {
+        if (sharedDependencySets != null) {
+            return sharedDependencySets.getDependencyProject(
+                    depArtifact, artifact -> buildDependencyProject(artifact, configSource));
+        }
+        return buildDependencyProject(depArtifact, configSource);
+    }
+
+    private MavenProject buildDependencyProject(
+            final Artifact depArtifact, final AssemblerConfigurationSource configSource) {
+        ProjectBuildingRequest pbr = getProjectBuildingRequest(configSource);
+        try (FlightRecorderEvents.Span span = FlightRecorderEvents.dependencyProject(depArtifact)) {
+            ProjectBuildingResult build = projectBuilder1.build(depArtifact, pbr);
+            return build.getProject();
+        } catch (final ProjectBuildingException e) {
+            LOGGER.debug("Error retrieving POM of module-dependency: " + depArtifact.getId() + "; Reason: "
+                    + e.getMessage() + "\n\nBuilding stub project instance.");
+
+            return buildProjectStub(depArtifact);
+        }
+    }
+
     private ProjectBuildingRequest getProjectBuildingRequest(AssemblerConfigurationSource configSource) {
         return new DefaultProjectBuildingRequest(configSource.getMavenSession().getProjectBuildingRequest())
                 .setProcessPlugins(false);
@@ -248,7 +287,16 @@ public class AddDependencySetsTask {
             task.setUsingDefaultExcludes(opts.isUseDefaultExcludes());
         }
 
-        task.execute(archiver, configSource);
+        if (sharedDependencySets != null) {
+            sharedDependencySets.addOnce(
+                    dependencySet,
+                    depArtifact,
+                    task.getDestination(configSource),
+                    archiver,
+                    a -> task.execute(a, configSource));
+        } else {
+            task.execute(archiver, configSource);
+        }
     }
 
     private MavenProject buildProjectStub(final Artifact depArtifact) {
@@ -268,15 +316,13 @@ public class AddDependencySetsTask {
 
     Set<Artifact> resolveDependencyArtifacts(final DependencySet dependencySet)
             throws InvalidAssemblerConfigurationException {
-        final Set<Artifact> dependencyArtifacts = new LinkedHashSet<>();
-        if (resolvedArtifacts != null) {
-            dependencyArtifacts.addAll(resolvedArtifacts);
-        }
+        final IndexedArtifactSet resolved = getIndexedArtifacts();
+        final List<Artifact> additional = new ArrayList<>();
 
         if (dependencySet.isUseProjectArtifact()) {
             final Artifact projectArtifact = project.getArtifact();
             if ((projectArtifact != null) && (projectArtifact.getFile() != null)) {
-                dependencyArtifacts.add(projectArtifact);
+                addAdditionalArtifact(resolved, additional, projectArtifact);
             } else {
                 LOGGER.warn("Cannot include project artifact: " + projectArtifact
                         + "; it doesn't have an associated file or directory.");
@@ -288,7 +334,7 @@ public class AddDependencySetsTask {
             if (attachments != null) {
                 for (final Artifact attachment : attachments) {
                     if (attachment.getFile() != null) {
-                        dependencyArtifacts.add(attachment);
+                        addAdditionalArtifact(resolved, additional, attachment);
                     } else {
                         LOGGER.warn("Cannot include attached artifact: " + project.getId() + " for project: "
                                 + project.getId() + "; it doesn't have an associated file or directory.");
@@ -303,23 +349,56 @@ public class AddDependencySetsTask {
             LOGGER.debug("Filtering dependency artifacts WITHOUT transitive dependency path information.");
         }
 
-        final ScopeFilter scopeFilter = FilterUtils.newScopeFilter(dependencySet.getScope());
+        // the resolved artifacts in scope are computed once, only the additional artifacts are tested here
+        final BitSet selection = resolved.inScope(dependencySet.getScope());
+        final ArtifactFilter scopeFilter = IndexedArtifactSet.scopeFilter(dependencySet.getScope());
+        for (int i = 0; i < additional.size(); i++) {
+            if (scopeFilter.include(additional.get(i))) {
+                selection.set(resolved.size() + i);
+            }
+        }
 
-        final ArtifactFilter filter = new ArtifactIncludeFilterTransformer().transform(scopeFilter);
+        final List<Artifact> candidates = new AbstractList<Artifact>() {
+            @Override
+            public Artifact get(final int index) {
+                return index < resolved.size() ? resolved.get(index) : additional.get(index - resolved.size());
+            }
+
+            @Override
+            public int size() {
+                return resolved.size() + additional.size();
+            }
+        };
 
         ArtifactFilterConfig filterConfig = new ArtifactFilterConfig();
-        filterConfig.artifacts = dependencyArtifacts;
         filterConfig.includes = dependencySet.getIncludes();
         filterConfig.excludes = dependencySet.getExcludes();
         filterConfig.strictFiltering = dependencySet.isUseStrictFiltering();
         filterConfig.actTransitively = dependencySet.isUseTransitiveFiltering();
         filterConfig.logger = LOGGER;
-        filterConfig.additionalFilters = new ArtifactFilter[]{filter};
-        FilterUtils.filterArtifacts(filterConfig);
+        FilterUtils.filterArtifacts(filterConfig, candidates, selection);
 
+        final Set<Artifact> dependencyArtifacts = new LinkedHashSet<>();
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            dependencyArtifacts.add(candidates.get(i));
+        }
         return dependencyArtifacts;
     }
 
+    private synchronized IndexedArtifactSet getIndexedArtifacts() {
+        if (indexedArtifacts == null) {
+            indexedArtifacts = IndexedArtifactSet.of(resolvedArtifacts);
+        }
+        return indexedArtifacts;
+    }
+
+    private static void addAdditionalArtifact(
+            final IndexedArtifactSet resolved, final List<Artifact> additional, final Artifact artifact) {
+        if (!resolved.contains(artifact) && !additional.contains(artifact)) {
+            additional.add(artifact);
+        }
+    }
+
     private void addNonArchiveDependency(
             final Artifact depArtifact,
             final MavenProject depProject,
@@ -332,9 +411,9 @@ public class AddDependencySetsTask {
         String outputDirectory = dependencySet.getOutputDirectory();
 
         FixedStringSearchInterpolator moduleProjectInterpolator =
-                AssemblyFormatUtils.moduleProjectInterpolator(moduleProject);
+                InterpolatorCache.of(configSource).moduleProjectInterpolator(moduleProject);
         FixedStringSearchInterpolator artifactProjectInterpolator =
-                AssemblyFormatUtils.artifactProjectInterpolator(depProject);
+                InterpolatorCache.of(configSource).artifactProjectInterpolator(depProject);
         outputDirectory = AssemblyFormatUtils.getOutputDirectory(
                 outputDirectory,
                 depProject.getBuild().getFinalName(),
@@ -351,15 +430,22 @@ public class AddDependencySetsTask {
                 moduleProjectInterpolator,
                 artifactProjectInterpolator);
 
-        String target;
-
         // omit the last char if ends with / or \\
-        if (outputDirectory.endsWith("/") || outputDirectory.endsWith("\\")) {
-            target = outputDirectory + destName;
+        final String target = outputDirectory.endsWith("/") || outputDirectory.endsWith("\\")
+                ? outputDirectory + destName
+                : outputDirectory + "/" + destName;
+
+        if (sharedDependencySets != null) {
+            sharedDependencySets.addOnce(
+                    dependencySet, depArtifact, target, archiver, a -> addFile(dependencySet, source, target, a));
         } else {
-            target = outputDirectory + "/" + destName;
+            addFile(dependencySet, source, target, archiver);
         }
+    }
 
+    private void addFile(
+            final DependencySet dependencySet, final File source, final String target, final Archiver archiver)
+            throws AssemblyFormattingException, ArchiveCreationException {
         try {
             final int mode = TypeConversionUtils.modeToInt(dependencySet.getFileMode(), LOGGER);
             if (mode > -1) {
@@ -391,4 +477,12 @@ public class AddDependencySetsTask {
     public void setModuleArtifact(final Artifact moduleArtifact) {
         this.moduleArtifact = moduleArtifact;
     }
+
+    /**
+     * @param sharedDependencySets The state shared with the tasks adding the same dependency sets for other modules.
+     * @since 3.7.0
+     */
+    public void setSharedDependencySets(final SharedDependencySets sharedDependencySets) {
+        this.sharedDependencySets = sharedDependencySets;
+    }
 }
@@ -31,6 +31,7 @@ import org.apache.maven.plugins.assembly.format.ReaderFormatter;
 import org.apache.maven.plugins.assembly.model.FileSet;
 import org.apache.maven.plugins.assembly.utils.AssemblyFileUtils;
 import org.apache.maven.plugins.assembly.utils.AssemblyFormatUtils;
+import org.apache.maven.plugins.assembly.utils.InterpolatorCache;
 import org.apache.maven.plugins.assembly.utils.TypeConversionUtils;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.archiver.Archiver;
@@ -106,8 +107,8 @@ public class AddFileSetsTask {
                 destDirectory,
                 configSource.getFinalName(),
                 configSource,
-                AssemblyFormatUtils.moduleProjectInterpolator(moduleProject),
-                AssemblyFormatUtils.artifactProjectInterpolator(project));
+                InterpolatorCache.of(configSource).moduleProjectInterpolator(moduleProject),
+                InterpolatorCache.of(configSource).artifactProjectInterpolator(project));
 
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("FileSet[" + destDirectory + "]" + " dir perms: "
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.task;
+
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugins.assembly.archive.ArchiveCreationException;
+import org.apache.maven.plugins.assembly.archive.archiver.ArchiverRecording;
+import org.apache.maven.plugins.assembly.format.AssemblyFormattingException;
+import org.apache.maven.plugins.assembly.model.DependencySet;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.archiver.Archiver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * State shared by the {@link AddDependencySetsTask}s which add the same resolved dependency sets on behalf of several
+ * module projects, as done for module binaries.
+ * <p>
+ * The POM of a dependency is built once, the filtered artifacts of a dependency set that does not depend on the
+ * module project are computed once, and an artifact is added to a given destination only once; destinations that
+ * differ per module (e.g. through <code>${module.*}</code> expressions) are still added for every module.
+ * </p>
+ * The state is thread-safe. When the tasks add to an {@link ArchiverRecording}, whether an artifact has been added
+ * before is decided when the recording is applied, so the first addition in recording order wins no matter which
+ * recording has been made first.
+ *
+ * @since 3.7.0
+ */
+public final class SharedDependencySets {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedDependencySets.class);
+
+    private final Map<Artifact, FutureTask<MavenProject>> dependencyProjects = new IdentityHashMap<>();
+
+    private final Map<DependencySet, Set<Artifact>> dependencyArtifacts = new IdentityHashMap<>();
+
+    private final Map<DependencySet, Map<Artifact, Set<String>>> destinations = new IdentityHashMap<>();
+
+    /**
+     * Builds the POM of a dependency once; concurrent requests for the same dependency wait for the first build.
+     *
+     * @param artifact The dependency artifact.
+     * @param builder Builds the POM of the dependency.
+     * @return The POM of the dependency.
+     * @throws ArchiveCreationException if interrupted while waiting for the build.
+     */
+    MavenProject getDependencyProject(final Artifact artifact, final Function<Artifact, MavenProject> builder)
+            throws ArchiveCreationException {
+        final FutureTask<MavenProject> build;
+        synchronized (this) {
+            build = dependencyProjects.computeIfAbsent(artifact, a -> new FutureTask<>(() -> builder.apply(a)));
+        }
+
+        build.run();
+        try {
+            return build.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ArchiveCreationException("Interrupted while building the POM of " + artifact.getId(), e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * @return The filtered artifacts of a dependency set, if these do not depend on the module project and have been
+     *         computed before, <code>null</code> otherwise.
+     */
+    synchronized Set<Artifact> getDependencyArtifacts(final DependencySet dependencySet) {
+        return dependencyArtifacts.get(dependencySet);
+    }
+
+    synchronized void putDependencyArtifacts(final DependencySet dependencySet, final Set<Artifact> artifacts) {
+        dependencyArtifacts.put(dependencySet, artifacts);
+    }
+
+    /**
+     * Performs an addition unless the artifact has been added to the destination for the dependency set before.
+     *
+     * @param dependencySet The dependency set the artifact is added for.
+     * @param artifact The artifact.
+     * @param destination The location the artifact is added to.
+     * @param archiver The archiver to add to.
+     * @param addition Adds the artifact.
+     * @throws ArchiveCreationException in case of an error.
+     * @throws AssemblyFormattingException in case of an error.
+     */
+    void addOnce(
+            final DependencySet dependencySet,
+            final Artifact artifact,
+            final String destination,
+            final Archiver archiver,
+            final Addition addition)
+            throws ArchiveCreationException, AssemblyFormattingException {
+        final ArchiverRecording recording = ArchiverRecording.of(archiver);
+        if (recording != null) {
+            addition.addTo(recording
+                    .guarded(() -> isFirstAddition(dependencySet, artifact, destination))
+                    .getArchiver());
+        } else if (isFirstAddition(dependencySet, artifact, destination)) {
+            addition.addTo(archiver);
+        }
+    }
+
+    private boolean isFirstAddition(
+            final DependencySet dependencySet, final Artifact artifact, final String destination) {
+        if (markAdded(dependencySet, artifact, destination)) {
+            return true;
+        }
+
+        LOGGER.debug("Dependency artifact " + artifact.getId() + " has already been added to: " + destination);
+        return false;
+    }
+
+    synchronized boolean markAdded(
+            final DependencySet dependencySet, final Artifact artifact, final String destination) {
+        return destinations
+                .computeIfAbsent(dependencySet, ds -> new IdentityHashMap<>())
+                .computeIfAbsent(artifact, a -> new HashSet<>())
+                .add(destination);
+    }
+
+    /**
+     * Adds an artifact to an archiver.
+     */
+    interface Addition {
+        void addTo(Archiver archiver) throws ArchiveCreationException, AssemblyFormattingException;
+    }
+}
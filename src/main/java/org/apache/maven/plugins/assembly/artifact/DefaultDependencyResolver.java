@@ -34,6 +34,7 @@ import org.apache.maven.artifact.versioning.VersionRange;
 import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
 import org.apache.maven.plugins.assembly.archive.ArchiveCreationException;
 import org.apache.maven.plugins.assembly.archive.phase.ModuleSetAssemblyPhase;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
 import org.apache.maven.plugins.assembly.model.Assembly;
 import org.apache.maven.plugins.assembly.model.DependencySet;
 import org.apache.maven.plugins.assembly.model.ModuleBinaries;
@@ -69,16 +70,22 @@ public class DefaultDependencyResolver implements DependencyResolver {
             List<DependencySet> dependencySets)
             throws DependencyResolutionException {
         Map<DependencySet, Set<Artifact>> result = new LinkedHashMap<>();
+        final DependencySetResolutionCache cache = DependencySetResolutionCache.of(configSource);
+        final AssemblyEvents events = AssemblyEvents.of(configSource);
 
         for (DependencySet dependencySet : dependencySets) {
 
             final MavenProject currentProject = configSource.getProject();
 
-            final ResolutionManagementInfo info = new ResolutionManagementInfo();
-            updateDependencySetResolutionRequirements(dependencySet, info, currentProject);
-            updateModuleSetResolutionRequirements(moduleSet, dependencySet, info, configSource);
+            final Set<Artifact> artifacts = cache.getArtifacts(
+                    currentProject, moduleSet, dependencySet.isUseTransitiveDependencies(), events, () -> {
+                        final ResolutionManagementInfo info = new ResolutionManagementInfo();
+                        updateDependencySetResolutionRequirements(dependencySet, info, currentProject);
+                        updateModuleSetResolutionRequirements(moduleSet, dependencySet, info, configSource);
+                        return resolved(currentProject, info.getArtifacts(), events);
+                    });
 
-            result.put(dependencySet, info.getArtifacts());
+            result.put(dependencySet, artifacts);
         }
         return result;
     }
@@ -90,19 +97,35 @@ public class DefaultDependencyResolver implements DependencyResolver {
             List<DependencySet> dependencySets)
             throws DependencyResolutionException {
         Map<DependencySet, Set<Artifact>> result = new LinkedHashMap<>();
+        final DependencySetResolutionCache cache = DependencySetResolutionCache.of(configSource);
+        final AssemblyEvents events = AssemblyEvents.of(configSource);
 
         for (DependencySet dependencySet : dependencySets) {
 
             final MavenProject currentProject = configSource.getProject();
 
-            final ResolutionManagementInfo info = new ResolutionManagementInfo();
-            updateDependencySetResolutionRequirements(dependencySet, info, currentProject);
+            final Set<Artifact> artifacts = cache.getArtifacts(
+                    currentProject, null, dependencySet.isUseTransitiveDependencies(), events, () -> {
+                        final ResolutionManagementInfo info = new ResolutionManagementInfo();
+                        updateDependencySetResolutionRequirements(dependencySet, info, currentProject);
+                        return resolved(currentProject, info.getArtifacts(), events);
+                    });
 
-            result.put(dependencySet, info.getArtifacts());
+            result.put(dependencySet, artifacts);
         }
         return result;
     }
 
+    private static Set<Artifact> resolved(
+            final MavenProject project, final Set<Artifact> artifacts, final AssemblyEvents events) {
+        if (events.isEnabled()) {
+            for (final Artifact artifact : artifacts) {
+                events.artifactResolved(project, artifact);
+            }
+        }
+        return artifacts;
+    }
+
     void updateModuleSetResolutionRequirements(
             ModuleSet set,
             DependencySet dependencySet,
@@ -164,8 +187,10 @@ public class DefaultDependencyResolver implements DependencyResolver {
             }
 
             requirements.addArtifacts(dependencyArtifacts);
-            LOGGER.debug("Dependencies for project: " + project.getId() + " are:\n"
-                    + StringUtils.join(dependencyArtifacts.iterator(), "\n"));
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Dependencies for project: " + project.getId() + " are:\n"
+                        + StringUtils.join(dependencyArtifacts.iterator(), "\n"));
+            }
         }
     }
 }
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.artifact;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugins.assembly.archive.phase.ModuleSetAssemblyPhase;
+import org.apache.maven.plugins.assembly.model.Assembly;
+import org.apache.maven.plugins.assembly.model.DependencySet;
+import org.apache.maven.plugins.assembly.model.ModuleBinaries;
+import org.apache.maven.plugins.assembly.model.ModuleSet;
+import org.apache.maven.plugins.assembly.utils.FilterUtils;
+
+/**
+ * Determines the dependency scopes of the project which assemblies use.
+ * <p>
+ * The dependencies of the project are used by the dependency sets of an assembly and by the dependency sets of module
+ * binaries, which filter these by scope; any other dependency does not need to be resolved.
+ * </p>
+ *
+ * @since 3.7.0
+ */
+public final class DependencyScopes {
+    private DependencyScopes() {}
+
+    /**
+     * @param assemblies The assemblies, with their component descriptors merged.
+     * @return The scopes of the dependencies which the dependency sets of the assemblies may include, empty if the
+     *         assemblies do not use any dependency of the project.
+     */
+    public static Set<String> of(final List<Assembly> assemblies) {
+        final Set<String> scopes = new LinkedHashSet<>();
+
+        for (final Assembly assembly : assemblies) {
+            addScopes(scopes, assembly.getDependencySets());
+
+            for (final ModuleSet moduleSet : assembly.getModuleSets()) {
+                final ModuleBinaries binaries = moduleSet.getBinaries();
+                if (binaries != null) {
+                    addScopes(scopes, ModuleSetAssemblyPhase.getDependencySets(binaries));
+                }
+            }
+        }
+
+        return scopes;
+    }
+
+    /**
+     * @param binaries The binaries of a module set.
+     * @return The scopes of the dependencies of the modules which the binaries include, empty if they include none.
+     */
+    public static Set<String> of(final ModuleBinaries binaries) {
+        final Set<String> scopes = new LinkedHashSet<>();
+        if (binaries.isIncludeDependencies()) {
+            addScopes(scopes, ModuleSetAssemblyPhase.getDependencySets(binaries));
+        }
+        return scopes;
+    }
+
+    /**
+     * Determines the scopes a project was resolved in from its resolved artifacts. Resolving a scope resolves the
+     * scopes it implies as well, so an artifact in the runtime scope shows the compile scope was resolved too, and one
+     * in the test scope shows all of them were. The result may miss scopes without any artifact, never include a scope
+     * which was not resolved.
+     *
+     * @param artifacts The resolved artifacts of a project.
+     * @return The scopes the artifacts were certainly resolved in.
+     */
+    public static Set<String> resolvedIn(final Collection<Artifact> artifacts) {
+        final Set<String> scopes = new LinkedHashSet<>();
+        for (final Artifact artifact : artifacts) {
+            if (artifact.getFile() == null) {
+                return Collections.emptySet();
+            }
+
+            final String scope = artifact.getScope() == null ? Artifact.SCOPE_COMPILE : artifact.getScope();
+            switch (scope) {
+                case Artifact.SCOPE_TEST:
+                    scopes.addAll(Arrays.asList(
+                            Artifact.SCOPE_COMPILE,
+                            Artifact.SCOPE_PROVIDED,
+                            Artifact.SCOPE_SYSTEM,
+                            Artifact.SCOPE_RUNTIME,
+                            Artifact.SCOPE_TEST));
+                    break;
+                case Artifact.SCOPE_RUNTIME:
+                    scopes.addAll(Arrays.asList(Artifact.SCOPE_COMPILE, Artifact.SCOPE_RUNTIME));
+                    break;
+                case Artifact.SCOPE_PROVIDED:
+                case Artifact.SCOPE_SYSTEM:
+                    scopes.addAll(
+                            Arrays.asList(Artifact.SCOPE_COMPILE, Artifact.SCOPE_PROVIDED, Artifact.SCOPE_SYSTEM));
+                    break;
+                default:
+                    scopes.add(scope);
+            }
+        }
+        return scopes;
+    }
+
+    private static void addScopes(final Set<String> scopes, final Collection<DependencySet> dependencySets) {
+        if (dependencySets != null) {
+            for (final DependencySet dependencySet : dependencySets) {
+                scopes.addAll(
+                        FilterUtils.newScopeFilter(dependencySet.getScope()).getIncluded());
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.artifact;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.apache.maven.plugins.assembly.model.ModuleSet;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Build scoped cache of the artifacts of resolved dependency sets.
+ * <p>
+ * The artifacts of a dependency set only depend on the project, the module set it belongs to (if any) and whether
+ * transitive dependencies are used, so dependency sets which agree on these share their artifacts, across phases and
+ * formats. The cached sets are unmodifiable and indexed, see {@link IndexedArtifactSet}.
+ * </p>
+ * The cache is thread-safe.
+ *
+ * @since 3.7.0
+ */
+public final class DependencySetResolutionCache {
+    private final Map<Key, Set<Artifact>> artifacts = new HashMap<>();
+
+    /**
+     * @param configSource The configuration source, may provide a build scoped cache.
+     * @return The cache of the configuration source, or a new, unshared one if it does not provide any.
+     */
+    public static DependencySetResolutionCache of(final AssemblerConfigurationSource configSource) {
+        final DependencySetResolutionCache cache = configSource.getDependencySetResolutionCache();
+        return cache != null ? cache : new DependencySetResolutionCache();
+    }
+
+    /**
+     * @param project The project the dependency set is resolved for.
+     * @param moduleSet The module set the dependency set belongs to, may be <code>null</code>.
+     * @param transitive Whether the dependency set uses transitive dependencies.
+     * @param events The events sent on cache hits and misses.
+     * @param resolution Resolves the artifacts if these have not been resolved before.
+     * @return The (possibly cached) artifacts.
+     * @throws DependencyResolutionException in case of a resolution failure.
+     */
+    synchronized Set<Artifact> getArtifacts(
+            final MavenProject project,
+            final ModuleSet moduleSet,
+            final boolean transitive,
+            final AssemblyEvents events,
+            final Resolution resolution)
+            throws DependencyResolutionException {
+        final Key key = new Key(project, moduleSet, transitive);
+
+        Set<Artifact> result = artifacts.get(key);
+        if (result == null) {
+            if (events.isEnabled()) {
+                events.cacheMiss(AssemblyEvents.DEPENDENCY_SET_CACHE, key.toString());
+            }
+            result = IndexedArtifactSet.of(resolution.resolve());
+            artifacts.put(key, result);
+        } else if (events.isEnabled()) {
+            events.cacheHit(AssemblyEvents.DEPENDENCY_SET_CACHE, key.toString());
+        }
+
+        return result;
+    }
+
+    /**
+     * Resolves the artifacts of a dependency set.
+     */
+    interface Resolution {
+        Set<Artifact> resolve() throws DependencyResolutionException;
+    }
+
+    /**
+     * Compares the project and module set by identity.
+     */
+    private static final class Key {
+        private final MavenProject project;
+
+        private final ModuleSet moduleSet;
+
+        private final boolean transitive;
+
+        Key(final MavenProject project, final ModuleSet moduleSet, final boolean transitive) {
+            this.project = project;
+            this.moduleSet = moduleSet;
+            this.transitive = transitive;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key other = (Key) o;
+            return project == other.project && moduleSet == other.moduleSet && transitive == other.transitive;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * System.identityHashCode(project) + System.identityHashCode(moduleSet))
+                    + Boolean.hashCode(transitive);
+        }
+
+        @Override
+        public String toString() {
+            return project.getId() + (moduleSet != null ? " (module set)" : "") + (transitive ? " (transitive)" : "");
+        }
+    }
+}
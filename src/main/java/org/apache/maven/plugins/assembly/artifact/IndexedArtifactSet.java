@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.artifact;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.plugins.assembly.utils.FilterUtils;
+import org.apache.maven.shared.artifact.filter.resolve.transform.ArtifactIncludeFilterTransformer;
+
+/**
+ * An unmodifiable set of resolved artifacts, indexed in iteration order, so subsets can be selected as bit sets.
+ * <p>
+ * Every dependency set of every module and format filters the same resolved artifacts by scope first; the artifacts
+ * in a given scope are computed once per set and shared as a bit set, which the include and exclude filters of a
+ * dependency set then only narrow down.
+ * </p>
+ * The set is thread-safe.
+ *
+ * @since 3.7.0
+ */
+public final class IndexedArtifactSet extends AbstractSet<Artifact> {
+    private final Artifact[] artifacts;
+
+    private final Map<Artifact, Integer> indexes = new HashMap<>();
+
+    private final Map<String, BitSet> scopes = new HashMap<>();
+
+    private IndexedArtifactSet(final Collection<Artifact> artifacts) {
+        final Collection<Artifact> unique = artifacts instanceof Set ? artifacts : new LinkedHashSet<>(artifacts);
+        this.artifacts = unique.toArray(new Artifact[0]);
+        for (int i = 0; i < this.artifacts.length; i++) {
+            indexes.put(this.artifacts[i], i);
+        }
+    }
+
+    /**
+     * @param artifacts The artifacts, may be <code>null</code>.
+     * @return The artifacts, if these are indexed already, an indexed copy otherwise.
+     */
+    public static IndexedArtifactSet of(final Collection<Artifact> artifacts) {
+        if (artifacts instanceof IndexedArtifactSet) {
+            return (IndexedArtifactSet) artifacts;
+        }
+        return new IndexedArtifactSet(artifacts != null ? artifacts : Collections.emptySet());
+    }
+
+    /**
+     * @param index The index of an artifact, in iteration order.
+     * @return The artifact.
+     */
+    public Artifact get(final int index) {
+        return artifacts[index];
+    }
+
+    /**
+     * @param artifact An artifact.
+     * @return The index of the artifact, or <code>-1</code> if it is not contained.
+     */
+    public int indexOf(final Artifact artifact) {
+        final Integer index = indexes.get(artifact);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * @param scope The root scope, see {@link FilterUtils#newScopeFilter(String)}.
+     * @return A new bit set of the artifacts in the scope (or one of its transitive scopes).
+     */
+    public BitSet inScope(final String scope) {
+        BitSet selection;
+        synchronized (scopes) {
+            selection = scopes.get(scope);
+            if (selection == null) {
+                selection = select(scopeFilter(scope));
+                scopes.put(scope, selection);
+            }
+        }
+        return (BitSet) selection.clone();
+    }
+
+    /**
+     * @param scope The root scope.
+     * @return The filter including the artifacts in the scope, as used to filter dependency sets.
+     */
+    public static ArtifactFilter scopeFilter(final String scope) {
+        return new ArtifactIncludeFilterTransformer().transform(FilterUtils.newScopeFilter(scope));
+    }
+
+    private BitSet select(final ArtifactFilter filter) {
+        final BitSet selection = new BitSet(artifacts.length);
+        for (int i = 0; i < artifacts.length; i++) {
+            if (filter.include(artifacts[i])) {
+                selection.set(i);
+            }
+        }
+        return selection;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return indexes.containsKey(o);
+    }
+
+    @Override
+    public Iterator<Artifact> iterator() {
+        return Collections.unmodifiableList(Arrays.asList(artifacts)).iterator();
+    }
+
+    @Override
+    public int size() {
+        return artifacts.length;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.artifact;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.apache.maven.plugins.assembly.utils.CacheDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps decompressed copies of the artifacts unpacked into assemblies, across builds.
+ * <p>
+ * An artifact in a zip based format (jar, war, zip...) is copied once into a zip of the same entries, in the same
+ * order and with the same attributes, stored without compression. The copy is named after the SHA-1 checksum of the
+ * artifact and the encoding of its entry names, and keeps the extension of the artifact, so it is unpacked by the same
+ * resource collection. Unpacking the copy yields the entries of the artifact without inflating them again in every
+ * build, assembly and format; includes, excludes and transformations still apply as they do to the artifact. Artifacts
+ * in other formats are used as they are.
+ * </p>
+ * <p>
+ * The copies are kept in a {@link CacheDirectory}, trimmed to a maximum size once the build is done with the cache,
+ * since the archives of the build only read them when they are written.
+ * </p>
+ * The cache is thread-safe.
+ *
+ * @since 3.7.0
+ */
+public final class UnpackedArtifactCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnpackedArtifactCache.class);
+
+    private final CacheDirectory directory;
+
+    /**
+     * The copies used in this build, by artifact and encoding.
+     */
+    private final Map<String, File> used = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory The directory holding the copies.
+     * @param maxSize The size in bytes the copies are trimmed to.
+     */
+    public UnpackedArtifactCache(final File directory, final long maxSize) {
+        this.directory = new CacheDirectory(directory, maxSize, "decompressed copy");
+    }
+
+    /**
+     * @param archive The file of the artifact.
+     * @param encoding The encoding of the entry names, or <code>null</code> for UTF-8.
+     * @param events The events sent on cache hits and misses.
+     * @return The decompressed copy of the artifact, or the artifact itself if it cannot be copied.
+     */
+    public File get(final File archive, final Charset encoding, final AssemblyEvents events) {
+        final Charset charset = encoding != null ? encoding : StandardCharsets.UTF_8;
+        final String key = archive.getAbsolutePath() + '!' + charset.name();
+
+        File copy = used.get(key);
+        if (copy == null) {
+            copy = copyOf(archive, charset, events);
+            used.put(key, copy);
+        }
+        return copy;
+    }
+
+    /**
+     * Deletes the least recently used copies until the cache fits its maximum size, sparing those used recently.
+     */
+    public void trim() {
+        directory.trim();
+    }
+
+    private File copyOf(final File archive, final Charset charset, final AssemblyEvents events) {
+        final int extension = archive.getName().lastIndexOf('.');
+        if (extension < 0) {
+            return archive;
+        }
+
+        final File copy;
+        try (ZipFile zip = new ZipFile(archive, charset.name())) {
+            final String name =
+                    checksum(archive) + '-' + charset.name() + archive.getName().substring(extension);
+            copy = directory.getFile(name);
+
+            if (copy.isFile()) {
+                LOGGER.debug("Using decompressed copy of " + archive + ": " + copy);
+                events.cacheHit(AssemblyEvents.UNPACK_CACHE, archive.getPath());
+                directory.markUsed(copy);
+                return copy;
+            }
+
+            events.cacheMiss(AssemblyEvents.UNPACK_CACHE, archive.getPath());
+            decompress(zip, charset, copy);
+            LOGGER.debug("Decompressed " + archive + " to " + copy);
+        } catch (final IOException e) {
+            // not a zip, or not readable: in the latter case, the archiver reports it
+            LOGGER.debug("Unpacking " + archive + " without decompressed copy: " + e.getMessage());
+            return archive;
+        }
+
+        return copy;
+    }
+
+    private void decompress(final ZipFile zip, final Charset charset, final File copy) throws IOException {
+        directory.write(copy, tempFile -> {
+            try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(tempFile.toFile())) {
+                out.setEncoding(charset.name());
+                out.setFallbackToUTF8(true);
+                for (final Enumeration<ZipArchiveEntry> entries = zip.getEntries(); entries.hasMoreElements(); ) {
+                    final ZipArchiveEntry entry = entries.nextElement();
+                    final ZipArchiveEntry stored = new ZipArchiveEntry(entry);
+                    stored.setMethod(ZipEntry.STORED);
+                    out.putArchiveEntry(stored);
+                    if (!entry.isDirectory()) {
+                        try (InputStream in = zip.getInputStream(entry)) {
+                            IOUtils.copy(in, out);
+                        }
+                    }
+                    out.closeArchiveEntry();
+                }
+            }
+            return copy;
+        });
+    }
+
+    private static String checksum(final File file) throws IOException {
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            return CacheDirectory.checksum("SHA-1", in);
+        }
+    }
+}
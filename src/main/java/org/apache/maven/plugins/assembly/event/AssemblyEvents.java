@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.event;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
+import org.apache.maven.project.MavenProject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends events to the {@link AssemblyListener}s of a build. Senders check {@link #isEnabled()} before computing costly
+ * event arguments, so there is no overhead without listeners.
+ * <p>
+ * A failing listener is logged and does not stop the other listeners.
+ * </p>
+ * The events are thread-safe.
+ *
+ * @since 3.7.0
+ */
+public final class AssemblyEvents {
+    /**
+     * Cache of the descriptors parsed by content.
+     */
+    public static final String DESCRIPTOR_CACHE = "descriptor";
+
+    /**
+     * Cache of the descriptors located by URL.
+     */
+    public static final String URL_CACHE = "url";
+
+    /**
+     * Cache of the artifacts of resolved dependency sets.
+     */
+    public static final String DEPENDENCY_SET_CACHE = "dependencySet";
+
+    /**
+     * Cache of the decompressed copies of unpacked artifacts.
+     */
+    public static final String UNPACK_CACHE = "unpack";
+
+    /**
+     * Cache of the deflated content of zip entries.
+     */
+    public static final String COMPRESSED_ENTRY_CACHE = "compressedEntry";
+
+    /**
+     * Cache of the output of filtered resources.
+     */
+    public static final String FILTER_CACHE = "filter";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AssemblyEvents.class);
+
+    private static final AssemblyEvents NONE = new AssemblyEvents(Collections.emptyList());
+
+    private final List<AssemblyListener> listeners;
+
+    /**
+     * @param listeners The listeners.
+     */
+    public AssemblyEvents(final Collection<? extends AssemblyListener> listeners) {
+        this.listeners = Collections.unmodifiableList(new ArrayList<>(listeners));
+    }
+
+    /**
+     * @param configSource The configuration source, may provide the events of the build.
+     * @return The events of the configuration source, or events without listeners if it does not provide any.
+     */
+    public static AssemblyEvents of(final AssemblerConfigurationSource configSource) {
+        final AssemblyEvents events = configSource != null ? configSource.getAssemblyEvents() : null;
+        return events != null ? events : NONE;
+    }
+
+    /**
+     * @return Events without listeners.
+     */
+    public static AssemblyEvents none() {
+        return NONE;
+    }
+
+    /**
+     * @return Whether there are listeners.
+     */
+    public boolean isEnabled() {
+        return !listeners.isEmpty();
+    }
+
+    public void archiveStarted(final String assemblyId, final String format, final File destFile) {
+        if (isEnabled()) {
+            fire(listener -> listener.archiveStarted(assemblyId, format, destFile));
+        }
+    }
+
+    public void archiveFinished(
+            final String assemblyId,
+            final String format,
+            final File destFile,
+            final long duration,
+            final boolean successful) {
+        if (isEnabled()) {
+            fire(listener -> listener.archiveFinished(assemblyId, format, destFile, duration, successful));
+        }
+    }
+
+    public void entryAdded(final String source, final String target, final long size) {
+        if (isEnabled()) {
+            fire(listener -> listener.entryAdded(source, target, size));
+        }
+    }
+
+    public void duplicateSkipped(final String source, final String target) {
+        if (isEnabled()) {
+            fire(listener -> listener.duplicateSkipped(source, target));
+        }
+    }
+
+    public void artifactAdded(
+            final Artifact artifact,
+            final String destination,
+            final boolean unpack,
+            final List<String> includes,
+            final List<String> excludes) {
+        if (isEnabled()) {
+            fire(listener -> listener.artifactAdded(artifact, destination, unpack, includes, excludes));
+        }
+    }
+
+    public void artifactResolved(final MavenProject project, final Artifact artifact) {
+        if (isEnabled()) {
+            fire(listener -> listener.artifactResolved(project, artifact));
+        }
+    }
+
+    public void cacheHit(final String cache, final String key) {
+        if (isEnabled()) {
+            fire(listener -> listener.cacheHit(cache, key));
+        }
+    }
+
+    public void cacheMiss(final String cache, final String key) {
+        if (isEnabled()) {
+            fire(listener -> listener.cacheMiss(cache, key));
+        }
+    }
+
+    private void fire(final Consumer<AssemblyListener> event) {
+        for (final AssemblyListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (final RuntimeException | LinkageError e) {
+                LOGGER.warn("Assembly listener " + listener.getClass().getName() + " failed: " + e.getMessage(), e);
+            }
+        }
+    }
+}
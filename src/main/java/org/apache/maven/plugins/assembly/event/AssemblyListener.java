@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.event;
+
+import java.io.File;
+import java.util.List;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * Receives structured events while assemblies are created, e.g. to collect metrics. Listeners are components: every
+ * implementation bound in the plugin realm (for instance by a build extension, with a <code>@Named</code> annotation)
+ * is notified, in no particular order.
+ * <p>
+ * Events may be sent from several threads at once, so listeners must be thread-safe; they should also be cheap, since
+ * some events are sent once per entry of an archive. A listener throwing an exception does not fail the build.
+ * </p>
+ * Every method does nothing by default, so listeners only implement the events they are interested in.
+ *
+ * @since 3.7.0
+ */
+public interface AssemblyListener {
+    /**
+     * @param assemblyId The id of the assembly.
+     * @param format The format of the archive.
+     * @param destFile The archive.
+     */
+    default void archiveStarted(String assemblyId, String format, File destFile) {}
+
+    /**
+     * @param assemblyId The id of the assembly.
+     * @param format The format of the archive.
+     * @param destFile The archive.
+     * @param duration The time spent creating the archive, in milliseconds.
+     * @param successful Whether the archive was created, or its creation failed.
+     */
+    default void archiveFinished(String assemblyId, String format, File destFile, long duration, boolean successful) {}
+
+    /**
+     * @param source The file the entry is read from; entries of archives are named
+     *               <code>&lt;archive&gt;!/&lt;entry&gt;</code>.
+     * @param target The path of the entry in the archive.
+     * @param size The size of the entry, or <code>-1</code> if unknown.
+     */
+    default void entryAdded(String source, String target, long size) {}
+
+    /**
+     * @param source The file the skipped entry would have been read from.
+     * @param target The path of the entry in the archive, which was already added.
+     */
+    default void duplicateSkipped(String source, String target) {}
+
+    /**
+     * @param artifact The artifact.
+     * @param destination Where the artifact is added: the directory it is unpacked into, or the path of the file.
+     * @param unpack Whether the artifact is unpacked.
+     * @param includes The patterns of the unpacked entries, or <code>null</code> for all.
+     * @param excludes The patterns of the entries which are not unpacked, or <code>null</code> for none.
+     */
+    default void artifactAdded(
+            Artifact artifact, String destination, boolean unpack, List<String> includes, List<String> excludes) {}
+
+    /**
+     * @param project The project the artifact is a dependency of.
+     * @param artifact The resolved artifact.
+     */
+    default void artifactResolved(MavenProject project, Artifact artifact) {}
+
+    /**
+     * @param cache The name of the cache, e.g. <code>descriptor</code>.
+     * @param key The key found in the cache.
+     */
+    default void cacheHit(String cache, String key) {}
+
+    /**
+     * @param cache The name of the cache, e.g. <code>descriptor</code>.
+     * @param key The key not found in the cache.
+     */
+    default void cacheMiss(String cache, String key) {}
+}
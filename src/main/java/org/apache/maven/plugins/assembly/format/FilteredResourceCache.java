@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.format;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.StringWriter;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.apache.maven.plugins.assembly.utils.CacheDirectory;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.shared.filtering.MavenReaderFilterRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the output of filtered resources across builds and formats, so resources with the same content, filtered with
+ * the same inputs, are not filtered again.
+ * <p>
+ * An output is keyed by the SHA-256 checksum of the content of the resource and of a fingerprint of the filter inputs:
+ * the versions of the plugin and of maven-filtering, the model, base directory and filter files of the project, the
+ * additional properties, delimiters and escape string, the properties of the session whose names occur in the resource,
+ * the filter files or the additional properties, and the encoding and line endings of the resource. Resources referring
+ * to the environment, the session, the settings or the build timestamp, and resources larger than 4 MB, are filtered
+ * every time.
+ * </p>
+ * <p>
+ * The outputs are kept in a {@link CacheDirectory}, trimmed to a maximum size once the build is done with the cache.
+ * The cache is thread-safe.
+ * </p>
+ *
+ * @since 3.7.0
+ */
+public final class FilteredResourceCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FilteredResourceCache.class);
+
+    private static final int MAX_CACHED_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * The expressions whose values are not part of the fingerprint.
+     */
+    private static final List<String> VOLATILE_EXPRESSIONS =
+            Arrays.asList("env.", "session.", "settings.", "maven.build.timestamp");
+
+    /**
+     * The versions of the plugin and of maven-filtering, so outputs are not reused after either changes.
+     */
+    private static final String VERSIONS =
+            version(FilteredResourceCache.class, "org.apache.maven.plugins", "maven-assembly-plugin")
+                    + '/'
+                    + version(MavenReaderFilterRequest.class, "org.apache.maven.shared", "maven-filtering");
+
+    private final CacheDirectory directory;
+
+    /**
+     * The fingerprints of the filter inputs, by project.
+     */
+    private final Map<MavenProject, Fingerprint> fingerprints = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * @param directory The directory holding the outputs.
+     * @param maxSize The size in bytes the outputs are trimmed to.
+     */
+    public FilteredResourceCache(final File directory, final long maxSize) {
+        this.directory = new CacheDirectory(directory, maxSize, "filtered output");
+    }
+
+    /**
+     * Gets the output of a resource, transforming it and adding it on a miss.
+     *
+     * @param name The name of the resource.
+     * @param content The content of the resource.
+     * @param charset The encoding of the resource.
+     * @param settings The settings of the transformation of this resource, such as its line endings.
+     * @param configSource The configuration source, providing the filter inputs.
+     * @param transformation The transformation of the content.
+     * @return The output of the resource.
+     * @throws IOException If the resource cannot be read or transformed.
+     */
+    public InputStream get(
+            final String name,
+            final InputStream content,
+            final Charset charset,
+            final String settings,
+            final AssemblerConfigurationSource configSource,
+            final Transformation transformation)
+            throws IOException {
+        final byte[] bytes = IOUtils.toByteArray(new BoundedInputStream(content, MAX_CACHED_SIZE + 1));
+        if (bytes.length > MAX_CACHED_SIZE) {
+            LOGGER.debug("Filtering " + name + " without cache: too large");
+            return transformation.transform(new SequenceInputStream(new ByteArrayInputStream(bytes), content));
+        }
+
+        final InputStream source = new ByteArrayInputStream(bytes);
+        final String text = new String(bytes, charset);
+        for (final String expression : VOLATILE_EXPRESSIONS) {
+            if (text.contains(expression)) {
+                LOGGER.debug("Filtering " + name + " without cache: may refer to " + expression);
+                return transformation.transform(source);
+            }
+        }
+
+        final Fingerprint fingerprint = fingerprint(configSource);
+        final MessageDigest digest = CacheDirectory.digest("SHA-256");
+        digest.update(fingerprint.digest.getBytes(StandardCharsets.UTF_8));
+        for (final Map.Entry<String, String> property : fingerprint.properties.entrySet()) {
+            final String propertyName =
+                    property.getKey().substring(property.getKey().indexOf('.') + 1);
+            if (text.contains(propertyName) || fingerprint.references.contains(propertyName)) {
+                digest.update((property.getKey() + '=' + property.getValue() + '\n').getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        digest.update(charset.name().getBytes(StandardCharsets.UTF_8));
+        digest.update(settings.getBytes(StandardCharsets.UTF_8));
+        digest.update(bytes);
+        final String key = CacheDirectory.hex(digest.digest());
+        final File file = directory.getFile(key);
+
+        final AssemblyEvents events = AssemblyEvents.of(configSource);
+        if (file.isFile()) {
+            try {
+                final byte[] output = Files.readAllBytes(file.toPath());
+                events.cacheHit(AssemblyEvents.FILTER_CACHE, name);
+                directory.markUsed(file);
+                return new ByteArrayInputStream(output);
+            } catch (final IOException e) {
+                LOGGER.debug("Replacing unreadable filtered output " + file + ": " + e.getMessage());
+            }
+        }
+
+        events.cacheMiss(AssemblyEvents.FILTER_CACHE, name);
+        final byte[] output;
+        try (InputStream transformed = transformation.transform(source)) {
+            output = IOUtils.toByteArray(transformed);
+        }
+        try {
+            directory.write(file, tempFile -> Files.write(tempFile, output));
+        } catch (final IOException e) {
+            LOGGER.debug("Cannot cache filtered output of " + name + ": " + e.getMessage());
+        }
+        return new ByteArrayInputStream(output);
+    }
+
+    /**
+     * Deletes the least recently used outputs until the cache fits its maximum size, sparing those used recently.
+     */
+    public void trim() {
+        directory.trim();
+    }
+
+    private Fingerprint fingerprint(final AssemblerConfigurationSource configSource) throws IOException {
+        final MavenProject project = configSource.getProject();
+        Fingerprint fingerprint = fingerprints.get(project);
+        if (fingerprint == null) {
+            fingerprint = computeFingerprint(configSource, project);
+            fingerprints.put(project, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    private static Fingerprint computeFingerprint(
+            final AssemblerConfigurationSource configSource, final MavenProject project) throws IOException {
+        final StringBuilder inputs = new StringBuilder();
+        final StringBuilder references = new StringBuilder();
+        inputs.append("versions=").append(VERSIONS).append('\n');
+        inputs.append("escapeString=").append(configSource.getEscapeString()).append('\n');
+        inputs.append("delimiters=").append(configSource.getDelimiters()).append('\n');
+        inputs.append("projectBuildFilters=")
+                .append(configSource.isIncludeProjectBuildFilters())
+                .append('\n');
+        append(inputs, "additional.", configSource.getAdditionalProperties());
+        if (configSource.getAdditionalProperties() != null) {
+            references.append(configSource.getAdditionalProperties().values());
+        }
+
+        final List<String> filters = new ArrayList<>();
+        if (configSource.getFilters() != null) {
+            filters.addAll(configSource.getFilters());
+        }
+
+        File basedir = null;
+        if (project != null) {
+            basedir = project.getBasedir();
+            inputs.append("basedir=").append(basedir).append('\n');
+
+            final StringWriter model = new StringWriter();
+            new MavenXpp3Writer().write(model, project.getModel());
+            inputs.append(model).append('\n');
+
+            if (configSource.isIncludeProjectBuildFilters() && project.getBuild() != null) {
+                filters.addAll(project.getBuild().getFilters());
+            }
+        }
+
+        final Map<String, String> properties = new TreeMap<>();
+        if (configSource.getMavenSession() != null) {
+            put(properties, "user.", configSource.getMavenSession().getUserProperties());
+            put(properties, "system.", configSource.getMavenSession().getSystemProperties());
+        }
+
+        final MessageDigest digest = CacheDirectory.digest("SHA-256");
+        digest.update(inputs.toString().getBytes(StandardCharsets.UTF_8));
+        for (final String filter : filters) {
+            File file = new File(filter);
+            if (!file.isAbsolute() && basedir != null) {
+                file = new File(basedir, filter);
+            }
+            digest.update(filter.getBytes(StandardCharsets.UTF_8));
+            if (file.isFile()) {
+                final byte[] bytes = Files.readAllBytes(file.toPath());
+                digest.update(bytes);
+                references.append(new String(bytes, StandardCharsets.ISO_8859_1));
+            }
+        }
+        return new Fingerprint(CacheDirectory.hex(digest.digest()), references.toString(), properties);
+    }
+
+    private static void put(final Map<String, String> map, final String prefix, final Properties properties) {
+        if (properties == null) {
+            return;
+        }
+        for (final String key : properties.stringPropertyNames()) {
+            if (!key.startsWith("env.")) {
+                map.put(prefix + key, properties.getProperty(key));
+            }
+        }
+    }
+
+    private static String version(final Class<?> type, final String groupId, final String artifactId) {
+        final String resource = "META-INF/maven/" + groupId + "/" + artifactId + "/pom.properties";
+        try (InputStream in = type.getClassLoader().getResourceAsStream(resource)) {
+            if (in != null) {
+                final Properties properties = new Properties();
+                properties.load(in);
+                return properties.getProperty("version", "unknown");
+            }
+        } catch (final IOException e) {
+            LOGGER.debug("Cannot read the version of " + artifactId + ": " + e.getMessage());
+        }
+        final String version = type.getPackage() != null ? type.getPackage().getImplementationVersion() : null;
+        return version != null ? version : "unknown";
+    }
+
+    /**
+     * The filter inputs of a project. The properties of the session are only part of the key of the resources that
+     * may refer to them, as most of them, such as the command line, are unrelated to filtering.
+     */
+    private static final class Fingerprint {
+        /**
+         * The checksum of the inputs of every resource of the project.
+         */
+        private final String digest;
+
+        /**
+         * The filter files and additional properties, which may refer to the properties of the session.
+         */
+        private final String references;
+
+        /**
+         * The properties of the session, by name prefixed with their origin.
+         */
+        private final Map<String, String> properties;
+
+        Fingerprint(final String digest, final String references, final Map<String, String> properties) {
+            this.digest = digest;
+            this.references = references;
+            this.properties = properties;
+        }
+    }
+
+    private static void append(final StringBuilder inputs, final String prefix, final Properties properties) {
+        if (properties == null) {
+            return;
+        }
+        for (final String key : new TreeSet<>(properties.stringPropertyNames())) {
+            if (!key.startsWith("env.")) {
+                inputs.append(prefix)
+                        .append(key)
+                        .append('=')
+                        .append(properties.getProperty(key))
+                        .append('\n');
+            }
+        }
+    }
+
+    /**
+     * The filtering and line ending conversion of a resource.
+     */
+    @FunctionalInterface
+    public interface Transformation {
+        /**
+         * @param content The content of the resource.
+         * @return The transformed content.
+         * @throws IOException If the content cannot be transformed.
+         */
+        InputStream transform(InputStream content) throws IOException;
+    }
+}
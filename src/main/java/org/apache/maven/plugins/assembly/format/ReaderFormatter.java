@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.charset.Charset;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Properties;
@@ -29,6 +30,7 @@ import java.util.Set;
 
 import org.apache.commons.io.input.ReaderInputStream;
 import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
+import org.apache.maven.plugins.assembly.internal.FlightRecorderEvents;
 import org.apache.maven.plugins.assembly.utils.AssemblyFileUtils;
 import org.apache.maven.plugins.assembly.utils.LineEndings;
 import org.apache.maven.plugins.assembly.utils.LineEndingsUtils;
@@ -101,6 +103,10 @@ public class ReaderFormatter extends FilterableReader {
         }
     }
 
+    private static String getEncoding(PlexusIoResource plexusIoResource, AssemblerConfigurationSource configSource) {
+        return AssemblyFileUtils.isPropertyFile(plexusIoResource.getName()) ? "ISO-8859-1" : configSource.getEncoding();
+    }
+
     public static InputStreamTransformer getFileSetTransformers(
             final AssemblerConfigurationSource configSource,
             final boolean isFiltered,
@@ -112,6 +118,7 @@ public class ReaderFormatter extends FilterableReader {
         final boolean transformLineEndings = !LineEndings.keep.equals(lineEndingToUse);
 
         if (transformLineEndings || isFiltered) {
+            final FilteredResourceCache cache = isFiltered ? configSource.getFilteredResourceCache() : null;
             return new InputStreamTransformer() {
                 @Override
                 public InputStream transform(PlexusIoResource plexusIoResource, InputStream inputStream)
@@ -123,10 +130,26 @@ public class ReaderFormatter extends FilterableReader {
                         }
                     }
 
+                    if (cache != null) {
+                        final String encoding = getEncoding(plexusIoResource, configSource);
+                        return cache.get(
+                                fileName,
+                                inputStream,
+                                encoding != null ? Charset.forName(encoding) : Charset.defaultCharset(),
+                                AssemblyFileUtils.isPropertyFile(fileName) + " " + lineEndingToUse,
+                                configSource,
+                                content -> filter(plexusIoResource, content));
+                    }
+                    return filter(plexusIoResource, inputStream);
+                }
+
+                private InputStream filter(PlexusIoResource plexusIoResource, InputStream inputStream)
+                        throws IOException {
+                    final String fileName = plexusIoResource.getName();
                     InputStream result = inputStream;
                     if (isFiltered) {
                         boolean isPropertyFile = AssemblyFileUtils.isPropertyFile(plexusIoResource.getName());
-                        final String encoding = isPropertyFile ? "ISO-8859-1" : configSource.getEncoding();
+                        final String encoding = getEncoding(plexusIoResource, configSource);
 
                         Reader source = encoding != null
                                 ? new InputStreamReader(inputStream, encoding)
@@ -146,7 +169,16 @@ public class ReaderFormatter extends FilterableReader {
                         checkifFileTypeIsAppropriateForLineEndingTransformation(plexusIoResource);
                         result = LineEndingsUtils.lineEndingConverter(result, lineEndingToUse);
                     }
-                    return result;
+                    return FlightRecorderEvents.transformation(
+                            fileName, isFiltered, transformLineEndings ? lineEndingToUse.name() : null, result);
+                }
+
+                @Override
+                public String toString() {
+                    if (!transformLineEndings) {
+                        return "filtered";
+                    }
+                    return (isFiltered ? "filtered, " : "") + "line endings: " + lineEndingToUse.name();
                 }
             };
         }
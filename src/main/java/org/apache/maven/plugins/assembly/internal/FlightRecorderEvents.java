@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.internal;
+
+import java.io.InputStream;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Emits Java Flight Recorder events for the phases, tasks and handlers of the creation of an assembly.
+ * <p>
+ * The events are only created while a recording enables them; otherwise every method returns a no-op span (or the
+ * given stream) without allocating, nor reading the values of the event from the given artifacts. On a Java runtime
+ * without Flight Recorder, the event classes are never loaded.
+ * </p>
+ * The events are in the <code>Maven Assembly Plugin</code> category, and thread-safe.
+ *
+ * @since 3.7.0
+ */
+public final class FlightRecorderEvents {
+    /**
+     * A span of time an event covers, ended by closing it.
+     */
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final Span NONE = () -> {};
+
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    private FlightRecorderEvents() {}
+
+    /**
+     * @param assemblyId The id of the assembly.
+     * @param phase The hint of the phase.
+     * @return The span of the phase.
+     */
+    public static Span phase(final String assemblyId, final String phase) {
+        return AVAILABLE ? FlightRecorderSupport.phase(assemblyId, phase) : NONE;
+    }
+
+    /**
+     * @param artifact The artifact, the id and file size of which the event records.
+     * @param destination Where the artifact is added to the archive.
+     * @param unpack Whether the artifact is unpacked.
+     * @return The span of adding the artifact.
+     */
+    public static Span artifact(final Artifact artifact, final String destination, final boolean unpack) {
+        return AVAILABLE ? FlightRecorderSupport.artifact(artifact, destination, unpack) : NONE;
+    }
+
+    /**
+     * @param artifact The artifact the POM of which is built.
+     * @return The span of building the project of the POM.
+     */
+    public static Span dependencyProject(final Artifact artifact) {
+        return AVAILABLE ? FlightRecorderSupport.dependencyProject(artifact) : NONE;
+    }
+
+    /**
+     * @return Whether a recording records the selections of container descriptor handlers.
+     */
+    public static boolean isHandlerSelectionEnabled() {
+        return AVAILABLE && FlightRecorderSupport.isHandlerSelectionEnabled();
+    }
+
+    /**
+     * @param handler The hint of the container descriptor handler.
+     * @param file The name of the file to select.
+     * @return The span of the selection.
+     */
+    public static Span handlerSelection(final String handler, final String file) {
+        return AVAILABLE ? FlightRecorderSupport.handlerSelection(handler, file) : NONE;
+    }
+
+    /**
+     * @param resource The name of the transformed resource.
+     * @param filtered Whether the resource is filtered.
+     * @param lineEndings The line endings the resource is converted to, or <code>null</code>.
+     * @param transformed The transformed content of the resource.
+     * @return The transformed content, recording the time spent reading it in an event once it is closed.
+     */
+    public static InputStream transformation(
+            final String resource, final boolean filtered, final String lineEndings, final InputStream transformed) {
+        return AVAILABLE
+                ? FlightRecorderSupport.transformation(resource, filtered, lineEndings, transformed)
+                : transformed;
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+            return true;
+        } catch (final ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.internal;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * The Flight Recorder events behind {@link FlightRecorderEvents}; only loaded if the runtime supports Flight Recorder.
+ */
+final class FlightRecorderSupport {
+    private static final String CATEGORY = "Maven Assembly Plugin";
+
+    private static final EventType PHASE = EventType.getEventType(PhaseEvent.class);
+
+    private static final EventType ARTIFACT = EventType.getEventType(ArtifactEvent.class);
+
+    private static final EventType DEPENDENCY_PROJECT = EventType.getEventType(DependencyProjectEvent.class);
+
+    private static final EventType HANDLER_SELECTION = EventType.getEventType(HandlerSelectionEvent.class);
+
+    private static final EventType TRANSFORMATION = EventType.getEventType(TransformationEvent.class);
+
+    private FlightRecorderSupport() {}
+
+    static FlightRecorderEvents.Span phase(final String assemblyId, final String phase) {
+        if (!PHASE.isEnabled()) {
+            return () -> {};
+        }
+
+        final PhaseEvent event = new PhaseEvent();
+        event.assemblyId = assemblyId;
+        event.phase = phase;
+        return span(event);
+    }
+
+    static FlightRecorderEvents.Span artifact(final Artifact artifact, final String destination, final boolean unpack) {
+        if (!ARTIFACT.isEnabled()) {
+            return () -> {};
+        }
+
+        final File file = artifact.getFile();
+        final ArtifactEvent event = new ArtifactEvent();
+        event.artifactId = artifact.getId();
+        event.size = file != null && file.isFile() ? file.length() : -1;
+        event.destination = destination;
+        event.unpack = unpack;
+        return span(event);
+    }
+
+    static FlightRecorderEvents.Span dependencyProject(final Artifact artifact) {
+        if (!DEPENDENCY_PROJECT.isEnabled()) {
+            return () -> {};
+        }
+
+        final DependencyProjectEvent event = new DependencyProjectEvent();
+        event.artifactId = artifact.getId();
+        return span(event);
+    }
+
+    static boolean isHandlerSelectionEnabled() {
+        return HANDLER_SELECTION.isEnabled();
+    }
+
+    static FlightRecorderEvents.Span handlerSelection(final String handler, final String file) {
+        if (!HANDLER_SELECTION.isEnabled()) {
+            return () -> {};
+        }
+
+        final HandlerSelectionEvent event = new HandlerSelectionEvent();
+        event.handler = handler;
+        event.file = file;
+        return span(event);
+    }
+
+    static InputStream transformation(
+            final String resource, final boolean filtered, final String lineEndings, final InputStream transformed) {
+        if (!TRANSFORMATION.isEnabled()) {
+            return transformed;
+        }
+
+        final TransformationEvent event = new TransformationEvent();
+        event.resource = resource;
+        event.filtered = filtered;
+        event.lineEndings = lineEndings;
+        event.begin();
+        return new TransformationInputStream(transformed, event);
+    }
+
+    private static FlightRecorderEvents.Span span(final Event event) {
+        event.begin();
+        return () -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.commit();
+            }
+        };
+    }
+
+    /**
+     * Measures the time spent reading (that is, transforming) the content of a resource.
+     */
+    private static final class TransformationInputStream extends FilterInputStream {
+        private final TransformationEvent event;
+
+        private boolean closed;
+
+        TransformationInputStream(final InputStream in, final TransformationEvent event) {
+            super(in);
+            this.event = event;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final long start = System.nanoTime();
+            try {
+                final int read = super.read();
+                if (read >= 0) {
+                    event.bytes++;
+                }
+                return read;
+            } finally {
+                event.transformationTime += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final long start = System.nanoTime();
+            try {
+                final int read = super.read(b, off, len);
+                if (read > 0) {
+                    event.bytes += read;
+                }
+                return read;
+            } finally {
+                event.transformationTime += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!closed) {
+                    closed = true;
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.commit();
+                    }
+                }
+            }
+        }
+    }
+
+    @Name("org.apache.maven.plugins.assembly.Phase")
+    @Label("Assembly Phase")
+    @Description("A phase adding a section of an assembly descriptor to an archive")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class PhaseEvent extends Event {
+        @Label("Assembly Id")
+        String assemblyId;
+
+        @Label("Phase")
+        String phase;
+    }
+
+    @Name("org.apache.maven.plugins.assembly.Artifact")
+    @Label("Assembly Artifact")
+    @Description("An artifact added to an archive, as a file or unpacked")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class ArtifactEvent extends Event {
+        @Label("Artifact")
+        String artifactId;
+
+        @Label("Size")
+        @DataAmount
+        long size;
+
+        @Label("Destination")
+        String destination;
+
+        @Label("Unpack")
+        boolean unpack;
+    }
+
+    @Name("org.apache.maven.plugins.assembly.DependencyProject")
+    @Label("Assembly Dependency Project")
+    @Description("The project of the POM of a dependency, built for the interpolation of a dependency set")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static final class DependencyProjectEvent extends Event {
+        @Label("Artifact")
+        String artifactId;
+    }
+
+    @Name("org.apache.maven.plugins.assembly.HandlerSelection")
+    @Label("Assembly Handler Selection")
+    @Description("A container descriptor handler deciding whether a file is added to an archive")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static final class HandlerSelectionEvent extends Event {
+        @Label("Handler")
+        String handler;
+
+        @Label("File")
+        String file;
+    }
+
+    @Name("org.apache.maven.plugins.assembly.Transformation")
+    @Label("Assembly Resource Transformation")
+    @Description("A resource filtered or converted to other line endings while it is added to an archive")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static final class TransformationEvent extends Event {
+        @Label("Resource")
+        String resource;
+
+        @Label("Filtered")
+        boolean filtered;
+
+        @Label("Line Endings")
+        String lineEndings;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Transformation Time")
+        @Description("The time spent reading the transformed content")
+        @Timespan
+        long transformationTime;
+    }
+}
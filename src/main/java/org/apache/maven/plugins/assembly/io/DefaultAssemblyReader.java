@@ -32,10 +32,17 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.io.input.XmlStreamReader;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
 import org.apache.maven.plugins.assembly.InvalidAssemblerConfigurationException;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
 import org.apache.maven.plugins.assembly.interpolation.AssemblyExpressionEvaluator;
 import org.apache.maven.plugins.assembly.interpolation.AssemblyInterpolator;
 import org.apache.maven.plugins.assembly.model.Assembly;
@@ -71,6 +78,8 @@ import org.slf4j.LoggerFactory;
 public class DefaultAssemblyReader implements AssemblyReader {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultAssemblyReader.class);
 
+    private final DescriptorCache descriptorCache = new DescriptorCache();
+
     public static FixedStringSearchInterpolator createProjectInterpolator(MavenProject project) {
         // CHECKSTYLE_OFF: LineLength
         return FixedStringSearchInterpolator.create(
@@ -88,6 +97,8 @@ public class DefaultAssemblyReader implements AssemblyReader {
         final List<LocatorStrategy> strategies = new ArrayList<>();
         strategies.add(new RelativeFileLocatorStrategy(configSource.getBasedir()));
         strategies.add(new FileLocatorStrategy());
+        final URLCache urlCache = createURLCache(configSource);
+        strategies.add(new URLLocatorStrategy(urlCache));
 
         final List<LocatorStrategy> refStrategies = new ArrayList<>();
         refStrategies.add(new PrefixedClasspathLocatorStrategy("/assemblies/"));
@@ -128,8 +139,12 @@ public class DefaultAssemblyReader implements AssemblyReader {
 
             final String[] paths = scanner.getIncludedFiles();
 
-            for (String path : paths) {
-                addAssemblyFromDescriptor(path, locator, configSource, assemblies);
+            if (paths.length < 2 || !configSource.isParallelDescriptorReading()) {
+                for (String path : paths) {
+                    addAssemblyFromDescriptor(path, locator, configSource, assemblies);
+                }
+            } else {
+                addAssembliesFromDescriptors(paths, descriptorSourceDirectory, configSource, assemblies);
             }
         }
 
@@ -149,6 +164,10 @@ public class DefaultAssemblyReader implements AssemblyReader {
                 LOGGER.warn("The assembly id " + assembly.getId() + " is used more than once.");
             }
         }
+
+        if (urlCache != null) {
+            urlCache.trim();
+        }
         return assemblies;
     }
 
@@ -247,6 +266,76 @@ public class DefaultAssemblyReader implements AssemblyReader {
         }
     }
 
+    /**
+     * Reads the descriptors of the descriptor source directory concurrently, and adds the assemblies in the order of
+     * the paths. If several descriptors fail, the failure of the first one in that order is reported.
+     */
+    private void addAssembliesFromDescriptors(
+            final String[] paths,
+            final File descriptorSourceDirectory,
+            final AssemblerConfigurationSource configSource,
+            final List<Assembly> assemblies)
+            throws AssemblyReadException, InvalidAssemblerConfigurationException {
+        final ExecutorService executor = newDescriptorExecutor(paths.length);
+        try {
+            final List<Future<List<Assembly>>> results = new ArrayList<>(paths.length);
+            for (final String path : paths) {
+                results.add(executor.submit(() -> {
+                    // the locator collects messages, so every descriptor gets its own
+                    final Locator locator = new Locator();
+                    locator.addStrategy(new RelativeFileLocatorStrategy(descriptorSourceDirectory));
+                    final List<Assembly> result = new ArrayList<>(1);
+                    addAssemblyFromDescriptor(path, locator, configSource, result);
+                    return result;
+                }));
+            }
+
+            for (final Future<List<Assembly>> result : results) {
+                assemblies.addAll(await(result));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * The worker threads use the context class loader of the calling thread, like the threads of the build itself.
+     */
+    private static ExecutorService newDescriptorExecutor(final int descriptorCount) {
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        final AtomicInteger threadCount = new AtomicInteger();
+
+        return Executors.newFixedThreadPool(
+                Math.min(descriptorCount, Runtime.getRuntime().availableProcessors()), runnable -> {
+                    final Thread thread = new Thread(runnable, "assembly-descriptor-" + threadCount.incrementAndGet());
+                    thread.setContextClassLoader(contextClassLoader);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private static List<Assembly> await(final Future<List<Assembly>> result)
+            throws AssemblyReadException, InvalidAssemblerConfigurationException {
+        try {
+            return result.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssemblyReadException("Interrupted while reading the assembly descriptors", e);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof AssemblyReadException) {
+                throw (AssemblyReadException) cause;
+            } else if (cause instanceof InvalidAssemblerConfigurationException) {
+                throw (InvalidAssemblerConfigurationException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new AssemblyReadException("Error reading the assembly descriptors", cause);
+        }
+    }
+
     public Assembly readAssembly(
             Reader reader,
             final String locationDescription,
@@ -268,8 +357,13 @@ public class DefaultAssemblyReader implements AssemblyReader {
             AssemblyXpp3Reader.ContentTransformer transformer =
                     AssemblyInterpolator.assemblyInterpolator(interpolator, is, LOGGER);
 
-            final AssemblyXpp3Reader r = new AssemblyXpp3Reader(transformer);
-            assembly = r.read(reader);
+            assembly = descriptorCache.read(
+                    "assembly",
+                    reader,
+                    transformer::transform,
+                    (content, t) -> new AssemblyXpp3Reader(t::transform).read(content),
+                    Assembly.class,
+                    AssemblyEvents.of(configSource));
 
             ComponentXpp3Reader.ContentTransformer ctrans =
                     AssemblyInterpolator.componentInterpolator(interpolator, is, LOGGER);
@@ -294,6 +388,16 @@ public class DefaultAssemblyReader implements AssemblyReader {
         return assembly;
     }
 
+    private static URLCache createURLCache(final AssemblerConfigurationSource configSource) {
+        final File directory = configSource.getDescriptorCacheDirectory();
+        if (directory == null) {
+            return null;
+        }
+
+        final MavenSession session = configSource.getMavenSession();
+        return new URLCache(directory, session != null && session.isOffline(), AssemblyEvents.of(configSource));
+    }
+
     private void debugPrintAssembly(final String message, final Assembly assembly) {
         final StringWriter sWriter = new StringWriter();
         try {
@@ -328,6 +432,7 @@ public class DefaultAssemblyReader implements AssemblyReader {
         // allow absolute paths in componentDescriptor... MASSEMBLY-486
         locator.addStrategy(new RelativeFileLocatorStrategy(configSource.getBasedir()));
         locator.addStrategy(new FileLocatorStrategy());
+        locator.addStrategy(new URLLocatorStrategy(createURLCache(configSource)));
         locator.addStrategy(new ClasspathResourceLocatorStrategy());
 
         final AssemblyExpressionEvaluator aee = new AssemblyExpressionEvaluator(configSource);
@@ -350,7 +455,13 @@ public class DefaultAssemblyReader implements AssemblyReader {
 
             Component component = null;
             try (Reader reader = new InputStreamReader(resolvedLocation.getInputStream())) {
-                component = new ComponentXpp3Reader(transformer).read(reader);
+                component = descriptorCache.read(
+                        "component",
+                        reader,
+                        transformer::transform,
+                        (content, t) -> new ComponentXpp3Reader(t::transform).read(content),
+                        Component.class,
+                        AssemblyEvents.of(configSource));
             } catch (final IOException | XmlPullParserException e) {
                 throw new AssemblyReadException(
                         "Error reading component descriptor: " + location + " (resolved to: "
@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.Reader;
+import java.io.Serializable;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.apache.maven.plugins.assembly.utils.CacheDirectory;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * Caches parsed descriptors by content, across the projects of a reactor (and the builds of a long-lived JVM).
+ * <p>
+ * Descriptors are interpolated while they are parsed, one text value at a time. The first parse of a descriptor records
+ * the values it interpolates; reading the same content again only interpolates these values for the current project,
+ * and if the outcome matches one seen before, a copy of the model parsed then is returned instead of parsing again.
+ * The values are interpolated in the same order as a parse would, so interpolation problems and debug output are the
+ * same either way.
+ * </p>
+ * The cache is thread-safe.
+ */
+final class DescriptorCache {
+    private static final int MAX_DESCRIPTORS = 256;
+
+    private static final int MAX_VARIANTS = 32;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+            return size() > MAX_DESCRIPTORS;
+        }
+    };
+
+    /**
+     * @param kind The kind of descriptor, e.g. <code>assembly</code> or <code>component</code>.
+     * @param reader The descriptor content.
+     * @param transformer Interpolates the text values of the descriptor.
+     * @param parser Parses the descriptor with a given transformer.
+     * @param type The type of model.
+     * @param events The events sent on cache hits and misses.
+     * @param <T> The type of model.
+     * @return The (possibly cached copy of the) parsed model.
+     * @throws IOException in case of an error reading the descriptor.
+     * @throws XmlPullParserException in case of an error parsing the descriptor.
+     */
+    <T extends Serializable> T read(
+            final String kind,
+            final Reader reader,
+            final Transformer transformer,
+            final Parser<T> parser,
+            final Class<T> type,
+            final AssemblyEvents events)
+            throws IOException, XmlPullParserException {
+        final String content = IOUtil.toString(reader);
+        final String key = kind + ':' + digest(content);
+
+        final Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+
+        if (entry == null) {
+            events.cacheMiss(AssemblyEvents.DESCRIPTOR_CACHE, key);
+            final List<String[]> fields = new ArrayList<>();
+            final List<String> values = new ArrayList<>();
+            final T model = parser.parse(new StringReader(content), (source, context) -> {
+                final String value = transformer.transform(source, context);
+                fields.add(new String[] {source, context});
+                values.add(value);
+                return value;
+            });
+
+            final Entry created = new Entry(fields);
+            created.putVariant(values, serialize(model));
+            synchronized (entries) {
+                entries.putIfAbsent(key, created);
+            }
+            return model;
+        }
+
+        final List<String> values = new ArrayList<>(entry.fields.size());
+        for (final String[] field : entry.fields) {
+            values.add(transformer.transform(field[0], field[1]));
+        }
+
+        final byte[] cached = entry.getVariant(values);
+        if (cached != null) {
+            events.cacheHit(AssemblyEvents.DESCRIPTOR_CACHE, key);
+            return deserialize(cached, type);
+        }
+
+        events.cacheMiss(AssemblyEvents.DESCRIPTOR_CACHE, key);
+        final Iterator<String> replay = values.iterator();
+        final T model = parser.parse(new StringReader(content), (source, context) -> replay.next());
+        entry.putVariant(values, serialize(model));
+        return model;
+    }
+
+    private static String digest(final String content) {
+        return CacheDirectory.hex(CacheDirectory.digest("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] serialize(final Serializable model) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(model);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static <T> T deserialize(final byte[] model, final Class<T> type) throws IOException {
+        try (ObjectInputStream in = new ModelInputStream(new ByteArrayInputStream(model), type.getClassLoader())) {
+            return type.cast(in.readObject());
+        } catch (final ClassNotFoundException e) {
+            throw new IOException("Failed to copy cached descriptor", e);
+        }
+    }
+
+    /**
+     * Interpolates a text value of a descriptor.
+     */
+    interface Transformer {
+        String transform(String source, String context);
+    }
+
+    /**
+     * Parses a descriptor.
+     */
+    interface Parser<T> {
+        T parse(Reader reader, Transformer transformer) throws IOException, XmlPullParserException;
+    }
+
+    /**
+     * The values a descriptor interpolates and the models parsed for distinct interpolation outcomes.
+     */
+    private static final class Entry {
+        private final List<String[]> fields;
+
+        private final Map<List<String>, byte[]> variants = new LinkedHashMap<List<String>, byte[]>() {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<List<String>, byte[]> eldest) {
+                return size() > MAX_VARIANTS;
+            }
+        };
+
+        Entry(final List<String[]> fields) {
+            this.fields = fields;
+        }
+
+        synchronized byte[] getVariant(final List<String> values) {
+            return variants.get(values);
+        }
+
+        synchronized void putVariant(final List<String> values, final byte[] model) {
+            variants.put(values, model);
+        }
+    }
+
+    /**
+     * Resolves the model classes through the class loader of the plugin rather than the caller's.
+     */
+    private static final class ModelInputStream extends ObjectInputStream {
+        private final ClassLoader classLoader;
+
+        ModelInputStream(final InputStream in, final ClassLoader classLoader) throws IOException {
+            super(in);
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(desc.getName(), false, classLoader);
+            } catch (final ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+    }
+}
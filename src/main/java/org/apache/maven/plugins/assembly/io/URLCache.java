@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.apache.maven.plugins.assembly.utils.CacheDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps local copies of descriptors located by URL, across builds.
+ * <p>
+ * Every URL is stored as a file named after the hash of the URL, next to a properties file holding the
+ * <code>ETag</code> and <code>Last-Modified</code> validators it was served with. A cached copy is revalidated with a
+ * conditional request, and only downloaded again if it changed; if the request to a remote URL fails, the cached copy
+ * is used as is.
+ * In offline mode, remote URLs are not requested at all and the cached copy is used as is; local URLs (e.g.
+ * <code>file:</code>) are still checked.
+ * </p>
+ * The files are kept in a {@link CacheDirectory}, so the cache may be shared by concurrent builds.
+ */
+final class URLCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(URLCache.class);
+
+    /**
+     * The size in bytes the cache is trimmed to; descriptors are small, so this holds thousands of them.
+     */
+    private static final long MAX_SIZE = 16L * 1024 * 1024;
+
+    private static final String ETAG = "etag";
+
+    private static final String LAST_MODIFIED = "lastModified";
+
+    private final CacheDirectory directory;
+
+    private final boolean offline;
+
+    private final AssemblyEvents events;
+
+    /**
+     * @param directory The directory holding the cached copies.
+     * @param offline Whether remote URLs may be requested.
+     * @param events The events sent on cache hits and misses.
+     */
+    URLCache(final File directory, final boolean offline, final AssemblyEvents events) {
+        this.directory = new CacheDirectory(directory, MAX_SIZE, "descriptor");
+        this.offline = offline;
+        this.events = events;
+    }
+
+    /**
+     * @param url The URL.
+     * @return The local copy of the current content of the URL.
+     * @throws IOException in case the content cannot be downloaded, or is not cached in offline mode.
+     */
+    File get(final URL url) throws IOException {
+        final String name = CacheDirectory.hex(
+                CacheDirectory.digest("SHA-1").digest(url.toExternalForm().getBytes(StandardCharsets.UTF_8)));
+        final File file = directory.getFile(name + ".xml");
+        final File metadataFile = directory.getFile(name + ".properties");
+
+        final boolean remote = isRemote(url);
+        if (offline && remote) {
+            if (!file.isFile()) {
+                throw new IOException("Cannot download " + url + " in offline mode, and it has not been cached.");
+            }
+            LOGGER.debug("Using cached copy of " + url + " in offline mode: " + file);
+            return hit(url, file, metadataFile);
+        }
+
+        final Properties metadata = new Properties();
+        if (file.isFile() && metadataFile.isFile()) {
+            try (InputStream in = Files.newInputStream(metadataFile.toPath())) {
+                metadata.load(in);
+            }
+        }
+
+        final URLConnection connection = url.openConnection();
+        final String etag = metadata.getProperty(ETAG);
+        final long lastModified = Long.parseLong(metadata.getProperty(LAST_MODIFIED, "0"));
+        if (etag != null) {
+            connection.setRequestProperty("If-None-Match", etag);
+        }
+        if (lastModified > 0) {
+            connection.setIfModifiedSince(lastModified);
+        }
+
+        try {
+            if (isUnchanged(connection, etag, lastModified)) {
+                LOGGER.debug("Using cached copy of " + url + ": " + file);
+                return hit(url, file, metadataFile);
+            }
+
+            events.cacheMiss(AssemblyEvents.URL_CACHE, url.toExternalForm());
+            download(url, connection, file, metadataFile);
+            LOGGER.debug("Downloaded " + url + " to " + file);
+            return file;
+        } catch (final IOException e) {
+            if (!remote || !file.isFile()) {
+                throw e;
+            }
+            LOGGER.warn("Failed to check " + url + " for changes, using the cached copy: " + e.getMessage());
+            return hit(url, file, metadataFile);
+        } finally {
+            if (connection instanceof HttpURLConnection) {
+                ((HttpURLConnection) connection).disconnect();
+            }
+        }
+    }
+
+    /**
+     * Deletes the least recently used copies once the cache exceeds its maximum size.
+     */
+    void trim() {
+        directory.trim();
+    }
+
+    private File hit(final URL url, final File file, final File metadataFile) {
+        events.cacheHit(AssemblyEvents.URL_CACHE, url.toExternalForm());
+        directory.markUsed(file);
+        if (metadataFile.isFile()) {
+            directory.markUsed(metadataFile);
+        }
+        return file;
+    }
+
+    private void download(final URL url, final URLConnection connection, final File file, final File metadataFile)
+            throws IOException {
+        directory.write(file, tempFile -> {
+            try (InputStream in = connection.getInputStream()) {
+                return Files.copy(in, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        });
+
+        final Properties updated = new Properties();
+        updated.setProperty("url", url.toExternalForm());
+        if (connection.getHeaderField("ETag") != null) {
+            updated.setProperty(ETAG, connection.getHeaderField("ETag"));
+        }
+        if (connection.getLastModified() > 0) {
+            updated.setProperty(LAST_MODIFIED, Long.toString(connection.getLastModified()));
+        }
+        directory.write(metadataFile, tempFile -> {
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                updated.store(out, null);
+            }
+            return null;
+        });
+    }
+
+    private static boolean isRemote(final URL url) {
+        return "http".equalsIgnoreCase(url.getProtocol()) || "https".equalsIgnoreCase(url.getProtocol());
+    }
+
+    /**
+     * HTTP servers answer a conditional request themselves; for other URLs, the last modification time is compared.
+     */
+    private static boolean isUnchanged(final URLConnection connection, final String etag, final long lastModified)
+            throws IOException {
+        if (etag == null && lastModified <= 0) {
+            return false;
+        }
+
+        if (connection instanceof HttpURLConnection) {
+            return ((HttpURLConnection) connection).getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED;
+        }
+
+        return lastModified > 0 && connection.getLastModified() == lastModified;
+    }
+}
@@ -26,7 +26,7 @@ import java.nio.file.Files;
 import org.apache.commons.io.IOUtils;
 
 /**
- * The URL Location, storing the URL content to a temporary local file.
+ * The URL Location, storing the URL content to a temporary local file, or to a {@link URLCache} if one is given.
  *
  */
 class URLLocation extends FileLocation {
@@ -39,6 +39,8 @@ class URLLocation extends FileLocation {
 
     private final boolean tempFileDeleteOnExit;
 
+    private final URLCache cache;
+
     /**
      * @param url the URL
      * @param specification the spec
@@ -48,17 +50,38 @@ class URLLocation extends FileLocation {
      */
     URLLocation(
             URL url, String specification, String tempFilePrefix, String tempFileSuffix, boolean tempFileDeleteOnExit) {
+        this(url, specification, tempFilePrefix, tempFileSuffix, tempFileDeleteOnExit, null);
+    }
+
+    /**
+     * @param url the URL
+     * @param specification the spec
+     * @param tempFilePrefix the prefix
+     * @param tempFileSuffix the suffix
+     * @param tempFileDeleteOnExit delete on exit
+     * @param cache the cache of downloaded URLs, or <code>null</code> to use a temporary file
+     */
+    URLLocation(
+            URL url,
+            String specification,
+            String tempFilePrefix,
+            String tempFileSuffix,
+            boolean tempFileDeleteOnExit,
+            URLCache cache) {
         super(specification);
 
         this.url = url;
         this.tempFilePrefix = tempFilePrefix;
         this.tempFileSuffix = tempFileSuffix;
         this.tempFileDeleteOnExit = tempFileDeleteOnExit;
+        this.cache = cache;
     }
 
     @Override
     protected void initFile() throws IOException {
-        if (unsafeGetFile() == null) {
+        if (unsafeGetFile() == null && cache != null) {
+            setFile(cache.get(url));
+        } else if (unsafeGetFile() == null) {
             File tempFile = Files.createTempFile(tempFilePrefix, tempFileSuffix).toFile();
 
             if (tempFileDeleteOnExit) {
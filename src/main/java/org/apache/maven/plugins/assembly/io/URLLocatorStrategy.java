@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.io;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+
+/**
+ * URL locator strategy, for specifications like <code>https://host/descriptor.xml</code>.
+ */
+class URLLocatorStrategy implements LocatorStrategy {
+
+    private final URLCache cache;
+
+    /**
+     * @param cache the cache of downloaded URLs, or <code>null</code> to download to temporary files
+     */
+    URLLocatorStrategy(URLCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Location resolve(String locationSpecification, MessageHolder messageHolder) {
+        final URL url;
+        try {
+            url = new URL(locationSpecification);
+        } catch (MalformedURLException e) {
+            messageHolder.addMessage("Not a URL: " + locationSpecification);
+            return null;
+        }
+
+        return new URLLocation(url, locationSpecification, "location.", ".url", true, cache);
+    }
+}
@@ -19,7 +19,9 @@
 package org.apache.maven.plugins.assembly.mojos;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Properties;
@@ -38,12 +40,23 @@ import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
 import org.apache.maven.plugins.assembly.InvalidAssemblerConfigurationException;
 import org.apache.maven.plugins.assembly.archive.ArchiveCreationException;
 import org.apache.maven.plugins.assembly.archive.AssemblyArchiver;
+import org.apache.maven.plugins.assembly.archive.AssemblyPlan;
+import org.apache.maven.plugins.assembly.archive.AssemblyReport;
+import org.apache.maven.plugins.assembly.archive.archiver.CompressedEntryCache;
+import org.apache.maven.plugins.assembly.artifact.DependencySetResolutionCache;
+import org.apache.maven.plugins.assembly.artifact.UnpackedArtifactCache;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.apache.maven.plugins.assembly.event.AssemblyListener;
 import org.apache.maven.plugins.assembly.format.AssemblyFormattingException;
+import org.apache.maven.plugins.assembly.format.FilteredResourceCache;
 import org.apache.maven.plugins.assembly.io.AssemblyReadException;
 import org.apache.maven.plugins.assembly.io.AssemblyReader;
 import org.apache.maven.plugins.assembly.model.Assembly;
 import org.apache.maven.plugins.assembly.utils.AssemblyFormatUtils;
 import org.apache.maven.plugins.assembly.utils.InterpolationConstants;
+import org.apache.maven.plugins.assembly.utils.InterpolatorCache;
+import org.apache.maven.plugins.assembly.utils.OpenFileBudget;
+import org.apache.maven.plugins.assembly.utils.ReactorModuleIndex;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.MavenProjectHelper;
 import org.apache.maven.shared.filtering.MavenReaderFilter;
@@ -59,6 +72,8 @@ import org.codehaus.plexus.util.cli.CommandLineUtils;
  */
 public abstract class AbstractAssemblyMojo extends AbstractMojo implements AssemblerConfigurationSource {
 
+    private static final long MEGABYTE = 1024 * 1024;
+
     protected FixedStringSearchInterpolator commandLinePropertiesInterpolator;
 
     protected FixedStringSearchInterpolator envInterpolator;
@@ -67,6 +82,26 @@ public abstract class AbstractAssemblyMojo extends AbstractMojo implements Assem
 
     protected FixedStringSearchInterpolator rootInterpolator;
 
+    protected InterpolatorCache interpolatorCache;
+
+    protected ReactorModuleIndex reactorModuleIndex;
+
+    protected DependencySetResolutionCache dependencySetResolutionCache;
+
+    protected AssemblyReport assemblyReport;
+
+    protected AssemblyEvents assemblyEvents;
+
+    protected AssemblyPlan assemblyPlan;
+
+    protected UnpackedArtifactCache unpackedArtifactCache;
+
+    protected CompressedEntryCache compressedEntryCache;
+
+    protected FilteredResourceCache filteredResourceCache;
+
+    protected OpenFileBudget openFileBudget;
+
     /**
      * Set to false to exclude the assembly id from the assembly final name, and to create the resultant assembly
      * artifacts without classifier. As such, an assembly artifact having the same format as the packaging of the
@@ -162,7 +197,8 @@ public abstract class AbstractAssemblyMojo extends AbstractMojo implements Assem
     private List<String> formats;
 
     /**
-     * A list of descriptor files to generate from.
+     * A list of descriptor files to generate from. Since 3.7.0, descriptors may also be given by URL, see
+     * <code>descriptorCacheDirectory</code>.
      */
     @Parameter
     private String[] descriptors;
@@ -182,6 +218,18 @@ public abstract class AbstractAssemblyMojo extends AbstractMojo implements Assem
     @Parameter
     private File descriptorSourceDirectory;
 
+    /**
+     * Directory keeping the descriptors (and component descriptors) located by URL, such as
+     * <code>https://host/assembly.xml</code>, between builds. A cached descriptor is only downloaded again if the
+     * server reports it changed, and used as is when Maven runs offline or the server cannot be reached. The least
+     * recently used descriptors are deleted once the directory exceeds 16 MB. Defaults to
+     * <code>.cache/maven-assembly-plugin/descriptors</code> in the local repository.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.descriptorCacheDirectory")
+    private File descriptorCacheDirectory;
+
     /**
      * This is the base directory from which archive files are created. This base directory pre-pended to any
      * <code>&lt;directory&gt;</code> specifications in the assembly descriptor. This is an optional parameter.
@@ -309,6 +357,12 @@ public abstract class AbstractAssemblyMojo extends AbstractMojo implements Assem
     @Component
     private AssemblyReader assemblyReader;
 
+    /**
+     * The listeners notified of the creation of assemblies, e.g. contributed by a build extension.
+     */
+    @Component(role = AssemblyListener.class)
+    private List<AssemblyListener> assemblyListeners;
+
     /**
      * Allows additional configuration options that are specific to a particular type of archive format. This is
      * intended to capture an XML configuration that will be used to reflectively setup the options on the archiver
@@ -430,6 +484,215 @@ public abstract class AbstractAssemblyMojo extends AbstractMojo implements Assem
     @Parameter
     private String overrideGroupName;
 
+    /**
+     * Set to <code>true</code> to walk the directories of file-sets in parallel. The entries are still added to the
+     * archive in the same order as with the sequential scan, so the output does not change. This mostly helps with
+     * large trees on slow (network-mounted or cold-cache) file systems.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.parallelDirectoryScanning", defaultValue = "false")
+    private boolean parallelDirectoryScanning;
+
+    /**
+     * Set to <code>true</code> to list the directories walked by several file-sets of an archive only once, such as the
+     * source directories of nested modules, which the file-sets of the parent and of the child modules all walk. Each
+     * listing is kept until every file-set overlapping it was scanned. The output does not change.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.sharedSourceScanning", defaultValue = "false")
+    private boolean sharedSourceScanning;
+
+    /**
+     * Set to <code>true</code> to keep the scans of file-sets out of the directories they exclude as a whole, such as
+     * <code>node_modules/**</code>. The directories on the way to the excluded ones are listed when the file-set is
+     * scanned, and the includes are rewritten so the scanner never enters the excluded directories. File-sets with
+     * directories of many entries on the way, or with patterns that cannot be rewritten exactly, are scanned as is.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.pruneExcludedDirectories", defaultValue = "false")
+    private boolean pruneExcludedDirectories;
+
+    /**
+     * Set to <code>true</code> to gather the contributions of the modules of a module-set (interpolations, file checks,
+     * dependency POM builds) in parallel. The contributions are still added to the archive in module order, so the
+     * output does not change. This mostly helps with module-sets spanning many modules.
+     * <br/>
+     * The file-sets of the modules are only added to the archive here. Their directories are scanned, and their files
+     * read, when the archive is created, after all modules have been processed, and this option does not make that
+     * parallel; see <code>parallelDirectoryScanning</code> for the scans.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.parallelModuleProcessing", defaultValue = "false")
+    private boolean parallelModuleProcessing;
+
+    /**
+     * Set to <code>true</code> to read and interpolate the descriptors found in the
+     * <code>descriptorSourceDirectory</code> in parallel. The assemblies are still created in the order of the
+     * descriptor files, so the output does not change. This mostly helps with directories holding many (e.g. generated)
+     * descriptors.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.parallelDescriptorReading", defaultValue = "false")
+    private boolean parallelDescriptorReading;
+
+    /**
+     * Set to <code>true</code> to filter and convert the line endings of the files of a file-set in parallel, before
+     * they are handed to the archiver. Each transformed file is buffered in memory up to 5 MB, and in a temporary file
+     * beyond. The entries are still added to the archive in scan order, so the output does not change. This mostly
+     * helps with file-sets holding many filtered files, archived in formats written by a single thread (tar, dir).
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.parallelTransformation", defaultValue = "false")
+    private boolean parallelTransformation;
+
+    /**
+     * Set to <code>true</code> to report the time spent in the phases (file items, file-sets, dependency sets and
+     * module-sets), in the container descriptor handlers and in the final write of every archive, with the number of
+     * files and bytes it contains and its compression ratio. A summary of every archive is logged, and the complete
+     * report is written to <code>reportFile</code>.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.report", defaultValue = "false")
+    private boolean report;
+
+    /**
+     * The file to write the JSON report of the archives to, if <code>report</code> is enabled.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(
+            property = "assembly.reportFile",
+            defaultValue = "${project.build.directory}/assembly-report-${mojoExecution.executionId}.json")
+    private File reportFile;
+
+    /**
+     * Set to <code>true</code> to plan the archives instead of creating them: every entry an archive would contain is
+     * listed, with its source, path, mode, size and transformation, along with the total size of the entries, an
+     * estimate of the size of the archive in its format and the paths added more than once. The contents of the
+     * entries are not read, and the plan is written to <code>planFile</code>.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.plan", defaultValue = "false")
+    private boolean plan;
+
+    /**
+     * The file to write the JSON plan of the archives to, if <code>plan</code> is enabled.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(
+            property = "assembly.planFile",
+            defaultValue = "${project.build.directory}/assembly-plan-${mojoExecution.executionId}.json")
+    private File planFile;
+
+    /**
+     * Set to <code>true</code> to keep decompressed copies of the artifacts of dependency and module sets that are
+     * unpacked, in <code>unpackCacheDirectory</code>. A copy is keyed by the checksum of the artifact, and spares
+     * inflating the entries of the artifact again in later builds, assemblies and formats. Only applies to artifacts in
+     * zip based formats, such as jars.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.unpackCache", defaultValue = "false")
+    private boolean unpackCache;
+
+    /**
+     * Directory keeping the decompressed copies of unpacked artifacts, if <code>unpackCache</code> is enabled. Defaults
+     * to <code>.cache/maven-assembly-plugin/unpacked</code> in the local repository.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.unpackCacheDirectory")
+    private File unpackCacheDirectory;
+
+    /**
+     * The size in megabytes the copies in <code>unpackCacheDirectory</code> are trimmed to once the assemblies are
+     * created, by deleting the least recently used ones. The copies used by the current build, or by any build in the
+     * last hour, are kept.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.unpackCacheSize", defaultValue = "2048")
+    private long unpackCacheSize;
+
+    /**
+     * Set to <code>true</code> to keep the deflated content of the files added to <code>zip</code> archives, in
+     * <code>compressionCacheDirectory</code>. An entry is keyed by the checksum of its content and the compression
+     * level, and is written to the archives of later builds as it is, instead of compressing the file again. The number
+     * of entries reused is logged for each archive.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.compressionCache", defaultValue = "false")
+    private boolean compressionCache;
+
+    /**
+     * Directory keeping the deflated content of zip entries, if <code>compressionCache</code> is enabled. Defaults
+     * to <code>.cache/maven-assembly-plugin/compressed</code> in the local repository.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.compressionCacheDirectory")
+    private File compressionCacheDirectory;
+
+    /**
+     * The size in megabytes the entries in <code>compressionCacheDirectory</code> are trimmed to once the assemblies
+     * are created, by deleting the least recently used ones. The entries used by the current build, or by any build in
+     * the last hour, are kept.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.compressionCacheSize", defaultValue = "1024")
+    private long compressionCacheSize;
+
+    /**
+     * Set to <code>true</code> to keep the output of filtered files, in <code>filterCacheDirectory</code>. An output is
+     * keyed by the checksum of the file and of the filter inputs: the model and filter files of the project, the
+     * session properties, the filter settings of this plugin and the encoding and line endings of the file. Files
+     * referring to the environment, the session, the settings or the build timestamp are filtered in every build.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.filterCache", defaultValue = "false")
+    private boolean filterCache;
+
+    /**
+     * Directory keeping the output of filtered files, if <code>filterCache</code> is enabled. Defaults to
+     * <code>.cache/maven-assembly-plugin/filtered</code> in the local repository.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.filterCacheDirectory")
+    private File filterCacheDirectory;
+
+    /**
+     * The size in megabytes the outputs in <code>filterCacheDirectory</code> are trimmed to once the assemblies are
+     * created, by deleting the least recently used ones. The outputs used by the current build, or by any build in the
+     * last hour, are kept.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.filterCacheSize", defaultValue = "256")
+    private long filterCacheSize;
+
+    /**
+     * The maximum number of files the phases keep open at the same time, across all assemblies, such as the sources
+     * of a concatenated <code>file</code>. Opening a file waits while the limit is reached. Set to <code>0</code> for
+     * no limit. Files opened by the archivers themselves are not counted.
+     *
+     * @since 3.7.0
+     */
+    @Parameter(property = "assembly.maxOpenFiles", defaultValue = "0")
+    private int maxOpenFiles;
+
     public static FixedStringSearchInterpolator mainProjectInterpolator(MavenProject mainProject) {
         if (mainProject != null) {
             // 5
@@ -472,6 +735,19 @@ public abstract class AbstractAssemblyMojo extends AbstractMojo implements Assem
                     assemblyReader, e.getMessage(), "Mojo configuration is invalid: " + e.getMessage());
         }
 
+        prepareAssemblies(assemblies);
+
+        // fail before any archive is written, rather than after the first assemblies took minutes to compress
+        final List<String> problems = new ArrayList<>();
+        for (final Assembly assembly : assemblies) {
+            problems.addAll(
+                    assemblyArchiver.validate(assembly, getEffectiveFormats(assembly), this, getMergeManifestMode()));
+        }
+        if (!problems.isEmpty()) {
+            final String message = "Assemblies are not configured correctly:\n  " + String.join("\n  ", problems);
+            throw new MojoFailureException(assemblies, "Assemblies are incorrectly configured", message);
+        }
+
         // TODO: include dependencies marked for distribution under certain formats
         // TODO: how, might we plug this into an installer, such as NSIS?
 
@@ -484,10 +760,7 @@ public abstract class AbstractAssemblyMojo extends AbstractMojo implements Assem
             try {
                 final String fullName = AssemblyFormatUtils.getDistributionName(assembly, this);
 
-                List<String> effectiveFormats = formats;
-                if (effectiveFormats == null || effectiveFormats.isEmpty()) {
-                    effectiveFormats = assembly.getFormats();
-                }
+                final List<String> effectiveFormats = getEffectiveFormats(assembly);
                 if (effectiveFormats == null || effectiveFormats.isEmpty()) {
                     throw new MojoFailureException(
                             "No formats specified in the execution parameters or the assembly descriptor.");
@@ -503,6 +776,11 @@ public abstract class AbstractAssemblyMojo extends AbstractMojo implements Assem
                             getMergeManifestMode(),
                             outputDate);
 
+                    if (assemblyPlan != null) {
+                        // the archive was only planned, there is nothing to attach
+                        continue;
+                    }
+
                     final MavenProject project = getProject();
                     final String type = project.getArtifact().getType();
 
@@ -550,8 +828,52 @@ public abstract class AbstractAssemblyMojo extends AbstractMojo implements Assem
                         "Assembly: " + assembly.getId() + " is not configured correctly: " + e.getMessage());
             }
         }
+
+        trimCaches();
+
+        if (assemblyPlan != null && planFile != null) {
+            try {
+                assemblyPlan.write(planFile);
+                getLog().info("Assembly plan written to: " + planFile);
+            } catch (final IOException e) {
+                throw new MojoExecutionException("Failed to write the assembly plan to: " + planFile, e);
+            }
+        }
+
+        if (assemblyReport != null && reportFile != null) {
+            try {
+                assemblyReport.write(reportFile);
+                getLog().info("Assembly report written to: " + reportFile);
+            } catch (final IOException e) {
+                getLog().warn("Failed to write the assembly report to: " + reportFile, e);
+            }
+        }
     }
 
+    /**
+     * Trims the caches kept across builds once all assemblies are created, rather than after every cache miss, since
+     * listing a cache directory costs as much as the entries it holds.
+     */
+    private synchronized void trimCaches() {
+        if (unpackedArtifactCache != null) {
+            unpackedArtifactCache.trim();
+        }
+        if (compressedEntryCache != null) {
+            compressedEntryCache.trim();
+        }
+        if (filteredResourceCache != null) {
+            filteredResourceCache.trim();
+        }
+    }
+
+    /**
+     * Called once the assembly descriptors have been read, before any assembly is created.
+     *
+     * @param assemblies The assemblies to create.
+     * @throws MojoExecutionException in case of an error.
+     */
+    protected void prepareAssemblies(final List<Assembly> assemblies) throws MojoExecutionException {}
+
     private FixedStringSearchInterpolator createRepositoryInterpolator() {
         final Properties settingsProperties = new Properties();
         final MavenSession session = getMavenSession();
@@ -586,6 +908,16 @@ public abstract class AbstractAssemblyMojo extends AbstractMojo implements Assem
         return FixedStringSearchInterpolator.create(envProps);
     }
 
+    /**
+     * @return The formats of the execution, or else those of the assembly descriptor.
+     */
+    private List<String> getEffectiveFormats(final Assembly assembly) {
+        if (formats == null || formats.isEmpty()) {
+            return assembly.getFormats();
+        }
+        return formats;
+    }
+
     /**
      * Returns true if the current project is located at the Execution Root Directory (where mvn was launched)
      *
@@ -860,6 +1192,123 @@ public abstract class AbstractAssemblyMojo extends AbstractMojo implements Assem
         return mainProjectInterpolator;
     }
 
+    @Override
+    public synchronized InterpolatorCache getInterpolatorCache() {
+        if (interpolatorCache == null) {
+            this.interpolatorCache = new InterpolatorCache();
+        }
+        return interpolatorCache;
+    }
+
+    @Override
+    public synchronized ReactorModuleIndex getReactorModuleIndex() {
+        if (reactorModuleIndex == null) {
+            this.reactorModuleIndex = new ReactorModuleIndex(getReactorProjects());
+        }
+        return reactorModuleIndex;
+    }
+
+    @Override
+    public synchronized DependencySetResolutionCache getDependencySetResolutionCache() {
+        if (dependencySetResolutionCache == null) {
+            this.dependencySetResolutionCache = new DependencySetResolutionCache();
+        }
+        return dependencySetResolutionCache;
+    }
+
+    @Override
+    public synchronized AssemblyReport getAssemblyReport() {
+        if (report && assemblyReport == null) {
+            this.assemblyReport = new AssemblyReport();
+        }
+        return assemblyReport;
+    }
+
+    @Override
+    public synchronized AssemblyPlan getAssemblyPlan() {
+        if (plan && assemblyPlan == null) {
+            this.assemblyPlan = new AssemblyPlan();
+        }
+        return assemblyPlan;
+    }
+
+    @Override
+    public synchronized UnpackedArtifactCache getUnpackedArtifactCache() {
+        if (unpackCache && unpackedArtifactCache == null) {
+            File directory = unpackCacheDirectory;
+            if (directory == null && getLocalRepositoryDirectory() != null) {
+                directory = new File(getLocalRepositoryDirectory(), ".cache/maven-assembly-plugin/unpacked");
+            }
+            if (directory != null) {
+                this.unpackedArtifactCache = new UnpackedArtifactCache(directory, unpackCacheSize * MEGABYTE);
+            }
+        }
+        return unpackedArtifactCache;
+    }
+
+    @Override
+    public synchronized CompressedEntryCache getCompressedEntryCache() {
+        if (compressionCache && compressedEntryCache == null) {
+            File directory = compressionCacheDirectory;
+            if (directory == null && getLocalRepositoryDirectory() != null) {
+                directory = new File(getLocalRepositoryDirectory(), ".cache/maven-assembly-plugin/compressed");
+            }
+            if (directory != null) {
+                this.compressedEntryCache = new CompressedEntryCache(directory, compressionCacheSize * MEGABYTE);
+            }
+        }
+        return compressedEntryCache;
+    }
+
+    @Override
+    public synchronized FilteredResourceCache getFilteredResourceCache() {
+        if (filterCache && filteredResourceCache == null) {
+            File directory = filterCacheDirectory;
+            if (directory == null && getLocalRepositoryDirectory() != null) {
+                directory = new File(getLocalRepositoryDirectory(), ".cache/maven-assembly-plugin/filtered");
+            }
+            if (directory != null) {
+                this.filteredResourceCache = new FilteredResourceCache(directory, filterCacheSize * MEGABYTE);
+            }
+        }
+        return filteredResourceCache;
+    }
+
+    @Override
+    public synchronized OpenFileBudget getOpenFileBudget() {
+        if (maxOpenFiles > 0 && openFileBudget == null) {
+            this.openFileBudget = new OpenFileBudget(maxOpenFiles);
+        }
+        return openFileBudget;
+    }
+
+    @Override
+    public synchronized AssemblyEvents getAssemblyEvents() {
+        if (assemblyEvents == null && assemblyListeners != null && !assemblyListeners.isEmpty()) {
+            this.assemblyEvents = new AssemblyEvents(assemblyListeners);
+        }
+        return assemblyEvents;
+    }
+
+    @Override
+    public File getDescriptorCacheDirectory() {
+        if (descriptorCacheDirectory == null && getLocalRepositoryDirectory() != null) {
+            return new File(getLocalRepositoryDirectory(), ".cache/maven-assembly-plugin/descriptors");
+        }
+        return descriptorCacheDirectory;
+    }
+
+    private File getLocalRepositoryDirectory() {
+        if (mavenSession == null || mavenSession.getRepositorySession() == null) {
+            return null;
+        }
+        return mavenSession
+                .getRepositorySession()
+                .getLocalRepositoryManager()
+                .getRepository()
+                .getBasedir();
+    }
+
     @Override
     public Integer getOverrideUid() {
         return this.overrideUid;
@@ -879,4 +1328,34 @@ public abstract class AbstractAssemblyMojo extends AbstractMojo implements Assem
     public String getOverrideGroupName() {
         return this.overrideGroupName;
     }
+
+    @Override
+    public boolean isParallelDirectoryScanning() {
+        return parallelDirectoryScanning;
+    }
+
+    @Override
+    public boolean isSharedSourceScanning() {
+        return sharedSourceScanning;
+    }
+
+    @Override
+    public boolean isPruneExcludedDirectories() {
+        return pruneExcludedDirectories;
+    }
+
+    @Override
+    public boolean isParallelModuleProcessing() {
+        return parallelModuleProcessing;
+    }
+
+    @Override
+    public boolean isParallelDescriptorReading() {
+        return parallelDescriptorReading;
+    }
+
+    @Override
+    public boolean isParallelTransformation() {
+        return parallelTransformation;
+    }
 }
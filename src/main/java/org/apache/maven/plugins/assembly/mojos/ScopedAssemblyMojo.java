@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.mojos;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.RepositoryUtils;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.assembly.archive.ArchiveCreationException;
+import org.apache.maven.plugins.assembly.archive.phase.ModuleSetAssemblyPhase;
+import org.apache.maven.plugins.assembly.artifact.DependencyScopes;
+import org.apache.maven.plugins.assembly.model.Assembly;
+import org.apache.maven.plugins.assembly.model.ModuleBinaries;
+import org.apache.maven.plugins.assembly.model.ModuleSet;
+import org.apache.maven.project.DefaultDependencyResolutionRequest;
+import org.apache.maven.project.DependencyResolutionException;
+import org.apache.maven.project.DependencyResolutionResult;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectDependenciesResolver;
+import org.eclipse.aether.graph.DependencyFilter;
+import org.eclipse.aether.graph.DependencyNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Assemble an application bundle or distribution from an assembly descriptor, like the {@code single} goal does, but
+ * only resolve the project dependencies the assemblies use.
+ * <br >
+ * The {@code single} goal requires the test scoped dependencies of the project to be resolved before it runs. This
+ * goal reads the assembly descriptors first and then resolves only the dependencies in the scopes referenced by their
+ * dependency sets; the dependencies of module binaries are resolved in the module projects. Projects already resolved
+ * in these scopes by the build are not resolved again, and assemblies without dependency sets resolve no
+ * dependencies. The dependencies of the projects are restored once the assemblies are created.
+ *
+ * @since 3.7.0
+ */
+@Mojo(name = "single-scoped", threadSafe = true)
+public class ScopedAssemblyMojo extends SingleAssemblyMojo {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScopedAssemblyMojo.class);
+
+    /**
+     * Maven project dependencies resolver.
+     */
+    @Component
+    private ProjectDependenciesResolver dependenciesResolver;
+
+    /**
+     * The dependencies of the projects this goal resolved, as they were before, by project.
+     */
+    private final Map<MavenProject, Dependencies> replaced = new LinkedHashMap<>();
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        try {
+            super.execute();
+        } finally {
+            restoreDependencies();
+        }
+    }
+
+    @Override
+    protected void prepareAssemblies(final List<Assembly> assemblies) throws MojoExecutionException {
+        final Map<MavenProject, Set<String>> scopes = new LinkedHashMap<>();
+        scopes.put(getProject(), DependencyScopes.of(assemblies));
+
+        for (final Assembly assembly : assemblies) {
+            for (final ModuleSet moduleSet : assembly.getModuleSets()) {
+                final ModuleBinaries binaries = moduleSet.getBinaries();
+                final Set<String> moduleScopes =
+                        binaries == null ? Collections.emptySet() : DependencyScopes.of(binaries);
+                if (moduleScopes.isEmpty()) {
+                    continue;
+                }
+
+                final Set<MavenProject> modules;
+                try {
+                    modules = ModuleSetAssemblyPhase.getModuleProjects(moduleSet, this, LOGGER);
+                } catch (final ArchiveCreationException e) {
+                    throw new MojoExecutionException(e.getMessage(), e);
+                }
+                for (final MavenProject module : modules) {
+                    scopes.computeIfAbsent(module, p -> new LinkedHashSet<>()).addAll(moduleScopes);
+                }
+            }
+        }
+
+        for (final Map.Entry<MavenProject, Set<String>> entry : scopes.entrySet()) {
+            final MavenProject project = entry.getKey();
+            if (entry.getValue().isEmpty()) {
+                getLog().debug("The assemblies use no dependencies of " + project.getId()
+                        + ", skipping dependency resolution.");
+            } else if (DependencyScopes.resolvedIn(project.getArtifacts()).containsAll(entry.getValue())) {
+                getLog().debug("The dependencies of " + project.getId() + " in scopes " + entry.getValue()
+                        + " are already resolved.");
+            } else {
+                getLog().debug("Resolving the dependencies of " + project.getId() + " in scopes: " + entry.getValue());
+                resolveDependencies(project, entry.getValue());
+            }
+        }
+    }
+
+    private void resolveDependencies(final MavenProject project, final Set<String> scopes)
+            throws MojoExecutionException {
+        final DependencyFilter filter = (node, parents) -> node.getDependency() == null
+                || scopes.contains(node.getDependency().getScope());
+
+        final DependencyResolutionResult result;
+        try {
+            result = dependenciesResolver.resolve(new DefaultDependencyResolutionRequest(
+                            project, getMavenSession().getRepositorySession())
+                    .setResolutionFilter(filter));
+        } catch (final DependencyResolutionException e) {
+            throw new MojoExecutionException(
+                    "Failed to resolve the dependencies of " + project.getId() + ": " + e.getMessage(), e);
+        }
+
+        final Set<Artifact> artifacts = new LinkedHashSet<>();
+        final DependencyNode graph = result.getDependencyGraph();
+        if (graph != null && !graph.getChildren().isEmpty()) {
+            RepositoryUtils.toArtifacts(
+                    artifacts,
+                    graph.getChildren(),
+                    Collections.singletonList(project.getArtifact().getId()),
+                    filter);
+        }
+
+        replaced.putIfAbsent(project, new Dependencies(project));
+        project.setArtifacts(artifacts);
+
+        if (project.getDependencyArtifacts() == null) {
+            // the direct dependencies are the ones with a trail of the project and themselves
+            final Set<Artifact> dependencyArtifacts = new LinkedHashSet<>();
+            for (final Artifact artifact : artifacts) {
+                if (artifact.getDependencyTrail().size() == 2) {
+                    dependencyArtifacts.add(artifact);
+                }
+            }
+            project.setDependencyArtifacts(dependencyArtifacts);
+        }
+    }
+
+    /**
+     * Gives the projects back the dependencies they had before this goal resolved theirs, as the projects are shared
+     * with the rest of the build.
+     */
+    void restoreDependencies() {
+        for (final Map.Entry<MavenProject, Dependencies> entry : replaced.entrySet()) {
+            entry.getKey().setArtifacts(entry.getValue().artifacts);
+            entry.getKey().setDependencyArtifacts(entry.getValue().dependencyArtifacts);
+        }
+        replaced.clear();
+    }
+
+    /**
+     * The resolved dependencies of a project.
+     */
+    private static final class Dependencies {
+        private final Set<Artifact> artifacts;
+
+        private final Set<Artifact> dependencyArtifacts;
+
+        Dependencies(final MavenProject project) {
+            this.artifacts = project.getArtifacts();
+            this.dependencyArtifacts = project.getDependencyArtifacts();
+        }
+    }
+}
@@ -0,0 +1,398 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.utils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
+import org.apache.maven.shared.artifact.filter.PatternIncludesArtifactFilter;
+import org.apache.maven.shared.artifact.filter.StatisticsReportingArtifactFilter;
+import org.slf4j.Logger;
+
+/**
+ * Filters artifacts by include or exclude patterns like {@link PatternIncludesArtifactFilter} and
+ * {@link org.apache.maven.shared.artifact.filter.PatternExcludesArtifactFilter} do, with the same results, statistics
+ * and messages, but without testing every artifact against every pattern.
+ * <p>
+ * Patterns which only match exact <code>groupId</code> or <code>groupId:artifactId</code> coordinates, or a
+ * <code>groupId</code> prefix (like <code>org.apache.*</code>), are looked up by the coordinates of the artifact; the
+ * remaining patterns are only tested if they precede every pattern found that way, since the first matching pattern
+ * decides. The compiled patterns are cached per pattern list, the statistics are kept per filter.
+ * </p>
+ * A filter is not thread-safe; the compiled patterns it uses are.
+ */
+final class ArtifactPatternFilter implements ArtifactFilter, StatisticsReportingArtifactFilter {
+    private static final String SEP = System.lineSeparator();
+
+    private static final String ANY = "*";
+
+    private static final int NONE = Integer.MAX_VALUE;
+
+    private static final int MAX_COMPILED = 64;
+
+    private static final Map<List<String>, CompiledPatterns> COMPILED =
+            Collections.synchronizedMap(new LinkedHashMap<List<String>, CompiledPatterns>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<List<String>, CompiledPatterns> eldest) {
+                    return size() > MAX_COMPILED;
+                }
+            });
+
+    private final CompiledPatterns patterns;
+
+    private final boolean includes;
+
+    private final boolean actTransitively;
+
+    private final BitSet triggered = new BitSet();
+
+    private final List<Artifact> filteredArtifacts = new ArrayList<>();
+
+    private ArtifactPatternFilter(
+            final CompiledPatterns patterns, final boolean includes, final boolean actTransitively) {
+        this.patterns = patterns;
+        this.includes = includes;
+        this.actTransitively = actTransitively;
+    }
+
+    /**
+     * @param patterns The include patterns.
+     * @param actTransitively Whether the dependency trail of an artifact is matched as well.
+     * @return A filter including the artifacts matched by the patterns.
+     */
+    static ArtifactPatternFilter includes(final List<String> patterns, final boolean actTransitively) {
+        return new ArtifactPatternFilter(compile(patterns), true, actTransitively);
+    }
+
+    /**
+     * @param patterns The exclude patterns.
+     * @param actTransitively Whether the dependency trail of an artifact is matched as well.
+     * @return A filter excluding the artifacts matched by the patterns.
+     */
+    static ArtifactPatternFilter excludes(final List<String> patterns, final boolean actTransitively) {
+        return new ArtifactPatternFilter(compile(patterns), false, actTransitively);
+    }
+
+    private static CompiledPatterns compile(final List<String> patterns) {
+        return COMPILED.computeIfAbsent(new ArrayList<>(patterns), CompiledPatterns::new);
+    }
+
+    @Override
+    public boolean include(final Artifact artifact) {
+        final boolean shouldInclude = patternMatches(artifact) == includes;
+
+        if (!shouldInclude) {
+            filteredArtifacts.add(artifact);
+        }
+
+        return shouldInclude;
+    }
+
+    private boolean patternMatches(final Artifact artifact) {
+        int index = patterns.match(artifact.getGroupId(), artifact.getArtifactId(), () -> artifact);
+
+        if (index == NONE && actTransitively) {
+            final List<String> trail = artifact.getDependencyTrail();
+
+            if (trail != null && trail.size() > 1) {
+                for (final String item : trail) {
+                    final String[] coordinates = item.split(":");
+                    if (coordinates.length != 4 && coordinates.length != 5) {
+                        throw new IllegalArgumentException("Bad dep trail string: " + item);
+                    }
+
+                    index = patterns.match(coordinates[0], coordinates[1], () -> trailArtifact(coordinates));
+                    if (index != NONE) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (index == NONE) {
+            return false;
+        }
+
+        triggered.set(index);
+        return !patterns.negative[index];
+    }
+
+    @Override
+    public void reportMissedCriteria(final Logger logger) {
+        if (hasMissedCriteria() && logger.isWarnEnabled()) {
+            final StringBuilder buffer = new StringBuilder();
+
+            buffer.append("The following patterns were never triggered in this ");
+            buffer.append(getFilterDescription());
+            buffer.append(':');
+
+            for (int i = 0; i < patterns.names.length; i++) {
+                if (!triggered.get(i)) {
+                    buffer.append(SEP).append("o  '").append(patterns.names[i]).append("'");
+                }
+            }
+
+            buffer.append(SEP);
+
+            logger.warn(buffer.toString());
+        }
+    }
+
+    @Override
+    public void reportFilteredArtifacts(final Logger logger) {
+        if (!filteredArtifacts.isEmpty() && logger.isDebugEnabled()) {
+            final StringBuilder buffer =
+                    new StringBuilder("The following artifacts were removed by this " + getFilterDescription() + ": ");
+
+            for (final Artifact artifact : filteredArtifacts) {
+                buffer.append(SEP).append(artifact.getId());
+            }
+
+            logger.debug(buffer.toString());
+        }
+    }
+
+    @Override
+    public boolean hasMissedCriteria() {
+        return triggered.cardinality() < patterns.names.length;
+    }
+
+    private String getFilterDescription() {
+        return includes ? "artifact inclusion filter" : "artifact exclusion filter";
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder buffer = new StringBuilder(includes ? "Includes filter:" : "Excludes filter:");
+        for (final String name : patterns.names) {
+            buffer.append(SEP).append("o '").append(name).append("'");
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * @param coordinates The <code>G:A:T:V</code> or <code>G:A:T:C:V</code> coordinates of a dependency trail item.
+     * @return An artifact providing the coordinates the patterns match, as the library reads these from the trail.
+     */
+    private static Artifact trailArtifact(final String[] coordinates) {
+        final String type = coordinates[2];
+        final String classifier = coordinates.length == 5 ? coordinates[3] : null;
+        final String baseVersion = coordinates[coordinates.length - 1];
+
+        return new DefaultArtifact(
+                coordinates[0], coordinates[1], baseVersion, null, type, classifier, new DefaultArtifactHandler(type));
+    }
+
+    /**
+     * The patterns of a pattern list, indexed by the coordinates these match where possible.
+     */
+    private static final class CompiledPatterns {
+        private final String[] names;
+
+        private final boolean[] negative;
+
+        private final Map<String, Integer> groupIds = new HashMap<>();
+
+        private final Map<String, Integer> groupAndArtifactIds = new HashMap<>();
+
+        private final Map<String, Integer> groupIdPrefixes = new HashMap<>();
+
+        private final int[] prefixLengths;
+
+        private final List<Matcher> others = new ArrayList<>();
+
+        private int matchAll = NONE;
+
+        CompiledPatterns(final List<String> patternList) {
+            names = new String[patternList.size()];
+            negative = new boolean[names.length];
+
+            for (int i = 0; i < names.length; i++) {
+                String pattern = patternList.get(i);
+                names[i] = name(pattern);
+
+                // a negative pattern matches like the pattern it negates, however often negated
+                while (pattern.startsWith("!")) {
+                    negative[i] = true;
+                    pattern = pattern.substring(1);
+                }
+
+                if (!index(i, pattern)) {
+                    others.add(new Matcher(i, pattern));
+                }
+            }
+
+            final TreeSet<Integer> lengths = new TreeSet<>();
+            for (final String prefix : groupIdPrefixes.keySet()) {
+                lengths.add(prefix.length());
+            }
+            prefixLengths = lengths.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        /**
+         * @param pattern A pattern.
+         * @return The name the pattern is reported by, as {@link PatternIncludesArtifactFilter} compiles it (e.g.
+         *         <code>org.apache:*</code> is reported as <code>org.apache</code>).
+         */
+        private static String name(final String pattern) {
+            final String patterns = new PatternIncludesArtifactFilter(Collections.singletonList(pattern)).toString();
+            return patterns.substring(patterns.indexOf(SEP + "o '") + SEP.length() + 3, patterns.length() - 1);
+        }
+
+        /**
+         * Indexes the pattern by the coordinates it matches, following the pattern compilation of
+         * {@link PatternIncludesArtifactFilter}.
+         *
+         * @return <code>false</code> if the pattern can not be indexed.
+         */
+        private boolean index(final int index, final String pattern) {
+            final String[] tokens = pattern.split(":");
+            for (int i = 0; i < tokens.length; i++) {
+                if (tokens[i].isEmpty()) {
+                    tokens[i] = ANY;
+                }
+            }
+
+            switch (tokens.length) {
+                case 1:
+                    return ANY.equals(tokens[0]) ? indexAll(index) : indexGroupId(index, tokens[0]);
+                case 2:
+                    if (ANY.equals(tokens[0])) {
+                        return ANY.equals(tokens[1]) && indexAll(index);
+                    }
+                    return ANY.equals(tokens[1])
+                            ? indexGroupId(index, tokens[0])
+                            : indexGroupAndArtifactId(index, tokens[0], tokens[1]);
+                case 3:
+                    if (!ANY.equals(tokens[2])) {
+                        return false;
+                    }
+                    if (ANY.equals(tokens[0]) || ANY.equals(tokens[1])) {
+                        return ANY.equals(tokens[0]) && ANY.equals(tokens[1]) && indexAll(index);
+                    }
+                    return indexGroupAndArtifactId(index, tokens[0], tokens[1]);
+                default:
+                    return false;
+            }
+        }
+
+        private boolean indexAll(final int index) {
+            matchAll = Math.min(matchAll, index);
+            return true;
+        }
+
+        private boolean indexGroupId(final int index, final String token) {
+            if (isLiteral(token)) {
+                groupIds.putIfAbsent(token, index);
+                return true;
+            }
+
+            final String prefix = token.substring(0, token.length() - 1);
+            if (token.endsWith(ANY) && isLiteral(prefix) && !prefix.isEmpty()) {
+                groupIdPrefixes.putIfAbsent(prefix, index);
+                return true;
+            }
+            return false;
+        }
+
+        private boolean indexGroupAndArtifactId(final int index, final String groupId, final String artifactId) {
+            if (isLiteral(groupId) && isLiteral(artifactId)) {
+                groupAndArtifactIds.putIfAbsent(groupId + ':' + artifactId, index);
+                return true;
+            }
+            return false;
+        }
+
+        private static boolean isLiteral(final String token) {
+            return token.indexOf('*') < 0 && token.indexOf('?') < 0;
+        }
+
+        /**
+         * @param groupId The group id to match.
+         * @param artifactId The artifact id to match.
+         * @param artifact Provides the artifact the patterns which are not indexed are tested against.
+         * @return The index of the first matching pattern, or {@link #NONE}.
+         */
+        int match(final String groupId, final String artifactId, final Supplier<Artifact> artifact) {
+            int first = matchAll;
+
+            if (groupId != null) {
+                first = Math.min(first, groupIds.getOrDefault(groupId, NONE));
+
+                if (artifactId != null && !groupAndArtifactIds.isEmpty()) {
+                    first = Math.min(first, groupAndArtifactIds.getOrDefault(groupId + ':' + artifactId, NONE));
+                }
+
+                for (final int length : prefixLengths) {
+                    if (length > groupId.length()) {
+                        break;
+                    }
+                    first = Math.min(first, groupIdPrefixes.getOrDefault(groupId.substring(0, length), NONE));
+                }
+            }
+
+            Artifact target = null;
+            for (final Matcher matcher : others) {
+                if (matcher.index >= first) {
+                    break;
+                }
+                if (target == null) {
+                    target = artifact.get();
+                }
+                if (matcher.matches(target)) {
+                    return matcher.index;
+                }
+            }
+
+            return first;
+        }
+    }
+
+    /**
+     * Matches a single pattern which can not be indexed, as compiled by {@link PatternIncludesArtifactFilter}.
+     */
+    private static final class Matcher extends PatternIncludesArtifactFilter {
+        private final int index;
+
+        Matcher(final int index, final String pattern) {
+            super(Collections.singletonList(pattern));
+            this.index = index;
+        }
+
+        synchronized boolean matches(final Artifact artifact) {
+            return patternMatches(artifact);
+        }
+
+        @Override
+        protected void addFilteredArtifact(final Artifact artifact) {
+            // only the outer filter keeps statistics
+        }
+    }
+}
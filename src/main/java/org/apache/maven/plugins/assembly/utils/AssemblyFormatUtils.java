@@ -181,16 +181,16 @@ public final class AssemblyFormatUtils {
             final String finalName,
             final AssemblerConfigurationSource configSource)
             throws AssemblyFormattingException {
+        final InterpolatorCache cache = InterpolatorCache.of(configSource);
         return getOutputDirectory(
                 output,
                 finalName,
                 configSource,
-                moduleProjectInterpolator(null),
-                artifactProjectInterpolator(artifactProject));
+                cache.moduleProjectInterpolator(null),
+                cache.artifactProjectInterpolator(artifactProject));
     }
 
-    private static FixedStringSearchInterpolator executionPropertiesInterpolator(
-            AssemblerConfigurationSource configSource) {
+    static FixedStringSearchInterpolator executionPropertiesInterpolator(AssemblerConfigurationSource configSource) {
         MavenSession session;
 
         if (configSource != null) {
@@ -207,7 +207,7 @@ public final class AssemblyFormatUtils {
         return FixedStringSearchInterpolator.empty();
     }
 
-    private static FixedStringSearchInterpolator mainProjectOnlyInterpolator(MavenProject mainProject) {
+    static FixedStringSearchInterpolator mainProjectOnlyInterpolator(MavenProject mainProject) {
         if (mainProject != null) {
             // 5
             return FixedStringSearchInterpolator.create(
@@ -333,21 +333,56 @@ public final class AssemblyFormatUtils {
             final AssemblerConfigurationSource configSource,
             FixedStringSearchInterpolator moduleProjectInterpolator,
             FixedStringSearchInterpolator artifactProjectInterpolator) {
-        String value = expression;
-
-        final FixedStringSearchInterpolator interpolator = FixedStringSearchInterpolator.create(
-                moduleArtifactInterpolator(moduleArtifact),
+        final InterpolatorCache cache = InterpolatorCache.of(configSource);
+        final InterpolatorCache.Key key = new InterpolatorCache.Key(
+                "fileNameMapping",
+                expression,
+                artifact,
+                mainProject,
+                moduleArtifact,
                 moduleProjectInterpolator,
-                artifactInterpolator(artifact),
-                artifactProjectInterpolator,
-                mainProjectOnlyInterpolator(mainProject),
-                classifierRules(artifact),
-                executionPropertiesInterpolator(configSource),
-                configSource.getMainProjectInterpolator(),
-                configSource.getCommandLinePropsInterpolator(),
-                configSource.getEnvInterpolator());
+                artifactProjectInterpolator);
+
+        return cache.evaluate(
+                key,
+                k -> evaluateFileNameMapping(
+                        expression,
+                        artifact,
+                        mainProject,
+                        moduleArtifact,
+                        configSource,
+                        moduleProjectInterpolator,
+                        artifactProjectInterpolator,
+                        cache));
+    }
 
-        value = interpolator.interpolate(value);
+    private static String evaluateFileNameMapping(
+            final String expression,
+            final Artifact artifact,
+            final MavenProject mainProject,
+            final Artifact moduleArtifact,
+            final AssemblerConfigurationSource configSource,
+            final FixedStringSearchInterpolator moduleProjectInterpolator,
+            final FixedStringSearchInterpolator artifactProjectInterpolator,
+            final InterpolatorCache cache) {
+        final FileNameMappingTemplate template = cache.fileNameMappingTemplate(expression);
+        final FixedStringSearchInterpolator executionPropertiesInterpolator =
+                cache.executionPropertiesInterpolator(configSource);
+
+        String value = template.evaluate(
+                artifact,
+                moduleArtifact,
+                () -> FixedStringSearchInterpolator.create(
+                        cache.moduleArtifactInterpolator(moduleArtifact),
+                        moduleProjectInterpolator,
+                        cache.artifactInterpolator(artifact),
+                        artifactProjectInterpolator,
+                        cache.mainProjectOnlyInterpolator(mainProject),
+                        cache.classifierRules(artifact),
+                        executionPropertiesInterpolator,
+                        configSource.getMainProjectInterpolator(),
+                        configSource.getCommandLinePropsInterpolator(),
+                        configSource.getEnvInterpolator()));
 
         value = StringUtils.replace(value, "//", "/");
         value = StringUtils.replace(value, "\\\\", "\\");
@@ -390,13 +425,30 @@ public final class AssemblyFormatUtils {
             FixedStringSearchInterpolator moduleProjectIntrpolator,
             FixedStringSearchInterpolator artifactProjectInterpolator)
             throws AssemblyFormattingException {
+        final InterpolatorCache cache = InterpolatorCache.of(configSource);
+        final InterpolatorCache.Key key = new InterpolatorCache.Key(
+                "outputDirectory", output, finalName, moduleProjectIntrpolator, artifactProjectInterpolator);
+
+        return cache.evaluate(
+                key,
+                k -> getOutputDirectory(
+                        output, finalName, configSource, moduleProjectIntrpolator, artifactProjectInterpolator, cache));
+    }
+
+    private static String getOutputDirectory(
+            final String output,
+            final String finalName,
+            final AssemblerConfigurationSource configSource,
+            final FixedStringSearchInterpolator moduleProjectIntrpolator,
+            final FixedStringSearchInterpolator artifactProjectInterpolator,
+            final InterpolatorCache cache) {
         String value = (output == null) ? "" : output;
 
         final FixedStringSearchInterpolator interpolator = FixedStringSearchInterpolator.create(
                 finalNameInterpolator(finalName),
                 moduleProjectIntrpolator,
                 artifactProjectInterpolator,
-                executionPropertiesInterpolator(configSource),
+                cache.executionPropertiesInterpolator(configSource),
                 configSource.getMainProjectInterpolator(),
                 configSource.getCommandLinePropsInterpolator(),
                 configSource.getEnvInterpolator());
@@ -0,0 +1,221 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The directory of a cache kept across builds, holding one file per cached value.
+ * <p>
+ * Files are written to a temporary file and moved into place atomically, so the directory may be shared by concurrent
+ * builds. Once the files exceed the maximum size, the least recently used ones are deleted; files used since the
+ * directory was created, or by any build within the grace period, are kept, since a concurrent build may read a file
+ * long after looking it up. The directory is thread-safe.
+ * </p>
+ *
+ * @since 3.7.0
+ */
+public final class CacheDirectory {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheDirectory.class);
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * How long a file is kept after it was last used, for concurrent builds which looked it up but did not read it yet.
+     */
+    private static final long GRACE_PERIOD = TimeUnit.HOURS.toMillis(1);
+
+    private final File directory;
+
+    private final long maxSize;
+
+    private final String description;
+
+    private final long created = System.currentTimeMillis();
+
+    /**
+     * @param directory The directory holding the files.
+     * @param maxSize The size in bytes the files are trimmed to.
+     * @param description What a file holds, for the log.
+     */
+    public CacheDirectory(final File directory, final long maxSize, final String description) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.description = description;
+    }
+
+    /**
+     * @return The directory holding the files.
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @param name The name of the file.
+     * @return The file, which may not exist.
+     */
+    public File getFile(final String name) {
+        return new File(directory, name);
+    }
+
+    /**
+     * Marks a file read from the cache as used, so it is evicted after the files used less recently.
+     *
+     * @param file The file.
+     */
+    public void markUsed(final File file) {
+        if (!file.setLastModified(System.currentTimeMillis())) {
+            LOGGER.debug("Cannot mark " + file + " as used");
+        }
+    }
+
+    /**
+     * Writes a file of the cache through a temporary file, replacing the file once it is complete.
+     *
+     * @param file The file to write.
+     * @param writer Writes the content to the temporary file.
+     * @param <T> The type of the result of the writer.
+     * @return The result of the writer.
+     * @throws IOException If the file cannot be written.
+     */
+    public <T> T write(final File file, final Writer<T> writer) throws IOException {
+        Files.createDirectories(directory.toPath());
+        final Path tempFile = Files.createTempFile(directory.toPath(), file.getName(), TEMP_SUFFIX);
+        try {
+            final T result = writer.write(tempFile);
+            move(tempFile, file.toPath());
+            return result;
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Deletes the least recently used files until the cache fits its maximum size, sparing those used in this build or
+     * within the grace period.
+     */
+    public synchronized void trim() {
+        final File[] files =
+                directory.listFiles(file -> file.isFile() && !file.getName().endsWith(TEMP_SUFFIX));
+        if (files == null) {
+            return;
+        }
+
+        final long usedSince = Math.min(created, System.currentTimeMillis() - GRACE_PERIOD);
+        long size = 0;
+        final List<File> candidates = new ArrayList<>();
+        for (final File file : files) {
+            size += file.length();
+            if (file.lastModified() < usedSince) {
+                candidates.add(file);
+            }
+        }
+
+        candidates.sort(Comparator.comparingLong(File::lastModified));
+        for (final File file : candidates) {
+            if (size <= maxSize) {
+                break;
+            }
+            final long length = file.length();
+            if (file.delete()) {
+                LOGGER.debug("Evicted " + description + " " + file);
+                size -= length;
+            }
+        }
+    }
+
+    /**
+     * @param algorithm The name of the digest algorithm, such as <code>SHA-1</code>.
+     * @return A new digest.
+     */
+    public static MessageDigest digest(final String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param algorithm The name of the digest algorithm, such as <code>SHA-1</code>.
+     * @param in The content to digest, read to its end.
+     * @return The hexadecimal digest of the content.
+     * @throws IOException If the content cannot be read.
+     */
+    public static String checksum(final String algorithm, final InputStream in) throws IOException {
+        final MessageDigest digest = digest(algorithm);
+        final byte[] buffer = new byte[IOUtils.DEFAULT_BUFFER_SIZE];
+        for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+            digest.update(buffer, 0, read);
+        }
+        return hex(digest.digest());
+    }
+
+    /**
+     * @param hash A digest.
+     * @return The digest in lower case hexadecimal digits.
+     */
+    public static String hex(final byte[] hash) {
+        final StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (final byte b : hash) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static void move(final Path source, final Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Writes the content of a file of the cache.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    public interface Writer<T> {
+        /**
+         * @param tempFile The temporary file to write the content to.
+         * @return The result of writing the content.
+         * @throws IOException If the content cannot be written.
+         */
+        T write(Path tempFile) throws IOException;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.handler.ArtifactHandler;
+import org.codehaus.plexus.interpolation.fixed.FixedStringSearchInterpolator;
+
+/**
+ * An output file name mapping, compiled into a sequence of literal and expression segments.
+ * <p>
+ * Expressions for the well-known coordinates of the artifact and the module artifact, and the classifier rules, are
+ * read directly from the artifact. These are the expressions the respective interpolators resolve first, right after
+ * the <code>module.</code> layers. Every other expression, and any accessor that yields nothing or a value which
+ * needs further interpolation, is resolved by the full interpolator, which is only created if needed.
+ * </p>
+ */
+final class FileNameMappingTemplate {
+    private static final String START_EXPR = "${";
+
+    private static final String END_EXPR = "}";
+
+    private static final String ARTIFACT_PREFIX = "artifact.";
+
+    private static final String MODULE_PREFIX = "module.";
+
+    private static final Map<String, Function<Artifact, String>> ARTIFACT_ACCESSORS = new HashMap<>();
+
+    static {
+        ARTIFACT_ACCESSORS.put("groupIdPath", a -> a.getGroupId().replace('.', '/'));
+        ARTIFACT_ACCESSORS.put("groupId", Artifact::getGroupId);
+        ARTIFACT_ACCESSORS.put("artifactId", Artifact::getArtifactId);
+        ARTIFACT_ACCESSORS.put("version", Artifact::getVersion);
+        ARTIFACT_ACCESSORS.put("baseVersion", Artifact::getBaseVersion);
+        ARTIFACT_ACCESSORS.put("classifier", Artifact::getClassifier);
+        ARTIFACT_ACCESSORS.put("type", Artifact::getType);
+        ARTIFACT_ACCESSORS.put("scope", Artifact::getScope);
+        ARTIFACT_ACCESSORS.put("id", Artifact::getId);
+        ARTIFACT_ACCESSORS.put("extension", FileNameMappingTemplate::getExtension);
+    }
+
+    /**
+     * Whether an artifact class declares an extension of its own, which then takes precedence over the one of its
+     * handler.
+     */
+    private static final ClassValue<Boolean> HAS_EXTENSION_GETTER = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(final Class<?> type) {
+            for (final String name : new String[] {"getExtension", "isExtension"}) {
+                try {
+                    type.getMethod(name);
+                    return Boolean.TRUE;
+                } catch (final NoSuchMethodException e) {
+                    // try the next one
+                }
+            }
+            return Boolean.FALSE;
+        }
+    };
+
+    private final List<Segment> segments;
+
+    private FileNameMappingTemplate(final List<Segment> segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Splits the mapping the way {@link FixedStringSearchInterpolator} does.
+     *
+     * @param mapping The output file name mapping.
+     * @return The compiled template.
+     */
+    static FileNameMappingTemplate compile(final String mapping) {
+        final List<Segment> segments = new ArrayList<>();
+
+        int endIdx = -1;
+        int startIdx;
+        while ((startIdx = mapping.indexOf(START_EXPR, endIdx + 1)) > -1) {
+            addLiteral(segments, mapping.substring(endIdx + 1, startIdx));
+
+            final int closeIdx = mapping.indexOf(END_EXPR, startIdx + 1);
+            if (closeIdx < 0) {
+                addLiteral(segments, mapping.substring(startIdx));
+                return new FileNameMappingTemplate(segments);
+            }
+
+            final String wholeExpr = mapping.substring(startIdx, closeIdx + END_EXPR.length());
+            String realExpr = wholeExpr.substring(START_EXPR.length(), wholeExpr.length() - END_EXPR.length());
+            if (realExpr.startsWith(".")) {
+                realExpr = realExpr.substring(1);
+            }
+            segments.add(new Expression(wholeExpr, realExpr));
+
+            endIdx = closeIdx + END_EXPR.length() - 1;
+        }
+        addLiteral(segments, mapping.substring(endIdx + 1));
+
+        return new FileNameMappingTemplate(segments);
+    }
+
+    /**
+     * @param artifact The artifact.
+     * @param moduleArtifact The module artifact, may be <code>null</code>.
+     * @param interpolator Creates the full interpolator, for the expressions that cannot be read directly.
+     * @return The interpolated mapping.
+     */
+    String evaluate(
+            final Artifact artifact,
+            final Artifact moduleArtifact,
+            final Supplier<FixedStringSearchInterpolator> interpolator) {
+        final StringBuilder result = new StringBuilder();
+        FixedStringSearchInterpolator fallback = null;
+
+        for (final Segment segment : segments) {
+            if (segment.literal != null) {
+                result.append(segment.literal);
+                continue;
+            }
+
+            final Expression expression = (Expression) segment;
+            final String value = expression.read(artifact, moduleArtifact);
+            if (value != null && !value.contains(START_EXPR)) {
+                result.append(value);
+            } else {
+                if (fallback == null) {
+                    fallback = interpolator.get();
+                }
+                result.append(fallback.interpolate(expression.wholeExpr));
+            }
+        }
+
+        return result.toString();
+    }
+
+    private static void addLiteral(final List<Segment> segments, final String literal) {
+        if (!literal.isEmpty()) {
+            segments.add(new Segment(literal));
+        }
+    }
+
+    private static String getExtension(final Artifact artifact) {
+        final ArtifactHandler handler = artifact.getArtifactHandler();
+        if (handler == null || HAS_EXTENSION_GETTER.get(artifact.getClass())) {
+            return null;
+        }
+        return handler.getExtension();
+    }
+
+    private static class Segment {
+        private final String literal;
+
+        Segment(final String literal) {
+            this.literal = literal;
+        }
+    }
+
+    private static final class Expression extends Segment {
+        private final String wholeExpr;
+
+        private final boolean moduleExpression;
+
+        private final boolean classifierRule;
+
+        private final Function<Artifact, String> accessor;
+
+        Expression(final String wholeExpr, final String realExpr) {
+            super(null);
+            this.wholeExpr = wholeExpr;
+
+            if (realExpr.startsWith(ARTIFACT_PREFIX)) {
+                moduleExpression = false;
+                accessor = ARTIFACT_ACCESSORS.get(realExpr.substring(ARTIFACT_PREFIX.length()));
+            } else if (realExpr.startsWith(MODULE_PREFIX)) {
+                moduleExpression = true;
+                accessor = ARTIFACT_ACCESSORS.get(realExpr.substring(MODULE_PREFIX.length()));
+            } else {
+                moduleExpression = false;
+                accessor = null;
+            }
+
+            classifierRule = "dashClassifier?".equals(realExpr) || "dashClassifier".equals(realExpr);
+        }
+
+        String read(final Artifact artifact, final Artifact moduleArtifact) {
+            if (classifierRule) {
+                final String classifier = ProjectUtils.getClassifier(artifact);
+                return classifier != null ? "-" + classifier : "";
+            }
+            if (accessor == null) {
+                return null;
+            }
+
+            final Artifact target = moduleExpression ? moduleArtifact : artifact;
+            return target != null ? accessor.apply(target) : null;
+        }
+    }
+}
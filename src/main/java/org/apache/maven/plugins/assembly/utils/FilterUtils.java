@@ -20,10 +20,10 @@ package org.apache.maven.plugins.assembly.utils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -33,8 +33,6 @@ import org.apache.maven.artifact.resolver.filter.AndArtifactFilter;
 import org.apache.maven.artifact.resolver.filter.ArtifactFilter;
 import org.apache.maven.plugins.assembly.InvalidAssemblerConfigurationException;
 import org.apache.maven.project.MavenProject;
-import org.apache.maven.shared.artifact.filter.PatternExcludesArtifactFilter;
-import org.apache.maven.shared.artifact.filter.PatternIncludesArtifactFilter;
 import org.apache.maven.shared.artifact.filter.StatisticsReportingArtifactFilter;
 import org.apache.maven.shared.artifact.filter.resolve.ScopeFilter;
 import org.slf4j.Logger;
@@ -62,20 +60,18 @@ public final class FilterUtils {
             final List<String> excludes,
             final boolean actTransitively,
             final Logger logger) {
-        final List<PatternIncludesArtifactFilter> allFilters = new ArrayList<>();
+        final List<StatisticsReportingArtifactFilter> allFilters = new ArrayList<>();
 
         final AndArtifactFilter filter = new AndArtifactFilter();
 
         if (!includes.isEmpty()) {
-            final PatternIncludesArtifactFilter includeFilter =
-                    new PatternIncludesArtifactFilter(includes, actTransitively);
+            final ArtifactPatternFilter includeFilter = ArtifactPatternFilter.includes(includes, actTransitively);
 
             filter.add(includeFilter);
             allFilters.add(includeFilter);
         }
         if (!excludes.isEmpty()) {
-            final PatternExcludesArtifactFilter excludeFilter =
-                    new PatternExcludesArtifactFilter(excludes, actTransitively);
+            final ArtifactPatternFilter excludeFilter = ArtifactPatternFilter.excludes(excludes, actTransitively);
 
             filter.add(excludeFilter);
             allFilters.add(excludeFilter);
@@ -90,7 +86,7 @@ public final class FilterUtils {
             }
         }
 
-        for (final PatternIncludesArtifactFilter f : allFilters) {
+        for (final StatisticsReportingArtifactFilter f : allFilters) {
             if (f != null) {
                 f.reportMissedCriteria(logger);
             }
@@ -101,6 +97,30 @@ public final class FilterUtils {
     public static void filterArtifacts(ArtifactFilterConfig config) throws InvalidAssemblerConfigurationException{
 
         final Set<Artifact> artifacts = config.artifacts;
+        final List<Artifact> candidates = new ArrayList<>(artifacts);
+        final BitSet selection = new BitSet(candidates.size());
+        selection.set(0, candidates.size());
+
+        try {
+            filterArtifacts(config, candidates, selection);
+        } finally {
+            for (int i = selection.nextClearBit(0); i < candidates.size(); i = selection.nextClearBit(i + 1)) {
+                artifacts.remove(candidates.get(i));
+            }
+        }
+    }
+
+    /**
+     * Narrows down a selection of artifacts, like {@link #filterArtifacts(ArtifactFilterConfig)} filters the
+     * artifacts of the configuration, which are ignored.
+     *
+     * @param config The filter configuration.
+     * @param artifacts The artifacts the selection refers to, by index.
+     * @param selection The indexes of the selected artifacts; those of the artifacts filtered out are cleared.
+     * @throws InvalidAssemblerConfigurationException if strict filtering is used and a pattern was never triggered.
+     */
+    public static void filterArtifacts(ArtifactFilterConfig config, List<Artifact> artifacts, BitSet selection)
+            throws InvalidAssemblerConfigurationException {
         final List<String> includes = config.includes;
         final List<String> excludes = config.excludes;
         final boolean strictFiltering = config.strictFiltering;
@@ -119,7 +139,7 @@ public final class FilterUtils {
         }
 
         if (!includes.isEmpty()) {
-            final ArtifactFilter includeFilter = new PatternIncludesArtifactFilter(includes, actTransitively);
+            final ArtifactFilter includeFilter = ArtifactPatternFilter.includes(includes, actTransitively);
 
             filter.add(includeFilter);
 
@@ -127,7 +147,7 @@ public final class FilterUtils {
         }
 
         if (!excludes.isEmpty()) {
-            final ArtifactFilter excludeFilter = new PatternExcludesArtifactFilter(excludes, actTransitively);
+            final ArtifactFilter excludeFilter = ArtifactPatternFilter.excludes(excludes, actTransitively);
 
             filter.add(excludeFilter);
 
@@ -140,11 +160,11 @@ public final class FilterUtils {
         // allFilters.addAll( additionalFilters );
         // }
 
-        for (final Iterator<Artifact> it = artifacts.iterator(); it.hasNext(); ) {
-            final Artifact artifact = it.next();
+        for (int i = selection.nextSetBit(0); i >= 0; i = selection.nextSetBit(i + 1)) {
+            final Artifact artifact = artifacts.get(i);
 
             if (!filter.include(artifact)) {
-                it.remove();
+                selection.clear(i);
 
                 if (logger.isDebugEnabled()) {
                     logger.debug(artifact.getId() + " was removed by one or more filters.");
@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.utils;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.interpolation.fixed.FixedStringSearchInterpolator;
+
+/**
+ * Build scoped cache of the interpolators used to evaluate output directories and file name mappings, and of the
+ * results of those evaluations.
+ * <p>
+ * The interpolators wrap the projects and artifacts with reflection based value sources, which are costly to set up;
+ * they are created once per project/artifact instance instead of once per evaluation. Since the cached interpolators
+ * are stable, identical evaluations can be keyed by the identity of their inputs and are only performed once.
+ * </p>
+ * <p>
+ * The mojo holds the cache, so it lasts for one execution of the plugin; every project of a reactor starts with an
+ * empty one.
+ * </p>
+ * The cache is thread-safe.
+ *
+ * @since 3.7.0
+ */
+public final class InterpolatorCache {
+    private final Map<MavenProject, FixedStringSearchInterpolator> moduleProjectInterpolators = identityMap();
+
+    private final Map<MavenProject, FixedStringSearchInterpolator> artifactProjectInterpolators = identityMap();
+
+    private final Map<MavenProject, FixedStringSearchInterpolator> mainProjectOnlyInterpolators = identityMap();
+
+    private final Map<Artifact, FixedStringSearchInterpolator> moduleArtifactInterpolators = identityMap();
+
+    private final Map<Artifact, FixedStringSearchInterpolator> artifactInterpolators = identityMap();
+
+    private final Map<Artifact, FixedStringSearchInterpolator> classifierRules = identityMap();
+
+    private final Map<String, FileNameMappingTemplate> templates = new ConcurrentHashMap<>();
+
+    private final Map<Key, String> evaluations = new ConcurrentHashMap<>();
+
+    private final FixedStringSearchInterpolator empty = FixedStringSearchInterpolator.empty();
+
+    private FixedStringSearchInterpolator executionPropertiesInterpolator;
+
+    /**
+     * @param configSource The configuration source, may provide a build scoped cache.
+     * @return The cache of the configuration source, or a new, unshared one if it does not provide any.
+     */
+    public static InterpolatorCache of(final AssemblerConfigurationSource configSource) {
+        final InterpolatorCache cache = configSource != null ? configSource.getInterpolatorCache() : null;
+        return cache != null ? cache : new InterpolatorCache();
+    }
+
+    public FixedStringSearchInterpolator moduleProjectInterpolator(final MavenProject moduleProject) {
+        return moduleProject == null
+                ? empty
+                : moduleProjectInterpolators.computeIfAbsent(
+                        moduleProject, AssemblyFormatUtils::moduleProjectInterpolator);
+    }
+
+    public FixedStringSearchInterpolator artifactProjectInterpolator(final MavenProject artifactProject) {
+        return artifactProject == null
+                ? empty
+                : artifactProjectInterpolators.computeIfAbsent(
+                        artifactProject, AssemblyFormatUtils::artifactProjectInterpolator);
+    }
+
+    FixedStringSearchInterpolator mainProjectOnlyInterpolator(final MavenProject mainProject) {
+        return mainProject == null
+                ? empty
+                : mainProjectOnlyInterpolators.computeIfAbsent(
+                        mainProject, AssemblyFormatUtils::mainProjectOnlyInterpolator);
+    }
+
+    FixedStringSearchInterpolator moduleArtifactInterpolator(final Artifact moduleArtifact) {
+        return moduleArtifact == null
+                ? empty
+                : moduleArtifactInterpolators.computeIfAbsent(
+                        moduleArtifact, AssemblyFormatUtils::moduleArtifactInterpolator);
+    }
+
+    FixedStringSearchInterpolator artifactInterpolator(final Artifact artifact) {
+        return artifactInterpolators.computeIfAbsent(artifact, AssemblyFormatUtils::artifactInterpolator);
+    }
+
+    FixedStringSearchInterpolator classifierRules(final Artifact artifact) {
+        return classifierRules.computeIfAbsent(artifact, AssemblyFormatUtils::classifierRules);
+    }
+
+    synchronized FixedStringSearchInterpolator executionPropertiesInterpolator(
+            final AssemblerConfigurationSource configSource) {
+        if (executionPropertiesInterpolator == null) {
+            executionPropertiesInterpolator = AssemblyFormatUtils.executionPropertiesInterpolator(configSource);
+        }
+        return executionPropertiesInterpolator;
+    }
+
+    FileNameMappingTemplate fileNameMappingTemplate(final String mapping) {
+        return templates.computeIfAbsent(mapping, FileNameMappingTemplate::compile);
+    }
+
+    /**
+     * @param key The identity of the evaluation.
+     * @param evaluation Performs the evaluation if it has not been done before.
+     * @return The (possibly memoized) result of the evaluation.
+     */
+    String evaluate(final Key key, final Function<Key, String> evaluation) {
+        return evaluations.computeIfAbsent(key, evaluation);
+    }
+
+    private static <K> Map<K, FixedStringSearchInterpolator> identityMap() {
+        return Collections.synchronizedMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * Identifies an evaluation by its expression and the objects it is evaluated against; strings are compared by
+     * value, anything else by identity.
+     */
+    static final class Key {
+        private final String kind;
+
+        private final String expression;
+
+        private final Object[] inputs;
+
+        Key(final String kind, final String expression, final Object... inputs) {
+            this.kind = kind;
+            this.expression = expression;
+            this.inputs = inputs;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key other = (Key) o;
+            if (!kind.equals(other.kind)
+                    || !Objects.equals(expression, other.expression)
+                    || inputs.length != other.inputs.length) {
+                return false;
+            }
+            for (int i = 0; i < inputs.length; i++) {
+                if (inputs[i] != other.inputs[i]
+                        && !(inputs[i] instanceof String && inputs[i].equals(other.inputs[i]))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = 31 * kind.hashCode() + Objects.hashCode(expression);
+            for (final Object input : inputs) {
+                result = 31 * result + (input instanceof String ? input.hashCode() : System.identityHashCode(input));
+            }
+            return result;
+        }
+    }
+}
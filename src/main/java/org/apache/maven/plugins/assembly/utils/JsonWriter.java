@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Writes JSON documents, for the machine-readable output of the plugin.
+ * <p>
+ * A minimal streaming writer: the plugin only writes small documents of objects, arrays, strings, numbers and
+ * booleans, which does not warrant a dependency on a JSON library. The output is indented with two spaces.
+ * </p>
+ * The writer is not thread-safe.
+ *
+ * @since 3.7.0
+ */
+public final class JsonWriter {
+    private final Writer writer;
+
+    /**
+     * Per open object or array, whether it has values yet.
+     */
+    private final Deque<boolean[]> scopes = new ArrayDeque<>();
+
+    private boolean afterName;
+
+    /**
+     * @param writer The writer to write the document to.
+     */
+    public JsonWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    public JsonWriter beginObject() throws IOException {
+        return begin('{');
+    }
+
+    public JsonWriter endObject() throws IOException {
+        return end('}');
+    }
+
+    public JsonWriter beginArray() throws IOException {
+        return begin('[');
+    }
+
+    public JsonWriter endArray() throws IOException {
+        return end(']');
+    }
+
+    /**
+     * @param name The name of the next member of the current object.
+     * @return This writer.
+     * @throws IOException in case of an error writing.
+     */
+    public JsonWriter name(final String name) throws IOException {
+        separate();
+        string(name);
+        writer.write(": ");
+        afterName = true;
+        return this;
+    }
+
+    public JsonWriter value(final String value) throws IOException {
+        separate();
+        if (value == null) {
+            writer.write("null");
+        } else {
+            string(value);
+        }
+        return this;
+    }
+
+    public JsonWriter value(final long value) throws IOException {
+        separate();
+        writer.write(Long.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(final double value) throws IOException {
+        separate();
+        writer.write(Double.isNaN(value) || Double.isInfinite(value) ? "null" : Double.toString(value));
+        return this;
+    }
+
+    public JsonWriter value(final boolean value) throws IOException {
+        separate();
+        writer.write(Boolean.toString(value));
+        return this;
+    }
+
+    private JsonWriter begin(final char bracket) throws IOException {
+        separate();
+        writer.write(bracket);
+        scopes.push(new boolean[1]);
+        return this;
+    }
+
+    private JsonWriter end(final char bracket) throws IOException {
+        final boolean[] scope = scopes.pop();
+        if (scope[0]) {
+            newLine();
+        }
+        writer.write(bracket);
+        if (scopes.isEmpty()) {
+            writer.write('\n');
+        }
+        return this;
+    }
+
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+
+        final boolean[] scope = scopes.peek();
+        if (scope != null) {
+            if (scope[0]) {
+                writer.write(',');
+            }
+            scope[0] = true;
+            newLine();
+        }
+    }
+
+    private void newLine() throws IOException {
+        writer.write('\n');
+        for (int i = 0; i < scopes.size(); i++) {
+            writer.write("  ");
+        }
+    }
+
+    private void string(final String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+            }
+        }
+        writer.write('"');
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.utils;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+
+import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
+
+/**
+ * Limits the number of files opened by the phases at the same time, across all assemblies of a build.
+ * <p>
+ * A file opened through the budget holds a slot until its stream is closed; opening a file blocks while all slots
+ * are held. A stream must thus be closed by the thread reading it, before it opens another file through the budget.
+ * </p>
+ *
+ * @since 3.7.0
+ */
+public final class OpenFileBudget {
+    private static final OpenFileBudget UNLIMITED = new OpenFileBudget(0);
+
+    private final Semaphore slots;
+
+    /**
+     * @param maxOpenFiles The maximum number of files open at the same time, 0 for no limit.
+     */
+    public OpenFileBudget(final int maxOpenFiles) {
+        this.slots = maxOpenFiles > 0 ? new Semaphore(maxOpenFiles, true) : null;
+    }
+
+    /**
+     * @param configSource The configuration source, may be <code>null</code>.
+     * @return The budget of the build, or a budget without limit if there is none.
+     */
+    public static OpenFileBudget of(final AssemblerConfigurationSource configSource) {
+        final OpenFileBudget budget = configSource != null ? configSource.getOpenFileBudget() : null;
+        return budget != null ? budget : UNLIMITED;
+    }
+
+    /**
+     * Opens a file, waiting for a free slot first.
+     *
+     * @param file The file to open.
+     * @return The content of the file, freeing its slot when closed.
+     * @throws IOException If the file cannot be opened, or the thread is interrupted while waiting.
+     */
+    public InputStream open(final File file) throws IOException {
+        if (slots == null) {
+            return Files.newInputStream(file.toPath());
+        }
+
+        try {
+            slots.acquire();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to open: " + file);
+        }
+
+        try {
+            return new SlotInputStream(Files.newInputStream(file.toPath()), slots);
+        } catch (final IOException | RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Concatenates the content of files, opening each file only once the previous one is read and closed. Nothing is
+     * opened until the stream is first read.
+     *
+     * @param files The files to concatenate.
+     * @return The concatenated content.
+     */
+    public InputStream concatenate(final List<File> files) {
+        return new ConcatenatedInputStream(new ArrayList<>(files).iterator());
+    }
+
+    /**
+     * The content of a file opened through the budget.
+     */
+    private static final class SlotInputStream extends FilterInputStream {
+        private final Semaphore slots;
+
+        private boolean closed;
+
+        SlotInputStream(final InputStream in, final Semaphore slots) {
+            super(in);
+            this.slots = slots;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                super.close();
+            } finally {
+                slots.release();
+            }
+        }
+    }
+
+    /**
+     * The content of files opened one after the other.
+     */
+    private final class ConcatenatedInputStream extends InputStream {
+        private final Iterator<File> files;
+
+        private InputStream current;
+
+        private boolean closed;
+
+        ConcatenatedInputStream(final Iterator<File> files) {
+            this.files = files;
+        }
+
+        @Override
+        public int read() throws IOException {
+            for (InputStream in = next(); in != null; in = advance()) {
+                final int b = in.read();
+                if (b >= 0) {
+                    return b;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            for (InputStream in = next(); in != null; in = advance()) {
+                final int read = in.read(b, off, len);
+                if (read >= 0) {
+                    return read;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            if (current != null) {
+                try {
+                    current.close();
+                } finally {
+                    current = null;
+                }
+            }
+        }
+
+        /**
+         * @return The stream being read, opening the first file if none is.
+         */
+        private InputStream next() throws IOException {
+            if (current == null && !closed && files.hasNext()) {
+                current = open(files.next());
+            }
+            return current;
+        }
+
+        /**
+         * Closes the stream read to its end, before opening the next file.
+         */
+        private InputStream advance() throws IOException {
+            final InputStream read = current;
+            current = null;
+            read.close();
+            return next();
+        }
+    }
+}
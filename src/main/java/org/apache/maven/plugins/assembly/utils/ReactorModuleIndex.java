@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
+import org.apache.maven.project.MavenProject;
+import org.slf4j.Logger;
+
+/**
+ * Index of the module tree of the reactor, keyed by canonical module directory.
+ * <p>
+ * Each project declares its modules as paths relative to its base directory; resolving those, and the POM location of
+ * every module candidate, to canonical files is done once per project instead of once per (parent, candidate) pair.
+ * The computed module sets are kept as well, since the module sets of an assembly are typically computed more than
+ * once.
+ * </p>
+ * The index is thread-safe.
+ *
+ * @since 3.7.0
+ */
+public final class ReactorModuleIndex {
+    private final List<MavenProject> reactorProjects;
+
+    private final Map<File, List<MavenProject>> parentsByModuleDir = new HashMap<>();
+
+    private final Map<MavenProject, Boolean> indexedParents = new IdentityHashMap<>();
+
+    private final Map<MavenProject, File[]> candidateLocations = new IdentityHashMap<>();
+
+    private final Map<MavenProject, Set<MavenProject>> modules = new IdentityHashMap<>();
+
+    private final Map<MavenProject, Set<MavenProject>> directModules = new IdentityHashMap<>();
+
+    /**
+     * @param reactorProjects The reactor projects, i.e. the module candidates.
+     */
+    public ReactorModuleIndex(final List<MavenProject> reactorProjects) {
+        this.reactorProjects = reactorProjects;
+    }
+
+    /**
+     * @param configSource The configuration source, may provide a build scoped index.
+     * @return The index of the configuration source, or a new, unshared one over its reactor projects.
+     */
+    public static ReactorModuleIndex of(final AssemblerConfigurationSource configSource) {
+        final ReactorModuleIndex index = configSource.getReactorModuleIndex();
+        return index != null ? index : new ReactorModuleIndex(configSource.getReactorProjects());
+    }
+
+    /**
+     * @param project The project to compute the modules of.
+     * @param includeSubModules Whether to include the modules of the modules, recursively.
+     * @param logger The logger.
+     * @return The modules of the project, in reactor order per level of the module tree.
+     * @throws IOException in case the location of a module cannot be resolved.
+     */
+    public synchronized Set<MavenProject> getModules(
+            final MavenProject project, final boolean includeSubModules, final Logger logger) throws IOException {
+        final Map<MavenProject, Set<MavenProject>> cache = includeSubModules ? modules : directModules;
+
+        Set<MavenProject> result = cache.get(project);
+        if (result == null) {
+            result = computeModules(project, includeSubModules, logger);
+            cache.put(project, result);
+        }
+
+        return new LinkedHashSet<>(result);
+    }
+
+    /**
+     * Performs the same passes over the candidates as a plain nested loop over the candidates and the known parents
+     * would, so the order of the modules is preserved; the parents of a candidate are looked up instead.
+     */
+    private Set<MavenProject> computeModules(
+            final MavenProject project, final boolean includeSubModules, final Logger logger) throws IOException {
+        indexReactor();
+        index(project);
+
+        final Set<MavenProject> moduleCandidates = new LinkedHashSet<>(reactorProjects);
+
+        final Set<MavenProject> result = new LinkedHashSet<>();
+
+        // the master project is a potential module parent as well, until we're done.
+        result.add(project);
+
+        int changed;
+
+        do {
+            changed = 0;
+
+            for (final Iterator<MavenProject> candidateIterator = moduleCandidates.iterator();
+                    candidateIterator.hasNext(); ) {
+                final MavenProject moduleCandidate = candidateIterator.next();
+
+                if (moduleCandidate.getFile() == null) {
+                    logger.warn("Cannot compute whether " + moduleCandidate.getId() + " is a module of: "
+                            + project.getId() + "; it does not have an associated POM file on the local filesystem.");
+                    continue;
+                }
+
+                if (project.getFile() == null) {
+                    logger.warn("Cannot use: " + moduleCandidate.getId()
+                            + " as a potential module-parent while computing the module set for: "
+                            + project.getId()
+                            + "; it does not have an associated POM file on the local filesystem.");
+                }
+
+                for (final MavenProject parent : getParents(moduleCandidate)) {
+                    final boolean knownParent = includeSubModules ? result.contains(parent) : parent == project;
+                    if (knownParent) {
+                        result.add(moduleCandidate);
+                        candidateIterator.remove();
+                        changed++;
+                        break;
+                    }
+                }
+            }
+        } while (changed != 0);
+
+        result.remove(project);
+
+        return result;
+    }
+
+    private void indexReactor() throws IOException {
+        for (final MavenProject reactorProject : reactorProjects) {
+            index(reactorProject);
+        }
+    }
+
+    private void index(final MavenProject parent) throws IOException {
+        if (indexedParents.containsKey(parent)) {
+            return;
+        }
+        indexedParents.put(parent, Boolean.TRUE);
+
+        if (parent.getFile() == null) {
+            return;
+        }
+
+        final File basedir = parent.getBasedir();
+        for (final String moduleSubpath : parent.getModules()) {
+            final File moduleDir = new File(basedir, moduleSubpath).getCanonicalFile();
+            parentsByModuleDir
+                    .computeIfAbsent(moduleDir, dir -> new ArrayList<>())
+                    .add(parent);
+        }
+    }
+
+    private List<MavenProject> getParents(final MavenProject moduleCandidate) throws IOException {
+        File[] locations = candidateLocations.get(moduleCandidate);
+        if (locations == null) {
+            locations = resolveLocations(moduleCandidate);
+            candidateLocations.put(moduleCandidate, locations);
+        }
+
+        final List<MavenProject> byFile = parentsByModuleDir.get(locations[0]);
+        final List<MavenProject> byBasedir = parentsByModuleDir.get(locations[1]);
+        if (byBasedir == null || byBasedir == byFile) {
+            return byFile != null ? byFile : Collections.<MavenProject>emptyList();
+        }
+        if (byFile == null) {
+            return byBasedir;
+        }
+
+        final List<MavenProject> parents = new ArrayList<>(byFile);
+        parents.addAll(byBasedir);
+        return parents;
+    }
+
+    /**
+     * @return The canonical POM file and base directory of a module candidate, which may be referenced by either.
+     */
+    private static File[] resolveLocations(final MavenProject moduleProject) throws IOException {
+        final File moduleFile = moduleProject.getFile().getCanonicalFile();
+
+        File moduleBasedir = moduleProject.getBasedir();
+
+        if (moduleBasedir == null) {
+            moduleBasedir = moduleFile.getParentFile();
+
+            if (moduleBasedir == null) {
+                moduleBasedir = new File(".");
+            }
+        }
+
+        return new File[] {moduleFile, moduleBasedir.getCanonicalFile()};
+    }
+}
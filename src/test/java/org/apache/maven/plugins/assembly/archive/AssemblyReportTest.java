@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AssemblyReportTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testShouldSumPhasesButNotHandlersOrWrite() {
+        final ArchiveReport report = new AssemblyReport().startArchive("bin", "zip", new File("bin.zip"));
+
+        report.section("file-sets").addFile(300);
+        report.section("file-sets").addFile(100);
+        report.section("dependency-sets").addFile(600);
+        report.section(ArchiveReport.HANDLER_PREFIX + "plexus").addFile(-1);
+        report.section(ArchiveReport.WRITE).addTime(5_000_000);
+        report.setBytesWritten(250);
+
+        assertEquals(3, report.getFiles());
+        assertEquals(1000, report.getBytesRead());
+        assertEquals(0.25, report.getCompressionRatio(), 0.0001);
+        assertEquals(
+                "Assembly bin (zip): 3 files, 1000 bytes read, 250 bytes written (ratio 0.25); file-sets 0 ms, "
+                        + "dependency-sets 0 ms, handler:plexus 0 ms, write 5 ms",
+                report.summary());
+    }
+
+    @Test
+    public void testShouldWriteJson() throws Exception {
+        final AssemblyReport assemblyReport = new AssemblyReport();
+        final ArchiveReport report = assemblyReport.startArchive("src", "tar.gz", new File("src.tar.gz"));
+        report.section("file-items").addFile(42);
+
+        final File file = new File(temporaryFolder.getRoot(), "target/assembly-report.json");
+        assemblyReport.write(file);
+
+        final String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertTrue(json, json.startsWith("{\n  \"archives\": [\n    {\n      \"assemblyId\": \"src\",\n"));
+        assertTrue(json, json.contains("\"bytesWritten\": -1,\n      \"compressionRatio\": null,"));
+        assertTrue(
+                json,
+                json.contains("{\n          \"name\": \"file-items\",\n          \"millis\": 0,\n"
+                        + "          \"files\": 1,\n          \"bytesRead\": 42\n        }"));
+        assertTrue(json, json.endsWith("  ]\n}\n"));
+    }
+}
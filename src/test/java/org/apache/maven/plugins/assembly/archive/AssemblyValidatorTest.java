@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive;
+
+import java.util.List;
+
+import org.apache.maven.plugins.assembly.model.Assembly;
+import org.apache.maven.plugins.assembly.model.DependencySet;
+import org.apache.maven.plugins.assembly.model.FileItem;
+import org.apache.maven.plugins.assembly.model.FileSet;
+import org.apache.maven.plugins.assembly.model.ModuleSet;
+import org.apache.maven.plugins.assembly.model.ModuleSources;
+import org.apache.maven.plugins.assembly.model.UnpackOptions;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AssemblyValidatorTest {
+    @Test
+    public void testShouldAcceptValidAssembly() {
+        final Assembly assembly = new Assembly();
+        assembly.setId("bin");
+
+        final FileSet fileSet = new FileSet();
+        fileSet.setDirectory("src/main/config");
+        fileSet.setFileMode("0644");
+        fileSet.setLineEnding("unix");
+        assembly.addFileSet(fileSet);
+
+        final FileItem fileItem = new FileItem();
+        fileItem.addSource("a.txt");
+        fileItem.addSource("b.txt");
+        fileItem.setDestName("ab.txt");
+        assembly.addFile(fileItem);
+
+        assertTrue(AssemblyValidator.validate(assembly).isEmpty());
+    }
+
+    @Test
+    public void testShouldReportAllProblems() {
+        final Assembly assembly = new Assembly();
+
+        final FileSet fileSet = new FileSet();
+        fileSet.setDirectory("src/main/config");
+        fileSet.setDirectoryMode("0789");
+        fileSet.setLineEnding("mac");
+        assembly.addFileSet(fileSet);
+
+        final FileItem sources = new FileItem();
+        sources.addSource("a.txt");
+        sources.addSource("b.txt");
+        assembly.addFile(sources);
+
+        final FileItem binary = new FileItem();
+        binary.setSource("lib/library.jar");
+        binary.setLineEnding("dos");
+        assembly.addFile(binary);
+
+        final UnpackOptions unpackOptions = new UnpackOptions();
+        unpackOptions.setLineEnding("cr");
+        final DependencySet dependencySet = new DependencySet();
+        dependencySet.setOutputDirectory("lib");
+        dependencySet.setUnpackOptions(unpackOptions);
+        assembly.addDependencySet(dependencySet);
+
+        final FileSet moduleFileSet = new FileSet();
+        moduleFileSet.setDirectory("src");
+        moduleFileSet.setFileMode("rw-r--r--");
+        final ModuleSources moduleSources = new ModuleSources();
+        moduleSources.addFileSet(moduleFileSet);
+        final ModuleSet moduleSet = new ModuleSet();
+        moduleSet.setSources(moduleSources);
+        assembly.addModuleSet(moduleSet);
+
+        final List<String> problems = AssemblyValidator.validate(assembly);
+
+        assertEquals(problems.toString(), 7, problems.size());
+        assertEquals("Assembly ID must be present and non-empty.", problems.get(0));
+        assertTrue(problems.get(1), problems.get(1).startsWith("fileSet src/main/config: directoryMode: "));
+        assertEquals("fileSet src/main/config: Illegal lineEnding specified: 'mac'", problems.get(2));
+        assertEquals("file #0: Misconfigured file: specify destName when using sources", problems.get(3));
+        assertEquals("file lib/library.jar: Cannot transform line endings on this kind of file", problems.get(4));
+        assertEquals("dependencySet lib unpackOptions: Illegal lineEnding specified: 'cr'", problems.get(5));
+        assertTrue(problems.get(6), problems.get(6).startsWith("moduleSet [] sources fileSet src: fileMode: "));
+    }
+}
@@ -20,25 +20,35 @@ package org.apache.maven.plugins.assembly.archive;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.maven.model.Model;
 import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
 import org.apache.maven.plugins.assembly.InvalidAssemblerConfigurationException;
+import org.apache.maven.plugins.assembly.archive.archiver.CachingZipArchiver;
+import org.apache.maven.plugins.assembly.archive.archiver.CompressedEntryCache;
 import org.apache.maven.plugins.assembly.archive.phase.AssemblyArchiverPhase;
 import org.apache.maven.plugins.assembly.filter.ContainerDescriptorHandler;
 import org.apache.maven.plugins.assembly.model.Assembly;
+import org.apache.maven.plugins.assembly.model.ContainerDescriptorHandlerConfig;
 import org.apache.maven.plugins.assembly.mojos.AbstractAssemblyMojo;
 import org.apache.maven.plugins.assembly.testutils.PojoConfigSource;
 import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.DefaultContainerConfiguration;
 import org.codehaus.plexus.DefaultPlexusContainer;
+import org.codehaus.plexus.PlexusConstants;
 import org.codehaus.plexus.PlexusContainer;
 import org.codehaus.plexus.PlexusContainerException;
 import org.codehaus.plexus.archiver.Archiver;
 import org.codehaus.plexus.archiver.ArchiverException;
 import org.codehaus.plexus.archiver.diags.NoOpArchiver;
+import org.codehaus.plexus.archiver.jar.JarArchiver;
 import org.codehaus.plexus.archiver.manager.ArchiverManager;
 import org.codehaus.plexus.archiver.manager.NoSuchArchiverException;
 import org.codehaus.plexus.archiver.tar.TarArchiver;
@@ -57,6 +67,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -300,6 +311,42 @@ public class DefaultAssemblyArchiverTest {
         verify(archiverManager).getArchiver("zip");
     }
 
+    @Test
+    public void testCreateCachingZipArchiver_ShouldUnpackArchivesAndCacheEntries() throws Exception {
+        final File source = temporaryFolder.newFile("source.txt");
+        Files.write(source.toPath(), "content".getBytes(StandardCharsets.UTF_8));
+        final File zip = new File(temporaryFolder.getRoot(), "source.zip");
+        final ZipArchiver zipArchiver = new ZipArchiver();
+        zipArchiver.setDestFile(zip);
+        zipArchiver.addFile(source, "source.txt");
+        zipArchiver.createArchive();
+
+        final File cacheDirectory = temporaryFolder.newFolder("cache");
+        final AssemblerConfigurationSource configSource = mock(AssemblerConfigurationSource.class);
+        when(configSource.getCompressedEntryCache())
+                .thenReturn(new CompressedEntryCache(cacheDirectory, Long.MAX_VALUE));
+
+        // as in Maven, which indexes the components of plugins
+        final DefaultAssemblyArchiver subject = new DefaultAssemblyArchiver(
+                archiverManager,
+                new ArrayList<>(),
+                Collections.<String, ContainerDescriptorHandler>emptyMap(),
+                new DefaultPlexusContainer(new DefaultContainerConfiguration()
+                        .setClassPathScanning(PlexusConstants.SCANNING_INDEX)
+                        .setAutoWiring(true)));
+        final Archiver archiver = subject.createCachingZipArchiver(configSource);
+        assertTrue(archiver instanceof CachingZipArchiver);
+
+        archiver.setDestFile(new File(temporaryFolder.getRoot(), "out.zip"));
+        archiver.addArchivedFileSet(zip, "unpacked/");
+        archiver.createArchive();
+
+        try (ZipFile out = new ZipFile(archiver.getDestFile())) {
+            assertNotNull(out.getEntry("unpacked/source.txt"));
+        }
+        assertEquals(1, cacheDirectory.list().length);
+    }
+
     @Test
     public void testCreateTarArchiver_ShouldNotInitializeCompression() throws Exception {
         final TestTarArchiver archiver = new TestTarArchiver();
@@ -362,6 +409,41 @@ public class DefaultAssemblyArchiverTest {
         verify(archiverManager).getArchiver("tar.ZZZ");
     }
 
+    @Test
+    public void testValidate_ShouldReportFormatsHandlersAndSettings() throws Exception {
+        when(archiverManager.getArchiver("tar")).thenReturn(new TarArchiver());
+        when(archiverManager.getArchiver("jar")).thenReturn(new JarArchiver());
+        when(archiverManager.getArchiver("rar")).thenThrow(new NoSuchArchiverException("rar"));
+
+        final PojoConfigSource configSource = new PojoConfigSource();
+        configSource.setTarLongFileMode("shorten");
+        configSource.setArchiverConfig("<configuration><compress>");
+
+        final Assembly assembly = new Assembly();
+        assembly.setId("bin");
+        final ContainerDescriptorHandlerConfig handler = new ContainerDescriptorHandlerConfig();
+        handler.setHandlerName("unknown");
+        assembly.addContainerDescriptorHandler(handler);
+
+        final List<String> problems = createSubject(new ArrayList<>())
+                .validate(assembly, Arrays.asList("tar", "jar", "rar"), configSource, "mergeall");
+
+        assertEquals(problems.toString(), 5, problems.size());
+        assertEquals("Assembly bin: Cannot find ContainerDescriptorHandler with hint: unknown", problems.get(0));
+        assertEquals("Assembly bin: Invalid tarLongFileMode for format 'tar': shorten", problems.get(1));
+        assertEquals("Assembly bin: Invalid mergeManifestMode for format 'jar': mergeall", problems.get(2));
+        assertEquals("Assembly bin: Unable to obtain archiver for extension 'rar'", problems.get(3));
+        assertTrue(problems.get(4), problems.get(4).startsWith("Assembly bin: Failed to parse archiver configuration"));
+
+        final Assembly formatless = new Assembly();
+        formatless.setId("bin");
+        assertEquals(
+                Collections.singletonList(
+                        "Assembly bin: No formats specified in the execution parameters or the assembly descriptor."),
+                createSubject(new ArrayList<>())
+                        .validate(formatless, Collections.<String>emptyList(), configSource, null));
+    }
+
     private DefaultAssemblyArchiver createSubject(final List<AssemblyArchiverPhase> phases) {
         return new DefaultAssemblyArchiver(
                 archiverManager, phases, Collections.<String, ContainerDescriptorHandler>emptyMap(), container);
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.archiver;
+
+import java.io.File;
+
+import org.apache.maven.plugins.assembly.archive.ArchiveCreationException;
+import org.codehaus.plexus.archiver.Archiver;
+import org.codehaus.plexus.archiver.ArchiverException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ArchiverRecordingTest {
+    @Test
+    public void testShouldRecordChangesAndReadThroughGetters() throws Exception {
+        final Archiver delegate = mock(Archiver.class);
+        when(delegate.getOverrideFileMode()).thenReturn(0644);
+
+        final ArchiverRecording recording = new ArchiverRecording(delegate);
+        final Archiver archiver = recording.getArchiver();
+
+        archiver.setFileMode(0600);
+        archiver.addFile(new File("a"), "a");
+        archiver.setFileMode(archiver.getOverrideFileMode());
+
+        verify(delegate).getOverrideFileMode();
+        verify(delegate).getOverrideDirectoryMode();
+        verifyNoMoreInteractions(delegate);
+
+        final Archiver target = mock(Archiver.class);
+        recording.replay(target);
+
+        final InOrder inOrder = inOrder(target);
+        inOrder.verify(target).setFileMode(0600);
+        inOrder.verify(target).addFile(new File("a"), "a");
+        inOrder.verify(target).setFileMode(0644);
+    }
+
+    @Test
+    public void testShouldOnlyReplayGuardedRecordingIfConditionHolds() throws Exception {
+        final ArchiverRecording recording = new ArchiverRecording(mock(Archiver.class));
+
+        recording.guarded(() -> true).getArchiver().addFile(new File("a"), "a");
+        recording.guarded(() -> false).getArchiver().addFile(new File("b"), "b");
+        recording.getArchiver().addFile(new File("c"), "c");
+
+        final Archiver target = mock(Archiver.class);
+        recording.replay(target);
+
+        final InOrder inOrder = inOrder(target);
+        inOrder.verify(target).addFile(new File("a"), "a");
+        inOrder.verify(target).addFile(new File("c"), "c");
+        verifyNoMoreInteractions(target);
+    }
+
+    @Test
+    public void testShouldReadModesOfArchiverWhenRecordingWasCreated() {
+        final Archiver delegate = mock(Archiver.class);
+        when(delegate.getOverrideFileMode()).thenReturn(0644, 0600);
+        when(delegate.getOverrideDirectoryMode()).thenReturn(0755, 0700);
+
+        final ArchiverRecording recording = new ArchiverRecording(delegate);
+        final Archiver guarded = recording.guarded(() -> true).getArchiver();
+
+        assertEquals(0644, recording.getArchiver().getOverrideFileMode());
+        assertEquals(0755, recording.getArchiver().getOverrideDirectoryMode());
+        assertEquals(0644, guarded.getOverrideFileMode());
+        assertEquals(0755, guarded.getOverrideDirectoryMode());
+    }
+
+    @Test
+    public void testShouldFindRecordingOfArchiver() {
+        final ArchiverRecording recording = new ArchiverRecording(mock(Archiver.class));
+
+        assertSame(recording, ArchiverRecording.of(recording.getArchiver()));
+        assertNull(ArchiverRecording.of(mock(Archiver.class)));
+    }
+
+    @Test
+    public void testShouldWrapArchiverExceptionsOnReplay() {
+        final ArchiverRecording recording = new ArchiverRecording(mock(Archiver.class));
+        recording.getArchiver().addFile(new File("a"), "a");
+
+        final Archiver target = mock(Archiver.class);
+        doThrow(new ArchiverException("duplicate")).when(target).addFile(new File("a"), "a");
+
+        try {
+            recording.replay(target);
+
+            fail("Expected ArchiveCreationException");
+        } catch (final ArchiveCreationException e) {
+            assertEquals("Error adding to archive: duplicate", e.getMessage());
+        }
+    }
+}
@@ -20,12 +20,23 @@ package org.apache.maven.plugins.assembly.archive.archiver;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugins.assembly.archive.ArchiveReport;
+import org.apache.maven.plugins.assembly.archive.AssemblyReport;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.apache.maven.plugins.assembly.event.AssemblyListener;
 import org.codehaus.plexus.archiver.Archiver;
 import org.codehaus.plexus.archiver.ArchiverException;
 import org.codehaus.plexus.archiver.FileSet;
@@ -45,9 +56,12 @@ import org.mockito.junit.MockitoJUnitRunner;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -105,8 +119,7 @@ public class AssemblyProxyArchiverTest {
 
         final TrackingArchiver.Addition addition = tracker.added.get(0);
         assertNotNull(addition.excludes);
-        assertEquals(1, addition.excludes.length);
-        assertEquals(workdir.getName(), addition.excludes[0]);
+        assertThat(addition.excludes, is(new String[] {workdir.getName(), workdir.getName() + "/**"}));
     }
 
     @Test
@@ -156,6 +169,163 @@ public class AssemblyProxyArchiverTest {
         assertEquals(1, counter.getCount());
     }
 
+    @Test
+    public void addFileAndDirectory_CountedTowardsCurrentSectionOfReport() throws IOException, ArchiverException {
+        final Archiver delegate = new JarArchiver();
+
+        final File output = temporaryFolder.newFile();
+        delegate.setDestFile(output);
+
+        final ArchiveReport report = new AssemblyReport().startArchive("test", "jar", output);
+
+        final AssemblyProxyArchiver archiver =
+                new AssemblyProxyArchiver("", delegate, null, null, null, new File(temporaryFolder.getRoot(), "work"));
+        archiver.setReport(report);
+        archiver.setForced(true);
+
+        final File file = temporaryFolder.newFile("single.txt");
+        Files.write(file.toPath(), Arrays.asList("12345"), StandardCharsets.UTF_8);
+
+        final File dir = temporaryFolder.newFolder();
+        Files.write(dir.toPath().resolve("a.txt"), Arrays.asList("123"), StandardCharsets.UTF_8);
+        Files.write(dir.toPath().resolve("b.txt"), Arrays.asList("1234567"), StandardCharsets.UTF_8);
+
+        report.setCurrent(report.section("file-items"));
+        archiver.addFile(file, "single.txt");
+        report.setCurrent(report.section("file-sets"));
+        archiver.addDirectory(dir, "dir/");
+        report.setCurrent(null);
+
+        archiver.createArchive();
+
+        assertEquals(1, report.section("file-items").getFiles());
+        assertEquals(file.length(), report.section("file-items").getBytesRead());
+        assertEquals(2, report.section("file-sets").getFiles());
+        assertEquals(
+                new File(dir, "a.txt").length() + new File(dir, "b.txt").length(),
+                report.section("file-sets").getBytesRead());
+        assertEquals(3, report.getFiles());
+    }
+
+    @Test
+    public void addDirectory_CountedOnceWhenCheckingIfUpToDate() throws IOException, ArchiverException {
+        final Archiver delegate = new JarArchiver();
+
+        final File output = temporaryFolder.newFile();
+        delegate.setDestFile(output);
+        output.setLastModified(0);
+
+        final ArchiveReport report = new AssemblyReport().startArchive("test", "jar", output);
+
+        final AssemblyProxyArchiver archiver =
+                new AssemblyProxyArchiver("", delegate, null, null, null, new File(temporaryFolder.getRoot(), "work"));
+        archiver.setReport(report);
+        archiver.setForced(false);
+
+        final File dir = temporaryFolder.newFolder();
+        Files.write(dir.toPath().resolve("a.txt"), Arrays.asList("123"), StandardCharsets.UTF_8);
+        Files.write(dir.toPath().resolve("b.txt"), Arrays.asList("1234567"), StandardCharsets.UTF_8);
+
+        report.setCurrent(report.section("file-sets"));
+        archiver.addDirectory(dir, "dir/");
+        report.setCurrent(null);
+
+        archiver.createArchive();
+
+        assertEquals(
+                2,
+                zipEntries(output).stream()
+                        .filter(name -> name.endsWith(".txt"))
+                        .count());
+        assertEquals(2, report.section("file-sets").getFiles());
+    }
+
+    @Test
+    public void addFileAndDirectory_EntriesAndSkippedDuplicatesSentToListeners() throws IOException, ArchiverException {
+        final Archiver delegate = new JarArchiver();
+        delegate.setDuplicateBehavior(Archiver.DUPLICATES_SKIP);
+
+        final File output = temporaryFolder.newFile();
+        delegate.setDestFile(output);
+
+        final List<String> events = new ArrayList<>();
+        final AssemblyListener listener = new AssemblyListener() {
+            @Override
+            public void entryAdded(final String source, final String target, final long size) {
+                events.add("added " + target + " " + size);
+            }
+
+            @Override
+            public void duplicateSkipped(final String source, final String target) {
+                events.add("skipped " + target + " from " + new File(source).getName());
+            }
+        };
+
+        final AssemblyProxyArchiver archiver =
+                new AssemblyProxyArchiver("", delegate, null, null, null, new File(temporaryFolder.getRoot(), "work"));
+        archiver.setEvents(new AssemblyEvents(Collections.singletonList(listener)));
+        archiver.setForced(true);
+
+        final File file = temporaryFolder.newFile("single.txt");
+        Files.write(file.toPath(), Arrays.asList("12345"), StandardCharsets.UTF_8);
+
+        final File dir = temporaryFolder.newFolder();
+        Files.write(dir.toPath().resolve("single.txt"), Arrays.asList("123"), StandardCharsets.UTF_8);
+        Files.write(dir.toPath().resolve("other.txt"), Arrays.asList("1234567"), StandardCharsets.UTF_8);
+
+        archiver.addFile(file, "single.txt");
+        archiver.addDirectory(dir, "");
+
+        archiver.createArchive();
+
+        Collections.sort(events);
+        assertEquals(
+                Arrays.asList(
+                        "added other.txt " + new File(dir, "other.txt").length(),
+                        "added single.txt " + file.length(),
+                        "skipped single.txt from single.txt"),
+                events);
+    }
+
+    @Test
+    public void addDirectory_SentToListenersOnceWhenCheckingIfUpToDate() throws IOException, ArchiverException {
+        final Archiver delegate = new JarArchiver();
+        delegate.setDuplicateBehavior(Archiver.DUPLICATES_SKIP);
+
+        final File output = temporaryFolder.newFile();
+        delegate.setDestFile(output);
+        output.setLastModified(0);
+
+        final List<String> events = new ArrayList<>();
+        final AssemblyListener listener = new AssemblyListener() {
+            @Override
+            public void entryAdded(final String source, final String target, final long size) {
+                events.add("added " + target);
+            }
+
+            @Override
+            public void duplicateSkipped(final String source, final String target) {
+                events.add("skipped " + target);
+            }
+        };
+
+        final AssemblyProxyArchiver archiver =
+                new AssemblyProxyArchiver("", delegate, null, null, null, new File(temporaryFolder.getRoot(), "work"));
+        archiver.setEvents(new AssemblyEvents(Collections.singletonList(listener)));
+        archiver.setForced(false);
+
+        final File dir = temporaryFolder.newFolder();
+        Files.write(dir.toPath().resolve("a.txt"), Arrays.asList("123"), StandardCharsets.UTF_8);
+        Files.write(dir.toPath().resolve("b.txt"), Arrays.asList("1234567"), StandardCharsets.UTF_8);
+
+        archiver.addDirectory(dir, "");
+
+        archiver.createArchive();
+
+        Collections.sort(events);
+        assertEquals(Arrays.asList("added a.txt", "added b.txt"), events);
+    }
+
     @Test
     public void assemblyWorkDir() {
         final Archiver delegate = mock(Archiver.class);
@@ -174,7 +344,7 @@ public class AssemblyProxyArchiverTest {
         verify(delegate).addFileSet(delFileSet.capture());
 
         assertThat(delFileSet.getValue().getDirectory(), is(fileSet.getDirectory()));
-        assertThat(delFileSet.getValue().getExcludes(), is(new String[] {"module1"}));
+        assertThat(delFileSet.getValue().getExcludes(), is(new String[] {"module1", "module1/**"}));
         assertThat(delFileSet.getValue().getFileMappers(), is(fileSet.getFileMappers()));
         assertThat(delFileSet.getValue().getFileSelectors(), is(fileSet.getFileSelectors()));
         assertThat(delFileSet.getValue().getIncludes(), is(new String[0]));
@@ -182,6 +352,266 @@ public class AssemblyProxyArchiverTest {
         assertThat(delFileSet.getValue().getStreamTransformer(), is(fileSet.getStreamTransformer()));
     }
 
+    @Test
+    public void addFileSet_PrunedFileSetKeepsContentsOfDirectoryIncludes() throws IOException, ArchiverException {
+        final File sources = temporaryFolder.newFolder("sources");
+        final File conf = new File(sources, "conf/env");
+        conf.mkdirs();
+        new File(sources, "node_modules").mkdirs();
+
+        Files.write(sources.toPath().resolve("conf/app.properties"), Arrays.asList("a=b"), StandardCharsets.UTF_8);
+        Files.write(conf.toPath().resolve("dev.properties"), Arrays.asList("c=d"), StandardCharsets.UTF_8);
+        Files.write(sources.toPath().resolve("pom.xml"), Arrays.asList("<project/>"), StandardCharsets.UTF_8);
+
+        final JarArchiver delegate = new JarArchiver();
+        final File output = temporaryFolder.newFile("output.jar");
+        delegate.setDestFile(output);
+
+        final AssemblyProxyArchiver archiver =
+                new AssemblyProxyArchiver("", delegate, null, null, null, temporaryFolder.newFolder("work"));
+        archiver.setForced(true);
+        archiver.setPruning(true);
+
+        final DefaultFileSet fs = new DefaultFileSet();
+        fs.setDirectory(sources);
+        fs.setIncludes(new String[] {"conf/"});
+        fs.setExcludes(new String[] {"node_modules/**"});
+
+        archiver.addFileSet(fs);
+        archiver.createArchive();
+
+        final List<String> entries = zipEntries(output);
+        assertTrue(entries.contains("conf/app.properties"));
+        assertTrue(entries.contains("conf/env/dev.properties"));
+        assertFalse(entries.contains("pom.xml"));
+    }
+
+    @Test
+    public void addFileSet_PrunedFileSetKeepsContents() throws IOException, ArchiverException {
+        final File sources = temporaryFolder.newFolder("sources");
+        final File workdir = new File(sources, "target/work");
+        workdir.mkdirs();
+        final File nested = new File(sources, "src/node_modules");
+        nested.mkdirs();
+
+        Files.write(sources.toPath().resolve("pom.xml"), Arrays.asList("<project/>"), StandardCharsets.UTF_8);
+        Files.write(workdir.toPath().resolve("work.txt"), Arrays.asList("work"), StandardCharsets.UTF_8);
+        Files.write(nested.toPath().resolve("index.js"), Arrays.asList("exports"), StandardCharsets.UTF_8);
+        Files.write(sources.toPath().resolve("target/app.jar"), Arrays.asList("not a jar"), StandardCharsets.UTF_8);
+
+        final JarArchiver delegate = new JarArchiver();
+        final File output = temporaryFolder.newFile("output.jar");
+        delegate.setDestFile(output);
+
+        final AssemblyProxyArchiver archiver = new AssemblyProxyArchiver("", delegate, null, null, null, workdir);
+        archiver.setForced(true);
+        archiver.setPruning(true);
+
+        final DefaultFileSet fs = new DefaultFileSet();
+        fs.setDirectory(sources);
+        fs.setExcludes(new String[] {"src/node_modules/**"});
+
+        archiver.addFileSet(fs);
+        archiver.createArchive();
+
+        final List<String> entries = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(output)) {
+            zip.stream().forEach(entry -> entries.add(entry.getName()));
+        }
+
+        assertTrue(entries.contains("pom.xml"));
+        assertTrue(entries.contains("target/app.jar"));
+        assertFalse(entries.contains("target/work/work.txt"));
+        assertFalse(entries.contains("src/node_modules/index.js"));
+    }
+
+    @Test
+    public void addFileSet_ParallelScanningKeepsEntryOrder() throws IOException, ArchiverException {
+        final File sources = temporaryFolder.newFolder("sources");
+        for (int i = 0; i < 5; i++) {
+            final File dir = new File(sources, "dir" + i + "/sub" + (4 - i));
+            dir.mkdirs();
+            for (int j = 0; j < 5; j++) {
+                Files.write(
+                        dir.toPath().resolve("file" + j + ".txt"), Arrays.asList("file " + j), StandardCharsets.UTF_8);
+            }
+        }
+        Files.write(sources.toPath().resolve("excluded.bak"), Arrays.asList("excluded"), StandardCharsets.UTF_8);
+
+        final List<String> sequential = archiveEntries(sources, false);
+        final List<String> parallel = archiveEntries(sources, true);
+
+        assertEquals(
+                25, sequential.stream().filter(name -> name.endsWith(".txt")).count());
+        assertFalse(sequential.contains("excluded.bak"));
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void addFileSet_ParallelTransformationKeepsEntryOrderAndContent() throws IOException, ArchiverException {
+        final File sources = temporaryFolder.newFolder("sources");
+        for (int i = 0; i < 20; i++) {
+            Files.write(
+                    sources.toPath().resolve("file" + i + ".txt"), Arrays.asList("file " + i), StandardCharsets.UTF_8);
+        }
+
+        final List<String> transformed = Collections.synchronizedList(new ArrayList<>());
+        final InputStreamTransformer transformer = (resource, inputStream) -> {
+            transformed.add(resource.getName());
+            final String content = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+            return IOUtils.toInputStream(content.toUpperCase(Locale.ROOT), StandardCharsets.UTF_8);
+        };
+
+        final File sequential = transformedArchive(sources, transformer, false);
+        assertEquals(20, transformed.size());
+        transformed.clear();
+        final File parallel = transformedArchive(sources, transformer, true);
+        assertEquals(20, transformed.size());
+
+        assertEquals(zipEntries(sequential), zipEntries(parallel));
+        try (ZipFile zip = new ZipFile(parallel)) {
+            final ZipEntry entry = zip.getEntry("file7.txt");
+            try (InputStream in = zip.getInputStream(entry)) {
+                assertEquals(
+                        "FILE 7", IOUtils.toString(in, StandardCharsets.UTF_8).trim());
+            }
+        }
+    }
+
+    @Test
+    public void addFileSet_OverlappingFileSetsShareListing() throws IOException, ArchiverException {
+        final File sources = temporaryFolder.newFolder("reactor");
+        for (final String module : new String[] {"", "child/", "child/grandchild/"}) {
+            final File dir = new File(sources, module + "src/main");
+            dir.mkdirs();
+            Files.write(dir.toPath().resolve("a.txt"), Arrays.asList(module), StandardCharsets.UTF_8);
+        }
+
+        final JarArchiver plain = new JarArchiver();
+        final File plainOutput = temporaryFolder.newFile();
+        plain.setDestFile(plainOutput);
+        plain.setForced(true);
+        plain.configureReproducibleBuild(FileTime.fromMillis(0));
+
+        final JarArchiver delegate = new JarArchiver();
+        final File output = temporaryFolder.newFile();
+        delegate.setDestFile(output);
+        final AssemblyProxyArchiver archiver =
+                new AssemblyProxyArchiver("", delegate, null, null, null, temporaryFolder.newFolder());
+        archiver.setForced(true);
+        archiver.setSharedScanning(true);
+        archiver.configureReproducibleBuild(FileTime.fromMillis(0));
+
+        final String[] modules = {"", "child", "child/grandchild"};
+        for (int i = 0; i < modules.length; i++) {
+            final DefaultFileSet fs = new DefaultFileSet();
+            fs.setDirectory(new File(sources, modules[i]));
+            fs.setPrefix("module" + i + "/");
+            plain.addFileSet(fs);
+            archiver.addFileSet(fs);
+        }
+        plain.createArchive();
+        archiver.createArchive();
+
+        final List<String> expected = zipEntries(plainOutput);
+        assertEquals(6, expected.stream().filter(name -> name.endsWith("a.txt")).count());
+        assertEquals(expected, zipEntries(output));
+    }
+
+    @Test
+    public void addFileSet_WorkDirContentsExcludedWithoutPruning() throws IOException, ArchiverException {
+        final File sources = temporaryFolder.newFolder("sources");
+        final File workdir = new File(sources, "target/work");
+        workdir.mkdirs();
+
+        Files.write(sources.toPath().resolve("pom.xml"), Arrays.asList("<project/>"), StandardCharsets.UTF_8);
+        Files.write(workdir.toPath().resolve("work.txt"), Arrays.asList("work"), StandardCharsets.UTF_8);
+
+        final JarArchiver delegate = new JarArchiver();
+        final File output = temporaryFolder.newFile("output.jar");
+        delegate.setDestFile(output);
+
+        final AssemblyProxyArchiver archiver = new AssemblyProxyArchiver("", delegate, null, null, null, workdir);
+        archiver.setForced(true);
+
+        final DefaultFileSet fs = new DefaultFileSet();
+        fs.setDirectory(sources);
+
+        archiver.addFileSet(fs);
+        archiver.createArchive();
+
+        final List<String> entries = zipEntries(output);
+        assertTrue(entries.contains("pom.xml"));
+        assertFalse(entries.contains("target/work/work.txt"));
+    }
+
+    @Test
+    public void addFileSet_DelegatedAsIsByDefault() throws IOException, ArchiverException {
+        final File sources = temporaryFolder.newFolder("sources");
+        final JarArchiver delegate = mock(JarArchiver.class);
+        final AssemblyProxyArchiver archiver =
+                new AssemblyProxyArchiver("", delegate, null, null, null, temporaryFolder.newFolder());
+
+        final DefaultFileSet fs = new DefaultFileSet();
+        fs.setDirectory(sources);
+        archiver.addFileSet(fs);
+
+        verify(delegate).addFileSet(any(FileSet.class));
+        verify(delegate, never()).addResources(any());
+    }
+
+    private List<String> archiveEntries(final File sources, final boolean parallelScanning) throws IOException {
+        final JarArchiver delegate = new JarArchiver();
+        final File output = temporaryFolder.newFile();
+        delegate.setDestFile(output);
+
+        final AssemblyProxyArchiver archiver =
+                new AssemblyProxyArchiver("", delegate, null, null, null, temporaryFolder.newFolder());
+        archiver.setForced(true);
+        archiver.setParallelScanning(parallelScanning);
+        archiver.configureReproducibleBuild(FileTime.fromMillis(0));
+
+        final DefaultFileSet fs = new DefaultFileSet();
+        fs.setDirectory(sources);
+        fs.setExcludes(new String[] {"*.bak"});
+
+        archiver.addFileSet(fs);
+        archiver.createArchive();
+
+        return zipEntries(output);
+    }
+
+    private File transformedArchive(
+            final File sources, final InputStreamTransformer transformer, final boolean parallelTransformation)
+            throws IOException {
+        final JarArchiver delegate = new JarArchiver();
+        final File output = temporaryFolder.newFile();
+        delegate.setDestFile(output);
+
+        final AssemblyProxyArchiver archiver =
+                new AssemblyProxyArchiver("", delegate, null, null, null, temporaryFolder.newFolder());
+        archiver.setForced(true);
+        archiver.setParallelTransformation(parallelTransformation);
+        archiver.configureReproducibleBuild(FileTime.fromMillis(0));
+
+        final DefaultFileSet fs = new DefaultFileSet();
+        fs.setDirectory(sources);
+        fs.setStreamTransformer(transformer);
+
+        archiver.addFileSet(fs);
+        archiver.createArchive();
+
+        return output;
+    }
+
+    private static List<String> zipEntries(final File output) throws IOException {
+        final List<String> entries = new ArrayList<>();
+        try (ZipFile zip = new ZipFile(output)) {
+            zip.stream().forEach(entry -> entries.add(entry.getName()));
+        }
+        return entries;
+    }
+
     private static final class CounterSelector implements FileSelector {
 
         private int count = 0;
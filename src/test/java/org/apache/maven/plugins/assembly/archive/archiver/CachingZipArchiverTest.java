@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.archiver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.apache.maven.plugins.assembly.event.AssemblyListener;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class CachingZipArchiverTest {
+    private static final String CONTENT = "Some content, some content, some content.";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<String> events = new ArrayList<>();
+
+    private final AssemblyEvents assemblyEvents = new AssemblyEvents(Collections.singletonList(new AssemblyListener() {
+        @Override
+        public void cacheHit(final String cache, final String key) {
+            events.add("hit " + cache);
+        }
+
+        @Override
+        public void cacheMiss(final String cache, final String key) {
+            events.add("miss " + cache);
+        }
+    }));
+
+    @Test
+    public void testShouldWriteCachedEntriesOfLaterBuildsRaw() throws Exception {
+        final File directory = temporaryFolder.newFolder("cache");
+        final File file = temporaryFolder.newFile("content.txt");
+        Files.write(file.toPath(), CONTENT.getBytes(StandardCharsets.UTF_8));
+
+        final File first = createZip("first.zip", new CompressedEntryCache(directory, Long.MAX_VALUE), file);
+        final File second = createZip("second.zip", new CompressedEntryCache(directory, Long.MAX_VALUE), file);
+
+        assertEquals(
+                Arrays.asList(
+                        "miss " + AssemblyEvents.COMPRESSED_ENTRY_CACHE,
+                        "hit " + AssemblyEvents.COMPRESSED_ENTRY_CACHE,
+                        "hit " + AssemblyEvents.COMPRESSED_ENTRY_CACHE,
+                        "hit " + AssemblyEvents.COMPRESSED_ENTRY_CACHE),
+                events);
+
+        for (final File zip : Arrays.asList(first, second)) {
+            try (ZipFile zipFile = new ZipFile(zip)) {
+                for (final String name : Arrays.asList("a/content.txt", "b/content.txt")) {
+                    final ZipArchiveEntry entry = zipFile.getEntry(name);
+                    assertNotNull(name, entry);
+                    assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+                    assertEquals(0644, entry.getUnixMode() & 0777);
+                    assertEquals(CONTENT, read(zipFile, entry));
+                }
+                assertTrue(zipFile.getEntry("a/").isDirectory());
+            }
+        }
+    }
+
+    @Test
+    public void testShouldStoreZipsWithoutCache() throws Exception {
+        final File directory = temporaryFolder.newFolder("cache");
+        final File zip = createZip("nested.zip", null, temporaryFolder.newFile("empty.txt"));
+
+        final CachingZipArchiver archiver = new CachingZipArchiver();
+        archiver.setCompressedEntryCache(new CompressedEntryCache(directory, Long.MAX_VALUE), assemblyEvents);
+        archiver.setRecompressAddedZips(false);
+        archiver.setDestFile(new File(temporaryFolder.getRoot(), "outer.zip"));
+        archiver.addFile(zip, "lib/nested.zip");
+        archiver.createArchive();
+
+        try (ZipFile zipFile = new ZipFile(archiver.getDestFile())) {
+            assertEquals(ZipEntry.STORED, zipFile.getEntry("lib/nested.zip").getMethod());
+        }
+        assertTrue(events.isEmpty());
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void testShouldEvictLeastRecentlyUsedEntriesNotUsedInThisBuild() throws Exception {
+        final File directory = temporaryFolder.newFolder("cache");
+
+        final CompressedEntryCache.Entry old = new CompressedEntryCache(directory, 0)
+                .get(() -> IOUtils.toInputStream("old", StandardCharsets.UTF_8), 6, AssemblyEvents.none());
+        final File[] oldFiles = directory.listFiles();
+        assertEquals(1, oldFiles.length);
+        assertTrue(oldFiles[0].setLastModified(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2)));
+        assertEquals(3, old.getSize());
+
+        final CompressedEntryCache cache = new CompressedEntryCache(directory, 0);
+        cache.get(() -> IOUtils.toInputStream("first", StandardCharsets.UTF_8), 6, AssemblyEvents.none());
+        cache.get(() -> IOUtils.toInputStream("second", StandardCharsets.UTF_8), 6, AssemblyEvents.none());
+
+        // the cache is only trimmed once the build is done with it
+        assertTrue(oldFiles[0].exists());
+
+        cache.trim();
+
+        assertFalse(oldFiles[0].exists());
+        assertEquals(2, directory.list().length);
+    }
+
+    @Test
+    public void testShouldKeepEntryOrderOfZipArchiver() throws Exception {
+        final File directory = temporaryFolder.newFolder("cache");
+        final File cached = temporaryFolder.newFile("cached.txt");
+        Files.write(cached.toPath(), CONTENT.getBytes(StandardCharsets.UTF_8));
+        final File compressed = temporaryFolder.newFile("compressed.txt");
+        Files.write(compressed.toPath(), "Other content".getBytes(StandardCharsets.UTF_8));
+
+        createZip("warm.zip", new CompressedEntryCache(directory, Long.MAX_VALUE), cached);
+        events.clear();
+
+        final List<String> expected = new ArrayList<>();
+        for (final CompressedEntryCache cache :
+                Arrays.asList(null, new CompressedEntryCache(directory, Long.MAX_VALUE))) {
+            final CachingZipArchiver archiver = new CachingZipArchiver();
+            archiver.setCompressedEntryCache(cache, assemblyEvents);
+            archiver.setDestFile(temporaryFolder.newFile());
+            archiver.addFile(compressed, "z/compressed.txt");
+            archiver.addFile(cached, "y/cached.txt");
+            archiver.addFile(compressed, "x/compressed.txt");
+            archiver.createArchive();
+
+            final List<String> names = new ArrayList<>();
+            try (ZipFile zipFile = new ZipFile(archiver.getDestFile())) {
+                for (final ZipArchiveEntry entry : Collections.list(zipFile.getEntriesInPhysicalOrder())) {
+                    names.add(entry.getName());
+                    if (!entry.isDirectory()) {
+                        assertEquals(
+                                entry.getName(),
+                                entry.getName().contains("cached") ? CONTENT : "Other content",
+                                read(zipFile, entry));
+                    }
+                }
+            }
+
+            if (cache == null) {
+                expected.addAll(names);
+            } else {
+                assertEquals(expected, names);
+            }
+        }
+
+        assertEquals(
+                Arrays.asList(
+                        "miss " + AssemblyEvents.COMPRESSED_ENTRY_CACHE,
+                        "hit " + AssemblyEvents.COMPRESSED_ENTRY_CACHE,
+                        "hit " + AssemblyEvents.COMPRESSED_ENTRY_CACHE),
+                events);
+    }
+
+    @Test
+    public void testShouldKeyEntriesByConfiguredCompressionLevel() throws Exception {
+        final File directory = temporaryFolder.newFolder("cache");
+        final File file = temporaryFolder.newFile("content.txt");
+        Files.write(file.toPath(), CONTENT.getBytes(StandardCharsets.UTF_8));
+
+        final CachingZipArchiver archiver = new CachingZipArchiver();
+        archiver.setCompressedEntryCache(new CompressedEntryCache(directory, Long.MAX_VALUE), assemblyEvents);
+        archiver.setCompressionLevel(Deflater.BEST_COMPRESSION);
+        archiver.setDestFile(new File(temporaryFolder.getRoot(), "best.zip"));
+        archiver.addFile(file, "content.txt");
+        archiver.createArchive();
+
+        final String[] names = directory.list();
+        assertEquals(1, names.length);
+        assertTrue(names[0], names[0].endsWith("-" + ZipEntry.DEFLATED + "-" + Deflater.BEST_COMPRESSION));
+        try (ZipFile zipFile = new ZipFile(archiver.getDestFile())) {
+            assertEquals(CONTENT, read(zipFile, zipFile.getEntry("content.txt")));
+        }
+    }
+
+    private File createZip(final String name, final CompressedEntryCache cache, final File file) throws IOException {
+        final CachingZipArchiver archiver = new CachingZipArchiver();
+        archiver.setCompressedEntryCache(cache, assemblyEvents);
+        archiver.setDestFile(new File(temporaryFolder.getRoot(), name));
+        archiver.addFile(file, "a/content.txt", 0644);
+        archiver.addFile(file, "b/content.txt", 0644);
+        archiver.createArchive();
+        return archiver.getDestFile();
+    }
+
+    private static String read(final ZipFile zipFile, final ZipArchiveEntry entry) throws IOException {
+        try (InputStream in = zipFile.getInputStream(entry)) {
+            return IOUtils.toString(in, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.archiver;
+
+import java.io.File;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+public class FileSetPrunerTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testShouldReplaceIncludesBySiblingsOfExcludedDirectory() throws Exception {
+        final File sources = temporaryFolder.newFolder("sources");
+        temporaryFolder.newFolder("sources", "node_modules", "lib");
+        temporaryFolder.newFolder("sources", "bin");
+        temporaryFolder.newFile("sources/pom.xml");
+
+        final String[] pruned = FileSetPruner.pruneIncludes(sources, null, new String[] {"node_modules/**"}, true);
+
+        assertArrayEquals(new String[] {"bin/**", "pom.xml"}, pruned);
+    }
+
+    @Test
+    public void testShouldNotPruneWideDirectories() throws Exception {
+        final File sources = temporaryFolder.newFolder("sources");
+        temporaryFolder.newFolder("sources", "node_modules");
+        for (int i = 0; i < FileSetPruner.MAX_ENTRIES; i++) {
+            temporaryFolder.newFile("sources/file" + i + ".txt");
+        }
+
+        assertNull(FileSetPruner.pruneIncludes(sources, null, new String[] {"node_modules/**"}, true));
+    }
+
+    @Test
+    public void testShouldNotPruneMissingDirectories() throws Exception {
+        final File sources = temporaryFolder.newFolder("sources");
+        temporaryFolder.newFile("sources/pom.xml");
+
+        assertNull(FileSetPruner.pruneIncludes(sources, null, new String[] {"node_modules/**"}, true));
+    }
+}
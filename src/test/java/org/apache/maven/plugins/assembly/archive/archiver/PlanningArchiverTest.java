@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.archiver;
+
+import javax.inject.Provider;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.maven.plugins.assembly.archive.ArchivePlan;
+import org.apache.maven.plugins.assembly.archive.AssemblyPlan;
+import org.codehaus.plexus.archiver.Archiver;
+import org.codehaus.plexus.archiver.jar.JarArchiver;
+import org.codehaus.plexus.archiver.manager.ArchiverManager;
+import org.codehaus.plexus.archiver.util.DefaultArchivedFileSet;
+import org.codehaus.plexus.archiver.util.DefaultFileSet;
+import org.codehaus.plexus.archiver.zip.PlexusIoZipFileResourceCollection;
+import org.codehaus.plexus.components.io.functions.InputStreamTransformer;
+import org.codehaus.plexus.components.io.resources.PlexusIoResource;
+import org.codehaus.plexus.util.ReflectionUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PlanningArchiverTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testShouldPlanEntriesWithoutWritingArchive() throws Exception {
+        final File destFile = new File(temporaryFolder.getRoot(), "out.jar");
+
+        final File file = temporaryFolder.newFile("single.txt");
+        Files.write(file.toPath(), Arrays.asList("12345"), StandardCharsets.UTF_8);
+
+        final File dir = temporaryFolder.newFolder("dir");
+        Files.write(dir.toPath().resolve("a.txt"), Arrays.asList("123"), StandardCharsets.UTF_8);
+        Files.write(dir.toPath().resolve("b.xml"), Arrays.asList("1234567"), StandardCharsets.UTF_8);
+
+        final File zip = temporaryFolder.newFile("lib.zip");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("a.txt"));
+            out.write(new byte[42]);
+            out.putNextEntry(new ZipEntry("c.class"));
+            out.write(new byte[100]);
+        }
+
+        final ArchiverManager archiverManager = mock(ArchiverManager.class);
+        when(archiverManager.getResourceCollection(zip)).thenReturn(new PlexusIoZipFileResourceCollection());
+
+        final JarArchiver jarArchiver = new JarArchiver();
+        jarArchiver.setDuplicateBehavior(Archiver.DUPLICATES_SKIP);
+        jarArchiver.setDestFile(destFile);
+
+        final ArchivePlan plan = new AssemblyPlan().startArchive("bin", "jar", destFile);
+        final PlanningArchiver archiver = new PlanningArchiver(
+                jarArchiver, archiverManager, plan, LoggerFactory.getLogger(PlanningArchiverTest.class));
+
+        archiver.addFile(file, "single.txt", 0644);
+
+        final DefaultFileSet fileSet = DefaultFileSet.fileSet(dir);
+        fileSet.setPrefix("dir/");
+        fileSet.setIncludingEmptyDirectories(false);
+        fileSet.setStreamTransformer(new InputStreamTransformer() {
+            @Override
+            public InputStream transform(final PlexusIoResource resource, final InputStream inputStream)
+                    throws IOException {
+                throw new IOException("the contents must not be read");
+            }
+
+            @Override
+            public String toString() {
+                return "filtered";
+            }
+        });
+        archiver.addFileSet(fileSet);
+
+        final DefaultArchivedFileSet archivedFileSet = DefaultArchivedFileSet.archivedFileSet(zip);
+        archivedFileSet.setPrefix("dir/");
+        archiver.addArchivedFileSet(archivedFileSet);
+
+        archiver.createArchive();
+
+        assertFalse(destFile.exists());
+        assertEquals(Archiver.DUPLICATES_SKIP, plan.getDuplicateBehavior());
+
+        final List<ArchivePlan.Entry> entries = plan.getEntries();
+        assertEquals(5, entries.size());
+
+        final ArchivePlan.Entry single = find(entries, file.getPath());
+        assertEquals("single.txt", single.getTarget());
+        assertEquals(0644, single.getMode());
+        assertEquals(file.length(), single.getSize());
+        assertNull(single.getTransformer());
+
+        final ArchivePlan.Entry scanned = find(entries, new File(dir, "a.txt").getPath());
+        assertEquals("dir/a.txt", scanned.getTarget());
+        assertEquals("filtered", scanned.getTransformer());
+        assertEquals(new File(dir, "a.txt").length(), scanned.getSize());
+
+        final ArchivePlan.Entry unpacked = find(entries, zip.getPath() + "!/a.txt");
+        assertEquals("dir/a.txt", unpacked.getTarget());
+        assertEquals(42, unpacked.getSize());
+        assertEquals("dir/c.class", find(entries, zip.getPath() + "!/c.class").getTarget());
+
+        final Map<String, List<ArchivePlan.Entry>> duplicates = plan.getDuplicates();
+        assertEquals(1, duplicates.size());
+        assertEquals(2, duplicates.get("dir/a.txt").size());
+
+        // the duplicate is skipped
+        assertEquals(
+                file.length() + new File(dir, "a.txt").length() + new File(dir, "b.xml").length() + 100,
+                plan.getTotalBytes());
+        assertTrue(plan.getEstimatedSize() > 0);
+        assertTrue(plan.getEstimatedSize() < plan.getTotalBytes() + 4 * 200);
+    }
+
+    @Test
+    public void testShouldPlanTransformationOfPlannedResource() throws Exception {
+        final File destFile = new File(temporaryFolder.getRoot(), "out.jar");
+
+        final File file = temporaryFolder.newFile("file.txt");
+        Files.write(file.toPath(), Arrays.asList("12345"), StandardCharsets.UTF_8);
+
+        final JarArchiver jarArchiver = new JarArchiver();
+        jarArchiver.setDestFile(destFile);
+
+        final ArchivePlan plan = new AssemblyPlan().startArchive("bin", "jar", destFile);
+        final PlanningArchiver archiver = new PlanningArchiver(
+                jarArchiver, mock(ArchiverManager.class), plan, LoggerFactory.getLogger(PlanningArchiverTest.class));
+
+        archiver.addResource(
+                new PlannedFileResource(file, "file.txt", 42, new InputStreamTransformer() {
+                    @Override
+                    public InputStream transform(final PlexusIoResource resource, final InputStream inputStream)
+                            throws IOException {
+                        throw new IOException("the contents must not be read");
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "filtered";
+                    }
+                }),
+                "conf/file.txt",
+                0644);
+
+        final ArchivePlan.Entry entry = find(plan.getEntries(), file.getPath());
+        assertEquals("conf/file.txt", entry.getTarget());
+        assertEquals(42, entry.getSize());
+        assertEquals("filtered", entry.getTransformer());
+    }
+
+    @Test
+    public void testShouldPlanEffectiveModesOfFileSets() throws Exception {
+        final File dir = temporaryFolder.newFolder("dir");
+        Files.write(dir.toPath().resolve("a.txt"), Arrays.asList("123"), StandardCharsets.UTF_8);
+
+        final File zip = temporaryFolder.newFile("lib.zip");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry("c.class"));
+            out.write(new byte[100]);
+        }
+
+        final ArchiverManager archiverManager = mock(ArchiverManager.class);
+        when(archiverManager.getResourceCollection(zip))
+                .thenAnswer(invocation -> new PlexusIoZipFileResourceCollection());
+
+        final File planned = new File(temporaryFolder.getRoot(), "planned.jar");
+        final ArchivePlan plan = new AssemblyPlan().startArchive("bin", "jar", planned);
+        final JarArchiver jarArchiver = new JarArchiver();
+        jarArchiver.setDestFile(planned);
+        addModedFileSets(
+                new PlanningArchiver(
+                        jarArchiver, archiverManager, plan, LoggerFactory.getLogger(PlanningArchiverTest.class)),
+                dir,
+                zip);
+
+        final File written = new File(temporaryFolder.getRoot(), "written.jar");
+        final JarArchiver writer = new JarArchiver();
+        ReflectionUtils.setVariableValueInObject(
+                writer, "archiverManagerProvider", (Provider<ArchiverManager>) () -> archiverManager);
+        writer.setDestFile(written);
+        addModedFileSets(writer, dir, zip);
+        writer.createArchive();
+
+        assertEquals(
+                0600, find(plan.getEntries(), new File(dir, "a.txt").getPath()).getMode());
+        assertEquals(0700, find(plan.getEntries(), dir.getPath()).getMode());
+        try (ZipFile zipFile = new ZipFile(written)) {
+            assertEquals(
+                    zipFile.getEntry("dir/a.txt").getUnixMode() & 07777,
+                    find(plan.getEntries(), new File(dir, "a.txt").getPath()).getMode());
+            assertEquals(
+                    zipFile.getEntry("c.class").getUnixMode() & 07777,
+                    find(plan.getEntries(), zip.getPath() + "!/c.class").getMode());
+        }
+    }
+
+    private static void addModedFileSets(final Archiver archiver, final File dir, final File zip) {
+        archiver.setDefaultFileMode(0640);
+        archiver.addArchivedFileSet(DefaultArchivedFileSet.archivedFileSet(zip));
+
+        archiver.setFileMode(0600);
+        archiver.setDirectoryMode(0700);
+        final DefaultFileSet fileSet = DefaultFileSet.fileSet(dir);
+        fileSet.setPrefix("dir/");
+        archiver.addFileSet(fileSet);
+    }
+
+    private static ArchivePlan.Entry find(final List<ArchivePlan.Entry> entries, final String source) {
+        for (final ArchivePlan.Entry entry : entries) {
+            if (entry.getSource().equals(source)) {
+                return entry;
+            }
+        }
+        throw new AssertionError("No entry from " + source + " in " + entries);
+    }
+}
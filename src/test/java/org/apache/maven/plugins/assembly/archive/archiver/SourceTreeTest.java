@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.archiver;
+
+import java.io.File;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SourceTreeTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testShouldDetectOverlappingRoots() throws Exception {
+        final File root = temporaryFolder.newFolder("root");
+        final SourceTree tree = new SourceTree();
+        tree.addRoot(new File(root, "parent"));
+        tree.addRoot(new File(root, "parent/child"));
+        tree.addRoot(new File(root, "parent-sibling"));
+
+        assertTrue(tree.isShared(new File(root, "parent")));
+        assertTrue(tree.isShared(new File(root, "parent/child")));
+        assertFalse(tree.isShared(new File(root, "parent-sibling")));
+
+        tree.addRoot(new File(root, "parent-sibling"));
+        assertTrue(tree.isShared(new File(root, "parent-sibling")));
+    }
+
+    @Test
+    public void testShouldListDirectoryOnce() throws Exception {
+        final File root = temporaryFolder.newFolder("root");
+        temporaryFolder.newFolder("root", "dir");
+        temporaryFolder.newFile("root/file.txt");
+
+        final SourceTree tree = new SourceTree();
+        final SourceTree.Listing listing = tree.list(root);
+
+        assertTrue(listing.isDirectory("dir"));
+        assertTrue(listing.isFile("file.txt"));
+        assertFalse(listing.isFile("dir"));
+
+        temporaryFolder.newFile("root/late.txt");
+        assertSame(listing, tree.list(root));
+
+        final String[] names = listing.getNames();
+        Arrays.sort(names);
+        assertArrayEquals(new String[] {"dir", "file.txt"}, names);
+    }
+
+    @Test
+    public void testShouldReleaseListingsOnceScanned() throws Exception {
+        final File root = temporaryFolder.newFolder("root");
+        final File child = temporaryFolder.newFolder("root", "child");
+        final File sibling = temporaryFolder.newFolder("sibling");
+
+        final SourceTree tree = new SourceTree();
+        tree.addRoot(root);
+        tree.addRoot(child);
+        tree.addRoot(child);
+        tree.addRoot(sibling);
+        tree.list(root);
+        tree.list(child);
+        tree.list(sibling);
+
+        tree.release(root);
+        assertEquals(2, tree.size());
+        assertTrue(tree.isShared(child));
+
+        tree.release(child);
+        assertEquals(2, tree.size());
+        assertFalse(tree.isShared(child));
+
+        tree.release(child);
+        tree.release(sibling);
+        assertEquals(0, tree.size());
+    }
+}
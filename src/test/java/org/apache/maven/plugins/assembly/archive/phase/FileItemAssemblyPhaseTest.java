@@ -19,14 +19,19 @@
 package org.apache.maven.plugins.assembly.archive.phase;
 
 import java.io.File;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.Arrays;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.maven.model.Model;
 import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
+import org.apache.maven.plugins.assembly.archive.AssemblyPlan;
+import org.apache.maven.plugins.assembly.archive.archiver.PlannedFileResource;
 import org.apache.maven.plugins.assembly.model.Assembly;
 import org.apache.maven.plugins.assembly.model.FileItem;
+import org.apache.maven.plugins.assembly.utils.OpenFileBudget;
 import org.apache.maven.plugins.assembly.utils.TypeConversionUtils;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.archiver.Archiver;
@@ -36,11 +41,14 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -363,6 +371,85 @@ public class FileItemAssemblyPhaseTest {
                         eq(TypeConversionUtils.modeToInt("777", logger)));
     }
 
+    @Test(timeout = 5000)
+    public void testExecute_ShouldOpenConcatenatedSourcesOneAtATimeOnEveryRead() throws Exception {
+        final AssemblerConfigurationSource macCS = mock(AssemblerConfigurationSource.class);
+
+        final File basedir = temporaryFolder.getRoot();
+
+        Files.write(temporaryFolder.newFile("head.txt").toPath(), "head ".getBytes(StandardCharsets.UTF_8));
+        Files.write(temporaryFolder.newFile("tail.txt").toPath(), "tail".getBytes(StandardCharsets.UTF_8));
+
+        when(macCS.getBasedir()).thenReturn(basedir);
+        when(macCS.getProject()).thenReturn(new MavenProject(new Model()));
+        when(macCS.getFinalName()).thenReturn("final-name");
+        when(macCS.getOpenFileBudget()).thenReturn(new OpenFileBudget(1));
+        prepareInterpolators(macCS);
+
+        final Archiver macArchiver = mock(Archiver.class);
+
+        final Assembly assembly = new Assembly();
+        assembly.setId("test");
+
+        final FileItem fi = new FileItem();
+        fi.setSources(Arrays.asList("head.txt", "tail.txt"));
+        fi.setDestName("all.txt");
+        fi.setFiltered(false);
+        fi.setLineEnding("keep");
+
+        assembly.addFile(fi);
+
+        new FileItemAssemblyPhase().execute(assembly, macArchiver, macCS);
+
+        final ArgumentCaptor<PlexusIoResource> resource = ArgumentCaptor.forClass(PlexusIoResource.class);
+        verify(macArchiver).addResource(resource.capture(), eq("all.txt"), anyInt());
+
+        // with a single permit, reading would block if both sources were open at once
+        for (int i = 0; i < 2; i++) {
+            try (InputStream in = resource.getValue().getContents()) {
+                assertEquals("head tail", IOUtils.toString(in, StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Test
+    public void testExecute_ShouldDescribeTransformationOfFilteredFileWhilePlanning() throws Exception {
+        final AssemblerConfigurationSource macCS = mock(AssemblerConfigurationSource.class);
+
+        final File basedir = temporaryFolder.getRoot();
+
+        final File file = temporaryFolder.newFile("file.txt");
+        Files.write(file.toPath(), "${project.version}".getBytes(StandardCharsets.UTF_8));
+
+        when(macCS.getBasedir()).thenReturn(basedir);
+        when(macCS.getAssemblyPlan()).thenReturn(new AssemblyPlan());
+        when(macCS.getProject()).thenReturn(new MavenProject(new Model()));
+        when(macCS.getFinalName()).thenReturn("final-name");
+        prepareInterpolators(macCS);
+
+        final Archiver macArchiver = mock(Archiver.class);
+
+        final Assembly assembly = new Assembly();
+        assembly.setId("test");
+
+        final FileItem fi = new FileItem();
+        fi.setSource("file.txt");
+        fi.setFiltered(true);
+
+        assembly.addFile(fi);
+
+        new FileItemAssemblyPhase().execute(assembly, macArchiver, macCS);
+
+        final ArgumentCaptor<PlexusIoResource> resource = ArgumentCaptor.forClass(PlexusIoResource.class);
+        verify(macArchiver).addResource(resource.capture(), eq("file.txt"), anyInt());
+
+        // the file is neither read nor filtered
+        final PlannedFileResource planned = (PlannedFileResource) resource.getValue();
+        assertEquals("filtered", planned.getTransformation());
+        assertEquals(file.length(), planned.getSize());
+        assertEquals(file, planned.getFile());
+    }
+
     private void prepareInterpolators(AssemblerConfigurationSource configSource) {
         when(configSource.getCommandLinePropsInterpolator()).thenReturn(FixedStringSearchInterpolator.empty());
         when(configSource.getEnvInterpolator()).thenReturn(FixedStringSearchInterpolator.empty());
@@ -24,10 +24,18 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Model;
 import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
 import org.apache.maven.plugins.assembly.InvalidAssemblerConfigurationException;
@@ -35,18 +43,23 @@ import org.apache.maven.plugins.assembly.archive.ArchiveCreationException;
 import org.apache.maven.plugins.assembly.archive.DefaultAssemblyArchiverTest;
 import org.apache.maven.plugins.assembly.artifact.DependencyResolver;
 import org.apache.maven.plugins.assembly.model.Assembly;
+import org.apache.maven.plugins.assembly.model.DependencySet;
 import org.apache.maven.plugins.assembly.model.FileSet;
 import org.apache.maven.plugins.assembly.model.ModuleBinaries;
 import org.apache.maven.plugins.assembly.model.ModuleSet;
 import org.apache.maven.plugins.assembly.model.ModuleSources;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingRequest;
+import org.apache.maven.project.ProjectBuildingResult;
 import org.codehaus.plexus.archiver.Archiver;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -141,7 +154,6 @@ public class ModuleSetAssemblyPhaseTest {
         artifactProject.setFile(new File(basedir, "pom.xml"));
 
         Artifact artifact = mock(Artifact.class);
-        when(artifact.getGroupId()).thenReturn("GROUPID");
         when(artifact.getArtifactId()).thenReturn("artifact");
 
         artifactProject.setArtifact(artifact);
@@ -182,7 +194,6 @@ public class ModuleSetAssemblyPhaseTest {
         artifactProject.setFile(new File(basedir, "pom.xml"));
 
         Artifact artifact = mock(Artifact.class);
-        when(artifact.getGroupId()).thenReturn("GROUPID");
         when(artifact.getArtifactId()).thenReturn("artifact");
 
         artifactProject.setArtifact(artifact);
@@ -251,7 +262,6 @@ public class ModuleSetAssemblyPhaseTest {
 
         Artifact artifact = mock(Artifact.class);
         final File moduleArtifactFile = temporaryFolder.newFile();
-        when(artifact.getGroupId()).thenReturn("GROUPID");
         when(artifact.getFile()).thenReturn(moduleArtifactFile);
         module.setArtifact(artifact);
 
@@ -334,7 +344,6 @@ public class ModuleSetAssemblyPhaseTest {
         when(configSource.getFinalName()).thenReturn("final-name");
 
         Artifact artifact = mock(Artifact.class);
-        when(artifact.getGroupId()).thenReturn("GROUPID");
         when(artifact.getClassifier()).thenReturn("test");
         final File artifactFile = temporaryFolder.newFile();
         when(artifact.getFile()).thenReturn(artifactFile);
@@ -422,7 +431,6 @@ public class ModuleSetAssemblyPhaseTest {
     public void testAddModuleBinaries_ShouldAddOneModuleArtifactAndNoDeps() throws Exception {
         Artifact artifact = mock(Artifact.class);
         final File artifactFile = temporaryFolder.newFile();
-        when(artifact.getGroupId()).thenReturn("GROUPID");
         when(artifact.getFile()).thenReturn(artifactFile);
 
         final AssemblerConfigurationSource configSource = mock(AssemblerConfigurationSource.class);
@@ -469,6 +477,180 @@ public class ModuleSetAssemblyPhaseTest {
         verify(archiver).setFileMode(146);
     }
 
+    @Test
+    public void testAddModuleBinaries_ShouldAddSharedDependencyOnlyOnce() throws Exception {
+        final MavenProject master = createProject("group", "master", "1.0", null);
+        final MavenProject first = createProject("group", "first", "1.0", master);
+        first.setArtifact(createArtifact("first", temporaryFolder.newFile("first.jar")));
+        final MavenProject second = createProject("group", "second", "1.0", master);
+        second.setArtifact(createArtifact("second", temporaryFolder.newFile("second.jar")));
+
+        final File depFile = temporaryFolder.newFile("dep.jar");
+        final Artifact depArtifact = createArtifact("dep", depFile);
+
+        final DependencySet dependencySet = new DependencySet();
+        dependencySet.setOutputDirectory("lib");
+
+        final ModuleBinaries binaries = new ModuleBinaries();
+        binaries.setOutputDirectory("modules");
+        binaries.setUnpack(false);
+        binaries.setOutputFileNameMapping("${module.artifactId}.jar");
+        binaries.addDependencySet(dependencySet);
+
+        final Map<DependencySet, Set<Artifact>> resolved = new LinkedHashMap<>();
+        resolved.put(dependencySet, singleton(depArtifact));
+        when(dependencyResolver.resolveDependencySets(
+                        isNull(), isNull(), any(AssemblerConfigurationSource.class), anyList()))
+                .thenReturn(resolved);
+
+        final MavenSession session = mock(MavenSession.class);
+        when(session.getProjectBuildingRequest()).thenReturn(new DefaultProjectBuildingRequest());
+        final AssemblerConfigurationSource configSource = mock(AssemblerConfigurationSource.class);
+        when(configSource.getMavenSession()).thenReturn(session);
+        DefaultAssemblyArchiverTest.setupInterpolators(configSource, master);
+
+        final ProjectBuildingResult buildingResult = mock(ProjectBuildingResult.class);
+        when(buildingResult.getProject()).thenReturn(createProject("group", "dep", "1.0", null));
+        when(projectBuilder.build(any(Artifact.class), any(ProjectBuildingRequest.class)))
+                .thenReturn(buildingResult);
+
+        final Archiver archiver = mock(Archiver.class);
+
+        this.phase.addModuleBinaries(
+                null, null, binaries, new LinkedHashSet<>(Arrays.asList(first, second)), archiver, configSource);
+
+        verify(archiver).addFile(first.getArtifact().getFile(), "modules/first.jar");
+        verify(archiver).addFile(second.getArtifact().getFile(), "modules/second.jar");
+        verify(archiver, times(1)).addFile(depFile, "lib/dep-1.0.jar");
+        verify(projectBuilder, times(1)).build(any(Artifact.class), any(ProjectBuildingRequest.class));
+    }
+
+    @Test
+    public void testAddModuleBinaries_ParallelProcessingKeepsModuleOrder() throws Exception {
+        final MavenProject master = createProject("group", "master", "1.0", null);
+        final List<MavenProject> modules = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final MavenProject module = createProject("group", "module" + i, "1.0", master);
+            module.setArtifact(createArtifact("module" + i, temporaryFolder.newFile("module" + i + ".jar")));
+            modules.add(module);
+        }
+
+        final File depFile = temporaryFolder.newFile("dep.jar");
+        final Artifact depArtifact = createArtifact("dep", depFile);
+
+        final DependencySet dependencySet = new DependencySet();
+        dependencySet.setOutputDirectory("lib");
+
+        final ModuleBinaries binaries = new ModuleBinaries();
+        binaries.setOutputDirectory("modules");
+        binaries.setUnpack(false);
+        binaries.setOutputFileNameMapping("${module.artifactId}.jar");
+        binaries.addDependencySet(dependencySet);
+
+        final Map<DependencySet, Set<Artifact>> resolved = new LinkedHashMap<>();
+        resolved.put(dependencySet, singleton(depArtifact));
+        when(dependencyResolver.resolveDependencySets(
+                        isNull(), isNull(), any(AssemblerConfigurationSource.class), anyList()))
+                .thenReturn(resolved);
+
+        final MavenSession session = mock(MavenSession.class);
+        when(session.getProjectBuildingRequest()).thenReturn(new DefaultProjectBuildingRequest());
+        final AssemblerConfigurationSource configSource = mock(AssemblerConfigurationSource.class);
+        when(configSource.getMavenSession()).thenReturn(session);
+        when(configSource.isParallelModuleProcessing()).thenReturn(true);
+        DefaultAssemblyArchiverTest.setupInterpolators(configSource, master);
+
+        final ProjectBuildingResult buildingResult = mock(ProjectBuildingResult.class);
+        when(buildingResult.getProject()).thenReturn(createProject("group", "dep", "1.0", null));
+        when(projectBuilder.build(any(Artifact.class), any(ProjectBuildingRequest.class)))
+                .thenReturn(buildingResult);
+
+        final Archiver archiver = mock(Archiver.class);
+
+        this.phase.addModuleBinaries(null, null, binaries, new LinkedHashSet<>(modules), archiver, configSource);
+
+        final InOrder inOrder = inOrder(archiver);
+        for (final MavenProject module : modules) {
+            inOrder.verify(archiver)
+                    .addFile(module.getArtifact().getFile(), "modules/" + module.getArtifactId() + ".jar");
+        }
+        inOrder.verify(archiver).addFile(depFile, "lib/dep-1.0.jar");
+        verify(archiver, times(1)).addFile(depFile, "lib/dep-1.0.jar");
+        verify(projectBuilder, times(1)).build(any(Artifact.class), any(ProjectBuildingRequest.class));
+    }
+
+    @Test(timeout = 20000)
+    public void testAddModuleBinaries_ParallelProcessingRestoresModesOverriddenByOtherModules() throws Exception {
+        final MavenProject master = createProject("group", "master", "1.0", null);
+        final List<MavenProject> modules = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            final MavenProject module = createProject("group", "module" + i, "1.0", master);
+            module.setArtifact(createArtifact("module" + i, temporaryFolder.newFile("module" + i + ".jar")));
+            modules.add(module);
+        }
+
+        final ModuleBinaries binaries = new ModuleBinaries();
+        binaries.setOutputDirectory("modules");
+        binaries.setUnpack(false);
+        binaries.setOutputFileNameMapping("${module.artifactId}.jar");
+        binaries.setFileMode("0600");
+        binaries.setDirectoryMode("0700");
+
+        final AssemblerConfigurationSource configSource = mock(AssemblerConfigurationSource.class);
+        when(configSource.isParallelModuleProcessing()).thenReturn(true);
+        DefaultAssemblyArchiverTest.setupInterpolators(configSource, master);
+
+        // an archiver keeping its modes; the second module waits for the first one to be added, with its modes set
+        final Thread caller = Thread.currentThread();
+        final CountDownLatch firstModuleAdded = new CountDownLatch(1);
+        final CountDownLatch modesRead = new CountDownLatch(1);
+        final AtomicInteger fileMode = new AtomicInteger(-1);
+        final AtomicInteger directoryMode = new AtomicInteger(-1);
+
+        final Archiver archiver = mock(Archiver.class);
+        doAnswer(invocation -> {
+                    fileMode.set(invocation.getArgument(0));
+                    return null;
+                })
+                .when(archiver)
+                .setFileMode(anyInt());
+        doAnswer(invocation -> {
+                    directoryMode.set(invocation.getArgument(0));
+                    return null;
+                })
+                .when(archiver)
+                .setDirectoryMode(anyInt());
+        when(archiver.getOverrideDirectoryMode()).thenAnswer(invocation -> {
+            if (Thread.currentThread().getName().endsWith("-2")) {
+                firstModuleAdded.await(5, TimeUnit.SECONDS);
+            }
+            return directoryMode.get();
+        });
+        when(archiver.getOverrideFileMode()).thenAnswer(invocation -> {
+            if (Thread.currentThread() == caller
+                    || Thread.currentThread().getName().endsWith("-2")) {
+                modesRead.countDown();
+            }
+            return fileMode.get();
+        });
+        doAnswer(invocation -> {
+                    firstModuleAdded.countDown();
+                    modesRead.await(5, TimeUnit.SECONDS);
+                    return null;
+                })
+                .when(archiver)
+                .addFile(any(File.class), anyString(), anyInt());
+
+        this.phase.addModuleBinaries(null, null, binaries, new LinkedHashSet<>(modules), archiver, configSource);
+
+        for (final MavenProject module : modules) {
+            verify(archiver)
+                    .addFile(module.getArtifact().getFile(), "modules/" + module.getArtifactId() + ".jar", 0600);
+        }
+        assertEquals(-1, fileMode.get());
+        assertEquals(-1, directoryMode.get());
+    }
+
     @Test
     public void testAddModuleArtifact_ShouldThrowExceptionWhenArtifactFileIsNull() throws Exception {
         Artifact artifact = mock(Artifact.class);
@@ -484,7 +666,6 @@ public class ModuleSetAssemblyPhaseTest {
     @Test
     public void testAddModuleArtifact_ShouldAddOneArtifact() throws Exception {
         Artifact artifact = mock(Artifact.class);
-        when(artifact.getGroupId()).thenReturn("GROUPID");
         final File artifactFile = temporaryFolder.newFile();
         when(artifact.getFile()).thenReturn(artifactFile);
 
@@ -763,6 +944,15 @@ public class ModuleSetAssemblyPhaseTest {
         }
     }
 
+    private Artifact createArtifact(final String artifactId, final File file) {
+        final DefaultArtifactHandler handler = new DefaultArtifactHandler("jar");
+        handler.setExtension("jar");
+
+        final Artifact artifact = new DefaultArtifact("group", artifactId, "1.0", "compile", "jar", null, handler);
+        artifact.setFile(file);
+        return artifact;
+    }
+
     private MavenProject createProject(
             final String groupId, final String artifactId, final String version, final MavenProject parentProject) {
         final Model model = new Model();
@@ -85,7 +85,6 @@ public class AddArtifactTaskTest {
         String outputLocation = "artifact";
 
         Artifact artifact = mock(Artifact.class);
-        when(artifact.getGroupId()).thenReturn("GROUPID");
         File artifactFile = temporaryFolder.newFile();
         when(artifact.getFile()).thenReturn(artifactFile);
 
@@ -278,7 +278,6 @@ public class AddDependencySetsTaskTest {
         Artifact artifact = mock(Artifact.class);
         final File artifactFile = temporaryFolder.newFile();
         when(artifact.getFile()).thenReturn(artifactFile);
-        when(artifact.getGroupId()).thenReturn("GROUPID");
 
         final Archiver archiver = mock(Archiver.class);
         when(archiver.getDestFile()).thenReturn(new File("junk"));
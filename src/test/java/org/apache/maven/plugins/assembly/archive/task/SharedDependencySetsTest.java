@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.archive.task;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugins.assembly.archive.ArchiveCreationException;
+import org.apache.maven.project.MavenProject;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SharedDependencySetsTest {
+    private final Artifact artifact =
+            new DefaultArtifact("group", "dep", "1", "runtime", "jar", null, new DefaultArtifactHandler("jar"));
+
+    @Test
+    public void testShouldBuildDependencyProjectOnce() throws Exception {
+        final SharedDependencySets shared = new SharedDependencySets();
+        final AtomicInteger builds = new AtomicInteger();
+
+        final MavenProject first = shared.getDependencyProject(artifact, a -> {
+            builds.incrementAndGet();
+            return new MavenProject(new Model());
+        });
+        final MavenProject second = shared.getDependencyProject(artifact, a -> {
+            builds.incrementAndGet();
+            return new MavenProject(new Model());
+        });
+
+        assertSame(first, second);
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    public void testShouldFailWhenInterruptedWaitingForBuild() throws Exception {
+        final SharedDependencySets shared = new SharedDependencySets();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger builds = new AtomicInteger();
+
+        final CompletableFuture<MavenProject> building = CompletableFuture.supplyAsync(() -> {
+            try {
+                return shared.getDependencyProject(artifact, a -> {
+                    builds.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return new MavenProject(new Model());
+                });
+            } catch (final ArchiveCreationException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        started.await();
+
+        Thread.currentThread().interrupt();
+        try {
+            shared.getDependencyProject(artifact, a -> {
+                builds.incrementAndGet();
+                return new MavenProject(new Model());
+            });
+            fail("Should fail when interrupted");
+        } catch (final ArchiveCreationException e) {
+            assertTrue(Thread.interrupted());
+        } finally {
+            release.countDown();
+        }
+
+        building.get();
+        assertEquals(1, builds.get());
+    }
+}
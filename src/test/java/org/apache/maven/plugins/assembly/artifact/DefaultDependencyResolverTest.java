@@ -22,6 +22,7 @@ import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.maven.artifact.Artifact;
@@ -40,7 +41,9 @@ import org.codehaus.plexus.PlexusTestCase;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -154,6 +157,37 @@ public class DefaultDependencyResolverTest extends PlexusTestCase {
         verify(cs).getProject();
     }
 
+    @Test
+    public void test_resolveDependencySets_sharesArtifactsAcrossCalls() throws DependencyResolutionException {
+        final MavenProject project = createMavenProject("main-group", "main-artifact", "1", null);
+        project.setArtifacts(Collections.singleton(newArtifact("g.id", "a-id", "1")));
+
+        final AssemblerConfigurationSource cs = mock(AssemblerConfigurationSource.class);
+        when(cs.getProject()).thenReturn(project);
+        when(cs.getDependencySetResolutionCache()).thenReturn(new DependencySetResolutionCache());
+
+        final DependencySet first = new DependencySet();
+        final DependencySet second = new DependencySet();
+        final DependencySet nonTransitive = new DependencySet();
+        nonTransitive.setUseTransitiveDependencies(false);
+
+        final Map<DependencySet, Set<Artifact>> resolved =
+                resolver.resolveDependencySets(null, cs, Arrays.asList(first, nonTransitive));
+        final Map<DependencySet, Set<Artifact>> resolvedAgain =
+                resolver.resolveDependencySets(null, cs, Collections.singletonList(second));
+
+        assertEquals(project.getArtifacts(), resolved.get(first));
+        assertTrue(resolved.get(nonTransitive).isEmpty());
+        assertSame(resolved.get(first), resolvedAgain.get(second));
+
+        try {
+            resolved.get(first).clear();
+            fail("Expected the resolved artifacts to be unmodifiable");
+        } catch (final UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
     private MavenProject createMavenProject(
             final String groupId, final String artifactId, final String version, final File basedir) {
         final Model model = new Model();
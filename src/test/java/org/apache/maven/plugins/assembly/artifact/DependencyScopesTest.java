@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.artifact;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.apache.maven.plugins.assembly.model.Assembly;
+import org.apache.maven.plugins.assembly.model.DependencySet;
+import org.apache.maven.plugins.assembly.model.FileSet;
+import org.apache.maven.plugins.assembly.model.ModuleBinaries;
+import org.apache.maven.plugins.assembly.model.ModuleSet;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DependencyScopesTest {
+    @Test
+    public void testShouldNotRequireScopesWithoutDependencySets() {
+        final Assembly assembly = new Assembly();
+        assembly.addFileSet(new FileSet());
+
+        final ModuleSet moduleSet = new ModuleSet();
+        moduleSet.setBinaries(new ModuleBinaries());
+        moduleSet.getBinaries().setIncludeDependencies(false);
+        assembly.addModuleSet(moduleSet);
+
+        assertTrue(DependencyScopes.of(Collections.singletonList(assembly)).isEmpty());
+    }
+
+    @Test
+    public void testShouldCombineScopesOfDependencySetsAndModuleBinaries() {
+        final Assembly runtime = new Assembly();
+        runtime.addDependencySet(new DependencySet());
+
+        final Assembly provided = new Assembly();
+        final ModuleSet moduleSet = new ModuleSet();
+        moduleSet.setBinaries(new ModuleBinaries());
+        final DependencySet dependencySet = new DependencySet();
+        dependencySet.setScope("provided");
+        moduleSet.getBinaries().addDependencySet(dependencySet);
+        provided.addModuleSet(moduleSet);
+
+        assertEquals(
+                new HashSet<>(Arrays.asList("compile", "runtime")),
+                DependencyScopes.of(Collections.singletonList(runtime)));
+        assertEquals(
+                new HashSet<>(Arrays.asList("compile", "runtime", "provided")),
+                DependencyScopes.of(Arrays.asList(runtime, provided)));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.artifact;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class IndexedArtifactSetTest {
+    @Test
+    public void testShouldSelectArtifactsInScope() {
+        final Artifact compile = artifact("compile", "compile");
+        final Artifact runtime = artifact("runtime", "runtime");
+        final Artifact test = artifact("test", "test");
+        final IndexedArtifactSet artifacts =
+                IndexedArtifactSet.of(new LinkedHashSet<>(Arrays.asList(compile, runtime, test)));
+
+        assertEquals(Arrays.asList(compile, runtime, test), Arrays.asList(artifacts.toArray()));
+        assertEquals(2, artifacts.indexOf(test));
+        assertEquals(bits(0, 1), artifacts.inScope(Artifact.SCOPE_RUNTIME));
+        assertEquals(bits(0), artifacts.inScope(Artifact.SCOPE_COMPILE));
+        assertEquals(bits(0, 1, 2), artifacts.inScope(Artifact.SCOPE_TEST));
+    }
+
+    @Test
+    public void testShouldHandOutCopiesOfCachedSelections() {
+        final IndexedArtifactSet artifacts = IndexedArtifactSet.of(Arrays.asList(artifact("a", "compile")));
+        assertSame(artifacts, IndexedArtifactSet.of(artifacts));
+
+        final BitSet selection = artifacts.inScope(Artifact.SCOPE_RUNTIME);
+        selection.clear(0);
+
+        assertNotSame(selection, artifacts.inScope(Artifact.SCOPE_RUNTIME));
+        assertEquals(bits(0), artifacts.inScope(Artifact.SCOPE_RUNTIME));
+    }
+
+    private static BitSet bits(final int... indexes) {
+        final BitSet bits = new BitSet();
+        for (final int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
+
+    private static Artifact artifact(final String artifactId, final String scope) {
+        return new DefaultArtifact(
+                "group",
+                artifactId,
+                VersionRange.createFromVersion("1.0"),
+                scope,
+                "jar",
+                null,
+                new DefaultArtifactHandler("jar"));
+    }
+}
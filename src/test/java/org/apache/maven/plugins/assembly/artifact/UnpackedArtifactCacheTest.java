@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.artifact;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.apache.maven.plugins.assembly.event.AssemblyListener;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class UnpackedArtifactCacheTest {
+    private static final long TIME = 1_500_000_000_000L;
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final List<String> events = new ArrayList<>();
+
+    private final AssemblyEvents assemblyEvents = new AssemblyEvents(Collections.singletonList(new AssemblyListener() {
+        @Override
+        public void cacheHit(final String cache, final String key) {
+            events.add("hit " + cache);
+        }
+
+        @Override
+        public void cacheMiss(final String cache, final String key) {
+            events.add("miss " + cache);
+        }
+    }));
+
+    @Test
+    public void testShouldCopyEntriesWithoutCompression() throws Exception {
+        final File directory = temporaryFolder.newFolder("cache");
+        final File jar = createJar("library.jar", "Some content, some content, some content.");
+
+        final File copy = new UnpackedArtifactCache(directory, Long.MAX_VALUE).get(jar, null, assemblyEvents);
+
+        assertNotEquals(jar, copy);
+        assertEquals(directory, copy.getParentFile());
+        assertTrue(copy.getName().endsWith("-UTF-8.jar"));
+
+        try (ZipFile original = new ZipFile(jar);
+                ZipFile stored = new ZipFile(copy)) {
+            final Enumeration<ZipArchiveEntry> originalEntries = original.getEntries();
+            final Enumeration<ZipArchiveEntry> storedEntries = stored.getEntries();
+            while (originalEntries.hasMoreElements()) {
+                final ZipArchiveEntry expected = originalEntries.nextElement();
+                final ZipArchiveEntry actual = storedEntries.nextElement();
+
+                assertEquals(expected.getName(), actual.getName());
+                assertEquals(ZipEntry.STORED, actual.getMethod());
+                assertEquals(expected.getUnixMode(), actual.getUnixMode());
+                assertEquals(expected.getTime(), actual.getTime());
+                assertArrayEquals(read(original, expected), read(stored, actual));
+            }
+            assertFalse(storedEntries.hasMoreElements());
+        }
+
+        // a later build reuses the copy
+        assertEquals(copy, new UnpackedArtifactCache(directory, Long.MAX_VALUE).get(jar, null, assemblyEvents));
+        assertEquals(Arrays.asList("miss unpack", "hit unpack"), events);
+    }
+
+    @Test
+    public void testShouldUseArtifactWhichIsNoZip() throws Exception {
+        final File tarball = temporaryFolder.newFile("sources.tar.gz");
+        Files.write(tarball.toPath(), "no zip".getBytes(StandardCharsets.UTF_8));
+
+        final File directory = temporaryFolder.newFolder("cache");
+        assertSame(tarball, new UnpackedArtifactCache(directory, Long.MAX_VALUE).get(tarball, null, assemblyEvents));
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    public void testShouldEvictLeastRecentlyUsedCopiesNotUsedInThisBuild() throws Exception {
+        final File directory = temporaryFolder.newFolder("cache");
+
+        final File old =
+                new UnpackedArtifactCache(directory, 0).get(createJar("old.jar", "old"), null, AssemblyEvents.none());
+        assertTrue(old.setLastModified(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2)));
+
+        final UnpackedArtifactCache cache = new UnpackedArtifactCache(directory, 0);
+        final File first = cache.get(createJar("first.jar", "first"), null, AssemblyEvents.none());
+        final File second = cache.get(createJar("second.jar", "second"), null, AssemblyEvents.none());
+
+        // the cache is only trimmed once the build is done with it
+        assertTrue(old.isFile());
+
+        cache.trim();
+
+        assertFalse(old.exists());
+        assertTrue(first.isFile());
+        assertTrue(second.isFile());
+    }
+
+    private File createJar(final String name, final String content) throws IOException {
+        final File jar = temporaryFolder.newFile(name);
+        try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(jar)) {
+            final ZipArchiveEntry directory = new ZipArchiveEntry("META-INF/");
+            directory.setTime(TIME);
+            out.putArchiveEntry(directory);
+            out.closeArchiveEntry();
+
+            final ZipArchiveEntry script = new ZipArchiveEntry("bin/run.sh");
+            script.setUnixMode(0100755);
+            script.setTime(TIME);
+            out.putArchiveEntry(script);
+            out.write("#!/bin/sh\n".getBytes(StandardCharsets.UTF_8));
+            out.closeArchiveEntry();
+
+            final ZipArchiveEntry text = new ZipArchiveEntry("content.txt");
+            text.setMethod(ZipEntry.DEFLATED);
+            text.setTime(TIME);
+            out.putArchiveEntry(text);
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+            out.closeArchiveEntry();
+        }
+        return jar;
+    }
+
+    private static byte[] read(final ZipFile zip, final ZipArchiveEntry entry) throws IOException {
+        try (InputStream in = zip.getInputStream(entry)) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+}
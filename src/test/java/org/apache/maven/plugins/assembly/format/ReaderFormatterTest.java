@@ -22,14 +22,19 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Properties;
 import java.util.Set;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Model;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.apache.maven.plugins.assembly.event.AssemblyListener;
 import org.apache.maven.plugins.assembly.testutils.PojoConfigSource;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.filtering.DefaultMavenReaderFilter;
@@ -38,7 +43,9 @@ import org.apache.maven.shared.filtering.MavenReaderFilterRequest;
 import org.codehaus.plexus.archiver.resources.PlexusIoVirtualFileResource;
 import org.codehaus.plexus.components.io.functions.InputStreamTransformer;
 import org.codehaus.plexus.components.io.resources.PlexusIoResource;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -50,6 +57,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class ReaderFormatterTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void lineDosFeed() throws IOException, AssemblyFormattingException {
         final PojoConfigSource cfg = getPojoConfigSource();
@@ -121,6 +131,96 @@ public class ReaderFormatterTest {
         assertThat(filteringRequest.getValue().getAdditionalProperties(), sameInstance(additionalProperties));
     }
 
+    @Test
+    public void filterCache() throws Exception {
+        final File directory = temporaryFolder.newFolder("cache");
+        final List<String> events = new ArrayList<>();
+        final PojoConfigSource cfg = getPojoConfigSource();
+        cfg.setFilteredResourceCache(new FilteredResourceCache(directory, Long.MAX_VALUE));
+        cfg.setAssemblyEvents(new AssemblyEvents(Collections.singletonList(new AssemblyListener() {
+            @Override
+            public void cacheHit(final String cache, final String key) {
+                events.add("hit " + key);
+            }
+
+            @Override
+            public void cacheMiss(final String cache, final String key) {
+                events.add("miss " + key);
+            }
+        })));
+
+        final InputStreamTransformer transformer =
+                ReaderFormatter.getFileSetTransformers(cfg, true, Collections.<String>emptySet(), "dos");
+        final String content = "This is a test for project: ${artifactId}\n";
+        assertEquals(
+                "This is a test for project: anArtifact\r\n",
+                readResultStream(transformer.transform(dummyResource(), payload(content))));
+        assertEquals(
+                "This is a test for project: anArtifact\r\n",
+                readResultStream(transformer.transform(dummyResource(), payload(content))));
+        assertEquals(Arrays.asList("miss fud", "hit fud"), events);
+
+        // another project is filtered again
+        final MavenProject project = createBasicMavenProject();
+        project.getModel().setArtifactId("anotherArtifact");
+        cfg.setMavenProject(project);
+        assertEquals(
+                "This is a test for project: anotherArtifact\r\n",
+                readResultStream(transformer.transform(dummyResource(), payload(content))));
+        assertEquals(Arrays.asList("miss fud", "hit fud", "miss fud"), events);
+
+        // the environment is not part of the fingerprint
+        transformer.transform(dummyResource(), payload("${env.HOME}"));
+        assertEquals(3, events.size());
+        assertEquals(2, directory.list().length);
+    }
+
+    @Test
+    public void filterCacheKeysOnlyReferencedSessionProperties() throws Exception {
+        final File directory = temporaryFolder.newFolder("cache");
+        final List<String> events = new ArrayList<>();
+        final PojoConfigSource cfg = getPojoConfigSource();
+        cfg.setFilteredResourceCache(new FilteredResourceCache(directory, Long.MAX_VALUE));
+        cfg.setAssemblyEvents(new AssemblyEvents(Collections.singletonList(new AssemblyListener() {
+            @Override
+            public void cacheHit(final String cache, final String key) {
+                events.add("hit " + key);
+            }
+
+            @Override
+            public void cacheMiss(final String cache, final String key) {
+                events.add("miss " + key);
+            }
+        })));
+        final Properties systemProperties = new Properties();
+        systemProperties.setProperty("greeting", "Hello");
+        systemProperties.setProperty("sun.java.command", "first");
+        final MavenSession session = mock(MavenSession.class);
+        when(session.getSystemProperties()).thenReturn(systemProperties);
+        when(session.getUserProperties()).thenReturn(new Properties());
+        cfg.setMavenSession(session);
+
+        final InputStreamTransformer transformer =
+                ReaderFormatter.getFileSetTransformers(cfg, true, Collections.<String>emptySet(), "unix");
+        final String content = "${greeting} from ${artifactId}\n";
+        assertEquals(
+                "Hello from anArtifact\n", readResultStream(transformer.transform(dummyResource(), payload(content))));
+
+        // a property the resource does not refer to is not part of the key
+        systemProperties.setProperty("sun.java.command", "second");
+        cfg.setMavenProject(createBasicMavenProject());
+        assertEquals(
+                "Hello from anArtifact\n", readResultStream(transformer.transform(dummyResource(), payload(content))));
+        assertEquals(Arrays.asList("miss fud", "hit fud"), events);
+
+        // a property it refers to is
+        systemProperties.setProperty("greeting", "Hi");
+        cfg.setMavenProject(createBasicMavenProject());
+        assertEquals(
+                "Hi from anArtifact\n", readResultStream(transformer.transform(dummyResource(), payload(content))));
+        assertEquals(Arrays.asList("miss fud", "hit fud", "miss fud"), events);
+    }
+
     private MavenProject createBasicMavenProject() {
         final Model model = new Model();
         model.setArtifactId("anArtifact");
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.artifact.Artifact;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class FlightRecorderEventsTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testShouldNotWrapStreamWithoutRecording() {
+        final InputStream in = new ByteArrayInputStream(new byte[0]);
+
+        assertSame(in, FlightRecorderEvents.transformation("a.txt", true, null, in));
+    }
+
+    @Test
+    public void testShouldRecordEnabledEvents() throws Exception {
+        final File file = temporaryFolder.newFile("recording.jfr");
+        final File artifactFile = temporaryFolder.newFile("a-1.0.jar");
+        Files.write(artifactFile.toPath(), new byte[1234]);
+
+        final Artifact addedArtifact = mock(Artifact.class);
+        when(addedArtifact.getId()).thenReturn("g:a:jar:1.0");
+        when(addedArtifact.getFile()).thenReturn(artifactFile);
+        final Artifact depArtifact = mock(Artifact.class);
+
+        try (Recording recording = new Recording()) {
+            recording.enable("org.apache.maven.plugins.assembly.Phase");
+            recording.enable("org.apache.maven.plugins.assembly.Artifact");
+            recording.enable("org.apache.maven.plugins.assembly.Transformation").withoutThreshold();
+            recording.disable("org.apache.maven.plugins.assembly.DependencyProject");
+            recording.start();
+
+            try (FlightRecorderEvents.Span phase = FlightRecorderEvents.phase("bin", "dependency-sets");
+                    FlightRecorderEvents.Span artifact = FlightRecorderEvents.artifact(addedArtifact, "lib/", false)) {
+                // nothing to do
+            }
+            // disabled by the recording
+            FlightRecorderEvents.dependencyProject(depArtifact).close();
+            verifyNoInteractions(depArtifact);
+
+            try (InputStream in = FlightRecorderEvents.transformation(
+                    "a.txt", true, "unix", new ByteArrayInputStream("content".getBytes(StandardCharsets.UTF_8)))) {
+                assertEquals("content", IOUtils.toString(in, StandardCharsets.UTF_8));
+            }
+
+            recording.stop();
+            recording.dump(file.toPath());
+        }
+
+        final List<RecordedEvent> events = new ArrayList<>();
+        for (final RecordedEvent event : RecordingFile.readAllEvents(file.toPath())) {
+            if (event.getEventType().getName().startsWith("org.apache.maven.plugins.assembly.")) {
+                events.add(event);
+            }
+        }
+        assertEquals(events.toString(), 3, events.size());
+
+        final RecordedEvent phase = find(events, "org.apache.maven.plugins.assembly.Phase");
+        assertEquals("bin", phase.getString("assemblyId"));
+        assertEquals("dependency-sets", phase.getString("phase"));
+
+        final RecordedEvent artifact = find(events, "org.apache.maven.plugins.assembly.Artifact");
+        assertEquals("g:a:jar:1.0", artifact.getString("artifactId"));
+        assertEquals(1234, artifact.getLong("size"));
+        assertTrue(!phase.getStartTime().isAfter(artifact.getStartTime()));
+
+        final RecordedEvent transformation = find(events, "org.apache.maven.plugins.assembly.Transformation");
+        assertEquals("a.txt", transformation.getString("resource"));
+        assertEquals(7, transformation.getLong("bytes"));
+    }
+
+    private static RecordedEvent find(final List<RecordedEvent> events, final String name) {
+        for (final RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                return event;
+            }
+        }
+        throw new AssertionError("No event " + name + " in " + events);
+    }
+}
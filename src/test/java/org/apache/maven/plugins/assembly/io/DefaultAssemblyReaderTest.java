@@ -702,6 +702,35 @@ public class DefaultAssemblyReaderTest {
         assertEquals(assembly2.getId(), result2.getId());
     }
 
+    @Test
+    public void testReadAssemblies_ShouldKeepDescriptorOrderWhenReadingDirectoryInParallel() throws Exception {
+        final List<Assembly> assemblies = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            final Assembly assembly = new Assembly();
+            assembly.setId("test" + i);
+            assemblies.add(assembly);
+        }
+
+        final File basedir = temporaryFolder.getRoot();
+
+        writeAssembliesToFile(assemblies, basedir);
+
+        final List<String> expected = new ArrayList<>();
+        for (final Assembly assembly : performReadAssemblies(basedir, null, null, basedir)) {
+            expected.add(assembly.getId());
+        }
+
+        when(configSource.isParallelDescriptorReading()).thenReturn(true);
+
+        final List<String> actual = new ArrayList<>();
+        for (final Assembly assembly : new DefaultAssemblyReader().readAssemblies(configSource)) {
+            actual.add(assembly.getId());
+        }
+
+        assertEquals(12, actual.size());
+        assertEquals(expected, actual);
+    }
+
     private List<String> writeAssembliesToFile(final List<Assembly> assemblies, final File dir) throws IOException {
         final List<String> files = new ArrayList<>();
 
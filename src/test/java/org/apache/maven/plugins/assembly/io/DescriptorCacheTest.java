@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.io;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.apache.maven.plugins.assembly.event.AssemblyListener;
+import org.apache.maven.plugins.assembly.model.Assembly;
+import org.apache.maven.plugins.assembly.model.io.xpp3.AssemblyXpp3Reader;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+public class DescriptorCacheTest {
+    private static final String DESCRIPTOR = "<assembly><id>${id}</id><formats><format>zip</format></formats>"
+            + "<fileSets><fileSet><outputDirectory>${dir}</outputDirectory></fileSet></fileSets></assembly>";
+
+    private final DescriptorCache cache = new DescriptorCache();
+
+    private final AtomicInteger parses = new AtomicInteger();
+
+    private final List<String> cacheEvents = new ArrayList<>();
+
+    private final AssemblyEvents events = new AssemblyEvents(Collections.singletonList(new AssemblyListener() {
+        @Override
+        public void cacheHit(final String cache, final String key) {
+            cacheEvents.add("hit " + cache);
+        }
+
+        @Override
+        public void cacheMiss(final String cache, final String key) {
+            cacheEvents.add("miss " + cache);
+        }
+    }));
+
+    @Test
+    public void testShouldCopyCachedModelIfInterpolationMatches() throws Exception {
+        final List<String> fields = new ArrayList<>();
+
+        final Assembly first = read(value -> value.replace("${id}", "bin"), fields);
+        final Assembly second = read(value -> value.replace("${id}", "bin"), fields);
+
+        assertEquals(1, parses.get());
+        assertEquals(Arrays.asList("miss descriptor", "hit descriptor"), cacheEvents);
+        assertNotSame(first, second);
+        assertEquals("bin", second.getId());
+        assertEquals("${dir}", second.getFileSets().get(0).getOutputDirectory());
+
+        // the values are interpolated again, in document order, for every read
+        assertEquals(6, fields.size());
+        assertEquals(fields.subList(0, 3), fields.subList(3, 6));
+    }
+
+    @Test
+    public void testShouldParseAgainIfInterpolationDiffers() throws Exception {
+        final List<String> fields = new ArrayList<>();
+
+        assertEquals("bin", read(value -> value.replace("${id}", "bin"), fields).getId());
+        assertEquals("src", read(value -> value.replace("${id}", "src"), fields).getId());
+        assertEquals("bin", read(value -> value.replace("${id}", "bin"), fields).getId());
+
+        assertEquals(2, parses.get());
+        assertEquals(Arrays.asList("miss descriptor", "miss descriptor", "hit descriptor"), cacheEvents);
+    }
+
+    private Assembly read(final UnaryOperator<String> interpolator, final List<String> fields) throws Exception {
+        return cache.read(
+                "assembly",
+                new StringReader(DESCRIPTOR),
+                (source, context) -> {
+                    fields.add(context);
+                    return interpolator.apply(source);
+                },
+                (reader, transformer) -> {
+                    parses.incrementAndGet();
+                    return new AssemblyXpp3Reader(transformer::transform).read(reader);
+                },
+                Assembly.class,
+                events);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class URLCacheTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private HttpServer server;
+
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+
+    private volatile String content = "<assembly><id>first</id></assembly>";
+
+    private volatile String etag = "\"1\"";
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/assembly.xml", exchange -> {
+            final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            requests.add(String.valueOf(ifNoneMatch));
+
+            exchange.getResponseHeaders().add("ETag", etag);
+            if (etag.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                final byte[] body = content.getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testShouldRevalidateCachedHttpDownloads() throws Exception {
+        final File directory = temporaryFolder.newFolder("cache");
+        final URL url = serverUrl();
+
+        final File first = new URLCache(directory, false, AssemblyEvents.none()).get(url);
+        assertEquals("<assembly><id>first</id></assembly>", read(first));
+
+        final File second = new URLCache(directory, false, AssemblyEvents.none()).get(url);
+        assertEquals(first, second);
+        assertEquals("<assembly><id>first</id></assembly>", read(second));
+
+        content = "<assembly><id>second</id></assembly>";
+        etag = "\"2\"";
+        final File third = new URLCache(directory, false, AssemblyEvents.none()).get(url);
+        assertEquals("<assembly><id>second</id></assembly>", read(third));
+
+        // the first request is unconditional, the others send the validator of the cached copy
+        assertEquals(3, requests.size());
+        assertEquals("null", requests.get(0));
+        assertEquals("\"1\"", requests.get(1));
+        assertEquals("\"1\"", requests.get(2));
+    }
+
+    @Test
+    public void testShouldUseCachedHttpDownloadsOffline() throws Exception {
+        final File directory = temporaryFolder.newFolder("cache");
+        final URL url = serverUrl();
+
+        try {
+            new URLCache(directory, true, AssemblyEvents.none()).get(url);
+            fail("Should fail to download in offline mode.");
+        } catch (final IOException e) {
+            // expected
+        }
+
+        new URLCache(directory, false, AssemblyEvents.none()).get(url);
+        content = "<assembly><id>second</id></assembly>";
+        etag = "\"2\"";
+
+        assertEquals(
+                "<assembly><id>first</id></assembly>",
+                read(new URLCache(directory, true, AssemblyEvents.none()).get(url)));
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    public void testShouldUseCachedHttpDownloadsWhenServerFails() throws Exception {
+        final File directory = temporaryFolder.newFolder("cache");
+        final URL url = serverUrl();
+
+        new URLCache(directory, false, AssemblyEvents.none()).get(url);
+        server.stop(0);
+
+        assertEquals(
+                "<assembly><id>first</id></assembly>",
+                read(new URLCache(directory, false, AssemblyEvents.none()).get(url)));
+    }
+
+    @Test
+    public void testShouldUpdateCachedCopyOfChangedFile() throws Exception {
+        final File directory = temporaryFolder.newFolder("cache");
+        final File source = temporaryFolder.newFile("assembly.xml");
+        Files.write(source.toPath(), "<assembly><id>first</id></assembly>".getBytes(StandardCharsets.UTF_8));
+        source.setLastModified(1_000_000_000_000L);
+        final URL url = source.toURI().toURL();
+
+        final File first = new URLCache(directory, true, AssemblyEvents.none()).get(url);
+        assertEquals("<assembly><id>first</id></assembly>", read(first));
+
+        Files.write(source.toPath(), "<assembly><id>second</id></assembly>".getBytes(StandardCharsets.UTF_8));
+        source.setLastModified(1_000_000_000_000L);
+        assertEquals(
+                "<assembly><id>first</id></assembly>",
+                read(new URLCache(directory, true, AssemblyEvents.none()).get(url)));
+
+        source.setLastModified(1_000_000_060_000L);
+        assertEquals(
+                "<assembly><id>second</id></assembly>",
+                read(new URLCache(directory, true, AssemblyEvents.none()).get(url)));
+    }
+
+    private URL serverUrl() throws IOException {
+        return new URL("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":"
+                + server.getAddress().getPort() + "/assembly.xml");
+    }
+
+    private static String read(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.mojos;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Model;
+import org.apache.maven.plugins.assembly.model.Assembly;
+import org.apache.maven.plugins.assembly.model.DependencySet;
+import org.apache.maven.plugins.assembly.model.ModuleBinaries;
+import org.apache.maven.plugins.assembly.model.ModuleSet;
+import org.apache.maven.project.DependencyResolutionRequest;
+import org.apache.maven.project.DependencyResolutionResult;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectDependenciesResolver;
+import org.codehaus.plexus.util.ReflectionUtils;
+import org.eclipse.aether.graph.DefaultDependencyNode;
+import org.eclipse.aether.graph.Dependency;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+public class ScopedAssemblyMojoTest {
+    private final ProjectDependenciesResolver resolver = mock(ProjectDependenciesResolver.class);
+
+    private final MavenSession session = mock(MavenSession.class);
+
+    private final MavenProject project = newProject("main");
+
+    private ScopedAssemblyMojo mojo;
+
+    @Before
+    public void setUp() throws Exception {
+        mojo = new ScopedAssemblyMojo() {
+            @Override
+            public MavenProject getProject() {
+                return project;
+            }
+
+            @Override
+            public MavenSession getMavenSession() {
+                return session;
+            }
+        };
+        ReflectionUtils.setVariableValueInObject(mojo, "dependenciesResolver", resolver);
+    }
+
+    @Test
+    public void testShouldResolveUsedScopesAndRestoreDependencies() throws Exception {
+        final DependencyResolutionResult result = result("main", "lib", "runtime");
+        when(resolver.resolve(any())).thenReturn(result);
+        final Assembly assembly = new Assembly();
+        assembly.addDependencySet(new DependencySet());
+
+        mojo.prepareAssemblies(Collections.singletonList(assembly));
+
+        final ArgumentCaptor<DependencyResolutionRequest> request =
+                ArgumentCaptor.forClass(DependencyResolutionRequest.class);
+        verify(resolver).resolve(request.capture());
+        assertEquals(project, request.getValue().getMavenProject());
+        assertEquals(1, project.getArtifacts().size());
+        assertEquals("lib", project.getArtifacts().iterator().next().getArtifactId());
+        assertEquals(1, project.getDependencyArtifacts().size());
+
+        mojo.restoreDependencies();
+
+        assertTrue(project.getArtifacts().isEmpty());
+        assertNull(project.getDependencyArtifacts());
+    }
+
+    @Test
+    public void testShouldReuseDependenciesResolvedByTheBuild() throws Exception {
+        final Set<Artifact> artifacts = new LinkedHashSet<>();
+        artifacts.add(newArtifact("junit", Artifact.SCOPE_TEST));
+        project.setArtifacts(artifacts);
+        final Assembly assembly = new Assembly();
+        assembly.addDependencySet(new DependencySet());
+
+        mojo.prepareAssemblies(Collections.singletonList(assembly));
+
+        verifyNoInteractions(resolver);
+        assertEquals(artifacts, project.getArtifacts());
+    }
+
+    @Test
+    public void testShouldResolveDependenciesOfModuleBinariesInModules() throws Exception {
+        final MavenProject module = newProject("module");
+        mojo.setReactorProjects(Collections.singletonList(module));
+        when(resolver.resolve(any())).thenAnswer(invocation -> {
+            final MavenProject resolved =
+                    invocation.getArgument(0, DependencyResolutionRequest.class).getMavenProject();
+            return result(resolved.getArtifactId(), resolved.getArtifactId() + "-lib", "compile");
+        });
+
+        final ModuleSet moduleSet = new ModuleSet();
+        moduleSet.setUseAllReactorProjects(true);
+        moduleSet.setIncludeSubModules(false);
+        moduleSet.setBinaries(new ModuleBinaries());
+        final Assembly assembly = new Assembly();
+        assembly.addModuleSet(moduleSet);
+
+        mojo.prepareAssemblies(Collections.singletonList(assembly));
+
+        verify(resolver, times(2)).resolve(any());
+        assertEquals(new HashSet<>(Arrays.asList("module-lib")), artifactIds(module.getArtifacts()));
+        assertEquals(new HashSet<>(Arrays.asList("main-lib")), artifactIds(project.getArtifacts()));
+
+        mojo.restoreDependencies();
+
+        assertTrue(module.getArtifacts().isEmpty());
+    }
+
+    private static DependencyResolutionResult result(
+            final String projectId, final String artifactId, final String scope) {
+        final org.eclipse.aether.artifact.Artifact artifact = new org.eclipse.aether.artifact.DefaultArtifact(
+                        "group", artifactId, "jar", "1")
+                .setFile(new File(artifactId + ".jar"));
+        final DefaultDependencyNode graph = new DefaultDependencyNode(
+                new org.eclipse.aether.artifact.DefaultArtifact("group", projectId, "pom", "1"));
+        graph.setChildren(Collections.singletonList(new DefaultDependencyNode(new Dependency(artifact, scope))));
+
+        final DependencyResolutionResult result = mock(DependencyResolutionResult.class);
+        when(result.getDependencyGraph()).thenReturn(graph);
+        return result;
+    }
+
+    private static Set<String> artifactIds(final Set<Artifact> artifacts) {
+        final Set<String> ids = new HashSet<>();
+        for (final Artifact artifact : artifacts) {
+            ids.add(artifact.getArtifactId());
+        }
+        return ids;
+    }
+
+    private static MavenProject newProject(final String artifactId) {
+        final Model model = new Model();
+        model.setGroupId("group");
+        model.setArtifactId(artifactId);
+        model.setVersion("1");
+        model.setPackaging("pom");
+
+        final MavenProject project = new MavenProject(model);
+        project.setArtifact(newArtifact(artifactId, null));
+        return project;
+    }
+
+    private static Artifact newArtifact(final String artifactId, final String scope) {
+        final Artifact artifact =
+                new DefaultArtifact("group", artifactId, "1", scope, "jar", null, new DefaultArtifactHandler("jar"));
+        artifact.setFile(new File(artifactId + ".jar"));
+        return artifact;
+    }
+}
@@ -26,6 +26,16 @@ import org.apache.maven.archiver.MavenArchiveConfiguration;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugins.assembly.AssemblerConfigurationSource;
+import org.apache.maven.plugins.assembly.archive.AssemblyPlan;
+import org.apache.maven.plugins.assembly.archive.AssemblyReport;
+import org.apache.maven.plugins.assembly.archive.archiver.CompressedEntryCache;
+import org.apache.maven.plugins.assembly.artifact.DependencySetResolutionCache;
+import org.apache.maven.plugins.assembly.artifact.UnpackedArtifactCache;
+import org.apache.maven.plugins.assembly.event.AssemblyEvents;
+import org.apache.maven.plugins.assembly.format.FilteredResourceCache;
+import org.apache.maven.plugins.assembly.utils.InterpolatorCache;
+import org.apache.maven.plugins.assembly.utils.OpenFileBudget;
+import org.apache.maven.plugins.assembly.utils.ReactorModuleIndex;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.shared.filtering.MavenReaderFilter;
 import org.codehaus.plexus.interpolation.fixed.FixedStringSearchInterpolator;
@@ -101,6 +111,18 @@ public class PojoConfigSource implements AssemblerConfigurationSource {
 
     private boolean isIgnoreMissingDescriptor;
 
+    private boolean isParallelDirectoryScanning;
+
+    private boolean isSharedSourceScanning;
+
+    private boolean isPruneExcludedDirectories;
+
+    private boolean isParallelModuleProcessing;
+
+    private boolean isParallelDescriptorReading;
+
+    private boolean isParallelTransformation;
+
     private MavenSession mavenSession;
 
     private FixedStringSearchInterpolator rootInterpolator = FixedStringSearchInterpolator.empty();
@@ -111,6 +133,28 @@ public class PojoConfigSource implements AssemblerConfigurationSource {
 
     private FixedStringSearchInterpolator mainProjectInterpolator;
 
+    private InterpolatorCache interpolatorCache;
+
+    private ReactorModuleIndex reactorModuleIndex;
+
+    private DependencySetResolutionCache dependencySetResolutionCache;
+
+    private File descriptorCacheDirectory;
+
+    private AssemblyReport assemblyReport;
+
+    private AssemblyEvents assemblyEvents;
+
+    private AssemblyPlan assemblyPlan;
+
+    private UnpackedArtifactCache unpackedArtifactCache;
+
+    private CompressedEntryCache compressedEntryCache;
+
+    private FilteredResourceCache filteredResourceCache;
+
+    private OpenFileBudget openFileBudget;
+
     public String getDescriptor() {
         return descriptor;
     }
@@ -432,6 +476,103 @@ public class PojoConfigSource implements AssemblerConfigurationSource {
         this.environmentInterpolator = environmentInterpolator;
     }
 
+    public InterpolatorCache getInterpolatorCache() {
+        return interpolatorCache;
+    }
+
+    public void setInterpolatorCache(InterpolatorCache interpolatorCache) {
+        this.interpolatorCache = interpolatorCache;
+    }
+
+    public ReactorModuleIndex getReactorModuleIndex() {
+        return reactorModuleIndex;
+    }
+
+    public void setReactorModuleIndex(ReactorModuleIndex reactorModuleIndex) {
+        this.reactorModuleIndex = reactorModuleIndex;
+    }
+
+    @Override
+    public DependencySetResolutionCache getDependencySetResolutionCache() {
+        return dependencySetResolutionCache;
+    }
+
+    public void setDependencySetResolutionCache(DependencySetResolutionCache dependencySetResolutionCache) {
+        this.dependencySetResolutionCache = dependencySetResolutionCache;
+    }
+
+    @Override
+    public File getDescriptorCacheDirectory() {
+        return descriptorCacheDirectory;
+    }
+
+    public void setDescriptorCacheDirectory(File descriptorCacheDirectory) {
+        this.descriptorCacheDirectory = descriptorCacheDirectory;
+    }
+
+    @Override
+    public AssemblyReport getAssemblyReport() {
+        return assemblyReport;
+    }
+
+    public void setAssemblyReport(AssemblyReport assemblyReport) {
+        this.assemblyReport = assemblyReport;
+    }
+
+    @Override
+    public AssemblyEvents getAssemblyEvents() {
+        return assemblyEvents;
+    }
+
+    public void setAssemblyEvents(AssemblyEvents assemblyEvents) {
+        this.assemblyEvents = assemblyEvents;
+    }
+
+    @Override
+    public AssemblyPlan getAssemblyPlan() {
+        return assemblyPlan;
+    }
+
+    public void setAssemblyPlan(AssemblyPlan assemblyPlan) {
+        this.assemblyPlan = assemblyPlan;
+    }
+
+    @Override
+    public UnpackedArtifactCache getUnpackedArtifactCache() {
+        return unpackedArtifactCache;
+    }
+
+    public void setUnpackedArtifactCache(UnpackedArtifactCache unpackedArtifactCache) {
+        this.unpackedArtifactCache = unpackedArtifactCache;
+    }
+
+    @Override
+    public CompressedEntryCache getCompressedEntryCache() {
+        return compressedEntryCache;
+    }
+
+    public void setCompressedEntryCache(CompressedEntryCache compressedEntryCache) {
+        this.compressedEntryCache = compressedEntryCache;
+    }
+
+    @Override
+    public FilteredResourceCache getFilteredResourceCache() {
+        return filteredResourceCache;
+    }
+
+    public void setFilteredResourceCache(FilteredResourceCache filteredResourceCache) {
+        this.filteredResourceCache = filteredResourceCache;
+    }
+
+    @Override
+    public OpenFileBudget getOpenFileBudget() {
+        return openFileBudget;
+    }
+
+    public void setOpenFileBudget(OpenFileBudget openFileBudget) {
+        this.openFileBudget = openFileBudget;
+    }
+
     @Override
     public Integer getOverrideUid() {
         return 0;
@@ -451,4 +592,58 @@ public class PojoConfigSource implements AssemblerConfigurationSource {
     public String getOverrideGroupName() {
         return "root";
     }
+
+    @Override
+    public boolean isParallelDirectoryScanning() {
+        return isParallelDirectoryScanning;
+    }
+
+    public void setParallelDirectoryScanning(boolean isParallelDirectoryScanning) {
+        this.isParallelDirectoryScanning = isParallelDirectoryScanning;
+    }
+
+    @Override
+    public boolean isSharedSourceScanning() {
+        return isSharedSourceScanning;
+    }
+
+    public void setSharedSourceScanning(boolean isSharedSourceScanning) {
+        this.isSharedSourceScanning = isSharedSourceScanning;
+    }
+
+    @Override
+    public boolean isPruneExcludedDirectories() {
+        return isPruneExcludedDirectories;
+    }
+
+    public void setPruneExcludedDirectories(boolean isPruneExcludedDirectories) {
+        this.isPruneExcludedDirectories = isPruneExcludedDirectories;
+    }
+
+    @Override
+    public boolean isParallelModuleProcessing() {
+        return isParallelModuleProcessing;
+    }
+
+    public void setParallelModuleProcessing(boolean isParallelModuleProcessing) {
+        this.isParallelModuleProcessing = isParallelModuleProcessing;
+    }
+
+    @Override
+    public boolean isParallelDescriptorReading() {
+        return isParallelDescriptorReading;
+    }
+
+    public void setParallelDescriptorReading(boolean isParallelDescriptorReading) {
+        this.isParallelDescriptorReading = isParallelDescriptorReading;
+    }
+
+    @Override
+    public boolean isParallelTransformation() {
+        return isParallelTransformation;
+    }
+
+    public void setParallelTransformation(boolean isParallelTransformation) {
+        this.isParallelTransformation = isParallelTransformation;
+    }
 }
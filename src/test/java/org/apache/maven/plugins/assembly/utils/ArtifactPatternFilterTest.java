@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.utils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.artifact.versioning.VersionRange;
+import org.apache.maven.shared.artifact.filter.PatternExcludesArtifactFilter;
+import org.apache.maven.shared.artifact.filter.PatternIncludesArtifactFilter;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ArtifactPatternFilterTest {
+    private static final List<List<String>> PATTERN_LISTS = Arrays.asList(
+            Arrays.asList("org.apache:commons"),
+            Arrays.asList("org.apache:*", "org.apache:commons"),
+            Arrays.asList("org.apache:commons", "org.apache:commons"),
+            Arrays.asList("org.apache.*", "org.apache:commons:jar", "junit"),
+            Arrays.asList("*:commons", "org.apache:commons", "!org.codehaus:*"),
+            Arrays.asList("!org.apache:commons", "org.apache:*:*", "*:*:*"),
+            Arrays.asList("org.codehaus:plexus*", "org.codehaus:*:jar", "org.codeh*", "*"),
+            Arrays.asList("org.apache:commons:jar:1.0", "org.apache:commons:*:[1.0,2.0)", "org.?pache"),
+            Arrays.asList("org.apache:commons:jar:tests:1.0", "::jar", "*:*", "!!junit"),
+            Arrays.asList("junit:junit:*", ":junit", "org.apache.maven*:*"));
+
+    @Test
+    public void testShouldFilterLikePatternFilters() {
+        final List<Artifact> artifacts = Arrays.asList(
+                artifact("org.apache", "commons", "1.0", null),
+                artifact("org.apache", "commons", "1.5", "tests"),
+                artifact("org.apache.maven", "maven-core", "3.0", null),
+                artifact("org.codehaus", "plexus-utils", "3.0", null),
+                artifact("junit", "junit", "4.13", null),
+                artifact("com.example", "transitive", "1.0", null, "com.example:app:jar:1.0"),
+                artifact(
+                        "com.example",
+                        "transitive",
+                        "2.0",
+                        null,
+                        "com.example:app:jar:1.0",
+                        "org.apache:commons:jar:tests:1.0",
+                        "com.example:transitive:jar:2.0"));
+
+        for (final List<String> patterns : PATTERN_LISTS) {
+            for (final boolean actTransitively : new boolean[] {false, true}) {
+                final PatternIncludesArtifactFilter expectedIncludes =
+                        new PatternIncludesArtifactFilter(patterns, actTransitively);
+                final ArtifactPatternFilter includes = ArtifactPatternFilter.includes(patterns, actTransitively);
+                final PatternExcludesArtifactFilter expectedExcludes =
+                        new PatternExcludesArtifactFilter(patterns, actTransitively);
+                final ArtifactPatternFilter excludes = ArtifactPatternFilter.excludes(patterns, actTransitively);
+
+                for (final Artifact artifact : artifacts) {
+                    final String message = patterns + " " + actTransitively + " " + artifact;
+                    assertEquals(message, expectedIncludes.include(artifact), includes.include(artifact));
+                    assertEquals(message, expectedExcludes.include(artifact), excludes.include(artifact));
+                }
+
+                assertEquals(patterns.toString(), expectedIncludes.hasMissedCriteria(), includes.hasMissedCriteria());
+                assertEquals(patterns.toString(), expectedExcludes.hasMissedCriteria(), excludes.hasMissedCriteria());
+                assertEquals(expectedIncludes.toString(), includes.toString());
+                assertEquals(expectedExcludes.toString(), excludes.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testShouldReportPatternsShadowedByEarlierPatternsAsMissed() {
+        final List<String> patterns = Arrays.asList("org.apache:*", "org.apache:commons", "org.apache.*");
+        final ArtifactPatternFilter includes = ArtifactPatternFilter.includes(patterns, false);
+
+        includes.include(artifact("org.apache", "commons", "1.0", null));
+        assertEquals(true, includes.hasMissedCriteria());
+
+        includes.include(artifact("org.apache.maven", "maven-core", "3.0", null));
+        assertEquals(true, includes.hasMissedCriteria());
+    }
+
+    private static Artifact artifact(
+            final String groupId,
+            final String artifactId,
+            final String version,
+            final String classifier,
+            final String... dependencyTrail) {
+        final Artifact artifact = new DefaultArtifact(
+                groupId,
+                artifactId,
+                VersionRange.createFromVersion(version),
+                "compile",
+                "jar",
+                classifier,
+                new DefaultArtifactHandler("jar"));
+        if (dependencyTrail.length > 0) {
+            artifact.setDependencyTrail(Arrays.asList(dependencyTrail));
+        }
+        return artifact;
+    }
+}
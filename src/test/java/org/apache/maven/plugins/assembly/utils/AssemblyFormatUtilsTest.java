@@ -37,9 +37,12 @@ import org.junit.runner.RunWith;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -252,6 +255,85 @@ public class AssemblyFormatUtilsTest {
                 "file.${pom.properties.myProperty}", null, null, null, null, null, props, "file.value/");
     }
 
+    @Test
+    public void testEvalFileNameMapping_ShouldReuseInterpolatorsAndResultsOfSharedCache() throws Exception {
+        final MavenProject mainProject = createProject("group", "main", "1", null);
+        final MavenProject artifactProject = createProject("group", "artifact", "2", null);
+
+        final Artifact artifact = mock(Artifact.class);
+        when(artifact.getArtifactId()).thenReturn("artifact");
+
+        final AssemblerConfigurationSource cs = mock(AssemblerConfigurationSource.class);
+        final InterpolatorCache cache = new InterpolatorCache();
+        when(cs.getInterpolatorCache()).thenReturn(cache);
+        DefaultAssemblyArchiverTest.setupInterpolators(cs, mainProject);
+
+        final FixedStringSearchInterpolator artifactProjectInterpolator =
+                cache.artifactProjectInterpolator(artifactProject);
+        assertSame(artifactProjectInterpolator, cache.artifactProjectInterpolator(artifactProject));
+
+        for (int i = 0; i < 3; i++) {
+            final String result = AssemblyFormatUtils.evaluateFileNameMapping(
+                    "${artifact.artifactId}.jar",
+                    artifact,
+                    mainProject,
+                    null,
+                    cs,
+                    cache.moduleProjectInterpolator(null),
+                    cache.artifactProjectInterpolator(artifactProject));
+
+            assertEquals("artifact.jar", result);
+        }
+
+        verify(artifact, times(1)).getArtifactId();
+        verify(artifact, never()).getGroupId();
+        verify(cs, times(1)).getMavenSession();
+    }
+
+    @Test
+    public void testGetOutputDirectory_ShouldReuseResultsOfSharedCache() throws Exception {
+        final MavenProject mainProject = createProject("group", "main", "1", null);
+        final MavenProject artifactProject = createProject("group", "artifact", "2", null);
+
+        final AssemblerConfigurationSource cs = mock(AssemblerConfigurationSource.class);
+        when(cs.getInterpolatorCache()).thenReturn(new InterpolatorCache());
+        DefaultAssemblyArchiverTest.setupInterpolators(cs, mainProject);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(
+                    "artifact/",
+                    AssemblyFormatUtils.getOutputDirectory("${artifact.artifactId}", artifactProject, "final", cs));
+        }
+
+        verify(cs, times(1)).getMainProjectInterpolator();
+    }
+
+    @Test
+    public void testEvalFileNameMapping_ShouldNotShareResultsBetweenArtifacts() throws Exception {
+        final MavenProject mainProject = createProject("group", "main", "1", null);
+
+        final AssemblerConfigurationSource cs = mock(AssemblerConfigurationSource.class);
+        final InterpolatorCache cache = new InterpolatorCache();
+        when(cs.getInterpolatorCache()).thenReturn(cache);
+        DefaultAssemblyArchiverTest.setupInterpolators(cs, mainProject);
+
+        for (final String artifactId : new String[] {"first", "second"}) {
+            final Artifact artifact = mock(Artifact.class);
+            when(artifact.getArtifactId()).thenReturn(artifactId);
+
+            final String result = AssemblyFormatUtils.evaluateFileNameMapping(
+                    "${artifact.artifactId}.jar",
+                    artifact,
+                    mainProject,
+                    null,
+                    cs,
+                    cache.moduleProjectInterpolator(null),
+                    cache.artifactProjectInterpolator(null));
+
+            assertEquals(artifactId + ".jar", result);
+        }
+    }
+
     @Test
     public void
             testEvalFileNameMapping_ShouldResolveArtifactIdAndBaseVersionInOutDir_UseArtifactInfo_WithValidMainProject()
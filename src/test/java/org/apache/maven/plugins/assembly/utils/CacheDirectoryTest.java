@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CacheDirectoryTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testShouldKeepFilesUsedByConcurrentBuildsWithinGracePeriod() throws Exception {
+        final CacheDirectory directory = new CacheDirectory(temporaryFolder.newFolder("cache"), 0, "test file");
+
+        final File stale = write(directory, "stale", TimeUnit.HOURS.toMillis(2));
+        final File recent = write(directory, "recent", TimeUnit.MINUTES.toMillis(10));
+
+        directory.trim();
+
+        assertFalse(stale.exists());
+        assertTrue(recent.isFile());
+    }
+
+    @Test
+    public void testShouldWriteFileThroughTemporaryFile() throws Exception {
+        final CacheDirectory directory = new CacheDirectory(temporaryFolder.newFolder("cache"), 0, "test file");
+        final File file = directory.getFile("value");
+
+        final long size = directory.write(file, tempFile -> {
+            assertFalse(file.exists());
+            Files.write(tempFile, new byte[42]);
+            return Files.size(tempFile);
+        });
+
+        assertEquals(42, size);
+        assertEquals(42, file.length());
+        assertEquals(1, directory.getDirectory().list().length);
+    }
+
+    private static File write(final CacheDirectory directory, final String name, final long age) throws IOException {
+        final File file = directory.getFile(name);
+        directory.write(file, tempFile -> Files.write(tempFile, new byte[1]));
+        assertTrue(file.setLastModified(System.currentTimeMillis() - age));
+        return file;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.plugins.assembly.utils;
+
+import java.util.Collections;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.codehaus.plexus.interpolation.fixed.FixedStringSearchInterpolator;
+import org.codehaus.plexus.interpolation.fixed.MapBasedValueSource;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class FileNameMappingTemplateTest {
+    @Test
+    public void testShouldReadWellKnownExpressionsWithoutInterpolator() {
+        final Artifact artifact = artifact("sources");
+
+        final String result = FileNameMappingTemplate.compile(
+                        "${artifact.groupIdPath}/${artifact.artifactId}-${artifact.version}${dashClassifier?}"
+                                + ".${artifact.extension}")
+                .evaluate(artifact, null, () -> {
+                    fail("interpolator should not be needed");
+                    return null;
+                });
+
+        assertEquals("org/group/artifact-1.0-sources.jar", result);
+    }
+
+    @Test
+    public void testShouldFallBackToInterpolatorForUnknownAndUnresolvedExpressions() {
+        final Artifact artifact = artifact(null);
+        final FixedStringSearchInterpolator interpolator = FixedStringSearchInterpolator.create(
+                new MapBasedValueSource(Collections.singletonMap("artifact.classifier", "handler-classifier")));
+
+        final String result = FileNameMappingTemplate.compile(
+                        "${artifact.artifactId}-${artifact.classifier}-${module.artifactId}-${unknown}")
+                .evaluate(artifact, null, () -> interpolator);
+
+        assertEquals("artifact-handler-classifier-${module.artifactId}-${unknown}", result);
+    }
+
+    @Test
+    public void testShouldKeepUnterminatedExpressionAsLiteral() {
+        final String result = FileNameMappingTemplate.compile("lib/${artifact.artifactId}/${oops")
+                .evaluate(artifact(null), null, FixedStringSearchInterpolator::empty);
+
+        assertEquals("lib/artifact/${oops", result);
+    }
+
+    private static Artifact artifact(final String classifier) {
+        final DefaultArtifactHandler handler = new DefaultArtifactHandler("jar");
+        handler.setExtension("jar");
+        return new DefaultArtifact("org.group", "artifact", "1.0", "compile", "jar", classifier, handler);
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.maven.plugins.assembly.utils;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -178,6 +179,41 @@ public class ProjectUtilsTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    public void testReactorModuleIndex_ShouldKeepDiscoveryOrderAndReuseModuleSets() throws IOException {
+        final MavenProject master = createTestProject("test", "testGroup", "1.0");
+        master.setFile(new File("project/pom.xml"));
+        master.getModel().addModule("module");
+        master.getModel().addModule("other/../second");
+
+        final MavenProject module = createTestProject("module", "testGroup", "1.0");
+        module.setFile(new File("project/module/pom.xml"));
+        module.getModel().addModule("submodule/pom.xml");
+
+        final MavenProject subModule = createTestProject("sub-module", "testGroup", "1.0");
+        subModule.setFile(new File("project/module/submodule/pom.xml"));
+
+        final MavenProject second = createTestProject("second", "testGroup", "1.0");
+        second.setFile(new File("project/second/pom.xml"));
+
+        // the sub-module precedes its parent, so it is only found on the second pass
+        final List<MavenProject> projects = new ArrayList<>();
+        projects.add(subModule);
+        projects.add(master);
+        projects.add(second);
+        projects.add(module);
+
+        final ReactorModuleIndex index = new ReactorModuleIndex(projects);
+
+        final Set<MavenProject> result = index.getModules(master, true, logger);
+        assertEquals(Arrays.asList(second, module, subModule), new ArrayList<>(result));
+
+        result.clear();
+        assertEquals(Arrays.asList(second, module, subModule), new ArrayList<>(index.getModules(master, true, logger)));
+        assertEquals(Arrays.asList(second, module), new ArrayList<>(index.getModules(master, false, logger)));
+        assertEquals(Collections.singletonList(subModule), new ArrayList<>(index.getModules(module, true, logger)));
+    }
+
     private void verifyProjectsPresent(final List<MavenProject> verify, final Set<MavenProject> result) {
         final List<MavenProject> verifyCopy = new ArrayList<>(verify);
 